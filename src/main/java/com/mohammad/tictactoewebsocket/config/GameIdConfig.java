@@ -0,0 +1,34 @@
+package com.mohammad.tictactoewebsocket.config;
+
+import com.mohammad.tictactoewebsocket.utils.GameIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class that provides the {@link GameIdGenerator} new games take their IDs from.
+ * <p>
+ * Game IDs are unique across nodes as long as every node runs with its own {@code tictactoe.node-id}, from 0 to
+ * {@value GameIdGenerator#MAX_NODE_ID}. A single node can keep the default.
+ * </p>
+ * <p>
+ * The beans that create games take the generator as a dependency, so the node ID is set before their first game.
+ * The bean is also the {@link GameIdGenerator#shared() shared} generator, so that games created outside of them
+ * draw from the same sequence.
+ * </p>
+ */
+@Configuration
+public class GameIdConfig {
+
+    /**
+     * Sets the node ID of the shared generator and provides it.
+     *
+     * @param nodeId the ID of this node
+     * @return the generator of this node
+     */
+    @Bean
+    public GameIdGenerator gameIdGenerator(@Value("${tictactoe.node-id:0}") int nodeId) {
+        GameIdGenerator.useNode(nodeId);
+        return GameIdGenerator.shared();
+    }
+}
@@ -0,0 +1,202 @@
+package com.mohammad.tictactoewebsocket.config;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameCommand;
+import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.mohammad.tictactoewebsocket.utils.TokenBucketLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Channel interceptor on the client inbound channel that rate-limits the game commands of each session and player.
+ * <p>
+ * Every {@link GameCommand} has a token bucket per session and, once the session has started or joined a game as
+ * a player, one per player name, so opening more sessions does not raise a player's limit. A command over either
+ * limit is dropped in {@link #preSend(Message, MessageChannel)}, on the thread that read it from the WebSocket,
+ * before it is queued for the controller. The session is told with an {@code error.rateLimited} frame on its
+ * {@code /user/queue/game.state} queue, at most once a second so that the rejections do not become a flood
+ * of their own.
+ * </p>
+ * <p>
+ * The buckets live in {@link TokenBucketLimiter}s, which are lock-free and hold a bounded number of keys.
+ * The buckets of a session are dropped when it disconnects.
+ * </p>
+ */
+@Component
+public class RateLimitInterceptor implements ChannelInterceptor {
+
+    /**
+     * User destination of the rejection frames, the same queue that carries the replies to game commands.
+     */
+    static final String GAME_STATE_QUEUE = "/queue/game.state";
+
+    /**
+     * Session bucket slot that limits the rejection frames sent back to one session.
+     */
+    private static final int ERROR_SLOT = GameCommand.values().length;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final boolean enabled;
+    private final TokenBucketLimiter sessionLimiter;
+    private final TokenBucketLimiter playerLimiter;
+    private final LongAdder[] rejected = new LongAdder[GameCommand.values().length];
+
+    /**
+     * Constructs an interceptor with the default limit of every command.
+     *
+     * @param messagingTemplate the template used to send rejection frames
+     * @param maxKeys           maximum number of sessions, and separately players, with buckets
+     */
+    public RateLimitInterceptor(SimpMessagingTemplate messagingTemplate, int maxKeys) {
+        this(messagingTemplate, true, defaultPerSecond(), defaultBurst(), maxKeys);
+    }
+
+    /**
+     * Constructs an interceptor with the limits configured under {@code tictactoe.ratelimit}.
+     * The messaging template is injected lazily since it is built by the same broker configuration
+     * that registers this interceptor.
+     *
+     * @param environment       the environment holding the per-command limits
+     * @param messagingTemplate the template used to send rejection frames
+     * @param enabled           false to let every command through
+     * @param maxKeys           maximum number of sessions, and separately players, with buckets
+     */
+    @Autowired
+    public RateLimitInterceptor(Environment environment, @Lazy SimpMessagingTemplate messagingTemplate,
+                                @Value("${tictactoe.ratelimit.enabled:true}") boolean enabled,
+                                @Value("${tictactoe.ratelimit.max-keys:100000}") int maxKeys) {
+        this(messagingTemplate, enabled, configuredPerSecond(environment), configuredBurst(environment), maxKeys);
+    }
+
+    private RateLimitInterceptor(SimpMessagingTemplate messagingTemplate, boolean enabled, double[] perSecond,
+                                 int[] burst, int maxKeys) {
+        this.messagingTemplate = messagingTemplate;
+        this.enabled = enabled;
+        this.playerLimiter = new TokenBucketLimiter(perSecond, burst, maxKeys);
+        double[] sessionPerSecond = new double[perSecond.length + 1];
+        int[] sessionBurst = new int[burst.length + 1];
+        System.arraycopy(perSecond, 0, sessionPerSecond, 0, perSecond.length);
+        System.arraycopy(burst, 0, sessionBurst, 0, burst.length);
+        sessionPerSecond[ERROR_SLOT] = 1;
+        sessionBurst[ERROR_SLOT] = 1;
+        this.sessionLimiter = new TokenBucketLimiter(sessionPerSecond, sessionBurst, maxKeys);
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Lets a message through, or drops it if it is a game command over the limit of its session or player.
+     *
+     * @param message the message read from a client
+     * @param channel the inbound channel
+     * @return the message, or null to drop it
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (type == SimpMessageType.DISCONNECT && sessionId != null) {
+            sessionLimiter.remove(sessionId);
+            return message;
+        }
+        if (!enabled || type != SimpMessageType.MESSAGE || sessionId == null) {
+            return message;
+        }
+        GameCommand command = GameCommand.of(SimpMessageHeaderAccessor.getDestination(headers));
+        if (command == null) {
+            return message;
+        }
+
+        long now = System.nanoTime();
+        int slot = command.ordinal();
+        boolean allowed = sessionLimiter.tryAcquire(sessionId, slot, now);
+        if (allowed) {
+            Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(headers);
+            Object player = attributes != null ? attributes.get("player") : null;
+            allowed = player == null || playerLimiter.tryAcquire(player.toString(), slot, now);
+        }
+        if (allowed) {
+            return message;
+        }
+
+        rejected[slot].increment();
+        if (sessionLimiter.tryAcquire(sessionId, ERROR_SLOT, now)) {
+            sendRejection(sessionId, command);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of commands dropped so far.
+     *
+     * @param command the command
+     * @return the commands of that type over the limit
+     */
+    public long getRejectedCount(GameCommand command) {
+        return rejected[command.ordinal()].sum();
+    }
+
+    /**
+     * Tells a session that its command was dropped.
+     */
+    private void sendRejection(String sessionId, GameCommand command) {
+        TicTacToeMessage error = new TicTacToeMessage();
+        error.setType("error.rateLimited");
+        error.setContent("Too many " + command.getKey() + " requests. Please slow down.");
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, GAME_STATE_QUEUE, error, accessor.getMessageHeaders());
+    }
+
+    private static double[] defaultPerSecond() {
+        GameCommand[] commands = GameCommand.values();
+        double[] perSecond = new double[commands.length];
+        for (GameCommand command : commands) {
+            perSecond[command.ordinal()] = command.getDefaultPerSecond();
+        }
+        return perSecond;
+    }
+
+    private static int[] defaultBurst() {
+        GameCommand[] commands = GameCommand.values();
+        int[] burst = new int[commands.length];
+        for (GameCommand command : commands) {
+            burst[command.ordinal()] = command.getDefaultBurst();
+        }
+        return burst;
+    }
+
+    private static double[] configuredPerSecond(Environment environment) {
+        double[] perSecond = new double[GameCommand.values().length];
+        for (GameCommand command : GameCommand.values()) {
+            perSecond[command.ordinal()] = environment.getProperty("tictactoe.ratelimit." + command.getKey() + ".per-second",
+                    Double.class, command.getDefaultPerSecond());
+        }
+        return perSecond;
+    }
+
+    private static int[] configuredBurst(Environment environment) {
+        int[] burst = new int[GameCommand.values().length];
+        for (GameCommand command : GameCommand.values()) {
+            burst[command.ordinal()] = environment.getProperty("tictactoe.ratelimit." + command.getKey() + ".burst",
+                    Integer.class, command.getDefaultBurst());
+        }
+        return burst;
+    }
+}
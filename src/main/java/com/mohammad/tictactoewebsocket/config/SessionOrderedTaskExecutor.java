@@ -0,0 +1,196 @@
+package com.mohammad.tictactoewebsocket.config;
+
+import com.mohammad.tictactoewebsocket.enumeration.ExecutionMode;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Task executor for a STOMP channel that keeps the messages of each WebSocket session in order.
+ * <p>
+ * The channel hands every message to this executor as a {@link MessageHandlingRunnable}. Messages carrying a
+ * session id go to that session's mailbox, which is drained by at most one thread at a time, so the messages of
+ * one session are handled in the order they were sent while different sessions run in parallel.
+ * Other tasks run directly.
+ * </p>
+ * <p>
+ * In {@link ExecutionMode#PLATFORM} mode mailboxes run on this executor's own thread pool. In
+ * {@link ExecutionMode#VIRTUAL} mode every mailbox run gets a new virtual thread, so a session blocked on a slow
+ * consumer never holds a scarce pool thread. Virtual threads need JDK 21; on an older runtime the executor falls
+ * back to the platform pool with a warning in the log, and {@link #getMode()} reports it.
+ * </p>
+ */
+public class SessionOrderedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    /**
+     * Maximum number of messages a mailbox handles before giving its thread back.
+     */
+    private static final int BATCH_SIZE = 32;
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final ExecutionMode mode;
+    private volatile ThreadFactory virtualThreads;
+
+    /**
+     * Constructs an executor in the requested mode.
+     *
+     * @param requestedMode the threads to run on; {@link ExecutionMode#VIRTUAL} falls back to platform threads
+     *                      when the runtime has no virtual threads
+     */
+    public SessionOrderedTaskExecutor(ExecutionMode requestedMode) {
+        this.virtualThreads = requestedMode == ExecutionMode.VIRTUAL ? virtualThreadFactory(getThreadNamePrefix()) : null;
+        this.mode = virtualThreads != null ? ExecutionMode.VIRTUAL : ExecutionMode.PLATFORM;
+        if (requestedMode == ExecutionMode.VIRTUAL && mode == ExecutionMode.PLATFORM) {
+            logger.warn("Virtual threads need JDK 21 or later, running on platform threads instead (Java "
+                    + Runtime.version().feature() + ")");
+        }
+    }
+
+    /**
+     * Starts the platform pool and, in virtual mode, names the virtual threads after the configured prefix.
+     */
+    @Override
+    public void initialize() {
+        super.initialize();
+        if (mode == ExecutionMode.VIRTUAL) {
+            virtualThreads = virtualThreadFactory(getThreadNamePrefix());
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        String sessionId = sessionId(task);
+        if (sessionId == null) {
+            dispatch(task);
+            return;
+        }
+        queuedTasks.incrementAndGet();
+        Mailbox mailbox = mailboxes.compute(sessionId, (id, current) -> {
+            Mailbox target = current != null ? current : new Mailbox(id);
+            target.tasks.add(task);
+            return target;
+        });
+        mailbox.schedule();
+    }
+
+    /**
+     * @return the mode the executor actually runs in
+     */
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the number of session messages waiting in a mailbox
+     */
+    public int getQueuedTaskCount() {
+        return queuedTasks.get();
+    }
+
+    /**
+     * @return the number of session messages being handled
+     */
+    public int getActiveTaskCount() {
+        return activeTasks.get();
+    }
+
+    /**
+     * @return the number of sessions with pending or running messages
+     */
+    public int getActiveSessionCount() {
+        return mailboxes.size();
+    }
+
+    private void dispatch(Runnable task) {
+        ThreadFactory factory = virtualThreads;
+        if (factory != null) {
+            factory.newThread(task).start();
+        } else {
+            super.execute(task);
+        }
+    }
+
+    private static String sessionId(Runnable task) {
+        if (task instanceof MessageHandlingRunnable handlingRunnable) {
+            Message<?> message = handlingRunnable.getMessage();
+            return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        }
+        return null;
+    }
+
+    /**
+     * Looks up {@code Thread.ofVirtual().name(prefix, 0).factory()}, which only exists on JDK 21 and later.
+     * The project still compiles for Java 17, hence the reflection.
+     *
+     * @param namePrefix the prefix of the thread names
+     * @return a factory of virtual threads, or null if the runtime has none
+     */
+    private static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The pending messages of one session. The {@code scheduled} flag makes sure a single thread drains it.
+     */
+    private final class Mailbox implements Runnable {
+        private final String sessionId;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Mailbox(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                dispatch(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            Runnable task;
+            int ran = 0;
+            while (ran < BATCH_SIZE && (task = tasks.poll()) != null) {
+                queuedTasks.decrementAndGet();
+                activeTasks.incrementAndGet();
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    // Report it like an uncaught exception, but keep draining the session's messages.
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                } finally {
+                    activeTasks.decrementAndGet();
+                }
+                ran++;
+            }
+            scheduled.set(false);
+            if (!tasks.isEmpty()) {
+                schedule();
+                return;
+            }
+            // Tasks are only added inside compute(), so an empty mailbox can be dropped safely here.
+            mailboxes.computeIfPresent(sessionId, (id, current) ->
+                    current == this && tasks.isEmpty() && !scheduled.get() ? null : current);
+        }
+    }
+}
@@ -1,20 +1,71 @@
 package com.mohammad.tictactoewebsocket.config;
 
+import com.mohammad.tictactoewebsocket.enumeration.ExecutionMode;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Configuration class for setting up WebSocket messaging in the application.
  * Enables the use of STOMP (Simple Text Oriented Messaging Protocol) for sending messages between clients and servers.
- *
+ * <p>
+ * The inbound and outbound client channels run on {@link SessionOrderedTaskExecutor}s, in the
+ * {@link ExecutionMode} set by {@code tictactoe.channels.mode}. Game commands over their rate limit are
+ * dropped by the {@link RateLimitInterceptor} before they reach the inbound executor.
+ * </p>
+ * <p>
+ * Every session has a limit on the time a send may take and on the bytes buffered while it is blocked. A client
+ * that cannot keep up, typically one of many spectators of a game, is disconnected once it goes over either limit
+ * instead of holding on to its outbound messages.
+ * </p>
  */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final ExecutionMode channelMode;
+    private final int inboundPoolSize;
+    private final int outboundPoolSize;
+    private final int queueCapacity;
+    private final int sendTimeLimit;
+    private final int sendBufferSizeLimit;
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    /**
+     * Constructs the configuration with the channel executor and transport settings.
+     *
+     * @param channelMode         the threads the client channels run on
+     * @param inboundPoolSize     platform threads of the inbound channel (0 = two per available processor)
+     * @param outboundPoolSize    platform threads of the outbound channel (0 = four per available processor)
+     * @param queueCapacity       mailbox runs waiting for a platform thread before the caller runs them itself
+     * @param sendTimeLimit       milliseconds a send to one client may take before the session is closed
+     * @param sendBufferSizeLimit bytes buffered for one client during a slow send before the session is closed
+     * @param rateLimitInterceptor the rate limits of the game commands
+     */
+    public WebSocketConfig(@Value("${tictactoe.channels.mode:PLATFORM}") ExecutionMode channelMode,
+                           @Value("${tictactoe.channels.inbound.pool-size:0}") int inboundPoolSize,
+                           @Value("${tictactoe.channels.outbound.pool-size:0}") int outboundPoolSize,
+                           @Value("${tictactoe.channels.queue-capacity:10000}") int queueCapacity,
+                           @Value("${tictactoe.websocket.send-time-limit-ms:5000}") int sendTimeLimit,
+                           @Value("${tictactoe.websocket.send-buffer-size-limit:131072}") int sendBufferSizeLimit,
+                           RateLimitInterceptor rateLimitInterceptor) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.channelMode = channelMode;
+        this.inboundPoolSize = inboundPoolSize > 0 ? inboundPoolSize : 2 * processors;
+        this.outboundPoolSize = outboundPoolSize > 0 ? outboundPoolSize : 4 * processors;
+        this.queueCapacity = queueCapacity;
+        this.sendTimeLimit = sendTimeLimit;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
     /**
      * Registers the "/ws" endpoint, allowing clients to connect to the WebSocket message broker.
      *
@@ -29,7 +80,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     /**
      * Configures the message broker to use destination prefixes to filter messages.
      * All messages that start with "/app" are routed to the message-handling methods,
-     * while messages that start with "/queue", "/topic", or "/user" are routed to the message broker.
+     * while messages that start with "/queue" or "/topic" are routed to the message broker.
+     * Destinations that start with "/user" are first resolved to the session's own queue, so the broker must not
+     * take them as they are: it would file the subscription under the same id and shadow the resolved one.
      * The message broker broadcasts messages to subscribed clients that are connected to the broker.
      *
      * @param registry the registry for configuring the message broker
@@ -37,7 +90,55 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.setApplicationDestinationPrefixes("/app");
-        registry.enableSimpleBroker("/queue", "/topic", "/user");
+        registry.enableSimpleBroker("/queue", "/topic");
         registry.setUserDestinationPrefix("/user");
     }
+
+    /**
+     * Limits the time and buffer a slow client may take up.
+     *
+     * @param registration the WebSocket transport registration
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimit);
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+
+    /**
+     * Rate-limits the messages received from clients and hands the rest to a session-ordered executor.
+     *
+     * @param registration the inbound channel registration
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(rateLimitInterceptor);
+        registration.taskExecutor(channelExecutor(inboundPoolSize));
+    }
+
+    /**
+     * Hands the messages sent to clients to a session-ordered executor.
+     * It gets more platform threads than the inbound channel since writes can block on slow clients.
+     *
+     * @param registration the outbound channel registration
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor(outboundPoolSize));
+    }
+
+    /**
+     * Creates a channel executor with a fixed platform pool and a bounded queue. A full queue makes the
+     * calling WebSocket thread run the mailbox itself, which slows down reading from that client instead of
+     * queuing without limit. Spring names the threads and starts the executor once it is registered.
+     */
+    private SessionOrderedTaskExecutor channelExecutor(int poolSize) {
+        SessionOrderedTaskExecutor executor = new SessionOrderedTaskExecutor(channelMode);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
 }
@@ -0,0 +1,87 @@
+package com.mohammad.tictactoewebsocket.controller;
+
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.mohammad.tictactoewebsocket.service.GameArchive;
+import com.mohammad.tictactoewebsocket.utils.TicTacToeMessageUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller class exposing the archive of finished games over HTTP.
+ */
+@RestController
+@RequestMapping("/api/archive/games")
+public class GameArchiveController {
+
+    /**
+     * Largest page a query may ask for.
+     */
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Archive of the finished games.
+     */
+    @Autowired
+    private GameArchive gameArchive;
+
+    /**
+     * Returns one page of the finished games, newest first.
+     *
+     * @param player only games of this player, if given
+     * @param from   the earliest finish time in milliseconds, inclusive
+     * @param to     the latest finish time in milliseconds, exclusive
+     * @param page   the page number, starting at 0
+     * @param size   the number of games per page, at most {@value #MAX_PAGE_SIZE}
+     * @return the games on the page
+     */
+    @GetMapping
+    public List<GameRecord> games(@RequestParam(required = false) String player,
+                                  @RequestParam(defaultValue = "0") long from,
+                                  @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+                                  @RequestParam(defaultValue = "0") int page,
+                                  @RequestParam(defaultValue = "20") int size) {
+        return gameArchive.query(player, from, to, page, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Returns a finished game.
+     *
+     * @param gameId the game ID
+     * @return the game, or 404 if it is not archived
+     */
+    @GetMapping("/{gameId}")
+    public ResponseEntity<GameRecord> game(@PathVariable String gameId) {
+        GameRecord record = gameArchive.get(gameId);
+        return record != null ? ResponseEntity.ok(record) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Replays a finished game: the state before the first move, then after each move, as {@code game.replay} messages.
+     *
+     * @param gameId the game ID
+     * @return the states of the game in order, or 404 if it is not archived
+     */
+    @GetMapping("/{gameId}/replay")
+    public ResponseEntity<List<TicTacToeMessage>> replay(@PathVariable String gameId) {
+        GameRecord record = gameArchive.get(gameId);
+        if (record == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<TicTacToeMessage> steps = new ArrayList<>();
+        record.replay(game -> {
+            TicTacToeMessage message = TicTacToeMessageUtil.fromGame(game);
+            message.setType("game.replay");
+            steps.add(message);
+        });
+        return ResponseEntity.ok(steps);
+    }
+}
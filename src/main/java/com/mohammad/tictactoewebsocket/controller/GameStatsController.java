@@ -0,0 +1,34 @@
+package com.mohammad.tictactoewebsocket.controller;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameCategory;
+import com.mohammad.tictactoewebsocket.service.TicTacToeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controller class exposing operational statistics of the games over HTTP.
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class GameStatsController {
+
+    /**
+     * Service class for managing Tic-Tac-Toe game logic.
+     */
+    @Autowired
+    private TicTacToeService gameService;
+
+    /**
+     * Returns how many idle games have been evicted since startup, by category.
+     *
+     * @return the eviction counts
+     */
+    @GetMapping("/evictions")
+    public Map<GameCategory, Long> evictions() {
+        return gameService.getEvictionCounts();
+    }
+}
@@ -0,0 +1,55 @@
+package com.mohammad.tictactoewebsocket.controller;
+
+import com.mohammad.tictactoewebsocket.model.dto.LeaderboardEntry;
+import com.mohammad.tictactoewebsocket.service.Leaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller class exposing the player ratings over HTTP.
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    /**
+     * Largest number of players returned at once.
+     */
+    static final int MAX_LIMIT = 100;
+
+    /**
+     * Ratings of the players.
+     */
+    @Autowired
+    private Leaderboard leaderboard;
+
+    /**
+     * Returns the best rated players.
+     *
+     * @param limit the number of players, at most {@value #MAX_LIMIT}
+     * @return the players, best first
+     */
+    @GetMapping
+    public List<LeaderboardEntry> top(@RequestParam(defaultValue = "10") int limit) {
+        return leaderboard.top(Math.max(0, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * Returns the rating and rank of a player.
+     *
+     * @param player the player
+     * @return the player's entry, or 404 if they have no rated game
+     */
+    @GetMapping("/{player}")
+    public ResponseEntity<LeaderboardEntry> player(@PathVariable String player) {
+        LeaderboardEntry entry = leaderboard.entry(player);
+        return entry != null ? ResponseEntity.ok(entry) : ResponseEntity.notFound().build();
+    }
+}
@@ -1,25 +1,37 @@
 package com.mohammad.tictactoewebsocket.controller;
 
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
 import com.mohammad.tictactoewebsocket.model.TicTacToe;
 import com.mohammad.tictactoewebsocket.model.dto.JoinMessage;
 import com.mohammad.tictactoewebsocket.model.dto.PlayerMessage;
 import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.mohammad.tictactoewebsocket.service.BotPlayer;
+import com.mohammad.tictactoewebsocket.service.PlayerSessionRegistry;
 import com.mohammad.tictactoewebsocket.service.TicTacToeService;
 import com.mohammad.tictactoewebsocket.utils.TicTacToeMessageUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 
 /**
  * Controller class for handling WebSocket messages and managing the Tic-Tac-Toe games.
+ * Replies to start and join requests go to the requesting session only, on its {@code /user/queue/game.state} queue.
+ * Spectators get their first snapshot the same way and the following ones on {@code /topic/game.{id}.watch}.
  */
 @Controller
 public class MessageController {
 
+    /**
+     * User destination for replies and notifications addressed to a single player.
+     */
+    static final String GAME_STATE_QUEUE = "/queue/game.state";
+
     /**
      * Template for sending messages to clients through the message broker.
      */
@@ -33,6 +45,12 @@ public class MessageController {
     @Autowired
     private TicTacToeService gameService;
 
+    /**
+     * Registry of the session each player is connected from.
+     */
+    @Autowired
+    private PlayerSessionRegistry sessionRegistry;
+
     /**
      * Handles a request from a player to join an existing game.
      * If no existing game is available, returns an error message.
@@ -42,7 +60,7 @@ public class MessageController {
      * @return                the updated game state or an error message
      */
     @MessageMapping("/game.join")
-    @SendTo("/topic/game.state")
+    @SendToUser(destinations = GAME_STATE_QUEUE, broadcast = false)
     public Object joinGame(@Payload JoinMessage message, SimpMessageHeaderAccessor headerAccessor) {
         TicTacToe game = gameService.joinGame(message.getPlayer());
         if (game == null) {
@@ -51,6 +69,7 @@ public class MessageController {
 
         headerAccessor.getSessionAttributes().put("gameId", game.getGameId());
         headerAccessor.getSessionAttributes().put("player", message.getPlayer());
+        sessionRegistry.register(message.getPlayer(), headerAccessor.getSessionId(), game.getGameId());
 
         TicTacToeMessage gameMessage = TicTacToeMessageUtil.fromGame(game);
         gameMessage.setType("game.joined");
@@ -60,24 +79,118 @@ public class MessageController {
 
     /**
      * Handles a request from a player to start a new game.
+     * The message may ask for a board size and win length; without them the game is the classic 3x3 board.
+     * If the player was paired with someone already waiting, that opponent is told on their own queue.
      *
-     * @param message         the start message containing the player's name
+     * @param message         the start message containing the player's name and board
      * @param headerAccessor  the header accessor for setting session attributes
-     * @return                the created game state
+     * @return                the created game state or an error message
      */
     @MessageMapping("/game.start")
-    @SendTo("/topic/game.state")
+    @SendToUser(destinations = GAME_STATE_QUEUE, broadcast = false)
     public Object startGame(@Payload JoinMessage message, SimpMessageHeaderAccessor headerAccessor) {
-        TicTacToe game = gameService.startGame(message.getPlayer());
+        BoardVariant variant = BoardVariant.of(message.getSize(), message.getWinLength());
+        if (variant == null) {
+            return createError("Unsupported board: sizes go from " + BoardVariant.MIN_SIZE + " to " + BoardVariant.MAX_SIZE
+                    + " and the win length from 3 to the size.", "error");
+        }
+        TicTacToe game = gameService.startGame(message.getPlayer(), variant);
+
+        headerAccessor.getSessionAttributes().put("gameId", game.getGameId());
+        headerAccessor.getSessionAttributes().put("player", message.getPlayer());
+        sessionRegistry.register(message.getPlayer(), headerAccessor.getSessionId(), game.getGameId());
+
+        if (message.getPlayer().equals(game.getPlayer2())) {
+            TicTacToeMessage opponentMessage = TicTacToeMessageUtil.fromGame(game);
+            opponentMessage.setType("game.join");
+            sendToPlayer(game.getPlayer1(), opponentMessage);
+        }
+
+        TicTacToeMessage gameMessage = TicTacToeMessageUtil.fromGame(game);
+        gameMessage.setType("game.joined");
+        return gameMessage;
+    }
+
+    /**
+     * Handles a request from a player to start a game against the bot.
+     * The difficulty defaults to the perfect-play bot when the message does not name one.
+     *
+     * @param message         the start message containing the player's name and the bot difficulty
+     * @param headerAccessor  the header accessor for setting session attributes
+     * @return                the created game state or an error message
+     */
+    @MessageMapping("/game.startBot")
+    @SendToUser(destinations = GAME_STATE_QUEUE, broadcast = false)
+    public Object startBotGame(@Payload JoinMessage message, SimpMessageHeaderAccessor headerAccessor) {
+        BotDifficulty difficulty = BotDifficulty.of(message.getDifficulty());
+        if (difficulty == null) {
+            return createError("Unknown bot difficulty: " + message.getDifficulty(), "error");
+        }
+        if (BotPlayer.NAME.equals(message.getPlayer())) {
+            return createError("That name is taken by the bot.", "error");
+        }
+        TicTacToe game = gameService.startBotGame(message.getPlayer(), difficulty);
 
         headerAccessor.getSessionAttributes().put("gameId", game.getGameId());
         headerAccessor.getSessionAttributes().put("player", message.getPlayer());
+        sessionRegistry.register(message.getPlayer(), headerAccessor.getSessionId(), game.getGameId());
 
         TicTacToeMessage gameMessage = TicTacToeMessageUtil.fromGame(game);
         gameMessage.setType("game.joined");
         return gameMessage;
     }
 
+    /**
+     * Handles a request from a client for a full snapshot of a game,
+     * sent when it notices a missing move delta.
+     *
+     * @param message  the player message containing the game ID
+     * @return         the current game state or an error message
+     */
+    @MessageMapping("/game.resync")
+    @SendToUser(destinations = GAME_STATE_QUEUE, broadcast = false)
+    public Object resync(@Payload PlayerMessage message) {
+        TicTacToe game = gameService.getGame(message.getGameId());
+        if (game == null) {
+            return createError("Game not found or is already over.", "error");
+        }
+
+        TicTacToeMessage gameMessage = TicTacToeMessageUtil.fromGame(game);
+        gameMessage.setType("game.resync");
+        return gameMessage;
+    }
+
+    /**
+     * Handles a request from a client to watch a game. The client subscribes to the watch topic of the game,
+     * {@code /topic/game.{id}.watch}, and gets the current state in reply. A session watches one game at a time.
+     *
+     * @param message         the player message containing the game ID
+     * @param headerAccessor  the header accessor holding the session ID
+     * @return                the current game state or an error message
+     */
+    @MessageMapping("/game.spectate")
+    @SendToUser(destinations = GAME_STATE_QUEUE, broadcast = false)
+    public Object spectate(@Payload PlayerMessage message, SimpMessageHeaderAccessor headerAccessor) {
+        TicTacToe game = gameService.spectate(headerAccessor.getSessionId(), message.getGameId());
+        if (game == null) {
+            return createError("Game not found or is already over.", "error.spectate");
+        }
+
+        TicTacToeMessage gameMessage = TicTacToeMessageUtil.fromGame(game);
+        gameMessage.setType("game.spectating");
+        return gameMessage;
+    }
+
+    /**
+     * Handles a request from a client to stop watching its game.
+     *
+     * @param headerAccessor  the header accessor holding the session ID
+     */
+    @MessageMapping("/game.unspectate")
+    public void stopSpectating(SimpMessageHeaderAccessor headerAccessor) {
+        gameService.stopSpectating(headerAccessor.getSessionId());
+    }
+
     /**
      * Handles a request when a player voluntarily leaves an ongoing game
      * after that moves made are more than one
@@ -108,6 +221,24 @@ public class MessageController {
         gameService.makeMove(message.getSender(), message.getGameId(), message.getMove(), messagingTemplate);
     }
 
+    /**
+     * Sends a message to the session a player is connected from, if it is known.
+     * Without an authenticated user the session id itself serves as the user name of the destination.
+     *
+     * @param player   the player to notify
+     * @param payload  the message to send
+     */
+    private void sendToPlayer(String player, Object payload) {
+        String sessionId = sessionRegistry.getSessionId(player);
+        if (sessionId == null) {
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, GAME_STATE_QUEUE, payload, accessor.getMessageHeaders());
+    }
+
     /**
      * Creates a standardized error message to be sent to the client.
      *
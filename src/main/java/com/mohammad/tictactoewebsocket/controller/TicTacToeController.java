@@ -1,8 +1,10 @@
 package com.mohammad.tictactoewebsocket.controller;
 
 
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
 import java.util.Arrays;
@@ -16,14 +18,17 @@ public class TicTacToeController {
     /**
      * Handles GET requests to the "/game" endpoint.
      *
-     * Initializes an empty 3x3 Tic-Tac-Toe board and returns the "game" view.
+     * Initializes an empty Tic-Tac-Toe board of the requested size and returns the "game" view.
+     * Sizes outside the supported range fall back to 3x3; the client redraws the board from the game state anyway.
      *
+     * @param size the number of rows and columns
      * @return a ModelAndView object containing the game view and an empty board
      */
     @GetMapping("/game")
-    public ModelAndView game() {
+    public ModelAndView game(@RequestParam(defaultValue = "3") int size) {
         ModelAndView modelAndView = new ModelAndView("game"); // game.html
-        String[][] board = new String[3][3];
+        int side = size >= BoardVariant.MIN_SIZE && size <= BoardVariant.MAX_SIZE ? size : BoardVariant.MIN_SIZE;
+        String[][] board = new String[side][side];
         Arrays.stream(board).forEach(row -> Arrays.fill(row, " "));
         modelAndView.addObject("board", board);
         return modelAndView;
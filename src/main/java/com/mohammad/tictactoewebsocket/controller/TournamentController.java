@@ -0,0 +1,141 @@
+package com.mohammad.tictactoewebsocket.controller;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.TournamentFormat;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.Tournament;
+import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.mohammad.tictactoewebsocket.model.dto.TournamentRequest;
+import com.mohammad.tictactoewebsocket.model.dto.TournamentSummary;
+import com.mohammad.tictactoewebsocket.service.PlayerSessionRegistry;
+import com.mohammad.tictactoewebsocket.service.TicTacToeService;
+import com.mohammad.tictactoewebsocket.service.TournamentService;
+import com.mohammad.tictactoewebsocket.utils.TicTacToeMessageUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controller class creating tournaments and reporting on them over HTTP.
+ * When a round starts, each connected player gets their game as a {@code tournament.game} message on their
+ * {@code /user/queue/game.state} queue and plays it like any other game. In a simulation the bot plays every game.
+ */
+@RestController
+@RequestMapping("/api/tournaments")
+public class TournamentController {
+
+    /**
+     * Largest number of pairings and standings returned at once.
+     */
+    static final int MAX_LIMIT = 100;
+
+    /**
+     * Service running the tournaments.
+     */
+    @Autowired
+    private TournamentService tournamentService;
+
+    /**
+     * Service class for managing Tic-Tac-Toe game logic.
+     */
+    @Autowired
+    private TicTacToeService gameService;
+
+    /**
+     * Registry of the session each player is connected from.
+     */
+    @Autowired
+    private PlayerSessionRegistry sessionRegistry;
+
+    /**
+     * Template for sending messages to clients through the message broker.
+     */
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Creates a tournament and starts its first round.
+     *
+     * @param request the tournament to create
+     * @return the tournament before its first round, or 400 if the request is not valid
+     */
+    @PostMapping
+    public ResponseEntity<TournamentSummary> create(@RequestBody TournamentRequest request) {
+        TournamentFormat format = TournamentFormat.of(request.getFormat());
+        BoardVariant variant = BoardVariant.of(request.getSize(), request.getWinLength());
+        BotDifficulty difficulty = BotDifficulty.of(request.getDifficulty());
+        if (format == null || variant == null || difficulty == null || request.getEntrants() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            Tournament tournament = tournamentService.create(request.getName(), format, request.getEntrants(),
+                    variant, request.getRounds() != null ? request.getRounds() : 0,
+                    (t, games) -> {
+                        for (TicTacToe game : games) {
+                            if (request.isSimulate()) {
+                                gameService.playOut(game.getGameId(), difficulty, messagingTemplate);
+                            } else {
+                                notifyPlayers(game);
+                            }
+                        }
+                    });
+            return ResponseEntity.ok(new TournamentSummary(tournament.getTournamentId(), tournament.getName(),
+                    format, variant.size(), variant.winLength(), tournament.getEntrantCount(), 0,
+                    tournament.getTotalRounds(), false, List.of(), List.of()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Returns the state of a tournament.
+     *
+     * @param tournamentId the tournament ID
+     * @param limit        the number of pairings and standings, at most {@value #MAX_LIMIT}
+     * @return the tournament, or 404 if there is no such tournament
+     */
+    @GetMapping("/{tournamentId}")
+    public CompletableFuture<ResponseEntity<TournamentSummary>> tournament(@PathVariable String tournamentId,
+                                                                           @RequestParam(defaultValue = "10") int limit) {
+        return tournamentService.summary(tournamentId, Math.max(0, Math.min(limit, MAX_LIMIT)))
+                .thenApply(summary -> summary != null
+                        ? ResponseEntity.ok(summary)
+                        : ResponseEntity.notFound().<TournamentSummary>build());
+    }
+
+    /**
+     * Sends a tournament game to both of its players and binds their sessions to it, so a dropped connection is
+     * handled as in any other game. Players who are not connected can still look the game up by its pairing.
+     *
+     * @param game the started game
+     */
+    private void notifyPlayers(TicTacToe game) {
+        TicTacToeMessage message = TicTacToeMessageUtil.fromGame(game);
+        message.setType("tournament.game");
+        for (String player : List.of(game.getPlayer1(), game.getPlayer2())) {
+            String sessionId = sessionRegistry.getSessionId(player);
+            if (sessionId == null) {
+                continue;
+            }
+            sessionRegistry.register(player, sessionId, game.getGameId());
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setSessionId(sessionId);
+            accessor.setLeaveMutable(true);
+            messagingTemplate.convertAndSendToUser(sessionId, MessageController.GAME_STATE_QUEUE, message,
+                    accessor.getMessageHeaders());
+        }
+    }
+}
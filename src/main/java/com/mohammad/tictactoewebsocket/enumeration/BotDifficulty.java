@@ -0,0 +1,44 @@
+package com.mohammad.tictactoewebsocket.enumeration;
+
+/**
+ * Enum representing how well the bot opponent plays.
+ * Each level plays a random legal move with the given chance and a perfect move otherwise.
+ */
+public enum BotDifficulty {
+    EASY("Plays a random move most of the time.", 0.6),
+    MEDIUM("Plays a random move now and then.", 0.25),
+    HARD("Never loses.", 0.0);
+
+    final String description;
+    private final double randomMoveChance;
+
+    BotDifficulty(String description, double randomMoveChance) {
+        this.description = description;
+        this.randomMoveChance = randomMoveChance;
+    }
+
+    /**
+     * @return the chance, between 0 and 1, that the bot plays a random move instead of a perfect one
+     */
+    public double getRandomMoveChance() {
+        return randomMoveChance;
+    }
+
+    /**
+     * Looks up a difficulty by name, ignoring case.
+     *
+     * @param name the name sent by the client, or null for the default
+     * @return the difficulty, {@link #HARD} if no name is given, or null if the name is unknown
+     */
+    public static BotDifficulty of(String name) {
+        if (name == null || name.isBlank()) {
+            return HARD;
+        }
+        for (BotDifficulty difficulty : values()) {
+            if (difficulty.name().equalsIgnoreCase(name)) {
+                return difficulty;
+            }
+        }
+        return null;
+    }
+}
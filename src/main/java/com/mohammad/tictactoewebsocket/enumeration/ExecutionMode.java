@@ -0,0 +1,15 @@
+package com.mohammad.tictactoewebsocket.enumeration;
+
+/**
+ * Enum representing the kind of threads the STOMP channels hand their messages to.
+ */
+public enum ExecutionMode {
+    PLATFORM("A bounded pool of platform threads."),
+    VIRTUAL("One virtual thread per task, on JDK 21 and later.");
+
+    final String description;
+
+    ExecutionMode(String description) {
+        this.description = description;
+    }
+}
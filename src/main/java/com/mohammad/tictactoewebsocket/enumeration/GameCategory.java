@@ -0,0 +1,36 @@
+package com.mohammad.tictactoewebsocket.enumeration;
+
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Enum grouping games by how long they may stay idle before they are evicted.
+ */
+public enum GameCategory {
+    WAITING("Waiting for a second player."),
+    IN_PROGRESS("Being played."),
+    SAVED("Saved for later after an early leave."),
+    FINISHED("Won or tied.");
+
+    final String description;
+
+    GameCategory(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Returns the category a game currently belongs to.
+     *
+     * @param game the game
+     * @return the game's category
+     */
+    public static GameCategory of(TicTacToe game) {
+        if (game.isSavedForLater()) {
+            return SAVED;
+        }
+        return switch (game.getGameState()) {
+            case WAITING_FOR_PLAYER -> WAITING;
+            case PLAYER1_TURN, PLAYER2_TURN -> IN_PROGRESS;
+            case PLAYER1_WON, PLAYER2_WON, TIE -> FINISHED;
+        };
+    }
+}
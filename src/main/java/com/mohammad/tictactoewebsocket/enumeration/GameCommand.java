@@ -0,0 +1,78 @@
+package com.mohammad.tictactoewebsocket.enumeration;
+
+/**
+ * Enum of the game commands clients send to {@code /app}, each with its own rate limit.
+ * <p>
+ * The defaults are what one session, and separately one player, may send: {@code perSecond} on average
+ * with bursts of up to {@code burst} commands. They can be changed with the properties
+ * {@code tictactoe.ratelimit.<key>.per-second} and {@code tictactoe.ratelimit.<key>.burst}.
+ * </p>
+ */
+public enum GameCommand {
+    MOVE("/app/game.move", "move", 10, 10, "Play a move."),
+    START("/app/game.start", "start", 1, 5, "Start or join a game against a person."),
+    START_BOT("/app/game.startBot", "start-bot", 1, 5, "Start a game against the bot."),
+    JOIN("/app/game.join", "join", 1, 5, "Rejoin the player's last game."),
+    RESYNC("/app/game.resync", "resync", 2, 10, "Ask for a full snapshot of a game."),
+    SPECTATE("/app/game.spectate", "spectate", 2, 10, "Start watching a game.");
+
+    final String description;
+    private final String destination;
+    private final String key;
+    private final double defaultPerSecond;
+    private final int defaultBurst;
+
+    GameCommand(String destination, String key, double defaultPerSecond, int defaultBurst, String description) {
+        this.destination = destination;
+        this.key = key;
+        this.defaultPerSecond = defaultPerSecond;
+        this.defaultBurst = defaultBurst;
+        this.description = description;
+    }
+
+    /**
+     * Returns the command sent to a destination.
+     *
+     * @param destination the destination of a client message
+     * @return the command, or null if the destination is not a rate-limited command
+     */
+    public static GameCommand of(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        for (GameCommand command : values()) {
+            if (command.destination.equals(destination)) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the {@code /app} destination of the command
+     */
+    public String getDestination() {
+        return destination;
+    }
+
+    /**
+     * @return the name of the command in the rate limit properties
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the commands allowed per second unless configured otherwise
+     */
+    public double getDefaultPerSecond() {
+        return defaultPerSecond;
+    }
+
+    /**
+     * @return the burst allowed unless configured otherwise
+     */
+    public int getDefaultBurst() {
+        return defaultBurst;
+    }
+}
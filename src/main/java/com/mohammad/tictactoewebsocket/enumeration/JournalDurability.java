@@ -0,0 +1,17 @@
+package com.mohammad.tictactoewebsocket.enumeration;
+
+/**
+ * Enum representing how far the game journal goes to keep a command once it has been accepted.
+ */
+public enum JournalDurability {
+    NONE("No journal is kept; only snapshots survive a restart."),
+    ASYNC("Records are written every flush interval and left to the operating system to put on disk."),
+    GROUP("Records are written and forced to disk every flush interval; a crash loses at most the last interval."),
+    SYNC("A command returns only once its record is on disk, forced together with the records of other commands.");
+
+    final String description;
+
+    JournalDurability(String description) {
+        this.description = description;
+    }
+}
@@ -0,0 +1,33 @@
+package com.mohammad.tictactoewebsocket.enumeration;
+
+/**
+ * Enum representing how the players of a tournament are paired from round to round.
+ */
+public enum TournamentFormat {
+    SINGLE_ELIMINATION("Winners go on to the next round until one player is left."),
+    SWISS("Everyone plays every round against a player with a similar score.");
+
+    final String description;
+
+    TournamentFormat(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Looks up a format by name, ignoring case.
+     *
+     * @param name the name sent by the client, or null for the default
+     * @return the format, {@link #SINGLE_ELIMINATION} if no name is given, or null if the name is unknown
+     */
+    public static TournamentFormat of(String name) {
+        if (name == null || name.isBlank()) {
+            return SINGLE_ELIMINATION;
+        }
+        for (TournamentFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,268 @@
+package com.mohammad.tictactoewebsocket.model;
+
+/**
+ * Compact square Tic-Tac-Toe board of any {@link BoardVariant}.
+ * <p>
+ * Each player's marks are kept in a bitset of {@code long} words where bit {@code i} stands for cell {@code i}
+ * (row {@code i / size}, column {@code i % size}), so a 19x19 board takes six words per player. A move only
+ * needs to be checked along the four lines through it, which {@link #isWinningMove(int, boolean)} does by walking
+ * at most {@code winLength - 1} cells each way. The number of moves is kept in a counter.
+ * </p>
+ * <p>
+ * The classic 3x3 board also has a 9-bit mask view ({@link #getXMask()}, {@link #getOMask()}, {@link #isWin(int)})
+ * for the bot's position table.
+ * </p>
+ */
+public class BitBoard {
+
+    /**
+     * Number of cells on the classic 3x3 board.
+     */
+    public static final int CELLS = 9;
+
+    /**
+     * The eight winning lines of the classic board: three rows, three columns and two diagonals.
+     */
+    public static final int[] WIN_MASKS = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000, // rows
+            0b001_001_001, 0b010_010_010, 0b100_100_100, // columns
+            0b100_010_001, 0b001_010_100                 // diagonals
+    };
+
+    /**
+     * Row and column steps of the four line directions: across, down, down-right and down-left.
+     */
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    private final int size;
+    private final int winLength;
+    private final long[] xWords;
+    private final long[] oWords;
+    private int moveCount;
+
+    /**
+     * Constructs an empty classic 3x3 board.
+     */
+    public BitBoard() {
+        this(BoardVariant.CLASSIC);
+    }
+
+    /**
+     * Constructs an empty board.
+     *
+     * @param variant the board size and win length
+     */
+    public BitBoard(BoardVariant variant) {
+        this.size = variant.size();
+        this.winLength = variant.winLength();
+        int words = (variant.cells() + Long.SIZE - 1) / Long.SIZE;
+        this.xWords = new long[words];
+        this.oWords = new long[words];
+    }
+
+    /**
+     * Places a mark on a free cell.
+     *
+     * @param cell the cell (0 to size * size - 1)
+     * @param x    true to place an "X", false to place an "O"
+     * @return true if the mark was placed, false if the cell is taken or out of range
+     */
+    public boolean place(int cell, boolean x) {
+        if (cell < 0 || cell >= size * size) {
+            return false;
+        }
+        int word = cell >>> 6;
+        long bit = 1L << cell;
+        if (((xWords[word] | oWords[word]) & bit) != 0) {
+            return false;
+        }
+        if (x) {
+            xWords[word] |= bit;
+        } else {
+            oWords[word] |= bit;
+        }
+        moveCount++;
+        return true;
+    }
+
+    /**
+     * Checks whether the mark in a cell is part of a winning line. Only the four lines through the cell are
+     * looked at, so this is the check to run after each move.
+     *
+     * @param cell the cell just played
+     * @param x    true if the mark is an "X", false for an "O"
+     * @return true if the player has {@code winLength} in a row through the cell
+     */
+    public boolean isWinningMove(int cell, boolean x) {
+        long[] marks = x ? xWords : oWords;
+        if (!isSet(marks, cell)) {
+            return false;
+        }
+        int row = cell / size;
+        int col = cell % size;
+        for (int[] direction : DIRECTIONS) {
+            int run = 1 + count(marks, row, col, direction[0], direction[1])
+                    + count(marks, row, col, -direction[0], -direction[1]);
+            if (run >= winLength) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a player's marks complete any winning line, by checking the lines through every mark.
+     * After a move, {@link #isWinningMove(int, boolean)} gives the same answer for a fraction of the work.
+     *
+     * @param x true to check the "X" marks, false for the "O" marks
+     * @return true if the player has {@code winLength} in a row
+     */
+    public boolean hasWon(boolean x) {
+        long[] marks = x ? xWords : oWords;
+        for (int word = 0; word < marks.length; word++) {
+            long bits = marks[word];
+            while (bits != 0) {
+                int cell = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                if (isWinningMove(cell, x)) {
+                    return true;
+                }
+                bits &= bits - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a mask of the classic board contains any winning line.
+     *
+     * @param mask a 9-bit mask of one player's marks
+     * @return true if the mask contains three in a row
+     */
+    public static boolean isWin(int mask) {
+        for (int line : WIN_MASKS) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if every cell is taken
+     */
+    public boolean isFull() {
+        return moveCount == size * size;
+    }
+
+    /**
+     * @return the number of marks on the board
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * @return the number of rows and columns
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the marks in a row needed to win
+     */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /**
+     * @return the "X" cells of a classic 3x3 board as a 9-bit mask
+     */
+    public int getXMask() {
+        return (int) xWords[0];
+    }
+
+    /**
+     * @return the "O" cells of a classic 3x3 board as a 9-bit mask
+     */
+    public int getOMask() {
+        return (int) oWords[0];
+    }
+
+    /**
+     * Returns the mark in a cell.
+     *
+     * @param cell the cell (0 to size * size - 1)
+     * @return "X", "O" or " " for an empty cell
+     */
+    public String getCell(int cell) {
+        if (isSet(xWords, cell)) {
+            return "X";
+        }
+        return isSet(oWords, cell) ? "O" : " ";
+    }
+
+    /**
+     * Builds the size x size string view of the board used by the messages sent to clients.
+     *
+     * @return a new array of "X", "O" and " " cells
+     */
+    public String[][] toArray() {
+        String[][] board = new String[size][size];
+        for (int cell = 0; cell < size * size; cell++) {
+            board[cell / size][cell % size] = getCell(cell);
+        }
+        return board;
+    }
+
+    /**
+     * Builds a board from its string view, with three in a row to win.
+     *
+     * @param board a square array of "X", "O" and " " cells
+     * @return the equivalent bit board
+     */
+    public static BitBoard fromArray(String[][] board) {
+        return fromArray(board, 3);
+    }
+
+    /**
+     * Builds a board from its string view.
+     *
+     * @param board     a square array of "X", "O" and " " cells
+     * @param winLength the marks in a row needed to win
+     * @return the equivalent bit board
+     */
+    public static BitBoard fromArray(String[][] board, int winLength) {
+        int size = board.length;
+        BitBoard bitBoard = new BitBoard(new BoardVariant(size, winLength));
+        for (int cell = 0; cell < size * size; cell++) {
+            String mark = board[cell / size][cell % size];
+            if ("X".equals(mark)) {
+                bitBoard.place(cell, true);
+            } else if ("O".equals(mark)) {
+                bitBoard.place(cell, false);
+            }
+        }
+        return bitBoard;
+    }
+
+    /**
+     * Counts the consecutive marks next to a cell in one direction, stopping at the edge or after
+     * {@code winLength - 1} marks.
+     */
+    private int count(long[] marks, int row, int col, int rowStep, int colStep) {
+        int count = 0;
+        int r = row + rowStep;
+        int c = col + colStep;
+        while (count < winLength - 1 && r >= 0 && r < size && c >= 0 && c < size && isSet(marks, r * size + c)) {
+            count++;
+            r += rowStep;
+            c += colStep;
+        }
+        return count;
+    }
+
+    private static boolean isSet(long[] words, int cell) {
+        return (words[cell >>> 6] & (1L << cell)) != 0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mohammad.tictactoewebsocket.model;
+
+/**
+ * The rules of a game: the side of its square board and how many marks in a row win.
+ * Players are only paired with others who asked for the same variant.
+ *
+ * @param size      the number of rows and columns, from {@value #MIN_SIZE} to {@value #MAX_SIZE}
+ * @param winLength the marks in a row, column or diagonal needed to win, from 3 to {@code size}
+ */
+public record BoardVariant(int size, int winLength) {
+
+    public static final int MIN_SIZE = 3;
+    public static final int MAX_SIZE = 19;
+
+    /**
+     * The classic 3x3 board with three in a row.
+     */
+    public static final BoardVariant CLASSIC = new BoardVariant(3, 3);
+
+    public BoardVariant {
+        if (!isValid(size, winLength)) {
+            throw new IllegalArgumentException("Unsupported board " + size + "x" + size + " with " + winLength + " in a row");
+        }
+    }
+
+    /**
+     * Looks up the variant requested by a client.
+     *
+     * @param size      the board size, or null for the classic board
+     * @param winLength the win length, or null for five in a row on large boards and the full side on small ones
+     * @return the variant, or null if the values are out of range
+     */
+    public static BoardVariant of(Integer size, Integer winLength) {
+        if (size == null && winLength == null) {
+            return CLASSIC;
+        }
+        int side = size != null ? size : MIN_SIZE;
+        int length = winLength != null ? winLength : Math.min(side, 5);
+        return isValid(side, length) ? new BoardVariant(side, length) : null;
+    }
+
+    /**
+     * @return the number of cells on the board
+     */
+    public int cells() {
+        return size * size;
+    }
+
+    private static boolean isValid(int size, int winLength) {
+        return size >= MIN_SIZE && size <= MAX_SIZE && winLength >= 3 && winLength <= size;
+    }
+}
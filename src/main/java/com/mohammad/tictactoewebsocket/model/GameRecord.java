@@ -0,0 +1,97 @@
+package com.mohammad.tictactoewebsocket.model;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+
+import java.util.function.Consumer;
+
+/**
+ * The outcome of a finished game: its players, board, moves in order, result and times.
+ * <p>
+ * A record is published as an application event when a game ends, either on the board or because a player left,
+ * and is what the game archive stores. {@link #replay(Consumer)} plays the moves again through {@link TicTacToe}.
+ * </p>
+ *
+ * @param gameId        the game ID
+ * @param player1       the player who played "X" and moved first
+ * @param player2       the player who played "O"
+ * @param size          the number of rows and columns of the board
+ * @param winLength     the marks in a row needed to win
+ * @param botDifficulty the difficulty of the bot playing as player 2, or null if player 2 is a person
+ * @param result        {@link GameState#PLAYER1_WON}, {@link GameState#PLAYER2_WON} or {@link GameState#TIE}
+ * @param forfeited     true if the game was won because the loser left, rather than on the board
+ * @param createdAt     time the game was created in milliseconds
+ * @param finishedAt    time the game ended in milliseconds
+ * @param moves         the cells played, in order
+ */
+public record GameRecord(String gameId, String player1, String player2, int size, int winLength,
+                         BotDifficulty botDifficulty, GameState result, boolean forfeited, long createdAt,
+                         long finishedAt, int[] moves) {
+
+    /**
+     * Takes the record of a game that has just ended.
+     *
+     * @param game       the finished game
+     * @param forfeited  true if a player left the game rather than losing it on the board
+     * @param finishedAt time the game ended in milliseconds
+     * @return the record of the game
+     */
+    public static GameRecord of(TicTacToe game, boolean forfeited, long finishedAt) {
+        return new GameRecord(game.getGameId(), game.getPlayer1(), game.getPlayer2(), game.getSize(),
+                game.getWinLength(), game.getBotDifficulty(), game.getGameState(), forfeited, game.getCreatedAt(),
+                finishedAt, game.getMoves());
+    }
+
+    /**
+     * @return the player who won, or null on a tie
+     */
+    public String winner() {
+        return switch (result) {
+            case PLAYER1_WON -> player1;
+            case PLAYER2_WON -> player2;
+            default -> null;
+        };
+    }
+
+    /**
+     * @return the player who lost, or null on a tie
+     */
+    public String loser() {
+        return switch (result) {
+            case PLAYER1_WON -> player2;
+            case PLAYER2_WON -> player1;
+            default -> null;
+        };
+    }
+
+    /**
+     * Rebuilds the game move by move. The callback sees the game once before the first move and again after every
+     * move, always the same instance. A forfeit is applied after the last move.
+     *
+     * @param afterMove called with the game at each step, or null
+     * @return the game in its final state
+     */
+    public TicTacToe replay(Consumer<TicTacToe> afterMove) {
+        TicTacToe game = new TicTacToe(player1, player2, new BoardVariant(size, winLength));
+        game.setGameId(gameId);
+        game.setBotDifficulty(botDifficulty);
+        game.setGameState(GameState.PLAYER1_TURN);
+        if (afterMove != null) {
+            afterMove.accept(game);
+        }
+        for (int move : moves) {
+            game.makeMove(game.getTurn(), move);
+            if (afterMove != null) {
+                afterMove.accept(game);
+            }
+        }
+        if (forfeited) {
+            game.setWinner(winner());
+            game.setGameState(result);
+            if (afterMove != null) {
+                afterMove.accept(game);
+            }
+        }
+        return game;
+    }
+}
@@ -0,0 +1,91 @@
+package com.mohammad.tictactoewebsocket.model;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+
+/**
+ * A change to the games held in memory, as written to the game journal.
+ * <p>
+ * Entries are applied again on startup on top of the last snapshot. A snapshot may already hold the effect of some
+ * of the entries that follow its position, so applying an entry must leave the game unchanged when it has already
+ * been applied: a game is only created if missing, a move only played at its position in the history, and so on.
+ * </p>
+ */
+public sealed interface JournalEntry {
+
+    /**
+     * @return the game the entry is about
+     */
+    String gameId();
+
+    /**
+     * A game was created, waiting for an opponent or with both seats filled.
+     *
+     * @param gameId        the game ID
+     * @param player1       the first player
+     * @param player2       the second player, or null if the game waits for one
+     * @param size          the number of rows and columns of the board
+     * @param winLength     the marks in a row needed to win
+     * @param botDifficulty the difficulty of the bot playing as player 2, or null
+     * @param state         the state the game started in
+     * @param createdAt     time the game was created in milliseconds
+     */
+    record Created(String gameId, String player1, String player2, int size, int winLength,
+                   BotDifficulty botDifficulty, GameState state, long createdAt) implements JournalEntry {
+
+        /**
+         * Takes the entry of a game that has just been created.
+         *
+         * @param game the new game
+         * @return the entry
+         */
+        public static Created of(TicTacToe game) {
+            return new Created(game.getGameId(), game.getPlayer1(), game.getPlayer2(), game.getSize(),
+                    game.getWinLength(), game.getBotDifficulty(), game.getGameState(), game.getCreatedAt());
+        }
+    }
+
+    /**
+     * A second player was seated in a waiting game, which started.
+     *
+     * @param gameId  the game ID
+     * @param player2 the player who joined
+     */
+    record Seated(String gameId, String player2) implements JournalEntry {
+    }
+
+    /**
+     * A move was played.
+     *
+     * @param gameId the game ID
+     * @param ply    the number of marks on the board before the move
+     * @param cell   the cell played
+     */
+    record Moved(String gameId, int ply, int cell) implements JournalEntry {
+    }
+
+    /**
+     * A player left and the game was won by their opponent.
+     *
+     * @param gameId the game ID
+     * @param winner the opponent of the player who left
+     */
+    record Forfeited(String gameId, String winner) implements JournalEntry {
+    }
+
+    /**
+     * A player left early and the game was kept so it can be resumed.
+     *
+     * @param gameId the game ID
+     */
+    record Saved(String gameId) implements JournalEntry {
+    }
+
+    /**
+     * The game was removed: it ended, was left or was evicted.
+     *
+     * @param gameId the game ID
+     */
+    record Removed(String gameId) implements JournalEntry {
+    }
+}
@@ -0,0 +1,37 @@
+package com.mohammad.tictactoewebsocket.model;
+
+/**
+ * The Elo rating of a player and their rated results so far.
+ *
+ * @param player the player
+ * @param rating the Elo rating
+ * @param games  the number of rated games played
+ * @param wins   the games won, including games won because the opponent left
+ * @param draws  the games drawn
+ * @param losses the games lost, including games left early
+ */
+public record PlayerRating(String player, double rating, int games, int wins, int draws, int losses) {
+
+    /**
+     * Returns the rating a new player starts with.
+     *
+     * @param player        the player
+     * @param initialRating the starting rating
+     * @return the unrated player
+     */
+    public static PlayerRating unrated(String player, double initialRating) {
+        return new PlayerRating(player, initialRating, 0, 0, 0, 0);
+    }
+
+    /**
+     * Returns the rating after one more game.
+     *
+     * @param newRating the rating after the game
+     * @param score     1 for a win, 0.5 for a draw and 0 for a loss
+     * @return the updated rating
+     */
+    public PlayerRating after(double newRating, double score) {
+        return new PlayerRating(player, newRating, games + 1, wins + (score == 1 ? 1 : 0),
+                draws + (score == 0.5 ? 1 : 0), losses + (score == 0 ? 1 : 0));
+    }
+}
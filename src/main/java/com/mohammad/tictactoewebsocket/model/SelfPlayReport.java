@@ -0,0 +1,73 @@
+package com.mohammad.tictactoewebsocket.model;
+
+import java.util.Arrays;
+
+/**
+ * Results of a batch of games played by the self-play engine, broken down by the opening move of "X".
+ * The arrays are indexed by cell (0-8).
+ *
+ * @param games        the number of games played
+ * @param elapsedNanos the wall-clock time of the batch
+ * @param xWins        the games won by "X", by opening cell
+ * @param oWins        the games won by "O", by opening cell
+ * @param draws        the drawn games, by opening cell
+ */
+public record SelfPlayReport(long games, long elapsedNanos, long[] xWins, long[] oWins, long[] draws) {
+
+    /**
+     * @return the games won by "X"
+     */
+    public long totalXWins() {
+        return Arrays.stream(xWins).sum();
+    }
+
+    /**
+     * @return the games won by "O"
+     */
+    public long totalOWins() {
+        return Arrays.stream(oWins).sum();
+    }
+
+    /**
+     * @return the drawn games
+     */
+    public long totalDraws() {
+        return Arrays.stream(draws).sum();
+    }
+
+    /**
+     * @param opening the first cell played by "X"
+     * @return the number of games that opened on the cell
+     */
+    public long gamesOpening(int opening) {
+        return xWins[opening] + oWins[opening] + draws[opening];
+    }
+
+    /**
+     * @return the games played per second of wall-clock time
+     */
+    public double gamesPerSecond() {
+        return elapsedNanos > 0 ? games * 1e9 / elapsedNanos : 0;
+    }
+
+    /**
+     * Lays the results out as a table, one row per opening cell and a total row.
+     *
+     * @return the table, with win and draw rates in percent
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format("%-8s %12s %8s %8s %8s%n", "opening", "games", "X won",
+                "O won", "draw"));
+        for (int opening = 0; opening < xWins.length; opening++) {
+            appendRow(table, "cell " + opening, gamesOpening(opening), xWins[opening], oWins[opening], draws[opening]);
+        }
+        appendRow(table, "total", games, totalXWins(), totalOWins(), totalDraws());
+        return table.toString();
+    }
+
+    private static void appendRow(StringBuilder table, String label, long games, long xWins, long oWins, long draws) {
+        double scale = games > 0 ? 100.0 / games : 0;
+        table.append(String.format("%-8s %12d %7.2f%% %7.2f%% %7.2f%%%n", label, games, xWins * scale, oWins * scale,
+                draws * scale));
+    }
+}
@@ -1,17 +1,30 @@
 package com.mohammad.tictactoewebsocket.model;
 
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
 import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.utils.GameIdGenerator;
 
+import java.util.Arrays;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * Represents a Tic-Tac-Toe game with two players.
  * Manages the game board, players, current turn, game state, and winner detection.
+ * The board size and win length are fixed at creation by a {@link BoardVariant}, 3x3 with three in a row unless
+ * stated otherwise. The board is held as a {@link BitBoard}; {@link #getBoard()} builds the string view sent to clients.
+ * New games get a compact ID from the shared {@link GameIdGenerator}, and keep the topic their frames are sent to
+ * so that no send has to build it again.
  */
 public class TicTacToe {
+
+    /**
+     * Prefix of the topic of each game, followed by the game ID.
+     */
+    public static final String TOPIC_PREFIX = "/topic/game.";
+
     private String gameId;
-    private String[][] board;
+    private String destination;
+    private BitBoard board;
     private String player1;
     private String player2;
     private String winner;
@@ -19,24 +32,93 @@ public class TicTacToe {
     private GameState gameState;
 
     /**
-     * Constructs a new TicTacToe game with the specified players.
+     * Incremented on every change, so that anything derived from the game (such as an encoded frame)
+     * can tell whether it is still current.
+     */
+    private long version;
+
+    /**
+     * Time the game was created in milliseconds.
+     */
+    private final long createdAt;
+
+    /**
+     * Time of the last move or seat change in milliseconds, used to evict idle games.
+     */
+    private volatile long lastActivity;
+
+    /**
+     * Set when a player left early and the game was kept so it can be resumed.
+     */
+    private volatile boolean savedForLater;
+
+    /**
+     * Difficulty of the bot playing as player 2, or null if player 2 is a person.
+     */
+    private BotDifficulty botDifficulty;
+
+    /**
+     * Number of sessions watching the game. Changed inside the game's mailbox like the rest of the state.
+     */
+    private int spectatorCount;
+
+    /**
+     * Cells played so far, in order. Player 1 made the moves at even positions and player 2 those at odd positions.
+     */
+    private short[] moves = new short[9];
+    private int historyLength;
+
+    /**
+     * Time limits of the game, and the time each player had left when the current turn started.
+     */
+    private TimeControl timeControl = TimeControl.NONE;
+    private long player1ClockMillis;
+    private long player2ClockMillis;
+    private long turnStartedAt;
+
+    /**
+     * Constructs a new classic 3x3 TicTacToe game with the specified players.
      * Initializes the board and sets Player 1 to start.
      *
      * @param player1 the first player
      * @param player2 the second player
      */
     public TicTacToe(String player1, String player2) {
-        this.gameId = UUID.randomUUID().toString();
+        this(player1, player2, BoardVariant.CLASSIC);
+    }
+
+    /**
+     * Constructs a new TicTacToe game with the specified players and board.
+     * Initializes the board and sets Player 1 to start.
+     *
+     * @param player1 the first player
+     * @param player2 the second player
+     * @param variant the board size and win length
+     */
+    public TicTacToe(String player1, String player2, BoardVariant variant) {
+        this(GameIdGenerator.shared().nextIdString(), player1, player2, variant, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructs a game with a known ID and creation time, such as a game restored from a snapshot.
+     * The game starts out empty and waiting for a player, like a new one.
+     *
+     * @param gameId    the game ID
+     * @param player1   the first player
+     * @param player2   the second player
+     * @param variant   the board size and win length
+     * @param createdAt the time the game was first created in milliseconds
+     */
+    public TicTacToe(String gameId, String player1, String player2, BoardVariant variant, long createdAt) {
+        this.gameId = gameId;
+        this.destination = destination(gameId);
         this.player1 = player1;
         this.player2 = player2;
         this.turn = player1;
-        this.board = new String[3][3];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                this.board[i][j] = " ";
-            }
-        }
+        this.board = new BitBoard(variant);
         gameState = GameState.WAITING_FOR_PLAYER;
+        this.createdAt = createdAt;
+        lastActivity = createdAt;
     }
 
     /**
@@ -44,43 +126,39 @@ public class TicTacToe {
      * Updates the board, switches turns, and checks for a winner.
      *
      * @param player the player making the move
-     * @param move the position (0-8) where the move is made
+     * @param move the position (0 to size * size - 1, row by row) where the move is made
      */
     public void makeMove(String player, int move) {
-        int row = move / 3;
-        int col = move % 3;
-        if (Objects.equals(board[row][col], " ")) {
-            board[row][col] = Objects.equals(player, player1) ? "X" : "O";
+        boolean x = Objects.equals(player, player1);
+        if (board.place(move, x)) {
+            version++;
+            recordMove(move);
             turn = player.equals(player1) ? player2 : player1;
-            checkWinner();
+            checkWinner(move, x);
             updateGameState();
         }
     }
 
     /**
-     * Checks the board to determine if there is a winner.
+     * Appends a played cell to the move history.
+     *
+     * @param move the cell just played
      */
-    private void checkWinner() {
-        // Check rows and columns
-        for (int i = 0; i < 3; i++) {
-            checkLine(board[i][0], board[i][1], board[i][2]); // row
-            checkLine(board[0][i], board[1][i], board[2][i]); // column
+    private void recordMove(int move) {
+        if (historyLength == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
         }
-
-        // Check diagonals
-        checkLine(board[0][0], board[1][1], board[2][2]);
-        checkLine(board[0][2], board[1][1], board[2][0]);
+        moves[historyLength++] = (short) move;
     }
 
     /**
-     * Checks a line (row, column, or diagonal) for a winning condition.
+     * Checks whether the player who just moved completed a line through their move.
      *
-     * @param a first cell value
-     * @param b second cell value
-     * @param c third cell value
+     * @param move the cell just played
+     * @param x    true if the last mark placed was an "X"
      */
-    private void checkLine(String a, String b, String c) {
-        if (!a.equals(" ") && a.equals(b) && a.equals(c)) {
+    private void checkWinner(int move, boolean x) {
+        if (board.isWinningMove(move, x)) {
             if (turn.equals(player1)) {
                 setWinner(player2);
                 gameState = GameState.PLAYER2_WON;
@@ -111,14 +189,163 @@ public class TicTacToe {
      * @return true if the board is full, false otherwise
      */
     private boolean isBoardFull() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (Objects.equals(board[i][j], " ")) {
-                    return false;
-                }
-            }
+        return board.isFull();
+    }
+
+
+    /**
+     * Returns how many marks have been placed on the board.
+     *
+     * @return the number of moves made
+     */
+    public int getMoveCount() {
+        return board.getMoveCount();
+    }
+
+
+    /**
+     * Returns the cells played through {@link #makeMove(String, int)}, in the order they were played.
+     * A board replaced by {@link #setBoard(String[][])} carries no order, so the history starts over.
+     *
+     * @return a copy of the move history
+     */
+    public int[] getMoves() {
+        int[] history = new int[historyLength];
+        for (int i = 0; i < historyLength; i++) {
+            history[i] = moves[i];
         }
-        return true;
+        return history;
+    }
+
+
+    /**
+     * Returns the mark in a cell.
+     *
+     * @param cell the position (0 to size * size - 1)
+     * @return "X", "O" or " " for an empty cell
+     */
+    public String getMark(int cell) {
+        return board.getCell(cell);
+    }
+
+
+    /**
+     * @return the board size and win length
+     */
+    public BoardVariant getVariant() {
+        return new BoardVariant(board.getSize(), board.getWinLength());
+    }
+
+
+    /**
+     * @return the number of rows and columns of the board
+     */
+    public int getSize() {
+        return board.getSize();
+    }
+
+
+    /**
+     * @return the marks in a row needed to win
+     */
+    public int getWinLength() {
+        return board.getWinLength();
+    }
+
+
+    /**
+     * @return the cells holding an "X" on a classic 3x3 board, one bit per cell
+     */
+    public int getXMask() {
+        return board.getXMask();
+    }
+
+
+    /**
+     * @return the cells holding an "O" on a classic 3x3 board, one bit per cell
+     */
+    public int getOMask() {
+        return board.getOMask();
+    }
+
+
+    /**
+     * Determines if player 2 is the server-side bot.
+     *
+     * @return true if the game is played against the bot
+     */
+    public boolean isBotGame() {
+        return botDifficulty != null;
+    }
+
+    /**
+     * Starts the clocks of the game with the given limits, giving both players their full time and the player to
+     * move a new turn.
+     *
+     * @param timeControl the time limits
+     * @param now         the current time in milliseconds
+     */
+    public void startClock(TimeControl timeControl, long now) {
+        this.timeControl = timeControl;
+        player1ClockMillis = timeControl.totalMillis();
+        player2ClockMillis = timeControl.totalMillis();
+        turnStartedAt = now;
+        version++;
+    }
+
+    /**
+     * Charges the time of the turn that just ended to the player who moved, and starts the turn of the opponent.
+     *
+     * @param player the player who moved
+     * @param now    the current time in milliseconds
+     */
+    public void chargeClock(String player, long now) {
+        if (!hasClock()) {
+            return;
+        }
+        long elapsed = Math.max(0, now - turnStartedAt);
+        if (player.equals(player1)) {
+            player1ClockMillis = Math.max(0, player1ClockMillis - elapsed);
+        } else {
+            player2ClockMillis = Math.max(0, player2ClockMillis - elapsed);
+        }
+        turnStartedAt = now;
+        version++;
+    }
+
+    /**
+     * Gives the time at which the player to move runs out of time: the end of the move limit or of their clock,
+     * whichever comes first.
+     *
+     * @return the deadline of the current turn in milliseconds, or {@link Long#MAX_VALUE} if the game has no clock
+     * or nobody is to move
+     */
+    public long getClockDeadline() {
+        if (!hasClock() || (gameState != GameState.PLAYER1_TURN && gameState != GameState.PLAYER2_TURN)) {
+            return Long.MAX_VALUE;
+        }
+        long limit = timeControl.moveMillis() > 0 ? timeControl.moveMillis() : Long.MAX_VALUE;
+        if (timeControl.totalMillis() > 0) {
+            limit = Math.min(limit, turn.equals(player1) ? player1ClockMillis : player2ClockMillis);
+        }
+        return turnStartedAt + limit;
+    }
+
+    /**
+     * @return true if the game has time limits
+     */
+    public boolean hasClock() {
+        return timeControl.isLimited();
+    }
+
+
+    /**
+     * Returns the version of the game. It changes whenever a move is made or a field is set.
+     *
+     * @return the current version
+     */
+    public long getVersion() {
+        return version;
     }
 
 
@@ -142,14 +369,35 @@ public class TicTacToe {
 
     public void setGameId(String gameId) {
         this.gameId = gameId;
+        this.destination = destination(gameId);
+        version++;
+    }
+
+    /**
+     * @return the topic the players of this game subscribe to
+     */
+    public String getDestination() {
+        return destination;
+    }
+
+    /**
+     * Builds the topic of a game from its ID, for a game that is not at hand.
+     *
+     * @param gameId the game ID
+     * @return the topic the players of the game subscribe to
+     */
+    public static String destination(String gameId) {
+        return TOPIC_PREFIX + gameId;
     }
 
     public String[][] getBoard() {
-        return board;
+        return board.toArray();
     }
 
     public void setBoard(String[][] board) {
-        this.board = board;
+        this.board = BitBoard.fromArray(board, this.board.getWinLength());
+        this.historyLength = 0;
+        version++;
     }
 
     public String getPlayer1() {
@@ -158,6 +406,7 @@ public class TicTacToe {
 
     public void setPlayer1(String player1) {
         this.player1 = player1;
+        version++;
     }
 
     public String getPlayer2() {
@@ -166,6 +415,7 @@ public class TicTacToe {
 
     public void setPlayer2(String player2) {
         this.player2 = player2;
+        version++;
     }
 
     public String getWinner() {
@@ -174,6 +424,7 @@ public class TicTacToe {
 
     public void setWinner(String winner) {
         this.winner = winner;
+        version++;
     }
 
     public String getTurn() {
@@ -182,6 +433,60 @@ public class TicTacToe {
 
     public void setTurn(String turn) {
         this.turn = turn;
+        version++;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(long lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+
+    public boolean isSavedForLater() {
+        return savedForLater;
+    }
+
+    public void setSavedForLater(boolean savedForLater) {
+        this.savedForLater = savedForLater;
+    }
+
+    public TimeControl getTimeControl() {
+        return timeControl;
+    }
+
+    public long getPlayer1ClockMillis() {
+        return player1ClockMillis;
+    }
+
+    public long getPlayer2ClockMillis() {
+        return player2ClockMillis;
+    }
+
+    public long getTurnStartedAt() {
+        return turnStartedAt;
+    }
+
+    public BotDifficulty getBotDifficulty() {
+        return botDifficulty;
+    }
+
+    public void setBotDifficulty(BotDifficulty botDifficulty) {
+        this.botDifficulty = botDifficulty;
+    }
+
+    public int getSpectatorCount() {
+        return spectatorCount;
+    }
+
+    public void setSpectatorCount(int spectatorCount) {
+        this.spectatorCount = spectatorCount;
+        version++;
     }
 
     public GameState getGameState() {
@@ -190,6 +495,7 @@ public class TicTacToe {
 
     public void setGameState(GameState gameState) {
         this.gameState = gameState;
+        version++;
     }
 }
 
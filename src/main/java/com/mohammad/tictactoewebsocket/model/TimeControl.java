@@ -0,0 +1,29 @@
+package com.mohammad.tictactoewebsocket.model;
+
+/**
+ * The time controls of a game: how long a player may think about one move and how much time they have for all
+ * of their moves. A player who runs out of either loses the game.
+ *
+ * @param moveMillis  the time allowed for each move in milliseconds, or 0 for no limit
+ * @param totalMillis the time each player has for the whole game in milliseconds, or 0 for no limit
+ */
+public record TimeControl(long moveMillis, long totalMillis) {
+
+    /**
+     * No time limits, as in games without a clock.
+     */
+    public static final TimeControl NONE = new TimeControl(0, 0);
+
+    public TimeControl {
+        if (moveMillis < 0 || totalMillis < 0) {
+            throw new IllegalArgumentException("Time limits cannot be negative");
+        }
+    }
+
+    /**
+     * @return true if either limit is set
+     */
+    public boolean isLimited() {
+        return moveMillis > 0 || totalMillis > 0;
+    }
+}
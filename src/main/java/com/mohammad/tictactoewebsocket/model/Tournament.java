@@ -0,0 +1,459 @@
+package com.mohammad.tictactoewebsocket.model;
+
+import com.mohammad.tictactoewebsocket.enumeration.TournamentFormat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * Represents a tournament: its entrants, the pairings of the current round and the results so far.
+ * <p>
+ * Entrants are seeded in the order they are given, the first being the strongest. Each round of a
+ * single-elimination tournament pairs the best seed still in with the worst, the second best with the second worst
+ * and so on, so the top seeds meet last; with an odd number of players the best seed gets a bye. A drawn match is
+ * replayed with the sides swapped up to {@link #MAX_REMATCHES} times, after which the better seed goes through.
+ * In a Swiss tournament all players play every round; they are ordered by points and paired with the next player
+ * in that order they have not met yet, and with an odd number of players the lowest placed player who has not had
+ * a bye gets one. A bye is worth a win.
+ * </p>
+ * <p>
+ * Final standings are ordered by the round a player went out in (single elimination) or by points (Swiss), then by
+ * the Buchholz score, the sum of the points of a player's opponents, then by seed.
+ * </p>
+ * <p>
+ * A tournament is not thread-safe. It is meant to be changed and read by one thread only, the one running the
+ * tournaments.
+ * </p>
+ */
+public class Tournament {
+
+    /**
+     * Most entrants a tournament can have.
+     */
+    public static final int MAX_ENTRANTS = 65_536;
+
+    /**
+     * How many times a drawn single-elimination match is replayed before the better seed goes through.
+     */
+    public static final int MAX_REMATCHES = 2;
+
+    /**
+     * How far down the order a Swiss pairing looks for an opponent not met yet.
+     */
+    private static final int PAIRING_WINDOW = 16;
+
+    private static final int BYE = -1;
+
+    private final String tournamentId;
+    private final String name;
+    private final TournamentFormat format;
+    private final BoardVariant variant;
+    private final String[] entrants;
+    private final int totalRounds;
+    private final long createdAt;
+    private final CompletableFuture<Tournament> completion = new CompletableFuture<>();
+
+    private final double[] points;
+    private final int[][] opponents;
+    private final boolean[] hadBye;
+    private final int[] outInRound;
+    private int[] remaining;
+    private int byePlayer = BYE;
+
+    private int round;
+    private Match[] matches = new Match[0];
+    private int pending;
+    private long finishedAt;
+
+    /**
+     * Constructs a tournament that has not started its first round.
+     *
+     * @param name      the name of the tournament
+     * @param format    how players are paired
+     * @param variant   the board of every game
+     * @param entrants  the players, strongest seed first; names must be distinct
+     * @param rounds    the number of Swiss rounds, or 0 for enough rounds to single out a winner
+     */
+    public Tournament(String name, TournamentFormat format, BoardVariant variant, List<String> entrants, int rounds) {
+        if (entrants.size() < 2 || entrants.size() > MAX_ENTRANTS) {
+            throw new IllegalArgumentException("A tournament needs between 2 and " + MAX_ENTRANTS + " entrants");
+        }
+        if (entrants.stream().anyMatch(Objects::isNull) || entrants.stream().distinct().count() != entrants.size()) {
+            throw new IllegalArgumentException("Entrants must have distinct names");
+        }
+        int roundsToWinner = 32 - Integer.numberOfLeadingZeros(entrants.size() - 1);
+        this.tournamentId = UUID.randomUUID().toString();
+        this.name = name;
+        this.format = format;
+        this.variant = variant;
+        this.entrants = entrants.toArray(new String[0]);
+        this.totalRounds = format == TournamentFormat.SWISS && rounds > 0
+                ? Math.min(rounds, entrants.size() - 1)
+                : roundsToWinner;
+        this.createdAt = System.currentTimeMillis();
+        this.points = new double[this.entrants.length];
+        this.opponents = new int[this.entrants.length][totalRounds];
+        this.hadBye = new boolean[this.entrants.length];
+        this.outInRound = new int[this.entrants.length];
+    }
+
+    /**
+     * Pairs the players of the next round. A bye is scored right away.
+     *
+     * @return the matches of the round
+     */
+    public Match[] startRound() {
+        round++;
+        byePlayer = BYE;
+        int[] players = format == TournamentFormat.SWISS ? swissOrder() : eliminationOrder();
+        List<Match> paired = new ArrayList<>(players.length / 2);
+        if (format == TournamentFormat.SWISS) {
+            pairSwiss(players, paired);
+        } else {
+            for (int i = 0; i + 1 < players.length; i += 2) {
+                paired.add(new Match(players[i], players[i + 1]));
+            }
+        }
+        for (Match match : paired) {
+            opponents[match.player1][round - 1] = match.player2;
+            opponents[match.player2][round - 1] = match.player1;
+        }
+        matches = paired.toArray(new Match[0]);
+        pending = matches.length;
+        return matches;
+    }
+
+    /**
+     * Tells whether a drawn match is played again.
+     *
+     * @param match the drawn match
+     * @return true if the match has rematches left
+     */
+    public boolean needsRematch(Match match) {
+        return format == TournamentFormat.SINGLE_ELIMINATION && match.games <= MAX_REMATCHES;
+    }
+
+    /**
+     * Records the result of a match of the current round.
+     *
+     * @param match  the match
+     * @param winner the name of the winner, or null for a draw
+     * @return true if it was the last match of the round still being played
+     */
+    public boolean recordResult(Match match, String winner) {
+        if (match.result != Match.PLAYING) {
+            return false;
+        }
+        if (winner != null) {
+            match.result = winner.equals(entrants[match.player1]) ? match.player1 : match.player2;
+        } else {
+            match.result = format == TournamentFormat.SWISS ? Match.DRAW : Math.min(match.player1, match.player2);
+        }
+        return --pending == 0;
+    }
+
+    /**
+     * Scores the finished round.
+     *
+     * @return true if that was the last round
+     */
+    public boolean finishRound() {
+        List<Integer> winners = new ArrayList<>(matches.length + 1);
+        for (Match match : matches) {
+            if (match.result == Match.DRAW) {
+                points[match.player1] += 0.5;
+                points[match.player2] += 0.5;
+            } else {
+                points[match.result] += 1;
+                int loser = match.result == match.player1 ? match.player2 : match.player1;
+                outInRound[loser] = round;
+                winners.add(match.result);
+            }
+        }
+        if (format == TournamentFormat.SINGLE_ELIMINATION) {
+            if (byePlayer != BYE) {
+                winners.add(byePlayer);
+            }
+            remaining = winners.stream().mapToInt(Integer::intValue).toArray();
+        }
+        boolean last = format == TournamentFormat.SWISS ? round >= totalRounds : remaining.length <= 1;
+        if (last) {
+            finishedAt = System.currentTimeMillis();
+            matches = new Match[0];
+            completion.complete(this);
+        }
+        return last;
+    }
+
+    /**
+     * Returns the best placed players, best first.
+     *
+     * @param limit the number of players
+     * @return the standings
+     */
+    public List<Standing> standings(int limit) {
+        double[] buchholz = new double[entrants.length];
+        for (int player = 0; player < entrants.length; player++) {
+            for (int r = 0; r < Math.min(round, totalRounds); r++) {
+                int opponent = opponents[player][r];
+                if (opponent != BYE) {
+                    buchholz[player] += points[opponent];
+                }
+            }
+        }
+        Comparator<Integer> order = Comparator.comparingDouble((Integer player) -> points[player]).reversed();
+        if (format == TournamentFormat.SINGLE_ELIMINATION) {
+            order = Comparator.comparingInt((Integer player) -> outInRound[player] == 0 ? Integer.MAX_VALUE : outInRound[player])
+                    .reversed()
+                    .thenComparing(order);
+        }
+        order = order.thenComparing(Comparator.comparingDouble((Integer player) -> buchholz[player]).reversed())
+                .thenComparingInt(player -> player);
+
+        Integer[] players = new Integer[entrants.length];
+        Arrays.setAll(players, player -> player);
+        Arrays.sort(players, order);
+        List<Standing> standings = new ArrayList<>(Math.min(limit, players.length));
+        for (int i = 0; i < Math.min(limit, players.length); i++) {
+            int player = players[i];
+            standings.add(new Standing(i + 1, entrants[player], points[player], buchholz[player]));
+        }
+        return standings;
+    }
+
+    /**
+     * Orders the players still in a single-elimination tournament so that neighbours are paired: best seed with
+     * worst seed, and so on inwards. Takes out the best seed for a bye if the count is odd.
+     */
+    private int[] eliminationOrder() {
+        int[] players = remaining != null ? remaining.clone() : IntStream.range(0, entrants.length).toArray();
+        Arrays.sort(players);
+        int low = 0;
+        if (players.length % 2 == 1) {
+            giveBye(players[low++]);
+        }
+        int[] order = new int[players.length - low];
+        for (int i = 0, high = players.length - 1; i < order.length; i++) {
+            order[i] = i % 2 == 0 ? players[low++] : players[high--];
+        }
+        return order;
+    }
+
+    /**
+     * Orders the players of a Swiss tournament by points, then seed, and takes out the bye if the count is odd:
+     * the lowest placed player who has not had one.
+     */
+    private int[] swissOrder() {
+        Integer[] order = new Integer[entrants.length];
+        Arrays.setAll(order, player -> player);
+        Arrays.sort(order, Comparator.comparingDouble((Integer player) -> points[player]).reversed()
+                .thenComparingInt(player -> player));
+        int[] players = Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+        if (players.length % 2 == 0) {
+            return players;
+        }
+        int bye = players.length - 1;
+        while (bye > 0 && hadBye[players[bye]]) {
+            bye--;
+        }
+        giveBye(players[bye]);
+        int[] rest = new int[players.length - 1];
+        System.arraycopy(players, 0, rest, 0, bye);
+        System.arraycopy(players, bye + 1, rest, bye, players.length - bye - 1);
+        return rest;
+    }
+
+    /**
+     * Pairs each player with the next one in order they have not met, looking a few places ahead,
+     * or with the next one if they have met all of those.
+     */
+    private void pairSwiss(int[] players, List<Match> paired) {
+        boolean[] taken = new boolean[entrants.length];
+        for (int i = 0; i < players.length; i++) {
+            int player = players[i];
+            if (taken[player]) {
+                continue;
+            }
+            int opponent = -1;
+            for (int j = i + 1, looked = 0; j < players.length && looked < PAIRING_WINDOW; j++) {
+                if (taken[players[j]]) {
+                    continue;
+                }
+                if (opponent == -1) {
+                    opponent = players[j];
+                }
+                if (!haveMet(player, players[j])) {
+                    opponent = players[j];
+                    break;
+                }
+                looked++;
+            }
+            taken[player] = true;
+            taken[opponent] = true;
+            paired.add(round % 2 == 1 ? new Match(player, opponent) : new Match(opponent, player));
+        }
+    }
+
+    private boolean haveMet(int player, int other) {
+        for (int r = 0; r < round - 1; r++) {
+            if (opponents[player][r] == other) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void giveBye(int player) {
+        byePlayer = player;
+        hadBye[player] = true;
+        points[player] += 1;
+        opponents[player][round - 1] = BYE;
+    }
+
+    /**
+     * Getters
+     */
+
+    public String getTournamentId() {
+        return tournamentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TournamentFormat getFormat() {
+        return format;
+    }
+
+    public BoardVariant getVariant() {
+        return variant;
+    }
+
+    public int getEntrantCount() {
+        return entrants.length;
+    }
+
+    public String getEntrant(int seed) {
+        return entrants[seed];
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public int getTotalRounds() {
+        return totalRounds;
+    }
+
+    public Match[] getMatches() {
+        return matches;
+    }
+
+    public boolean isFinished() {
+        return completion.isDone();
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * @return a future completed with the tournament once its last round is scored
+     */
+    public CompletableFuture<Tournament> getCompletion() {
+        return completion;
+    }
+
+    /**
+     * A pairing of the current round and the game it is being played in.
+     */
+    public static final class Match {
+        static final int PLAYING = -2;
+        static final int DRAW = -1;
+
+        private final int player1;
+        private final int player2;
+        private String gameId;
+        private int games;
+        private int result = PLAYING;
+
+        Match(int player1, int player2) {
+            this.player1 = player1;
+            this.player2 = player2;
+        }
+
+        /**
+         * Records the game the match is played in, replacing the game of a drawn attempt.
+         *
+         * @param gameId the game ID
+         */
+        public void startGame(String gameId) {
+            this.gameId = gameId;
+            this.games++;
+        }
+
+        /**
+         * @return the seed of the player who moves first in the match's first game
+         */
+        public int getPlayer1() {
+            return player1;
+        }
+
+        /**
+         * @return the seed of the other player
+         */
+        public int getPlayer2() {
+            return player2;
+        }
+
+        /**
+         * @return the game being played, or the last one once the match is over
+         */
+        public String getGameId() {
+            return gameId;
+        }
+
+        /**
+         * @return the number of games started for the match
+         */
+        public int getGames() {
+            return games;
+        }
+
+        /**
+         * @return true once the match has a result
+         */
+        public boolean isFinished() {
+            return result != PLAYING;
+        }
+
+        /**
+         * @return the seed of the winner, or -1 for a draw or a match still being played
+         */
+        public int getWinner() {
+            return result >= 0 ? result : -1;
+        }
+    }
+
+    /**
+     * A player's place in the standings.
+     *
+     * @param rank     the place, from 1
+     * @param player   the player
+     * @param points   1 per win or bye and 0.5 per draw
+     * @param buchholz the sum of the points of the player's opponents
+     */
+    public record Standing(int rank, String player, double points, double buchholz) {
+    }
+}
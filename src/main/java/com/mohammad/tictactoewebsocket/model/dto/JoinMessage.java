@@ -5,6 +5,9 @@ public class JoinMessage implements Message {
     private String gameId;
     private String player;
     private String content;
+    private String difficulty;
+    private Integer size;
+    private Integer winLength;
 
     @Override
     public String getType() {
@@ -40,4 +43,28 @@ public class JoinMessage implements Message {
     public void setPlayer(String player) {
         this.player = player;
     }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Integer getWinLength() {
+        return winLength;
+    }
+
+    public void setWinLength(Integer winLength) {
+        this.winLength = winLength;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
 }
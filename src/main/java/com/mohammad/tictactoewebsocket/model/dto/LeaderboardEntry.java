@@ -0,0 +1,30 @@
+package com.mohammad.tictactoewebsocket.model.dto;
+
+import com.mohammad.tictactoewebsocket.model.PlayerRating;
+
+/**
+ * A player's place on the leaderboard, as returned by the leaderboard endpoints.
+ * Players whose ratings round to the same number share a rank.
+ *
+ * @param rank   1 plus the number of players rated higher
+ * @param player the player
+ * @param rating the Elo rating, rounded
+ * @param games  the number of rated games played
+ * @param wins   the games won
+ * @param draws  the games drawn
+ * @param losses the games lost
+ */
+public record LeaderboardEntry(long rank, String player, int rating, int games, int wins, int draws, int losses) {
+
+    /**
+     * Builds the entry of a rated player.
+     *
+     * @param rank   the player's rank
+     * @param rating the player's rating and results
+     * @return the entry
+     */
+    public static LeaderboardEntry of(long rank, PlayerRating rating) {
+        return new LeaderboardEntry(rank, rating.player(), (int) Math.round(rating.rating()), rating.games(),
+                rating.wins(), rating.draws(), rating.losses());
+    }
+}
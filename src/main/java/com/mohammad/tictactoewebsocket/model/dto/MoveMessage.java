@@ -0,0 +1,150 @@
+package com.mohammad.tictactoewebsocket.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Compact update sent to the game topic after each move.
+ * <p>
+ * Instead of the whole game it carries only the cell that was played, its mark, the resulting state and a
+ * sequence number (the number of moves made so far). Clients apply it to their own copy of the board and ask
+ * for a full snapshot when a sequence number is missing. The final move also carries the winner, so no separate
+ * game-over frame is needed. The current number of spectators comes along with every move, and so do the clocks
+ * of a game with time controls.
+ * </p>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MoveMessage implements Message {
+    private String type;
+    private String gameId;
+    private int seq;
+    private int cell;
+    private String mark;
+    private GameState gameState;
+    private String winner;
+    private int spectators;
+    private Long player1ClockMillis;
+    private Long player2ClockMillis;
+    private Long clockDeadline;
+
+    public MoveMessage() {
+    }
+
+    /**
+     * Builds the delta for the move just made in a game.
+     *
+     * @param game  the game after the move
+     * @param cell  the cell that was played
+     */
+    public MoveMessage(TicTacToe game, int cell) {
+        this.type = "game.delta";
+        this.gameId = game.getGameId();
+        this.seq = game.getMoveCount();
+        this.cell = cell;
+        this.mark = game.getMark(cell);
+        this.gameState = game.getGameState();
+        this.winner = game.getWinner();
+        this.spectators = game.getSpectatorCount();
+        if (game.hasClock()) {
+            this.player1ClockMillis = game.getPlayer1ClockMillis();
+            this.player2ClockMillis = game.getPlayer2ClockMillis();
+            this.clockDeadline = game.getClockDeadline() == Long.MAX_VALUE ? null : game.getClockDeadline();
+        }
+    }
+
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    @Override
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    @Override
+    public String getContent() {
+        return null;
+    }
+
+    public int getSeq() {
+        return seq;
+    }
+
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    public int getCell() {
+        return cell;
+    }
+
+    public void setCell(int cell) {
+        this.cell = cell;
+    }
+
+    public String getMark() {
+        return mark;
+    }
+
+    public void setMark(String mark) {
+        this.mark = mark;
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    public void setGameState(GameState gameState) {
+        this.gameState = gameState;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    public void setWinner(String winner) {
+        this.winner = winner;
+    }
+
+    public int getSpectators() {
+        return spectators;
+    }
+
+    public void setSpectators(int spectators) {
+        this.spectators = spectators;
+    }
+
+    public Long getPlayer1ClockMillis() {
+        return player1ClockMillis;
+    }
+
+    public void setPlayer1ClockMillis(Long player1ClockMillis) {
+        this.player1ClockMillis = player1ClockMillis;
+    }
+
+    public Long getPlayer2ClockMillis() {
+        return player2ClockMillis;
+    }
+
+    public void setPlayer2ClockMillis(Long player2ClockMillis) {
+        this.player2ClockMillis = player2ClockMillis;
+    }
+
+    public Long getClockDeadline() {
+        return clockDeadline;
+    }
+
+    public void setClockDeadline(Long clockDeadline) {
+        this.clockDeadline = clockDeadline;
+    }
+}
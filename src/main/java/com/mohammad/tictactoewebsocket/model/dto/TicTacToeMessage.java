@@ -1,5 +1,6 @@
 package com.mohammad.tictactoewebsocket.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.mohammad.tictactoewebsocket.enumeration.GameState;
 import com.mohammad.tictactoewebsocket.model.TicTacToe;
 
@@ -12,10 +13,27 @@ public class TicTacToeMessage implements Message {
     private String turn;
     private String content;
     private String[][] board;
+    private int size;
+    private int winLength;
     private int move;
+    private int seq;
+    private int spectators;
     private GameState gameState;
     private String sender;
 
+    /**
+     * Clock of a game with time controls, left out for games without one: the time allowed per move, the time each
+     * player had left when the current turn started, and the server time at which the player to move runs out.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long moveLimitMillis;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long player1ClockMillis;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long player2ClockMillis;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long clockDeadline;
+
     public TicTacToeMessage() {
     }
 
@@ -26,7 +44,17 @@ public class TicTacToeMessage implements Message {
         this.winner = game.getWinner();
         this.turn = game.getTurn();
         this.board = game.getBoard();
+        this.size = game.getSize();
+        this.winLength = game.getWinLength();
         this.gameState = game.getGameState();
+        this.seq = game.getMoveCount();
+        this.spectators = game.getSpectatorCount();
+        if (game.hasClock()) {
+            this.moveLimitMillis = game.getTimeControl().moveMillis();
+            this.player1ClockMillis = game.getPlayer1ClockMillis();
+            this.player2ClockMillis = game.getPlayer2ClockMillis();
+            this.clockDeadline = game.getClockDeadline() == Long.MAX_VALUE ? null : game.getClockDeadline();
+        }
     }
 
     public String getType() {
@@ -85,6 +113,22 @@ public class TicTacToeMessage implements Message {
         this.board = board;
     }
 
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    public void setWinLength(int winLength) {
+        this.winLength = winLength;
+    }
+
     public int getMove() {
         return move;
     }
@@ -93,6 +137,22 @@ public class TicTacToeMessage implements Message {
         this.move = move;
     }
 
+    public int getSeq() {
+        return seq;
+    }
+
+    public void setSeq(int seq) {
+        this.seq = seq;
+    }
+
+    public int getSpectators() {
+        return spectators;
+    }
+
+    public void setSpectators(int spectators) {
+        this.spectators = spectators;
+    }
+
     public String getContent() {
         return content;
     }
@@ -116,4 +176,36 @@ public class TicTacToeMessage implements Message {
     public void setSender(String sender) {
         this.sender = sender;
     }
+
+    public Long getMoveLimitMillis() {
+        return moveLimitMillis;
+    }
+
+    public void setMoveLimitMillis(Long moveLimitMillis) {
+        this.moveLimitMillis = moveLimitMillis;
+    }
+
+    public Long getPlayer1ClockMillis() {
+        return player1ClockMillis;
+    }
+
+    public void setPlayer1ClockMillis(Long player1ClockMillis) {
+        this.player1ClockMillis = player1ClockMillis;
+    }
+
+    public Long getPlayer2ClockMillis() {
+        return player2ClockMillis;
+    }
+
+    public void setPlayer2ClockMillis(Long player2ClockMillis) {
+        this.player2ClockMillis = player2ClockMillis;
+    }
+
+    public Long getClockDeadline() {
+        return clockDeadline;
+    }
+
+    public void setClockDeadline(Long clockDeadline) {
+        this.clockDeadline = clockDeadline;
+    }
 }
@@ -0,0 +1,82 @@
+package com.mohammad.tictactoewebsocket.model.dto;
+
+import java.util.List;
+
+/**
+ * Request to create a tournament. Entrants are listed strongest seed first.
+ * In a simulation the bot plays every game for both sides at the given difficulty.
+ */
+public class TournamentRequest {
+    private String name;
+    private String format;
+    private List<String> entrants;
+    private Integer size;
+    private Integer winLength;
+    private Integer rounds;
+    private boolean simulate;
+    private String difficulty;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public List<String> getEntrants() {
+        return entrants;
+    }
+
+    public void setEntrants(List<String> entrants) {
+        this.entrants = entrants;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public Integer getWinLength() {
+        return winLength;
+    }
+
+    public void setWinLength(Integer winLength) {
+        this.winLength = winLength;
+    }
+
+    public Integer getRounds() {
+        return rounds;
+    }
+
+    public void setRounds(Integer rounds) {
+        this.rounds = rounds;
+    }
+
+    public boolean isSimulate() {
+        return simulate;
+    }
+
+    public void setSimulate(boolean simulate) {
+        this.simulate = simulate;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+}
@@ -0,0 +1,61 @@
+package com.mohammad.tictactoewebsocket.model.dto;
+
+import com.mohammad.tictactoewebsocket.enumeration.TournamentFormat;
+import com.mohammad.tictactoewebsocket.model.Tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The state of a tournament, as returned by the tournament endpoints.
+ *
+ * @param tournamentId the tournament ID
+ * @param name         the name of the tournament
+ * @param format       how players are paired
+ * @param size         the number of rows and columns of every board
+ * @param winLength    the marks in a row needed to win
+ * @param entrants     the number of players
+ * @param round        the round being played, or the last one once finished
+ * @param totalRounds  the number of rounds
+ * @param finished     true once the last round is scored
+ * @param pairings     the first matches of the round being played
+ * @param standings    the best placed players so far
+ */
+public record TournamentSummary(String tournamentId, String name, TournamentFormat format, int size, int winLength,
+                                int entrants, int round, int totalRounds, boolean finished, List<Pairing> pairings,
+                                List<Tournament.Standing> standings) {
+
+    /**
+     * Builds the summary of a tournament. Must run on the thread that runs the tournament.
+     *
+     * @param tournament the tournament
+     * @param limit      the most pairings and standings to include
+     * @return the summary
+     */
+    public static TournamentSummary of(Tournament tournament, int limit) {
+        Tournament.Match[] matches = tournament.getMatches();
+        List<Pairing> pairings = new ArrayList<>(Math.min(limit, matches.length));
+        for (int i = 0; i < Math.min(limit, matches.length); i++) {
+            Tournament.Match match = matches[i];
+            pairings.add(new Pairing(tournament.getEntrant(match.getPlayer1()),
+                    tournament.getEntrant(match.getPlayer2()), match.getGameId(), match.getGames(),
+                    match.getWinner() >= 0 ? tournament.getEntrant(match.getWinner()) : null));
+        }
+        return new TournamentSummary(tournament.getTournamentId(), tournament.getName(), tournament.getFormat(),
+                tournament.getVariant().size(), tournament.getVariant().winLength(), tournament.getEntrantCount(),
+                tournament.getRound(), tournament.getTotalRounds(), tournament.isFinished(), pairings,
+                tournament.standings(limit));
+    }
+
+    /**
+     * A match of the round being played.
+     *
+     * @param player1 the player who moved first in the match's first game
+     * @param player2 the other player
+     * @param gameId  the game being played, or the last one once the match is over
+     * @param games   the number of games started, more than 1 after draws
+     * @param winner  the winner, or null for a match still being played or drawn
+     */
+    public record Pairing(String player1, String player2, String gameId, int games, String winner) {
+    }
+}
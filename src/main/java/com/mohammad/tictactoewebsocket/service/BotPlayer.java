@@ -0,0 +1,86 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.model.BitBoard;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Component class choosing the moves of the server-side bot opponent.
+ * <p>
+ * The bot always plays "O" as player 2. Perfect moves are looked up in the {@link PositionTable}, so choosing a move
+ * never searches; when several moves are equally good one of them is picked at random to vary the games.
+ * Lower {@link BotDifficulty} levels replace some of the perfect moves with random legal ones.
+ * </p>
+ */
+@Component
+public class BotPlayer {
+
+    /**
+     * Name of the bot in the player 2 slot of its games. Players cannot use it themselves.
+     */
+    public static final String NAME = "Bot";
+
+    private final PositionTable positionTable;
+
+    /**
+     * Constructs a bot with its own position table.
+     */
+    public BotPlayer() {
+        this(new PositionTable());
+    }
+
+    /**
+     * Constructs a bot that plays from the given position table.
+     *
+     * @param positionTable the solved positions
+     */
+    @Autowired
+    public BotPlayer(PositionTable positionTable) {
+        this.positionTable = positionTable;
+    }
+
+    /**
+     * Chooses the bot's next move in a game.
+     *
+     * @param game the game, with the bot to move
+     * @return the cell (0-8) to play, or -1 if the board is full
+     */
+    public int chooseMove(TicTacToe game) {
+        return chooseMove(game.getXMask(), game.getOMask(), game.getBotDifficulty());
+    }
+
+    /**
+     * Chooses a move for the player to move in a position.
+     *
+     * @param xMask      the cells holding an "X"
+     * @param oMask      the cells holding an "O"
+     * @param difficulty how well to play; null plays perfectly
+     * @return the cell (0-8) to play, or -1 if the board is full
+     */
+    public int chooseMove(int xMask, int oMask, BotDifficulty difficulty) {
+        int free = ~(xMask | oMask) & ((1 << BitBoard.CELLS) - 1);
+        if (free == 0) {
+            return -1;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int candidates = positionTable.getBestMoves(xMask, oMask);
+        if (candidates == 0 || (difficulty != null && random.nextDouble() < difficulty.getRandomMoveChance())) {
+            candidates = free;
+        }
+        return pickCell(candidates, random.nextInt(Integer.bitCount(candidates)));
+    }
+
+    /**
+     * Returns the cell of the n-th set bit of a mask.
+     */
+    private static int pickCell(int mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+}
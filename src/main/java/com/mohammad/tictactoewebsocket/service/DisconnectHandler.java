@@ -0,0 +1,121 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.utils.TimingWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Component class that cleans up after WebSocket sessions that close, whether the client said goodbye or not.
+ * <p>
+ * The {@link PlayerSessionRegistry} gives the player and game of a closed session in constant time. The player then
+ * has {@code tictactoe.disconnect.grace-ms} milliseconds to come back from a new session, for example after a page
+ * reload; the pending departures wait on a {@link TimingWheel}. A player who has not come back by then leaves the
+ * game through {@link TicTacToeService#playerDisconnected(String, String, SimpMessagingTemplate)}, which forfeits or
+ * saves the game by the same rules as a deliberate leave. A grace period of 0 applies them at once.
+ * </p>
+ */
+@Component
+public class DisconnectHandler {
+
+    private final TicTacToeService gameService;
+    private final PlayerSessionRegistry sessionRegistry;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long graceMillis;
+    private final LongSupplier clock;
+    private final TimingWheel<PlayerSessionRegistry.Binding> departures;
+
+    /**
+     * Constructs a handler with the configured grace period.
+     *
+     * @param gameService        the service applying the departures
+     * @param sessionRegistry    the registry of the sessions of the players
+     * @param messagingTemplate  the WebSocket messaging template used to notify opponents
+     * @param graceMillis        how long a disconnected player has to reconnect
+     * @param tickMillis         how often pending departures are looked at
+     */
+    @Autowired
+    public DisconnectHandler(TicTacToeService gameService, PlayerSessionRegistry sessionRegistry,
+                             SimpMessagingTemplate messagingTemplate,
+                             @Value("${tictactoe.disconnect.grace-ms:15000}") long graceMillis,
+                             @Value("${tictactoe.disconnect.tick-ms:1000}") long tickMillis) {
+        this(gameService, sessionRegistry, messagingTemplate, graceMillis, tickMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a handler that reads the time from the given clock.
+     *
+     * @param gameService        the service applying the departures
+     * @param sessionRegistry    the registry of the sessions of the players
+     * @param messagingTemplate  the WebSocket messaging template used to notify opponents
+     * @param graceMillis        how long a disconnected player has to reconnect
+     * @param tickMillis         how often pending departures are looked at
+     * @param clock              the current time in milliseconds
+     */
+    public DisconnectHandler(TicTacToeService gameService, PlayerSessionRegistry sessionRegistry,
+                             SimpMessagingTemplate messagingTemplate, long graceMillis, long tickMillis,
+                             LongSupplier clock) {
+        this.gameService = gameService;
+        this.sessionRegistry = sessionRegistry;
+        this.messagingTemplate = messagingTemplate;
+        this.graceMillis = graceMillis;
+        this.clock = clock;
+        this.departures = new TimingWheel<>(tickMillis, 512, clock.getAsLong());
+    }
+
+    /**
+     * Handles a closed session.
+     *
+     * @param event the disconnect event of the session
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        sessionClosed(event.getSessionId());
+    }
+
+    /**
+     * Stops the session from watching a game and starts the grace period of the player who used it, if any.
+     *
+     * @param sessionId the closed session
+     */
+    public void sessionClosed(String sessionId) {
+        gameService.stopSpectating(sessionId);
+        PlayerSessionRegistry.Binding binding = sessionRegistry.unbind(sessionId);
+        if (binding == null || binding.gameId() == null) {
+            return;
+        }
+        if (graceMillis <= 0) {
+            leaveUnlessBack(binding);
+        } else {
+            departures.schedule(binding, clock.getAsLong() + graceMillis);
+        }
+    }
+
+    /**
+     * Lets the players whose grace period has run out leave their game.
+     * Runs on the scheduler thread only, which owns the timing wheel.
+     */
+    @Scheduled(fixedDelayString = "${tictactoe.disconnect.tick-ms:1000}")
+    public void expireGracePeriods() {
+        List<PlayerSessionRegistry.Binding> expired = new ArrayList<>();
+        departures.advance(clock.getAsLong(), expired::add);
+        expired.forEach(this::leaveUnlessBack);
+    }
+
+    /**
+     * Applies a departure unless the player has connected again from another session.
+     */
+    private void leaveUnlessBack(PlayerSessionRegistry.Binding binding) {
+        if (sessionRegistry.getSessionId(binding.player()) == null) {
+            gameService.playerDisconnected(binding.player(), binding.gameId(), messagingTemplate);
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Component class that keeps every finished game in an append-only archive of memory-mapped segment files.
+ * <p>
+ * Each {@link GameRecord} published when a game ends is encoded in a few dozen bytes: a flags byte for the result,
+ * the forfeit and the bot, the board, variable-length times and strings, and the moves packed two to a byte on
+ * boards of up to 16 cells. A classic game with UUID ids takes about 80 bytes, so a gigabyte holds well over ten
+ * million games. Records go to the current segment, {@code games-NNNNNN.seg} in {@code tictactoe.archive.dir};
+ * when it is full the next one is started. Every start of the application writes to a new segment, and the
+ * segment in use is cut to its length on shutdown.
+ * </p>
+ * <p>
+ * Records are appended by a single writer thread, so the game's mailbox only hands the record over. The index is
+ * kept in memory and rebuilt from the segments on startup: the position and finish time of every record in
+ * archive order, an open-addressing table from game id to record, and the records of each player. Lookups by id
+ * and page queries by player and time range are binary searches or a few probes plus the decoding of the records
+ * returned. The index keeps finish times non-decreasing in archive order, so a game that finished a moment before
+ * a game archived ahead of it is indexed at the later time.
+ * </p>
+ */
+@Component
+public class GameArchive {
+
+    static final int MAGIC = 0x54545441;
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 0xFFFF;
+    private static final String SEGMENT_PREFIX = "games-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final GameState[] STATES = GameState.values();
+    private static final BotDifficulty[] DIFFICULTIES = BotDifficulty.values();
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final Executor writer;
+    private final ExecutorService ownedWriter;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final Map<String, RecordList> recordsByPlayer = new HashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private int activeSegment = -1;
+    private int activeOffset;
+    private int nextSegmentNumber;
+    private boolean closed;
+
+    private long[] positions = new long[1024];
+    private long[] finishTimes = new long[1024];
+    private int[] idHashes = new int[1024];
+    private int[] idTable = new int[2048];
+    private int count;
+    private long lastFinishedAt = Long.MIN_VALUE;
+
+    /**
+     * Constructs an archive in the given directory that appends on the given executor.
+     *
+     * @param directory    the directory of the segment files, created if missing
+     * @param segmentBytes the size of a segment file
+     * @param writer       the executor running the appends, one at a time
+     */
+    public GameArchive(Path directory, int segmentBytes, Executor writer) {
+        this(directory, segmentBytes, writer, null);
+    }
+
+    /**
+     * Constructs an archive backed by its own writer thread.
+     *
+     * @param directory    the directory of the segment files, created if missing
+     * @param segmentBytes the size of a segment file
+     */
+    @Autowired
+    public GameArchive(@Value("${tictactoe.archive.dir:data/archive}") String directory,
+                       @Value("${tictactoe.archive.segment-bytes:67108864}") int segmentBytes) {
+        this(Paths.get(directory), segmentBytes, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gameArchive");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    private GameArchive(Path directory, int segmentBytes, ExecutorService ownedWriter) {
+        this(directory, segmentBytes, ownedWriter, ownedWriter);
+    }
+
+    private GameArchive(Path directory, int segmentBytes, Executor writer, ExecutorService ownedWriter) {
+        if (segmentBytes < 4096) {
+            throw new IllegalArgumentException("A segment needs at least 4096 bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.writer = writer;
+        this.ownedWriter = ownedWriter;
+        open();
+    }
+
+    /**
+     * Archives a game that has just finished. Returns at once; the record is written by the writer.
+     *
+     * @param record the finished game
+     */
+    @EventListener
+    public void onGameFinished(GameRecord record) {
+        writer.execute(() -> append(record));
+    }
+
+    /**
+     * Writes a record to the current segment and indexes it, starting a new segment if it does not fit.
+     * Records larger than {@value #MAX_RECORD_BYTES} bytes, which only absurdly long names produce, are dropped.
+     *
+     * @param record the finished game
+     */
+    public void append(GameRecord record) {
+        byte[] bytes = encode(record);
+        if (bytes.length > MAX_RECORD_BYTES || HEADER_BYTES + 2 + bytes.length > segmentBytes) {
+            dropped.increment();
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            if (active == null || activeOffset + 2 + bytes.length > segmentBytes) {
+                startSegment();
+            }
+            active.put(activeOffset + 2, bytes);
+            active.putShort(activeOffset, (short) bytes.length);
+            index(record.gameId(), record.player1(), record.player2(), record.finishedAt(),
+                    (long) activeSegment << 32 | activeOffset);
+            activeOffset += 2 + bytes.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start a new archive segment in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up a finished game.
+     *
+     * @param gameId the game ID
+     * @return the record of the game, or null if it is not archived
+     */
+    public GameRecord get(String gameId) {
+        int hash = hash(gameId);
+        lock.readLock().lock();
+        try {
+            int mask = idTable.length - 1;
+            for (int i = hash & mask; idTable[i] != 0; i = (i + 1) & mask) {
+                int record = idTable[i] - 1;
+                if (idHashes[record] == hash) {
+                    GameRecord found = read(positions[record]);
+                    if (found.gameId().equals(gameId)) {
+                        return found;
+                    }
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of the games that finished in a time range, newest first.
+     *
+     * @param player only games of this player, or null for all games
+     * @param from   the start of the range in milliseconds, inclusive
+     * @param to     the end of the range in milliseconds, exclusive
+     * @param page   the page number, starting at 0
+     * @param size   the number of games per page
+     * @return the games on the page, empty past the last page
+     */
+    public List<GameRecord> query(String player, long from, long to, int page, int size) {
+        lock.readLock().lock();
+        try {
+            RecordList records = player != null ? recordsByPlayer.get(player) : null;
+            if ((player != null && records == null) || page < 0 || size <= 0) {
+                return List.of();
+            }
+            int length = records != null ? records.size : count;
+            int low = firstFinishedAtOrAfter(records, length, from);
+            int high = firstFinishedAtOrAfter(records, length, to);
+            long start = high - 1 - (long) page * size;
+            List<GameRecord> result = new ArrayList<>();
+            for (long i = start; i >= low && i > start - size; i--) {
+                int record = records != null ? records.items[(int) i] : (int) i;
+                result.add(read(positions[record]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of games archived
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of records that could not be archived
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Writes the pending records, flushes the current segment to disk and cuts it to its length.
+     * Records published afterwards are dropped.
+     */
+    @PreDestroy
+    public void close() {
+        if (ownedWriter != null) {
+            ownedWriter.shutdown();
+            try {
+                ownedWriter.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            closeActiveSegment(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the archive segment in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Maps the existing segments and indexes their records.
+     */
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(file -> segmentNumber(file) >= 0)
+                        .sorted(Comparator.comparingInt(GameArchive::segmentNumber))
+                        .toList();
+            }
+            for (Path file : files) {
+                nextSegmentNumber = segmentNumber(file) + 1;
+                ByteBuffer segment;
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                if (segment.capacity() >= HEADER_BYTES && segment.getInt(0) == MAGIC) {
+                    segments.add(segment);
+                    indexSegment(segments.size() - 1);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the game archive in " + directory, e);
+        }
+    }
+
+    /**
+     * Indexes the records of a segment up to the first empty or incomplete one.
+     */
+    private void indexSegment(int segmentIndex) {
+        ByteBuffer segment = segments.get(segmentIndex);
+        int offset = HEADER_BYTES;
+        while (offset + 2 <= segment.capacity()) {
+            int length = segment.getShort(offset) & 0xFFFF;
+            if (length == 0 || offset + 2 + length > segment.capacity()) {
+                break;
+            }
+            long position = (long) segmentIndex << 32 | offset;
+            GameRecord record = read(position);
+            index(record.gameId(), record.player1(), record.player2(), record.finishedAt(), position);
+            offset += 2 + length;
+        }
+    }
+
+    /**
+     * Creates and maps the next segment file, after flushing the current one. Runs under the write lock.
+     */
+    private void startSegment() throws IOException {
+        closeActiveSegment(false);
+        while (true) {
+            Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+            try {
+                activeChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Another archive on the same directory took this number
+            }
+        }
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        active.putInt(0, MAGIC);
+        active.putInt(4, FORMAT_VERSION);
+        segments.add(active);
+        activeSegment = segments.size() - 1;
+        activeOffset = HEADER_BYTES;
+    }
+
+    /**
+     * Flushes the current segment and closes its file, cutting it to its length if asked. Runs under the write lock.
+     */
+    private void closeActiveSegment(boolean truncate) throws IOException {
+        if (active == null) {
+            return;
+        }
+        active.force();
+        if (truncate) {
+            activeChannel.truncate(activeOffset);
+        }
+        activeChannel.close();
+        activeChannel = null;
+        if (truncate) {
+            active = null;
+        }
+    }
+
+    /**
+     * Adds a record to the index. Runs under the write lock, or in the constructor.
+     */
+    private void index(String gameId, String player1, String player2, long finishedAt, long position) {
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+            finishTimes = Arrays.copyOf(finishTimes, count * 2);
+            idHashes = Arrays.copyOf(idHashes, count * 2);
+        }
+        lastFinishedAt = Math.max(lastFinishedAt, finishedAt);
+        positions[count] = position;
+        finishTimes[count] = lastFinishedAt;
+        idHashes[count] = hash(gameId);
+        if ((count + 1) * 2 > idTable.length) {
+            idTable = new int[idTable.length * 2];
+            for (int record = 0; record < count; record++) {
+                insertId(record);
+            }
+        }
+        insertId(count);
+        recordsByPlayer.computeIfAbsent(player1, p -> new RecordList()).add(count);
+        if (player2 != null && !player2.equals(player1)) {
+            recordsByPlayer.computeIfAbsent(player2, p -> new RecordList()).add(count);
+        }
+        count++;
+    }
+
+    private void insertId(int record) {
+        int mask = idTable.length - 1;
+        int i = idHashes[record] & mask;
+        while (idTable[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        idTable[i] = record + 1;
+    }
+
+    /**
+     * Finds the first of the given records, or of all records, that is indexed at or after a time.
+     */
+    private int firstFinishedAtOrAfter(RecordList records, int length, long time) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long finishedAt = finishTimes[records != null ? records.items[mid] : mid];
+            if (finishedAt < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Encodes a record: flags, board, finish time, duration, id, players and moves.
+     */
+    private static byte[] encode(GameRecord record) {
+        RecordEncoder out = new RecordEncoder();
+        int bot = record.botDifficulty() != null ? record.botDifficulty().ordinal() + 1 : 0;
+        out.writeByte(record.result().ordinal() | (record.forfeited() ? 0x08 : 0) | bot << 4);
+        out.writeByte(record.size());
+        out.writeByte(record.winLength());
+        out.writeVarLong(record.finishedAt());
+        out.writeVarLong(Math.max(0, record.finishedAt() - record.createdAt()));
+        out.writeString(record.gameId());
+        out.writeString(record.player1());
+        out.writeString(record.player2());
+        out.writeMoves(record.moves(), record.size() * record.size());
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the record at a position.
+     */
+    private GameRecord read(long position) {
+        RecordDecoder in = new RecordDecoder(segments.get((int) (position >>> 32)), (int) position + 2);
+        int flags = in.readByte();
+        int size = in.readByte();
+        int winLength = in.readByte();
+        long finishedAt = in.readVarLong();
+        long createdAt = finishedAt - in.readVarLong();
+        String gameId = in.readString();
+        String player1 = in.readString();
+        String player2 = in.readString();
+        int[] moves = in.readMoves(size * size);
+        int bot = flags >>> 4;
+        return new GameRecord(gameId, player1, player2, size, winLength, bot > 0 ? DIFFICULTIES[bot - 1] : null,
+                STATES[flags & 0x07], (flags & 0x08) != 0, createdAt, finishedAt, moves);
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int hash(String gameId) {
+        int hash = gameId.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Growable list of record numbers, in archive order.
+     */
+    private static final class RecordList {
+        private int[] items = new int[4];
+        private int size;
+
+        void add(int record) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = record;
+        }
+    }
+}
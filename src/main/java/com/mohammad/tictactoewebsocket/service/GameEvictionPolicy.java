@@ -0,0 +1,75 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameCategory;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Component class holding how long each category of game may stay idle before it is evicted.
+ * A game's deadline is its last activity plus the time-to-live of the category it is in at that moment.
+ */
+@Component
+public class GameEvictionPolicy {
+
+    private final Map<GameCategory, Long> ttlMillis = new EnumMap<>(GameCategory.class);
+    private final long tickMillis;
+
+    /**
+     * Constructs a policy with the default time-to-live of every category.
+     */
+    public GameEvictionPolicy() {
+        this(600_000, 1_800_000, 86_400_000, 300_000, 1_000);
+    }
+
+    /**
+     * Constructs a policy with the given time-to-live of every category.
+     *
+     * @param waitingTtlMillis    idle time allowed to a game waiting for a second player
+     * @param inProgressTtlMillis idle time allowed to a game being played
+     * @param savedTtlMillis      idle time allowed to a game saved for later after an early leave
+     * @param finishedTtlMillis   idle time allowed to a won or tied game
+     * @param tickMillis          how often idle games are looked for
+     */
+    @Autowired
+    public GameEvictionPolicy(@Value("${tictactoe.eviction.waiting-ttl-ms:600000}") long waitingTtlMillis,
+                              @Value("${tictactoe.eviction.in-progress-ttl-ms:1800000}") long inProgressTtlMillis,
+                              @Value("${tictactoe.eviction.saved-ttl-ms:86400000}") long savedTtlMillis,
+                              @Value("${tictactoe.eviction.finished-ttl-ms:300000}") long finishedTtlMillis,
+                              @Value("${tictactoe.eviction.tick-ms:1000}") long tickMillis) {
+        ttlMillis.put(GameCategory.WAITING, waitingTtlMillis);
+        ttlMillis.put(GameCategory.IN_PROGRESS, inProgressTtlMillis);
+        ttlMillis.put(GameCategory.SAVED, savedTtlMillis);
+        ttlMillis.put(GameCategory.FINISHED, finishedTtlMillis);
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Returns the time after which a game counts as idle, based on its current category.
+     *
+     * @param game the game
+     * @return the eviction deadline in milliseconds
+     */
+    public long deadline(TicTacToe game) {
+        return game.getLastActivity() + ttlMillis.get(GameCategory.of(game));
+    }
+
+    /**
+     * @param category a game category
+     * @return the idle time allowed to games of that category, in milliseconds
+     */
+    public long getTtlMillis(GameCategory category) {
+        return ttlMillis.get(category);
+    }
+
+    /**
+     * @return how often idle games are looked for, in milliseconds
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+}
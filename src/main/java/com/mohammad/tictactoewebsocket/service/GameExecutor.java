@@ -0,0 +1,169 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Component class that runs the commands of each game one at a time, in the order they were submitted.
+ * <p>
+ * Every game with pending commands has a mailbox. A mailbox is drained by at most one pool thread at a time,
+ * so the commands of one game never interleave, while different games run in parallel on all cores.
+ * No lock is shared between games: a mailbox is created and removed under its own map entry only.
+ * </p>
+ */
+@Component
+public class GameExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(GameExecutor.class);
+
+    /**
+     * Maximum number of commands a mailbox runs before giving its thread back to the pool.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final ExecutorService ownedPool;
+
+    /**
+     * Constructs an executor that drains mailboxes on the submitting thread.
+     * Commands still run one at a time per game; this is the mode used when no pool is configured.
+     */
+    public GameExecutor() {
+        this(Runnable::run);
+    }
+
+    /**
+     * Constructs an executor that drains mailboxes on the given executor.
+     *
+     * @param executor the executor running the mailboxes
+     */
+    public GameExecutor(Executor executor) {
+        this.executor = executor;
+        this.ownedPool = null;
+    }
+
+    /**
+     * Constructs an executor backed by its own work-stealing pool.
+     *
+     * @param threads number of pool threads, or 0 to use one per available processor
+     */
+    @Autowired
+    public GameExecutor(@Value("${tictactoe.executor.threads:0}") int threads) {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.ownedPool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        this.executor = ownedPool;
+    }
+
+    /**
+     * Submits a command for a game. Commands for the same game run in submission order and never concurrently.
+     *
+     * @param gameId   the game the command belongs to
+     * @param command  the command to run
+     * @return a future completed once the command has run, or completed exceptionally if it threw; the failure is
+     * also logged with the game ID
+     */
+    public CompletableFuture<Void> execute(String gameId, Runnable command) {
+        Task task = new Task(gameId, command);
+        Mailbox mailbox = mailboxes.compute(gameId, (id, current) -> {
+            Mailbox target = current != null ? current : new Mailbox(id);
+            target.tasks.add(task);
+            return target;
+        });
+        mailbox.schedule();
+        return task.future;
+    }
+
+    /**
+     * @return the number of games with pending or running commands
+     */
+    public int getActiveMailboxCount() {
+        return mailboxes.size();
+    }
+
+    /**
+     * Shuts down the pool owned by this executor, if any.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (ownedPool != null) {
+            ownedPool.shutdown();
+        }
+    }
+
+    /**
+     * A command and the future completed when it has run.
+     */
+    private static final class Task {
+        private final String gameId;
+        private final Runnable command;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private Task(String gameId, Runnable command) {
+            this.gameId = gameId;
+            this.command = command;
+        }
+
+        private void run() {
+            try {
+                command.run();
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                // Most callers never look at the future, so the failure would go unnoticed without the log.
+                log.error("Command for game {} failed", gameId, e);
+            }
+        }
+    }
+
+    /**
+     * The pending commands of one game. The {@code scheduled} flag makes sure a single thread drains it.
+     */
+    private final class Mailbox implements Runnable {
+        private final String gameId;
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Mailbox(String gameId) {
+            this.gameId = gameId;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            Task task;
+            int ran = 0;
+            while (ran < BATCH_SIZE && (task = tasks.poll()) != null) {
+                task.run();
+                ran++;
+            }
+            scheduled.set(false);
+            if (!tasks.isEmpty()) {
+                schedule();
+                return;
+            }
+            // Commands are only added inside compute(), so an empty mailbox can be dropped safely here.
+            mailboxes.computeIfPresent(gameId, (id, current) ->
+                    current == this && tasks.isEmpty() && !scheduled.get() ? null : current);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Component class that encodes the game frames sent to clients once per game version.
+ * <p>
+ * The JSON bytes of the last frame built for a game are kept together with the game version and the frame type.
+ * Any further send of the same frame (to the game topic, the spectator topic or a resync) reuses those bytes,
+ * and the next move changes the version, which makes the cached bytes stale.
+ * Frames are sent as {@code byte[]} payloads with a JSON content type, so the messaging template and the broker
+ * pass them through without running a message converter.
+ * </p>
+ */
+@Component
+public class GameFrameCache {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Frame> frames = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a cache with a default object mapper.
+     */
+    public GameFrameCache() {
+        this(new ObjectMapper());
+    }
+
+    /**
+     * Constructs a cache that encodes frames with the given object mapper.
+     *
+     * @param objectMapper the mapper used to encode frames
+     */
+    @Autowired
+    public GameFrameCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the encoded frame of a given type for the current version of a game, building it only on a miss.
+     *
+     * @param game     the game the frame describes
+     * @param type     the frame type, part of the cache key
+     * @param payload  builds the message to encode from the game
+     * @return the JSON bytes of the frame
+     */
+    public byte[] encode(TicTacToe game, String type, Function<TicTacToe, Object> payload) {
+        long version = game.getVersion();
+        Frame frame = frames.get(game.getGameId());
+        if (frame != null && frame.version == version && frame.type.equals(type)) {
+            return frame.bytes;
+        }
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(payload.apply(game));
+            frames.put(game.getGameId(), new Frame(version, type, bytes));
+            return bytes;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode " + type + " frame for game " + game.getGameId(), e);
+        }
+    }
+
+    /**
+     * Encodes a frame for the current version of a game and sends it to the game topic.
+     *
+     * @param messagingTemplate the WebSocket messaging template
+     * @param game              the game the frame describes
+     * @param type              the frame type
+     * @param payload           builds the message to encode from the game
+     */
+    public void broadcast(SimpMessagingTemplate messagingTemplate, TicTacToe game, String type,
+                          Function<TicTacToe, Object> payload) {
+        send(messagingTemplate, game.getDestination(), encode(game, type, payload));
+    }
+
+    /**
+     * Sends already encoded JSON bytes to a destination. Only the headers are new for each send.
+     *
+     * @param messagingTemplate the WebSocket messaging template
+     * @param destination       the destination
+     * @param bytes             the encoded frame
+     */
+    public void send(SimpMessagingTemplate messagingTemplate, String destination, byte[] bytes) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(bytes, accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+
+    /**
+     * Drops the cached frame of a game that is gone.
+     *
+     * @param gameId the game ID
+     */
+    public void evict(String gameId) {
+        frames.remove(gameId);
+    }
+
+    /**
+     * @return the number of games with a cached frame
+     */
+    public int size() {
+        return frames.size();
+    }
+
+    /**
+     * The encoded frame of one game version.
+     */
+    private record Frame(long version, String type, byte[] bytes) {
+    }
+}
@@ -0,0 +1,710 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.enumeration.JournalDurability;
+import com.mohammad.tictactoewebsocket.model.JournalEntry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Component class that keeps an append-only journal of the changes made to the games in memory, so that a crash
+ * loses none of the moves and pairings accepted since the last snapshot.
+ * <p>
+ * Every {@link JournalEntry} gets the next sequence number and is copied into a pending buffer under a short lock.
+ * Every {@code tictactoe.journal.flush-interval-ms} milliseconds the journal thread swaps the buffer for an empty
+ * one and writes the whole batch with one write, followed by one force to disk for all of its records: a group
+ * commit. The {@link JournalDurability} decides what a command waits for. {@code ASYNC} and {@code GROUP} never
+ * wait, and only {@code GROUP} forces the batches to disk. {@code SYNC} waits until the batch holding its record has
+ * been forced, so the added latency is one flush interval at most, shared by every command of the batch.
+ * A batch that fails to write is put back in front of the pending records and written again by the next commit,
+ * so no record is lost and none changes its sequence number.
+ * </p>
+ * <p>
+ * Records go to segment files, {@code journal-NNNNNN.log} in {@code tictactoe.journal.dir}. Each segment starts
+ * with the sequence number of its first record, and each record carries its length and a CRC32C of its bytes, so
+ * a record torn by a crash ends the segment on replay. A new segment is started once the current one passes
+ * {@code tictactoe.journal.segment-bytes}, on every start of the application and after a failed write, which may
+ * have left a torn record behind. A segment is only read up to the first sequence number of the next one, so the
+ * records a failed write did get into a segment are never read twice. Once a snapshot is on disk, the
+ * segments holding only records from before it are deleted by {@link #compact(long)}.
+ * </p>
+ * <p>
+ * On startup {@link #replay(long, Consumer)} hands the records from the position of the last snapshot on to the
+ * manager, which applies them on top of the restored games. Entries appended while replaying are ignored.
+ * </p>
+ */
+@Component
+public class GameJournal {
+
+    static final int MAGIC = 0x5454544A;
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final GameState[] STATES = GameState.values();
+    private static final BotDifficulty[] DIFFICULTIES = BotDifficulty.values();
+
+    private static final int CREATED = 1;
+    private static final int SEATED = 2;
+    private static final int MOVED = 3;
+    private static final int FORFEITED = 4;
+    private static final int SAVED = 5;
+    private static final int REMOVED = 6;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final JournalDurability durability;
+    private final boolean inline;
+    private final ScheduledExecutorService ownedFlusher;
+
+    /**
+     * Guards the pending buffer and the sequence numbers. Held only to copy a record or swap the buffers.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private byte[] pending = new byte[64 << 10];
+    private byte[] spare = new byte[64 << 10];
+    private int pendingLength;
+    private long nextSequence;
+    private long durableSequence;
+    private RuntimeException failure;
+    private long failedFlushes;
+    private boolean closed;
+
+    /**
+     * Guards the segment files. Held by one flush, compaction or replay at a time.
+     */
+    private final ReentrantLock fileLock = new ReentrantLock();
+    private final List<Segment> segments = new ArrayList<>();
+    private FileChannel active;
+    private long activeBytes;
+    private long writtenSequence;
+    private int nextSegmentNumber;
+    private boolean rollSegment;
+
+    private volatile boolean replaying;
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    /**
+     * Constructs a journal that keeps nothing, for a manager that only relies on snapshots.
+     */
+    public GameJournal() {
+        this(null, 0, JournalDurability.NONE, false, null);
+    }
+
+    /**
+     * Constructs a journal that writes every record on the thread appending it, before returning.
+     *
+     * @param directory    the directory of the segment files, created if missing
+     * @param segmentBytes the size after which a new segment is started
+     * @param durability   whether the records are forced to disk
+     */
+    public GameJournal(Path directory, int segmentBytes, JournalDurability durability) {
+        this(directory, segmentBytes, durability, true, null);
+    }
+
+    /**
+     * Constructs a journal that commits the pending records on the given executor.
+     *
+     * @param directory           the directory of the segment files, created if missing
+     * @param segmentBytes        the size after which a new segment is started
+     * @param durability          what a command waits for
+     * @param flusher             the executor running the group commits
+     * @param flushIntervalMillis the time between two group commits
+     */
+    public GameJournal(Path directory, int segmentBytes, JournalDurability durability,
+                       ScheduledExecutorService flusher, long flushIntervalMillis) {
+        this(directory, segmentBytes, durability, false, null);
+        schedule(flusher, flushIntervalMillis);
+    }
+
+    /**
+     * Constructs a journal backed by its own thread, unless the durability is {@code NONE}.
+     *
+     * @param directory           the directory of the segment files
+     * @param segmentBytes        the size after which a new segment is started
+     * @param durability          what a command waits for
+     * @param flushIntervalMillis the time between two group commits
+     */
+    @Autowired
+    public GameJournal(@Value("${tictactoe.journal.dir:data/journal}") String directory,
+                       @Value("${tictactoe.journal.segment-bytes:67108864}") int segmentBytes,
+                       @Value("${tictactoe.journal.durability:GROUP}") JournalDurability durability,
+                       @Value("${tictactoe.journal.flush-interval-ms:2}") long flushIntervalMillis) {
+        this(Paths.get(directory), segmentBytes, durability, durability == JournalDurability.NONE ? null
+                : Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "gameJournal");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+        if (ownedFlusher != null) {
+            schedule(ownedFlusher, flushIntervalMillis);
+        }
+    }
+
+    private GameJournal(Path directory, int segmentBytes, JournalDurability durability,
+                        ScheduledExecutorService ownedFlusher) {
+        this(directory, segmentBytes, durability, false, ownedFlusher);
+    }
+
+    private GameJournal(Path directory, int segmentBytes, JournalDurability durability, boolean inline,
+                        ScheduledExecutorService ownedFlusher) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.durability = durability;
+        this.inline = inline;
+        this.ownedFlusher = ownedFlusher;
+        if (durability != JournalDurability.NONE) {
+            open();
+        }
+    }
+
+    /**
+     * Appends a change to the journal. Depending on the durability, waits until the record is on disk.
+     *
+     * @param entry the change
+     * @throws IllegalStateException if the journal could not write the record in {@code SYNC} mode
+     */
+    public void append(JournalEntry entry) {
+        if (durability == JournalDurability.NONE || replaying) {
+            return;
+        }
+        byte[] payload = encode(entry);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        long sequence;
+        lock.lock();
+        try {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            if (pendingLength + RECORD_HEADER_BYTES + payload.length > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2,
+                        pendingLength + RECORD_HEADER_BYTES + payload.length));
+            }
+            putInt(pending, pendingLength, payload.length);
+            putInt(pending, pendingLength + 4, (int) crc.getValue());
+            System.arraycopy(payload, 0, pending, pendingLength + RECORD_HEADER_BYTES, payload.length);
+            pendingLength += RECORD_HEADER_BYTES + payload.length;
+            sequence = nextSequence++;
+        } finally {
+            lock.unlock();
+        }
+        appended.increment();
+        if (inline) {
+            flush();
+        } else if (durability == JournalDurability.SYNC) {
+            awaitDurable(sequence);
+        }
+    }
+
+    /**
+     * Writes the pending records to the current segment in one batch and, unless the durability is {@code ASYNC},
+     * forces them to disk. Wakes the commands waiting for them. If the write fails, the batch stays pending for the
+     * next flush, which writes it to a new segment.
+     */
+    public void flush() {
+        if (durability == JournalDurability.NONE) {
+            return;
+        }
+        fileLock.lock();
+        byte[] batch = null;
+        int length = 0;
+        try {
+            long end;
+            lock.lock();
+            try {
+                batch = pending;
+                length = pendingLength;
+                end = nextSequence;
+                pending = spare;
+                spare = batch;
+                pendingLength = 0;
+            } finally {
+                lock.unlock();
+            }
+            if (length > 0) {
+                if (active == null || rollSegment
+                        || (activeBytes > HEADER_BYTES && activeBytes + length > segmentBytes)) {
+                    startSegment(writtenSequence);
+                }
+                writeFully(active, ByteBuffer.wrap(batch, 0, length));
+                activeBytes += length;
+                if (durability != JournalDurability.ASYNC) {
+                    active.force(false);
+                    syncs.increment();
+                }
+                writtenSequence = end;
+            }
+            lock.lock();
+            try {
+                durableSequence = end;
+                failure = null;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException e) {
+            UncheckedIOException error = new UncheckedIOException("Could not write the journal in " + directory, e);
+            // The write may have stopped halfway through a record, so the segment is not written to again.
+            rollSegment = true;
+            lock.lock();
+            try {
+                requeue(batch, length);
+                failure = error;
+                failedFlushes++;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            throw error;
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Hands the records from a sequence number on to a consumer, in order, and makes sure new records are numbered
+     * after them. Records appended meanwhile, such as by the consumer, are ignored.
+     *
+     * @param fromSequence the sequence number of the first record wanted, such as the position of a snapshot
+     * @param apply        receives the entries
+     * @return the number of entries handed over
+     */
+    public long replay(long fromSequence, Consumer<JournalEntry> apply) {
+        if (durability == JournalDurability.NONE) {
+            return 0;
+        }
+        replaying = true;
+        fileLock.lock();
+        try {
+            long replayed = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                long[] count = new long[1];
+                scan(segments.get(i), fromSequence, endOf(i), entry -> {
+                    apply.accept(entry);
+                    count[0]++;
+                });
+                replayed += count[0];
+            }
+            lock.lock();
+            try {
+                if (nextSequence < fromSequence) {
+                    nextSequence = fromSequence;
+                    durableSequence = fromSequence;
+                    writtenSequence = fromSequence;
+                }
+            } finally {
+                lock.unlock();
+            }
+            return replayed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay the journal in " + directory, e);
+        } finally {
+            fileLock.unlock();
+            replaying = false;
+        }
+    }
+
+    /**
+     * Deletes the segments whose records all come before a sequence number. The newest segment is always kept,
+     * since it carries the numbering over to the next start.
+     *
+     * @param sequence the position of a snapshot on disk; earlier records are no longer needed
+     * @return the number of segments deleted
+     */
+    public int compact(long sequence) {
+        if (durability == JournalDurability.NONE) {
+            return 0;
+        }
+        fileLock.lock();
+        try {
+            int deleted = 0;
+            while (segments.size() > 1 && segments.get(1).firstSequence <= sequence) {
+                Files.deleteIfExists(segments.remove(0).file);
+                deleted++;
+            }
+            return deleted;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact the journal in " + directory, e);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * @return the sequence number the next record will get; a snapshot taken now holds every earlier record
+     */
+    public long getNextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how far the journal goes to keep a record
+     */
+    public JournalDurability getDurability() {
+        return durability;
+    }
+
+    /**
+     * @return the number of records appended so far
+     */
+    public long getAppendedCount() {
+        return appended.sum();
+    }
+
+    /**
+     * @return the number of times the journal was forced to disk
+     */
+    public long getSyncCount() {
+        return syncs.sum();
+    }
+
+    /**
+     * @return the number of records appended after the journal was closed
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the number of segment files
+     */
+    public int getSegmentCount() {
+        fileLock.lock();
+        try {
+            return segments.size();
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Stops the journal thread, writes the pending records and closes the current segment.
+     * Records appended afterwards are dropped.
+     */
+    @PreDestroy
+    public void close() {
+        if (ownedFlusher != null) {
+            ownedFlusher.shutdown();
+            try {
+                ownedFlusher.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (durability == JournalDurability.NONE) {
+            return;
+        }
+        flush();
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        fileLock.lock();
+        try {
+            if (active != null) {
+                active.force(true);
+                active.close();
+                active = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close the journal in " + directory, e);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * Runs the group commits on an executor. A failed commit is reported to the commands waiting for it, and the
+     * next commit writes its records again.
+     */
+    private void schedule(ScheduledExecutorService flusher, long flushIntervalMillis) {
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("The flush interval must be positive");
+        }
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (UncheckedIOException e) {
+                // Already handed to the waiting commands
+            }
+        }, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Puts a batch that could not be written back in front of the records appended since it was taken. Runs under
+     * both locks.
+     */
+    private void requeue(byte[] batch, int length) {
+        if (length == 0) {
+            return;
+        }
+        byte[] merged = length + pendingLength <= batch.length ? batch
+                : Arrays.copyOf(batch, Math.max(batch.length * 2, length + pendingLength));
+        System.arraycopy(pending, 0, merged, length, pendingLength);
+        spare = pending;
+        pending = merged;
+        pendingLength += length;
+    }
+
+    /**
+     * Waits until the record with the given sequence number has been forced to disk, or until a commit fails
+     * meanwhile.
+     */
+    private void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            long failedBefore = failedFlushes;
+            while (durableSequence <= sequence && failedFlushes == failedBefore) {
+                flushed.awaitUninterruptibly();
+            }
+            if (durableSequence <= sequence) {
+                throw new IllegalStateException("The journal record could not be written", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the existing segments and numbers new records after the last one written.
+     */
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(file -> segmentNumber(file) >= 0)
+                        .sorted(Comparator.comparingInt(GameJournal::segmentNumber))
+                        .toList();
+            }
+            for (Path file : files) {
+                nextSegmentNumber = segmentNumber(file) + 1;
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                    while (header.hasRemaining() && channel.read(header) >= 0) {
+                        // Read the whole header
+                    }
+                    if (!header.hasRemaining() && header.getInt(0) == MAGIC && header.getInt(4) == FORMAT_VERSION) {
+                        segments.add(new Segment(file, header.getLong(8)));
+                    }
+                }
+            }
+            if (!segments.isEmpty()) {
+                nextSequence = scan(segments.get(segments.size() - 1), Long.MAX_VALUE, Long.MAX_VALUE, null);
+                durableSequence = nextSequence;
+                writtenSequence = nextSequence;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the game journal in " + directory, e);
+        }
+    }
+
+    /**
+     * @return the sequence number the segment at the given index ends before: the first one of the next segment
+     */
+    private long endOf(int index) {
+        return index + 1 < segments.size() ? segments.get(index + 1).firstSequence : Long.MAX_VALUE;
+    }
+
+    /**
+     * Reads the records of a segment up to the first incomplete or damaged one, or up to a sequence number.
+     *
+     * @param segment      the segment
+     * @param fromSequence the first sequence number handed to the consumer
+     * @param toSequence   the sequence number to stop before
+     * @param consumer     receives the entries, or null to only count them
+     * @return the sequence number following the last record read
+     */
+    private long scan(Segment segment, long fromSequence, long toSequence, Consumer<JournalEntry> consumer)
+            throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment.file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        long sequence = segment.firstSequence;
+        int offset = HEADER_BYTES;
+        CRC32C crc = new CRC32C();
+        while (sequence < toSequence && offset + RECORD_HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || length > buffer.capacity() - offset - RECORD_HEADER_BYTES) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(offset + RECORD_HEADER_BYTES, length));
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                break;
+            }
+            if (consumer != null && sequence >= fromSequence) {
+                consumer.accept(decode(new RecordDecoder(buffer, offset + RECORD_HEADER_BYTES)));
+            }
+            sequence++;
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        return sequence;
+    }
+
+    /**
+     * Creates the next segment file, after forcing and closing the current one. A segment left behind by a failed
+     * write is only closed. Runs under the file lock.
+     */
+    private void startSegment(long firstSequence) throws IOException {
+        if (active != null) {
+            FileChannel previous = active;
+            active = null;
+            try (previous) {
+                if (!rollSegment) {
+                    previous.force(true);
+                }
+            }
+        }
+        while (true) {
+            Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+            try {
+                active = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                segments.add(new Segment(file, firstSequence));
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // Another journal on the same directory took this number
+            }
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(firstSequence).flip();
+        writeFully(active, header);
+        activeBytes = HEADER_BYTES;
+        rollSegment = false;
+    }
+
+    /**
+     * Encodes an entry: its type, the game ID and the fields of the type.
+     */
+    static byte[] encode(JournalEntry entry) {
+        RecordEncoder out = new RecordEncoder();
+        if (entry instanceof JournalEntry.Created created) {
+            out.writeByte(CREATED);
+            out.writeString(created.gameId());
+            out.writeString(created.player1());
+            out.writeString(created.player2());
+            out.writeByte(created.size());
+            out.writeByte(created.winLength());
+            out.writeByte(created.botDifficulty() != null ? created.botDifficulty().ordinal() + 1 : 0);
+            out.writeByte(created.state().ordinal());
+            out.writeVarLong(created.createdAt());
+        } else if (entry instanceof JournalEntry.Seated seated) {
+            out.writeByte(SEATED);
+            out.writeString(seated.gameId());
+            out.writeString(seated.player2());
+        } else if (entry instanceof JournalEntry.Moved moved) {
+            out.writeByte(MOVED);
+            out.writeString(moved.gameId());
+            out.writeVarLong(moved.ply());
+            out.writeVarLong(moved.cell());
+        } else if (entry instanceof JournalEntry.Forfeited forfeited) {
+            out.writeByte(FORFEITED);
+            out.writeString(forfeited.gameId());
+            out.writeString(forfeited.winner());
+        } else if (entry instanceof JournalEntry.Saved saved) {
+            out.writeByte(SAVED);
+            out.writeString(saved.gameId());
+        } else {
+            out.writeByte(REMOVED);
+            out.writeString(entry.gameId());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes what {@link #encode(JournalEntry)} wrote.
+     */
+    static JournalEntry decode(RecordDecoder in) {
+        int type = in.readByte();
+        String gameId = in.readString();
+        return switch (type) {
+            case CREATED -> {
+                String player1 = in.readString();
+                String player2 = in.readString();
+                int size = in.readByte();
+                int winLength = in.readByte();
+                int bot = in.readByte();
+                GameState state = STATES[in.readByte()];
+                yield new JournalEntry.Created(gameId, player1, player2, size, winLength,
+                        bot > 0 ? DIFFICULTIES[bot - 1] : null, state, in.readVarLong());
+            }
+            case SEATED -> new JournalEntry.Seated(gameId, in.readString());
+            case MOVED -> new JournalEntry.Moved(gameId, (int) in.readVarLong(), (int) in.readVarLong());
+            case FORFEITED -> new JournalEntry.Forfeited(gameId, in.readString());
+            case SAVED -> new JournalEntry.Saved(gameId);
+            case REMOVED -> new JournalEntry.Removed(gameId);
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        };
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A segment file and the sequence number of its first record.
+     */
+    private record Segment(Path file, long firstSequence) {
+    }
+}
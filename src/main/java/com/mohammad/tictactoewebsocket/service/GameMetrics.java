@@ -0,0 +1,174 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.config.SessionOrderedTaskExecutor;
+import com.mohammad.tictactoewebsocket.enumeration.GameCategory;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Component class publishing the game metrics to Micrometer, and from there to {@code /actuator/prometheus}.
+ * <ul>
+ *     <li>{@code tictactoe.move.latency}: time from receiving a move to having broadcast its result, as a histogram</li>
+ *     <li>{@code tictactoe.games}: live games by {@link GameState}</li>
+ *     <li>{@code tictactoe.matchmaking.wait}: time from starting a game to being paired, per player, as a histogram</li>
+ *     <li>{@code tictactoe.games.saved}: games saved for later after an early leave</li>
+ *     <li>{@code tictactoe.games.evicted}: idle games evicted, by {@link GameCategory}</li>
+ *     <li>{@code tictactoe.channel.queue.depth}, {@code tictactoe.channel.active.threads} and
+ *     {@code tictactoe.channel.pool.size}: the executors of the inbound, outbound and broker STOMP channels,
+ *     with {@code tictactoe.channel.active.sessions} instead of the pool size for a {@link SessionOrderedTaskExecutor}</li>
+ * </ul>
+ * <p>
+ * Counting games by state walks every game, so the counts are computed at most once per
+ * {@link #GAME_COUNT_MAX_AGE_MILLIS} and shared by all the state gauges of a scrape.
+ * </p>
+ */
+@Component
+public class GameMetrics {
+
+    /**
+     * Maximum age of the game counts returned to the state gauges.
+     */
+    static final long GAME_COUNT_MAX_AGE_MILLIS = 1_000;
+
+    private final Timer moveLatency;
+    private final Timer matchmakingWait;
+    private final Counter savedGames;
+
+    private TicTacToeManager manager;
+    private volatile Map<GameState, Long> gameCounts;
+    private volatile long gameCountsAt;
+
+    /**
+     * Constructs metrics kept in a private registry, for use outside the application context.
+     */
+    public GameMetrics() {
+        this(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Constructs the move, matchmaking and early-leave meters in the given registry.
+     *
+     * @param registry the meter registry
+     */
+    public GameMetrics(MeterRegistry registry) {
+        this.moveLatency = Timer.builder("tictactoe.move.latency")
+                .description("Time from receiving a move to having broadcast its result")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.matchmakingWait = Timer.builder("tictactoe.matchmaking.wait")
+                .description("Time from starting a game to being paired with an opponent")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.savedGames = Counter.builder("tictactoe.games.saved")
+                .description("Games saved for later after an early leave")
+                .register(registry);
+    }
+
+    /**
+     * Constructs all meters, including the gauges over the games of the manager and the STOMP channel executors.
+     *
+     * @param registry  the meter registry
+     * @param manager   the manager holding the games
+     * @param executors the thread pool executors of the application context, by bean name
+     */
+    @Autowired
+    public GameMetrics(MeterRegistry registry, TicTacToeManager manager, Map<String, ThreadPoolTaskExecutor> executors) {
+        this(registry);
+        this.manager = manager;
+        for (GameState state : GameState.values()) {
+            Gauge.builder("tictactoe.games", this, metrics -> metrics.countGames(state))
+                    .description("Live games by state")
+                    .tag("state", state.name())
+                    .register(registry);
+        }
+        for (GameCategory category : GameCategory.values()) {
+            FunctionCounter.builder("tictactoe.games.evicted", manager, m -> m.getEvictionCounts().get(category))
+                    .description("Idle games evicted")
+                    .tag("category", category.name())
+                    .register(registry);
+        }
+        executors.forEach((name, executor) -> {
+            if (name.endsWith("ChannelExecutor")) {
+                bindChannelExecutor(registry, name.substring(0, name.length() - "Executor".length()), executor);
+            }
+        });
+    }
+
+    /**
+     * Records the handling time of one move.
+     *
+     * @param startNanos {@link System#nanoTime()} when the move was received
+     */
+    public void recordMove(long startNanos) {
+        moveLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records how long a player waited for an opponent.
+     *
+     * @param waitMillis the wait in milliseconds
+     */
+    public void recordMatchmakingWait(long waitMillis) {
+        matchmakingWait.record(Math.max(0, waitMillis), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Counts a game saved for later.
+     */
+    public void gameSaved() {
+        savedGames.increment();
+    }
+
+    private double countGames(GameState state) {
+        long now = System.currentTimeMillis();
+        Map<GameState, Long> counts = gameCounts;
+        if (counts == null || now - gameCountsAt > GAME_COUNT_MAX_AGE_MILLIS) {
+            counts = manager.countGamesByState();
+            gameCounts = counts;
+            gameCountsAt = now;
+        }
+        return counts.getOrDefault(state, 0L);
+    }
+
+    private static void bindChannelExecutor(MeterRegistry registry, String channel, ThreadPoolTaskExecutor executor) {
+        if (executor instanceof SessionOrderedTaskExecutor ordered) {
+            // Messages wait in per-session mailboxes, and in virtual mode the pool is not used at all.
+            Gauge.builder("tictactoe.channel.queue.depth", ordered, SessionOrderedTaskExecutor::getQueuedTaskCount)
+                    .description("Messages waiting in the session mailboxes of the channel executor")
+                    .tag("channel", channel)
+                    .register(registry);
+            Gauge.builder("tictactoe.channel.active.threads", ordered, SessionOrderedTaskExecutor::getActiveTaskCount)
+                    .description("Threads of the channel executor handling a message")
+                    .tag("channel", channel)
+                    .register(registry);
+            Gauge.builder("tictactoe.channel.active.sessions", ordered, SessionOrderedTaskExecutor::getActiveSessionCount)
+                    .description("Sessions with messages pending or being handled")
+                    .tag("channel", channel)
+                    .register(registry);
+            return;
+        }
+        Gauge.builder("tictactoe.channel.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Messages waiting for a thread of the channel executor")
+                .tag("channel", channel)
+                .register(registry);
+        Gauge.builder("tictactoe.channel.active.threads", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Threads of the channel executor handling a message")
+                .tag("channel", channel)
+                .register(registry);
+        Gauge.builder("tictactoe.channel.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .description("Threads of the channel executor")
+                .tag("channel", channel)
+                .register(registry);
+    }
+}
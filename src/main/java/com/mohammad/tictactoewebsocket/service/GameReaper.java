@@ -0,0 +1,34 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Component class that evicts idle games.
+ * Every {@code tictactoe.eviction.tick-ms} milliseconds it advances the idle timer of the games
+ * and evicts those past their deadline.
+ */
+@Component
+public class GameReaper {
+
+    private final TicTacToeService gameService;
+
+    /**
+     * Constructs a new GameReaper.
+     *
+     * @param gameService the service evicting the games
+     */
+    @Autowired
+    public GameReaper(TicTacToeService gameService) {
+        this.gameService = gameService;
+    }
+
+    /**
+     * Evicts the games whose idle deadline has passed.
+     */
+    @Scheduled(fixedDelayString = "${tictactoe.eviction.tick-ms:1000}")
+    public void evictIdleGames() {
+        gameService.evictIdleGames();
+    }
+}
@@ -0,0 +1,410 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * Component class that saves every game held by the {@link TicTacToeManager} to a snapshot file and loads them
+ * back on startup, so that a deploy does not lose the games in progress.
+ * <p>
+ * A snapshot is taken on shutdown and, when {@code tictactoe.snapshot.periodic} is set, every
+ * {@code tictactoe.snapshot.interval-ms} milliseconds. Each game is captured by a command in its own mailbox of the
+ * {@link GameExecutor}, so the copy of a game always falls between two of its moves, while moves in every other
+ * game carry on. Games share no state besides the player index and the matchmaking queue, which are rebuilt from
+ * flags captured with each game, so the snapshot is a consistent cut without ever pausing move handling.
+ * </p>
+ * <p>
+ * A game takes a few dozen bytes, encoded like the records of the {@link GameArchive}: flags for the state, the
+ * indexes and the queue, the board, the times, the id and players, and the move history, from which the board is
+ * rebuilt. The file starts with a header and a table of chunks of {@value #GAMES_PER_CHUNK} games. It is written
+ * next to its final name and moved into place once flushed, so a crash never leaves a torn snapshot behind.
+ * On startup each chunk is memory-mapped and decoded on its own fork-join task, straight into the manager.
+ * </p>
+ * <p>
+ * The header also records the position of the {@link GameJournal} when the capture started. Every entry before it
+ * is in the snapshot, so once the file is in place the journal segments before that position are deleted, and on
+ * startup the journal is replayed from there on top of the restored games.
+ * </p>
+ */
+@Component
+public class GameSnapshotter {
+
+    static final int MAGIC = 0x54545453;
+    static final int FORMAT_VERSION = 2;
+    static final int GAMES_PER_CHUNK = 4096;
+    private static final int HEADER_BYTES = 32;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final GameState[] STATES = GameState.values();
+    private static final BotDifficulty[] DIFFICULTIES = BotDifficulty.values();
+
+    private static final int SAVED_FOR_LATER = 0x08;
+    private static final int INDEX_PLAYER1 = 0x10;
+    private static final int INDEX_PLAYER2 = 0x20;
+    private static final int WAITING = 0x40;
+    private static final int BOARD_CELLS = 0x80;
+
+    private static final int NOBODY = 0;
+    private static final int PLAYER1 = 1;
+    private static final int PLAYER2 = 2;
+
+    private final TicTacToeManager ticTacToeManager;
+    private final GameExecutor gameExecutor;
+    private final GameJournal journal;
+    private final Path file;
+    private final boolean periodic;
+    private long restoredSequence;
+
+    /**
+     * Constructs a snapshotter without a journal that only takes a snapshot when asked to or on shutdown.
+     *
+     * @param ticTacToeManager the manager holding the games
+     * @param gameExecutor     the executor running the commands of each game in order
+     * @param file             the snapshot file; its directory is created if missing
+     */
+    public GameSnapshotter(TicTacToeManager ticTacToeManager, GameExecutor gameExecutor, Path file) {
+        this(ticTacToeManager, gameExecutor, new GameJournal(), file, false);
+    }
+
+    /**
+     * Constructs a snapshotter.
+     *
+     * @param ticTacToeManager the manager holding the games
+     * @param gameExecutor     the executor running the commands of each game in order
+     * @param journal          the journal of the changes made since the snapshot
+     * @param file             the snapshot file; its directory is created if missing
+     * @param periodic         true to also take a snapshot every {@code tictactoe.snapshot.interval-ms}
+     */
+    public GameSnapshotter(TicTacToeManager ticTacToeManager, GameExecutor gameExecutor, GameJournal journal,
+                           Path file, boolean periodic) {
+        this.ticTacToeManager = ticTacToeManager;
+        this.gameExecutor = gameExecutor;
+        this.journal = journal;
+        this.file = file;
+        this.periodic = periodic;
+    }
+
+    /**
+     * Constructs a snapshotter with the configured file and schedule.
+     *
+     * @param ticTacToeManager the manager holding the games
+     * @param gameExecutor     the executor running the commands of each game in order
+     * @param journal          the journal of the changes made since the snapshot
+     * @param file             the snapshot file
+     * @param periodic         true to also take a snapshot every {@code tictactoe.snapshot.interval-ms}
+     */
+    @Autowired
+    public GameSnapshotter(TicTacToeManager ticTacToeManager, GameExecutor gameExecutor, GameJournal journal,
+                           @Value("${tictactoe.snapshot.file:data/snapshot/games.snap}") String file,
+                           @Value("${tictactoe.snapshot.periodic:false}") boolean periodic) {
+        this(ticTacToeManager, gameExecutor, journal, Paths.get(file), periodic);
+    }
+
+    /**
+     * Loads the games of the snapshot file, if there is one, into the manager.
+     * A file that does not start with a snapshot header of this version is ignored.
+     *
+     * @return the number of games restored
+     */
+    public int restore() {
+        if (!Files.isRegularFile(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return 0;
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                return 0;
+            }
+            long sequence = header.getLong(16);
+            int games = header.getInt(24);
+            int chunks = header.getInt(28);
+            ByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, chunks * 8L);
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                long start = table.getLong(chunk * 8);
+                long end = chunk + 1 < chunks ? table.getLong((chunk + 1) * 8) : size;
+                int count = Math.min(GAMES_PER_CHUNK, games - chunk * GAMES_PER_CHUNK);
+                try {
+                    restoreChunk(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), count);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            restoredSequence = sequence;
+            return games;
+        } catch (IOException | UncheckedIOException e) {
+            throw new IllegalStateException("Could not restore the games from " + file, e);
+        }
+    }
+
+    /**
+     * Restores the games of the last snapshot, then applies the journal entries written after it.
+     *
+     * @return the number of journal entries applied
+     */
+    public long recover() {
+        restore();
+        return journal.replay(restoredSequence, ticTacToeManager::apply);
+    }
+
+    /**
+     * Recovers the games before the application starts taking commands.
+     */
+    @PostConstruct
+    public void restoreOnStartup() {
+        recover();
+    }
+
+    /**
+     * Copies every game held by the manager to the snapshot file, replacing the previous snapshot.
+     * Waits until every game has been captured in its mailbox and the file is on disk.
+     *
+     * @return the number of games written
+     */
+    public synchronized int snapshot() {
+        long sequence = journal.getNextSequence();
+        List<TicTacToe> held = ticTacToeManager.getGames();
+        byte[][] records = new byte[held.size()][];
+        CompletableFuture<?>[] captures = new CompletableFuture<?>[held.size()];
+        for (int i = 0; i < held.size(); i++) {
+            TicTacToe game = held.get(i);
+            int index = i;
+            captures[i] = gameExecutor.execute(game.getGameId(), () -> records[index] = capture(game));
+        }
+        CompletableFuture.allOf(captures).join();
+        try {
+            int written = write(records, sequence);
+            journal.compact(sequence);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Takes a snapshot if periodic snapshots are enabled.
+     */
+    @Scheduled(fixedDelayString = "${tictactoe.snapshot.interval-ms:60000}",
+            initialDelayString = "${tictactoe.snapshot.interval-ms:60000}")
+    public void snapshotPeriodically() {
+        if (periodic) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Takes a last snapshot on shutdown. By then the web server has stopped taking commands, while the
+     * {@link GameExecutor}, which this component depends on, still runs the captures.
+     */
+    @PreDestroy
+    public void close() {
+        snapshot();
+    }
+
+    /**
+     * @return the snapshot file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Encodes a game. Runs inside the game's mailbox, so no move can change the game meanwhile.
+     *
+     * @param game the game
+     * @return the encoded game, or null if it was removed before its turn came
+     */
+    private byte[] capture(TicTacToe game) {
+        if (ticTacToeManager.getGame(game.getGameId()) != game) {
+            return null;
+        }
+        String player1 = game.getPlayer1();
+        String player2 = game.getPlayer2();
+        int cells = game.getSize() * game.getSize();
+        int[] moves = game.getMoves();
+        boolean boardCells = moves.length != game.getMoveCount();
+
+        int flags = game.getGameState().ordinal();
+        if (game.isSavedForLater()) {
+            flags |= SAVED_FOR_LATER;
+        }
+        if (player1 != null && ticTacToeManager.getGameByPlayer(player1) == game) {
+            flags |= INDEX_PLAYER1;
+        }
+        if (player2 != null && ticTacToeManager.getGameByPlayer(player2) == game) {
+            flags |= INDEX_PLAYER2;
+        }
+        if (game.getGameState() == GameState.WAITING_FOR_PLAYER && ticTacToeManager.isWaiting(game)) {
+            flags |= WAITING;
+        }
+        if (boardCells) {
+            flags |= BOARD_CELLS;
+        }
+        int bot = game.getBotDifficulty() != null ? game.getBotDifficulty().ordinal() + 1 : 0;
+
+        RecordEncoder out = new RecordEncoder();
+        out.writeByte(flags);
+        out.writeByte(seat(game, game.getTurn()) | seat(game, game.getWinner()) << 2 | bot << 4);
+        out.writeByte(game.getSize());
+        out.writeByte(game.getWinLength());
+        out.writeVarLong(game.getCreatedAt());
+        out.writeVarLong(game.getLastActivity());
+        out.writeString(game.getGameId());
+        out.writeString(player1);
+        out.writeString(player2);
+        if (boardCells) {
+            // The board was replaced as a whole, so the history does not lead to it
+            for (int cell = 0; cell < cells; cell++) {
+                String mark = game.getMark(cell);
+                out.writeByte("X".equals(mark) ? PLAYER1 : "O".equals(mark) ? PLAYER2 : NOBODY);
+            }
+        } else {
+            out.writeMoves(moves, cells);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the captured games to a temporary file and moves it over the snapshot.
+     *
+     * @param records  the encoded games, with null for the games removed while the snapshot was taken
+     * @param sequence the position of the journal before the first game was captured
+     * @return the number of games written
+     */
+    private int write(byte[][] records, long sequence) throws IOException {
+        int games = (int) Arrays.stream(records).filter(Objects::nonNull).count();
+        int chunks = (games + GAMES_PER_CHUNK - 1) / GAMES_PER_CHUNK;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + chunks * 8);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(System.currentTimeMillis()).putLong(sequence)
+                .putInt(games).putInt(chunks);
+        long offset = header.capacity();
+        int written = 0;
+        for (byte[] record : records) {
+            if (record != null) {
+                if (written++ % GAMES_PER_CHUNK == 0) {
+                    header.putLong(offset);
+                }
+                offset += record.length;
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header.flip());
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+            for (byte[] record : records) {
+                if (record == null) {
+                    continue;
+                }
+                if (buffer.remaining() < record.length) {
+                    writeFully(channel, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.put(record);
+            }
+            writeFully(channel, buffer.flip());
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return games;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Decodes the games of one chunk and hands them to the manager.
+     *
+     * @param chunk the mapped bytes of the chunk
+     * @param count the number of games in the chunk
+     */
+    private void restoreChunk(ByteBuffer chunk, int count) {
+        RecordDecoder in = new RecordDecoder(chunk, 0);
+        for (int i = 0; i < count; i++) {
+            int flags = in.readByte();
+            int seats = in.readByte();
+            int size = in.readByte();
+            int winLength = in.readByte();
+            long createdAt = in.readVarLong();
+            long lastActivity = in.readVarLong();
+            String gameId = in.readString();
+            String player1 = in.readString();
+            String player2 = in.readString();
+
+            TicTacToe game = new TicTacToe(gameId, player1, player2, new BoardVariant(size, winLength), createdAt);
+            int bot = seats >>> 4;
+            if (bot > 0) {
+                game.setBotDifficulty(DIFFICULTIES[bot - 1]);
+            }
+            if ((flags & BOARD_CELLS) != 0) {
+                String[][] board = new String[size][size];
+                for (int cell = 0; cell < size * size; cell++) {
+                    int mark = in.readByte();
+                    board[cell / size][cell % size] = mark == PLAYER1 ? "X" : mark == PLAYER2 ? "O" : " ";
+                }
+                game.setBoard(board);
+            } else {
+                for (int move : in.readMoves(size * size)) {
+                    game.makeMove(game.getTurn(), move);
+                }
+            }
+            game.setTurn(player(game, seats & 0x03));
+            game.setWinner(player(game, seats >>> 2 & 0x03));
+            game.setGameState(STATES[flags & 0x07]);
+            game.setSavedForLater((flags & SAVED_FOR_LATER) != 0);
+            game.setLastActivity(lastActivity);
+            ticTacToeManager.restoreGame(game, (flags & INDEX_PLAYER1) != 0, (flags & INDEX_PLAYER2) != 0,
+                    (flags & WAITING) != 0);
+        }
+    }
+
+    /**
+     * Encodes which seat a player holds in a game.
+     */
+    private static int seat(TicTacToe game, String player) {
+        if (player == null) {
+            return NOBODY;
+        }
+        return player.equals(game.getPlayer1()) ? PLAYER1 : player.equals(game.getPlayer2()) ? PLAYER2 : NOBODY;
+    }
+
+    /**
+     * Decodes what {@link #seat(TicTacToe, String)} encoded.
+     */
+    private static String player(TicTacToe game, int seat) {
+        return seat == PLAYER1 ? game.getPlayer1() : seat == PLAYER2 ? game.getPlayer2() : null;
+    }
+}
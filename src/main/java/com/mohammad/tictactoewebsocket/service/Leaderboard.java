@@ -0,0 +1,231 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import com.mohammad.tictactoewebsocket.model.PlayerRating;
+import com.mohammad.tictactoewebsocket.model.dto.LeaderboardEntry;
+import com.mohammad.tictactoewebsocket.utils.FenwickTree;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Component class that keeps the Elo rating of every player and ranks the players by it.
+ * <p>
+ * Each {@link GameRecord} published when a game between two people ends, on the board or by a forfeit, is handed to
+ * a single rating thread, so the game's mailbox never waits on the leaderboard and the two players of a game are
+ * updated together, with no other update in between. Games against the bot are not rated.
+ * </p>
+ * <p>
+ * Ratings are held three ways, all readable from any thread without locking: a map from player to
+ * {@link PlayerRating}, a {@link ConcurrentSkipListSet} ordered by rating for the top of the leaderboard, and a
+ * {@link FenwickTree} counting the players at each rounded rating, which gives the rank of any player in
+ * O(log n). A new rating is added before the old one is removed, so a reader may briefly see a player's rank
+ * one place lower, or one player of a game already updated and the other not yet.
+ * </p>
+ */
+@Component
+public class Leaderboard {
+
+    /**
+     * Highest rating told apart by ranks; higher ratings rank as this one.
+     */
+    static final int MAX_RATING = 4000;
+
+    private static final Comparator<PlayerRating> BY_RATING = Comparator.comparingDouble(PlayerRating::rating)
+            .reversed()
+            .thenComparing(PlayerRating::player);
+
+    private final double initialRating;
+    private final double kFactor;
+    private final Executor writer;
+    private final ExecutorService ownedWriter;
+    private final Map<String, PlayerRating> ratings = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<PlayerRating> ranking = new ConcurrentSkipListSet<>(BY_RATING);
+    private final FenwickTree playersByRating = new FenwickTree(MAX_RATING + 1);
+    private final LongAdder ratedGames = new LongAdder();
+
+    /**
+     * Constructs a leaderboard that rates games on the publishing thread, starting players at 1200 with a
+     * K-factor of 32, for use outside the application context.
+     */
+    public Leaderboard() {
+        this(Runnable::run, 1200, 32);
+    }
+
+    /**
+     * Constructs a leaderboard that rates games on the given executor.
+     *
+     * @param writer        the executor applying the results, one at a time
+     * @param initialRating the rating of a player before their first game
+     * @param kFactor       the most a rating can change in one game
+     */
+    public Leaderboard(Executor writer, double initialRating, double kFactor) {
+        this(writer, null, initialRating, kFactor);
+    }
+
+    /**
+     * Constructs a leaderboard backed by its own rating thread.
+     *
+     * @param initialRating the rating of a player before their first game
+     * @param kFactor       the most a rating can change in one game
+     */
+    @Autowired
+    public Leaderboard(@Value("${tictactoe.rating.initial:1200}") double initialRating,
+                       @Value("${tictactoe.rating.k-factor:32}") double kFactor) {
+        this(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ratings");
+            thread.setDaemon(true);
+            return thread;
+        }), initialRating, kFactor);
+    }
+
+    private Leaderboard(ExecutorService ownedWriter, double initialRating, double kFactor) {
+        this(ownedWriter, ownedWriter, initialRating, kFactor);
+    }
+
+    private Leaderboard(Executor writer, ExecutorService ownedWriter, double initialRating, double kFactor) {
+        this.writer = writer;
+        this.ownedWriter = ownedWriter;
+        this.initialRating = initialRating;
+        this.kFactor = kFactor;
+    }
+
+    /**
+     * Rates a game that has just finished. Returns at once; the ratings change on the rating thread.
+     *
+     * @param record the finished game
+     */
+    @EventListener
+    public void onGameFinished(GameRecord record) {
+        if (record.botDifficulty() == null) {
+            writer.execute(() -> apply(record));
+        }
+    }
+
+    /**
+     * Updates the ratings of the two players of a finished game.
+     * Must not be called by two threads at once.
+     *
+     * @param record the finished game
+     */
+    public void apply(GameRecord record) {
+        String player1 = record.player1();
+        String player2 = record.player2();
+        if (player1 == null || player2 == null || player1.equals(player2)) {
+            return;
+        }
+        PlayerRating rating1 = current(player1);
+        PlayerRating rating2 = current(player2);
+        double score1 = record.result() == GameState.PLAYER1_WON ? 1 : record.result() == GameState.PLAYER2_WON ? 0 : 0.5;
+        double expected1 = 1 / (1 + Math.pow(10, (rating2.rating() - rating1.rating()) / 400));
+        double change = kFactor * (score1 - expected1);
+
+        replace(rating1, rating1.after(rating1.rating() + change, score1));
+        replace(rating2, rating2.after(rating2.rating() - change, 1 - score1));
+        ratedGames.increment();
+    }
+
+    /**
+     * Returns the best rated players.
+     *
+     * @param limit the number of players
+     * @return up to {@code limit} players, best first
+     */
+    public List<LeaderboardEntry> top(int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, 128));
+        for (PlayerRating rating : ranking) {
+            if (entries.size() >= limit) {
+                break;
+            }
+            if (ratings.get(rating.player()) == rating) {
+                entries.add(LeaderboardEntry.of(rank(rating), rating));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the place of a player on the leaderboard.
+     *
+     * @param player the player
+     * @return the player's entry, or null if they have no rated game
+     */
+    public LeaderboardEntry entry(String player) {
+        PlayerRating rating = ratings.get(player);
+        return rating != null ? LeaderboardEntry.of(rank(rating), rating) : null;
+    }
+
+    /**
+     * @return the number of players with at least one rated game
+     */
+    public int getPlayerCount() {
+        return ratings.size();
+    }
+
+    /**
+     * @return the number of games rated so far
+     */
+    public long getRatedGameCount() {
+        return ratedGames.sum();
+    }
+
+    /**
+     * Rates the results still queued, then stops the rating thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (ownedWriter != null) {
+            ownedWriter.shutdown();
+            try {
+                ownedWriter.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private PlayerRating current(String player) {
+        PlayerRating rating = ratings.get(player);
+        return rating != null ? rating : PlayerRating.unrated(player, initialRating);
+    }
+
+    /**
+     * Swaps a player's rating in all three views, adding the new one before removing the old one.
+     */
+    private void replace(PlayerRating old, PlayerRating updated) {
+        ranking.add(updated);
+        playersByRating.add(bucket(updated.rating()), 1);
+        ratings.put(updated.player(), updated);
+        if (old.games() > 0) {
+            ranking.remove(old);
+            playersByRating.add(bucket(old.rating()), -1);
+        }
+    }
+
+    /**
+     * Returns 1 plus the number of players whose rounded rating is higher.
+     */
+    private long rank(PlayerRating rating) {
+        int bucket = bucket(rating.rating());
+        return 1 + playersByRating.prefixSum(MAX_RATING) - playersByRating.prefixSum(bucket);
+    }
+
+    private static int bucket(double rating) {
+        return (int) Math.max(0, Math.min(MAX_RATING, Math.round(rating)));
+    }
+}
@@ -0,0 +1,278 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Component class holding the players that wait for an opponent.
+ * <p>
+ * There is one queue per {@link BoardVariant}, so players are only paired with someone who asked for the same board.
+ * Every waiting player owns a ticket in the concurrent queue of their variant. A ticket is claimed with a single
+ * compare-and-set, so two players can never be seated in the same game and no global lock is needed.
+ * Cancelled and matched tickets stay in the queue until a claim or drain comes across them.
+ * </p>
+ * <p>
+ * In batch mode players are never paired on arrival. Instead {@link #drainMatches()} is called every
+ * few milliseconds and pairs everyone that queued up since the previous run in one pass.
+ * </p>
+ */
+@Component
+public class Matchmaker {
+
+    private static final int WAITING = 0;
+    private static final int HELD = 1;
+    private static final int MATCHED = 2;
+    private static final int CANCELLED = 3;
+
+    /**
+     * Number of times a cancel spins on a held ticket before it blocks.
+     */
+    private static final int MAX_SPINS = 100;
+
+    private final Map<BoardVariant, Queue<Ticket>> queues = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> waitingPlayers = new ConcurrentHashMap<>();
+    private final boolean batching;
+
+    /**
+     * Constructs a matchmaker that pairs players as soon as they arrive.
+     */
+    public Matchmaker() {
+        this(false);
+    }
+
+    /**
+     * Constructs a matchmaker.
+     *
+     * @param batching true to pair players only in {@link #drainMatches()}, false to pair them on arrival
+     */
+    @Autowired
+    public Matchmaker(@Value("${tictactoe.matchmaking.batch.enabled:false}") boolean batching) {
+        this.batching = batching;
+    }
+
+    /**
+     * @return true if players are paired in batches rather than on arrival
+     */
+    public boolean isBatching() {
+        return batching;
+    }
+
+    /**
+     * Puts a newly created game in the queue of its variant on behalf of its first player.
+     * A ticket the player still had in the queue is cancelled.
+     *
+     * @param game the game waiting for a second player
+     */
+    public void enqueue(TicTacToe game) {
+        Ticket ticket = new Ticket(game);
+        Ticket previous = waitingPlayers.put(game.getPlayer1(), ticket);
+        if (previous != null) {
+            previous.cancel();
+        }
+        queues.computeIfAbsent(game.getVariant(), variant -> new ConcurrentLinkedQueue<>()).offer(ticket);
+    }
+
+    /**
+     * Withdraws the waiting ticket of a player.
+     *
+     * @param player the player's identifier
+     * @return the game the player was waiting in, or null if they were not waiting or have already been paired
+     */
+    public TicTacToe cancel(String player) {
+        Ticket ticket = waitingPlayers.remove(player);
+        return ticket != null && ticket.cancel() ? ticket.game : null;
+    }
+
+    /**
+     * Withdraws the waiting ticket of a specific game, if it is still queued.
+     *
+     * @param game the game to withdraw
+     * @return true if the game was waiting and has been withdrawn
+     */
+    public boolean cancel(TicTacToe game) {
+        if (game.getPlayer1() == null) {
+            return false;
+        }
+        Ticket ticket = waitingPlayers.get(game.getPlayer1());
+        if (ticket == null || ticket.game != game) {
+            return false;
+        }
+        waitingPlayers.remove(game.getPlayer1(), ticket);
+        return ticket.cancel();
+    }
+
+    /**
+     * Tells whether a game is still queued on behalf of its first player.
+     *
+     * @param game the game
+     * @return true if the game waits for an opponent and has not been claimed or withdrawn
+     */
+    public boolean isWaiting(TicTacToe game) {
+        if (game.getPlayer1() == null) {
+            return false;
+        }
+        Ticket ticket = waitingPlayers.get(game.getPlayer1());
+        return ticket != null && ticket.game == game && ticket.state.get() == WAITING;
+    }
+
+    /**
+     * Claims the oldest classic game waiting for an opponent other than the given player.
+     *
+     * @param player the player looking for an opponent
+     * @return the claimed game, or null if nobody is waiting
+     */
+    public TicTacToe claim(String player) {
+        return claim(player, BoardVariant.CLASSIC);
+    }
+
+    /**
+     * Claims the oldest game of a variant waiting for an opponent other than the given player.
+     * The player's own ticket is stepped over where it stands, so it keeps its place in the queue.
+     *
+     * @param player  the player looking for an opponent
+     * @param variant the board the player asked for
+     * @return the claimed game, or null if nobody is waiting for that board
+     */
+    public TicTacToe claim(String player, BoardVariant variant) {
+        Queue<Ticket> queue = queues.get(variant);
+        if (queue == null) {
+            return null;
+        }
+        Iterator<Ticket> tickets = queue.iterator();
+        while (tickets.hasNext()) {
+            Ticket ticket = tickets.next();
+            int state = ticket.state.get();
+            if (state == MATCHED || state == CANCELLED) {
+                tickets.remove();
+            } else if (state == WAITING && !player.equals(ticket.game.getPlayer1())
+                    && ticket.state.compareAndSet(WAITING, MATCHED)) {
+                tickets.remove();
+                waitingPlayers.remove(ticket.game.getPlayer1(), ticket);
+                return ticket.game;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pairs the players currently in each queue two by two, oldest first.
+     * The older player of every pair hosts the game; the younger one gives up their own waiting game.
+     * An odd player out goes back into the queue for the next run.
+     * Only one thread should drain at a time.
+     *
+     * @return the matches made, in queue order within each variant
+     */
+    public List<Match> drainMatches() {
+        List<Match> matches = new ArrayList<>();
+        for (Queue<Ticket> queue : queues.values()) {
+            drainMatches(queue, matches);
+        }
+        return matches;
+    }
+
+    /**
+     * Pairs the players of one queue, adding the matches to the given list.
+     */
+    private void drainMatches(Queue<Ticket> queue, List<Match> matches) {
+        Ticket host = null;
+        Ticket ticket;
+        while ((ticket = queue.poll()) != null) {
+            if (host == null || host.game.getPlayer1().equals(ticket.game.getPlayer1())) {
+                if (ticket.state.compareAndSet(WAITING, HELD)) {
+                    if (host != null) {
+                        host.release(WAITING);
+                    }
+                    host = ticket;
+                }
+                continue;
+            }
+            if (ticket.state.compareAndSet(WAITING, MATCHED)) {
+                host.release(MATCHED);
+                waitingPlayers.remove(host.game.getPlayer1(), host);
+                waitingPlayers.remove(ticket.game.getPlayer1(), ticket);
+                matches.add(new Match(host.game, ticket.game));
+                host = null;
+            }
+        }
+        if (host != null) {
+            host.release(WAITING);
+            queue.offer(host);
+        }
+    }
+
+    /**
+     * Two waiting games that were paired together.
+     *
+     * @param host  the game that is kept; its first player stays player 1
+     * @param guest the game that is given up; its first player becomes player 2 of the host game
+     */
+    public record Match(TicTacToe host, TicTacToe guest) {
+    }
+
+    /**
+     * A waiting game and its claim state. Only a drain moves a ticket into {@code HELD}, so a cancel that finds one
+     * held waits for the drain to decide: it spins briefly, since a drain holds a ticket only until it reaches the
+     * next one, and then blocks until the drain releases the ticket.
+     */
+    private static final class Ticket {
+        private final TicTacToe game;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private Ticket(TicTacToe game) {
+            this.game = game;
+        }
+
+        private boolean cancel() {
+            for (int spins = 0; ; spins++) {
+                int current = state.get();
+                if (current == WAITING) {
+                    if (state.compareAndSet(WAITING, CANCELLED)) {
+                        return true;
+                    }
+                } else if (current != HELD) {
+                    return false;
+                } else if (spins < MAX_SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    awaitRelease();
+                }
+            }
+        }
+
+        /**
+         * Moves a held ticket out of {@code HELD} and wakes up a cancel waiting for it.
+         */
+        private void release(int next) {
+            state.set(next);
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+
+        private synchronized void awaitRelease() {
+            boolean interrupted = false;
+            while (state.get() == HELD) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
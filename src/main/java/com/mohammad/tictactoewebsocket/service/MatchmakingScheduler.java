@@ -0,0 +1,47 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Component class that runs batch matchmaking.
+ * Only active when {@code tictactoe.matchmaking.batch.enabled} is true; every
+ * {@code tictactoe.matchmaking.batch.interval-ms} milliseconds it pairs everyone waiting in the queue.
+ */
+@Component
+@ConditionalOnProperty(name = "tictactoe.matchmaking.batch.enabled", havingValue = "true")
+public class MatchmakingScheduler {
+
+    private final TicTacToeService gameService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PlayerSessionRegistry sessionRegistry;
+
+    /**
+     * Constructs a new MatchmakingScheduler.
+     *
+     * @param gameService        the service pairing the players
+     * @param messagingTemplate  the WebSocket messaging template used to notify matched players
+     * @param sessionRegistry    the sessions of the players, moved over to the games they are paired into
+     */
+    @Autowired
+    public MatchmakingScheduler(TicTacToeService gameService, SimpMessagingTemplate messagingTemplate,
+                                PlayerSessionRegistry sessionRegistry) {
+        this.gameService = gameService;
+        this.messagingTemplate = messagingTemplate;
+        this.sessionRegistry = sessionRegistry;
+    }
+
+    /**
+     * Pairs the waiting players of the current batch. The session of each guest is bound to the host game from
+     * then on, so that closing it leaves the game the guest actually plays.
+     */
+    @Scheduled(fixedDelayString = "${tictactoe.matchmaking.batch.interval-ms:50}")
+    public void pairWaitingPlayers() {
+        for (Matchmaker.Match match : gameService.pairWaitingPlayers(messagingTemplate)) {
+            sessionRegistry.rebind(match.guest().getPlayer1(), match.host().getGameId());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.model.BitBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Strategy choosing the moves of one side in the games played by the {@link SelfPlayEngine}.
+ * <p>
+ * A position is given as the two 9-bit masks of the classic board, so choosing a move allocates nothing.
+ * Randomness comes from the caller's {@link SplittableRandom}, which makes a run repeatable from its seed.
+ * Implementations must be safe to call from several threads at once.
+ * </p>
+ */
+@FunctionalInterface
+public interface MovePolicy {
+
+    /**
+     * Chooses a move.
+     *
+     * @param xMask   the cells holding an "X"
+     * @param oMask   the cells holding an "O"
+     * @param xToMove true if the move is for "X"
+     * @param random  the random numbers of the calling thread
+     * @return a free cell (0-8)
+     */
+    int chooseMove(int xMask, int oMask, boolean xToMove, SplittableRandom random);
+
+    /**
+     * @return a policy playing a random free cell
+     */
+    static MovePolicy random() {
+        return (xMask, oMask, xToMove, random) -> pickCell(free(xMask, oMask), random);
+    }
+
+    /**
+     * Returns a policy that never loses, picking at random among the best moves of a position.
+     *
+     * @param positionTable the solved positions
+     * @return the policy
+     */
+    static MovePolicy perfect(PositionTable positionTable) {
+        return (xMask, oMask, xToMove, random) -> {
+            int best = positionTable.getBestMoves(xMask, oMask);
+            return pickCell(best != 0 ? best : free(xMask, oMask), random);
+        };
+    }
+
+    /**
+     * Returns a policy following simple rules of thumb without looking ahead: complete a line if possible,
+     * otherwise block the opponent's, otherwise take the centre, a corner or a side, in that order.
+     *
+     * @return the policy
+     */
+    static MovePolicy heuristic() {
+        return (xMask, oMask, xToMove, random) -> {
+            int own = xToMove ? xMask : oMask;
+            int opponent = xToMove ? oMask : xMask;
+            int free = free(xMask, oMask);
+            int completing = completingCells(own, free);
+            if (completing == 0) {
+                completing = completingCells(opponent, free);
+            }
+            if (completing != 0) {
+                return pickCell(completing, random);
+            }
+            int centre = free & 0b000_010_000;
+            int corners = free & 0b101_000_101;
+            return pickCell(centre != 0 ? centre : corners != 0 ? corners : free, random);
+        };
+    }
+
+    /**
+     * Looks up a policy by name, ignoring case.
+     *
+     * @param name          "random", "perfect" or "heuristic"
+     * @param positionTable the solved positions, for the perfect policy
+     * @return the policy, or null if the name is unknown
+     */
+    static MovePolicy of(String name, PositionTable positionTable) {
+        return switch (name.toLowerCase()) {
+            case "random" -> random();
+            case "perfect" -> perfect(positionTable);
+            case "heuristic" -> heuristic();
+            default -> null;
+        };
+    }
+
+    /**
+     * Returns the free cells that would complete a line for the given marks.
+     */
+    private static int completingCells(int marks, int free) {
+        int cells = 0;
+        for (int line : BitBoard.WIN_MASKS) {
+            int missing = line & ~marks;
+            if (Integer.bitCount(missing) == 1 && (missing & free) != 0) {
+                cells |= missing;
+            }
+        }
+        return cells;
+    }
+
+    private static int free(int xMask, int oMask) {
+        return ~(xMask | oMask) & ((1 << BitBoard.CELLS) - 1);
+    }
+
+    /**
+     * Returns the cell of a random set bit of a non-empty mask.
+     */
+    private static int pickCell(int mask, SplittableRandom random) {
+        for (int n = random.nextInt(Integer.bitCount(mask)); n > 0; n--) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+}
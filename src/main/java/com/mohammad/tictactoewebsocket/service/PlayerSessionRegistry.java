@@ -0,0 +1,101 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Component class that remembers which WebSocket session each player is connected from.
+ * Used to address a single player through their {@code /user} queue instead of broadcasting.
+ * <p>
+ * It also keeps the reverse index, from a session to the player and game it was last used for, so that a closed
+ * session can be cleaned up in constant time without looking through the games.
+ * </p>
+ */
+@Component
+public class PlayerSessionRegistry {
+
+    private final Map<String, String> sessionsByPlayer = new ConcurrentHashMap<>();
+    private final Map<String, Binding> bindingsBySession = new ConcurrentHashMap<>();
+
+    /**
+     * Records the session a player is currently using and the game they use it for.
+     * A later session replaces the earlier one, and a later game of the same session replaces the earlier game.
+     *
+     * @param player     the player's identifier
+     * @param sessionId  the WebSocket session id
+     * @param gameId     the game the player started or joined from the session
+     */
+    public void register(String player, String sessionId, String gameId) {
+        if (player != null && sessionId != null) {
+            sessionsByPlayer.put(player, sessionId);
+            bindingsBySession.put(sessionId, new Binding(player, gameId));
+        }
+    }
+
+    /**
+     * Points the current session of a player at another game, such as the game the player was paired into while
+     * waiting in one of their own.
+     *
+     * @param player the player's identifier
+     * @param gameId the game the player now plays from the session
+     */
+    public void rebind(String player, String gameId) {
+        String sessionId = getSessionId(player);
+        if (sessionId != null) {
+            bindingsBySession.computeIfPresent(sessionId,
+                    (id, binding) -> player.equals(binding.player()) ? new Binding(player, gameId) : binding);
+        }
+    }
+
+    /**
+     * Forgets a player's session, unless the player has moved on to another session since.
+     *
+     * @param player     the player's identifier
+     * @param sessionId  the WebSocket session id being closed
+     */
+    public void unregister(String player, String sessionId) {
+        if (player != null && sessionId != null) {
+            sessionsByPlayer.remove(player, sessionId);
+        }
+    }
+
+    /**
+     * Forgets a closed session and, unless the player has moved on to another session since, the player's session.
+     *
+     * @param sessionId the WebSocket session id being closed
+     * @return the player and game the session was used for, or null if it was never used by a player
+     */
+    public Binding unbind(String sessionId) {
+        Binding binding = sessionId == null ? null : bindingsBySession.remove(sessionId);
+        if (binding != null) {
+            unregister(binding.player(), sessionId);
+        }
+        return binding;
+    }
+
+    /**
+     * @param player the player's identifier
+     * @return the player's current session id, or null if unknown
+     */
+    public String getSessionId(String player) {
+        return player == null ? null : sessionsByPlayer.get(player);
+    }
+
+    /**
+     * @return the number of sessions used by a player
+     */
+    public int getSessionCount() {
+        return bindingsBySession.size();
+    }
+
+    /**
+     * The player a session was used by and the game it was used for.
+     *
+     * @param player the player's identifier
+     * @param gameId the game ID
+     */
+    public record Binding(String player, String gameId) {
+    }
+}
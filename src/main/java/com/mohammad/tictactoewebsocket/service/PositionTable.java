@@ -0,0 +1,147 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.model.BitBoard;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Component class holding the solved value of every reachable Tic-Tac-Toe position.
+ * <p>
+ * A position is indexed by its base-3 number, where cell {@code i} contributes 0, 1 or 2 (empty, "X", "O")
+ * times {@code 3^i}, so the table has {@value #POSITIONS} slots of which 5478 are reachable. The whole game tree is
+ * solved once by minimax when the table is built, after which a lookup is two array reads to turn the bit masks of a
+ * {@link BitBoard} into an index and one more for the answer.
+ * </p>
+ * <p>
+ * Scores are from the point of view of the player to move: positive for a win, negative for a loss and 0 for a
+ * draw. A win is worth more the sooner it comes, so the bot finishes games instead of toying with its opponent.
+ * </p>
+ */
+@Component
+public class PositionTable {
+
+    /**
+     * Number of slots in the table, 3^9.
+     */
+    public static final int POSITIONS = 19_683;
+
+    private static final int FULL_MASK = (1 << BitBoard.CELLS) - 1;
+    private static final byte UNSOLVED = Byte.MIN_VALUE;
+
+    /**
+     * Base-3 value of each 9-bit mask, with every set bit counting as a 1.
+     */
+    private static final int[] TERNARY = new int[1 << BitBoard.CELLS];
+
+    static {
+        for (int mask = 0; mask < TERNARY.length; mask++) {
+            int value = 0;
+            for (int cell = BitBoard.CELLS - 1; cell >= 0; cell--) {
+                value = value * 3 + ((mask >> cell) & 1);
+            }
+            TERNARY[mask] = value;
+        }
+    }
+
+    private final byte[] scores = new byte[POSITIONS];
+
+    /**
+     * Mask of the cells whose move reaches the best score, 0 for finished and unreachable positions.
+     */
+    private final short[] bestMoves = new short[POSITIONS];
+
+    private int reachablePositions;
+
+    /**
+     * Constructs the table by solving every position reachable from the empty board.
+     */
+    public PositionTable() {
+        Arrays.fill(scores, UNSOLVED);
+        solve(0, 0);
+    }
+
+    /**
+     * Returns the index of a position in the table.
+     *
+     * @param xMask the cells holding an "X"
+     * @param oMask the cells holding an "O"
+     * @return the base-3 index of the position
+     */
+    public static int index(int xMask, int oMask) {
+        return TERNARY[xMask] + 2 * TERNARY[oMask];
+    }
+
+    /**
+     * Returns the score of a position for the player to move.
+     *
+     * @param xMask the cells holding an "X"
+     * @param oMask the cells holding an "O"
+     * @return the score, positive if the player to move wins with perfect play, 0 for a draw
+     */
+    public int getScore(int xMask, int oMask) {
+        return scores[index(xMask, oMask)];
+    }
+
+    /**
+     * Returns every move that keeps the best score for the player to move.
+     *
+     * @param xMask the cells holding an "X"
+     * @param oMask the cells holding an "O"
+     * @return a mask of the best cells, 0 if the game is over or the position cannot be reached
+     */
+    public int getBestMoves(int xMask, int oMask) {
+        return bestMoves[index(xMask, oMask)];
+    }
+
+    /**
+     * @return the number of positions reachable from the empty board, finished ones included
+     */
+    public int getReachablePositionCount() {
+        return reachablePositions;
+    }
+
+    /**
+     * Solves a position and every position below it, skipping those already solved.
+     * "X" moves first, so the number of marks tells whose turn it is.
+     *
+     * @return the score of the position for the player to move
+     */
+    private int solve(int xMask, int oMask) {
+        int index = index(xMask, oMask);
+        if (scores[index] != UNSOLVED) {
+            return scores[index];
+        }
+        reachablePositions++;
+
+        int taken = xMask | oMask;
+        int moves = Integer.bitCount(taken);
+        int score;
+        int best = 0;
+        if (BitBoard.isWin(xMask) || BitBoard.isWin(oMask)) {
+            // The player who just moved has won.
+            score = -(BitBoard.CELLS + 1 - moves);
+        } else if (taken == FULL_MASK) {
+            score = 0;
+        } else {
+            boolean xToMove = moves % 2 == 0;
+            score = Integer.MIN_VALUE;
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                int bit = 1 << cell;
+                if ((taken & bit) != 0) {
+                    continue;
+                }
+                int childScore = -(xToMove ? solve(xMask | bit, oMask) : solve(xMask, oMask | bit));
+                if (childScore > score) {
+                    score = childScore;
+                    best = bit;
+                } else if (childScore == score) {
+                    best |= bit;
+                }
+            }
+        }
+        scores[index] = (byte) score;
+        bestMoves[index] = (short) best;
+        return score;
+    }
+}
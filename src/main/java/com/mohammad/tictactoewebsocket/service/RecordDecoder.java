@@ -0,0 +1,68 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads what {@link RecordEncoder} wrote, with absolute reads only, so readers never move the position of a
+ * shared buffer.
+ */
+final class RecordDecoder {
+    private final ByteBuffer buffer;
+    private int offset;
+
+    RecordDecoder(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    int readByte() {
+        return buffer.get(offset++) & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+    }
+
+    String readString() {
+        int length = (int) readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length - 1];
+        buffer.get(offset, utf8);
+        offset += utf8.length;
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads what {@link RecordEncoder#writeMoves(int[], int)} wrote.
+     *
+     * @param cells the number of cells of the board
+     * @return the cells played, in order
+     */
+    int[] readMoves(int cells) {
+        int[] moves = new int[(int) readVarLong()];
+        if (cells <= 16) {
+            for (int i = 0; i < moves.length; i += 2) {
+                int packed = readByte();
+                moves[i] = packed & 0x0F;
+                if (i + 1 < moves.length) {
+                    moves[i + 1] = packed >>> 4;
+                }
+            }
+        } else {
+            for (int i = 0; i < moves.length; i++) {
+                moves[i] = (int) readVarLong();
+            }
+        }
+        return moves;
+    }
+}
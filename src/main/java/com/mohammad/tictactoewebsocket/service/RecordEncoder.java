@@ -0,0 +1,63 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes bytes, unsigned variable-length numbers, length-prefixed UTF-8 strings and move lists into a growable
+ * array. Shared by the binary formats of the {@link GameArchive} and the {@link GameSnapshotter}.
+ */
+final class RecordEncoder {
+    private byte[] bytes = new byte[96];
+    private int length;
+
+    void writeByte(int value) {
+        if (length == bytes.length) {
+            bytes = Arrays.copyOf(bytes, length * 2);
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte((int) value);
+    }
+
+    void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(utf8.length + 1L);
+        for (byte b : utf8) {
+            writeByte(b);
+        }
+    }
+
+    /**
+     * Writes a move count and the moves, packed two to a byte on boards of up to 16 cells.
+     *
+     * @param moves the cells played, in order
+     * @param cells the number of cells of the board
+     */
+    void writeMoves(int[] moves, int cells) {
+        writeVarLong(moves.length);
+        if (cells <= 16) {
+            for (int i = 0; i < moves.length; i += 2) {
+                writeByte(moves[i] | (i + 1 < moves.length ? moves[i + 1] << 4 : 0));
+            }
+        } else {
+            for (int move : moves) {
+                writeVarLong(move);
+            }
+        }
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+}
@@ -0,0 +1,209 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.model.BitBoard;
+import com.mohammad.tictactoewebsocket.model.SelfPlayReport;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays large batches of classic games between two {@link MovePolicy} instances, without the WebSocket layer,
+ * for analytics, bot tuning and regression runs.
+ * <p>
+ * A batch is split into tasks of {@value #GAMES_PER_TASK} games on a {@link ForkJoinPool}. A game is two 9-bit
+ * masks in local variables and a result is looked up with {@link BitBoard#isWin(int)}, the same check the
+ * {@link PositionTable} is built on, so the games themselves allocate nothing. Each task counts its results in a
+ * local array and adds them to the shared {@link LongAdder} counters once, when it is done.
+ * </p>
+ * <p>
+ * Each task draws its random numbers from a {@link SplittableRandom} seeded from the batch seed and the task's
+ * position in the batch, so a batch gives the same results for the same seed whatever the number of threads.
+ * </p>
+ * <p>
+ * Run from the command line with {@code mvn -Pselfplay verify -Dselfplay.args="games=10000000 x=perfect o=random"};
+ * see {@link #main(String[])} for the options.
+ * </p>
+ */
+public class SelfPlayEngine {
+
+    /**
+     * Number of games played by one fork-join task.
+     */
+    public static final int GAMES_PER_TASK = 8192;
+
+    private static final int X_WON = 0;
+    private static final int O_WON = 1;
+    private static final int DRAW = 2;
+    private static final int OUTCOMES = 3;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs an engine that plays on the common fork-join pool.
+     */
+    public SelfPlayEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an engine that plays on the given pool.
+     *
+     * @param pool the pool running the games
+     */
+    public SelfPlayEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Plays a batch of games and waits for the results.
+     *
+     * @param games   the number of games
+     * @param xPolicy the policy of "X", who moves first
+     * @param oPolicy the policy of "O"
+     * @param seed    the seed of the random numbers of the batch
+     * @return the results by opening move
+     * @throws IllegalStateException if a policy plays a taken cell
+     */
+    public SelfPlayReport play(long games, MovePolicy xPolicy, MovePolicy oPolicy, long seed) {
+        LongAdder[] counts = new LongAdder[BitBoard.CELLS * OUTCOMES];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+        long start = System.nanoTime();
+        pool.invoke(new Batch(0, games, xPolicy, oPolicy, seed, counts));
+        long elapsed = System.nanoTime() - start;
+
+        long[] xWins = new long[BitBoard.CELLS];
+        long[] oWins = new long[BitBoard.CELLS];
+        long[] draws = new long[BitBoard.CELLS];
+        for (int opening = 0; opening < BitBoard.CELLS; opening++) {
+            xWins[opening] = counts[opening * OUTCOMES + X_WON].sum();
+            oWins[opening] = counts[opening * OUTCOMES + O_WON].sum();
+            draws[opening] = counts[opening * OUTCOMES + DRAW].sum();
+        }
+        return new SelfPlayReport(games, elapsed, xWins, oWins, draws);
+    }
+
+    /**
+     * Plays one game.
+     *
+     * @param xPolicy the policy of "X"
+     * @param oPolicy the policy of "O"
+     * @param random  the random numbers of the calling thread
+     * @return the opening cell times 3 plus the outcome: 0 if "X" won, 1 if "O" won, 2 for a draw
+     * @throws IllegalStateException if a policy plays a taken cell
+     */
+    static int playGame(MovePolicy xPolicy, MovePolicy oPolicy, SplittableRandom random) {
+        int xMask = 0;
+        int oMask = 0;
+        int opening = 0;
+        for (int turn = 0; turn < BitBoard.CELLS; turn++) {
+            boolean xToMove = (turn & 1) == 0;
+            int cell = (xToMove ? xPolicy : oPolicy).chooseMove(xMask, oMask, xToMove, random);
+            int bit = 1 << cell;
+            if (cell < 0 || cell >= BitBoard.CELLS || ((xMask | oMask) & bit) != 0) {
+                throw new IllegalStateException("Policy played taken or invalid cell " + cell);
+            }
+            if (turn == 0) {
+                opening = cell;
+            }
+            if (xToMove) {
+                xMask |= bit;
+                if (turn >= 4 && BitBoard.isWin(xMask)) {
+                    return opening * OUTCOMES + X_WON;
+                }
+            } else {
+                oMask |= bit;
+                if (turn >= 5 && BitBoard.isWin(oMask)) {
+                    return opening * OUTCOMES + O_WON;
+                }
+            }
+        }
+        return opening * OUTCOMES + DRAW;
+    }
+
+    /**
+     * Plays a batch from the command line and prints the results by opening move.
+     * Options are given as {@code key=value}: {@code games} (1000000), {@code x} and {@code o} (the policies of
+     * the two sides: {@code random}, {@code perfect} or {@code heuristic}; default {@code perfect} and
+     * {@code random}), {@code threads} (0 for one per available processor) and {@code seed} (the current time).
+     *
+     * @param args the options
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        long games = Long.parseLong(options.getOrDefault("games", "1000000"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "0"));
+        long seed = Long.parseLong(options.getOrDefault("seed", Long.toString(System.nanoTime())));
+        PositionTable positionTable = new PositionTable();
+        MovePolicy xPolicy = MovePolicy.of(options.getOrDefault("x", "perfect"), positionTable);
+        MovePolicy oPolicy = MovePolicy.of(options.getOrDefault("o", "random"), positionTable);
+        if (xPolicy == null || oPolicy == null) {
+            System.err.println("Unknown policy; use random, perfect or heuristic");
+            System.exit(1);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        try {
+            SelfPlayReport report = new SelfPlayEngine(pool).play(games, xPolicy, oPolicy, seed);
+            System.out.printf("%d games on %d threads in %.3f s: %.0f games/s (seed %d)%n", games,
+                    pool.getParallelism(), report.elapsedNanos() / 1e9, report.gamesPerSecond(), seed);
+            System.out.print(report.toTable());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays the games {@code from} to {@code to} of a batch, splitting the range in halves down to single tasks.
+     */
+    private static final class Batch extends RecursiveAction {
+        private final long from;
+        private final long to;
+        private final MovePolicy xPolicy;
+        private final MovePolicy oPolicy;
+        private final long seed;
+        private final LongAdder[] counts;
+
+        Batch(long from, long to, MovePolicy xPolicy, MovePolicy oPolicy, long seed, LongAdder[] counts) {
+            this.from = from;
+            this.to = to;
+            this.xPolicy = xPolicy;
+            this.oPolicy = oPolicy;
+            this.seed = seed;
+            this.counts = counts;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GAMES_PER_TASK) {
+                // Split on a task boundary, so every task starts where it would in a single-threaded run.
+                long middle = from + ((to - from) / 2 + GAMES_PER_TASK - 1) / GAMES_PER_TASK * GAMES_PER_TASK;
+                invokeAll(new Batch(from, middle, xPolicy, oPolicy, seed, counts),
+                        new Batch(middle, to, xPolicy, oPolicy, seed, counts));
+                return;
+            }
+            // Not a multiple of the generator's own increment, which would make the tasks' streams overlap.
+            SplittableRandom random = new SplittableRandom(seed + (from / GAMES_PER_TASK) * 0xBF58476D1CE4E5B9L);
+            long[] local = new long[counts.length];
+            for (long game = from; game < to; game++) {
+                local[playGame(xPolicy, oPolicy, random)]++;
+            }
+            for (int i = 0; i < local.length; i++) {
+                if (local[i] != 0) {
+                    counts[i].add(local[i]);
+                }
+            }
+        }
+    }
+}
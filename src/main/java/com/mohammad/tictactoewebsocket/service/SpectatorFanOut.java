@@ -0,0 +1,206 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Component class that delivers game frames to spectators, away from the players' path.
+ * <p>
+ * Spectators subscribe to {@code /topic/game.{id}.watch} instead of the players' game topic. Handing a frame to
+ * the broker for thousands of subscribers takes a while, so the game's mailbox only publishes the latest encoded
+ * snapshot here and moves on; a small pool of fan-out threads sends it to the watch topic. Frames are conflated:
+ * each game keeps only its newest unsent snapshot, and at most one fan-out thread works on a game at a time, so
+ * spectators who fall behind skip to the latest state instead of queuing every move.
+ * </p>
+ * <p>
+ * The component also remembers which game each spectator session watches, one game per session.
+ * </p>
+ */
+@Component
+public class SpectatorFanOut {
+
+    private final GameFrameCache frameCache;
+    private final Executor executor;
+    private final ExecutorService ownedPool;
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+    private final Map<String, String> watching = new ConcurrentHashMap<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+
+    /**
+     * Constructs a fan-out that delivers on the publishing thread, for use outside the application context.
+     */
+    public SpectatorFanOut() {
+        this(new GameFrameCache(), Runnable::run);
+    }
+
+    /**
+     * Constructs a fan-out that delivers on the given executor.
+     *
+     * @param frameCache the cache whose encoded frames are sent
+     * @param executor   the executor running the deliveries
+     */
+    public SpectatorFanOut(GameFrameCache frameCache, Executor executor) {
+        this.frameCache = frameCache;
+        this.executor = executor;
+        this.ownedPool = null;
+    }
+
+    /**
+     * Constructs a fan-out backed by its own pool of daemon threads.
+     *
+     * @param frameCache the cache whose encoded frames are sent
+     * @param threads    number of fan-out threads
+     */
+    @Autowired
+    public SpectatorFanOut(GameFrameCache frameCache, @Value("${tictactoe.spectators.fanout-threads:2}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.frameCache = frameCache;
+        this.ownedPool = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "spectatorFanOut-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = ownedPool;
+    }
+
+    /**
+     * Returns the destination spectators of a game subscribe to.
+     *
+     * @param gameId the game ID
+     * @return the watch topic of the game
+     */
+    public static String destination(String gameId) {
+        return "/topic/game." + gameId + ".watch";
+    }
+
+    /**
+     * Records that a session watches a game, replacing the game it watched before.
+     *
+     * @param sessionId the spectator's session
+     * @param gameId    the game to watch
+     * @return the game the session watched before, or null if none
+     */
+    public String watch(String sessionId, String gameId) {
+        return watching.put(sessionId, gameId);
+    }
+
+    /**
+     * Records that a session stopped watching.
+     *
+     * @param sessionId the spectator's session
+     * @return the game the session watched, or null if none
+     */
+    public String unwatch(String sessionId) {
+        return watching.remove(sessionId);
+    }
+
+    /**
+     * @return the number of sessions watching a game
+     */
+    public int getSpectatorSessionCount() {
+        return watching.size();
+    }
+
+    /**
+     * Publishes the latest frame of a game to its spectators. Returns at once; a frame still waiting to be sent
+     * for the same game is replaced.
+     *
+     * @param messagingTemplate the WebSocket messaging template
+     * @param gameId            the game ID
+     * @param bytes             the encoded frame
+     */
+    public void publish(SimpMessagingTemplate messagingTemplate, String gameId, byte[] bytes) {
+        published.increment();
+        Slot slot = slots.computeIfAbsent(gameId, Slot::new);
+        slot.latest.set(new Frame(messagingTemplate, bytes));
+        if (slot.scheduled.compareAndSet(false, true)) {
+            executor.execute(slot::drain);
+        }
+    }
+
+    /**
+     * Forgets a finished game. A frame already published for it is still delivered.
+     *
+     * @param gameId the game ID
+     */
+    public void close(String gameId) {
+        slots.remove(gameId);
+    }
+
+    /**
+     * @return the number of frames published
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * @return the number of frames sent to a watch topic; the difference to the published count was conflated
+     */
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * Shuts down the pool owned by this fan-out, if any.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (ownedPool != null) {
+            ownedPool.shutdown();
+        }
+    }
+
+    /**
+     * An encoded frame and the template to send it with.
+     */
+    private record Frame(SimpMessagingTemplate messagingTemplate, byte[] bytes) {
+    }
+
+    /**
+     * The newest unsent frame of one game and whether a delivery for the game is scheduled.
+     */
+    private final class Slot {
+        private final String destination;
+        private final AtomicReference<Frame> latest = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Slot(String gameId) {
+            this.destination = destination(gameId);
+        }
+
+        /**
+         * Sends the newest frame until none is left. A frame published after the last check schedules the
+         * slot again, unless this run claims it back first.
+         */
+        private void drain() {
+            do {
+                Frame frame = latest.getAndSet(null);
+                if (frame != null) {
+                    try {
+                        frameCache.send(frame.messagingTemplate(), destination, frame.bytes());
+                        delivered.increment();
+                    } catch (RuntimeException e) {
+                        Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    }
+                }
+                scheduled.set(false);
+            } while (latest.get() != null && scheduled.compareAndSet(false, true));
+        }
+    }
+}
@@ -1,23 +1,121 @@
 package com.mohammad.tictactoewebsocket.service;
 
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameCategory;
 import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.JournalEntry;
 import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.utils.GameIdGenerator;
+import com.mohammad.tictactoewebsocket.utils.TimingWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
 
 /**
  * Component class responsible for managing all active Tic-Tac-Toe games.
  * It handles creating, finding, and removing games, as well as setting winners in case of player departures.
+ * <p>
+ * Besides the games themselves, the manager maintains a map from each player to the game they are part of,
+ * so that no operation has to scan every game. Games waiting for a second player are queued in the {@link Matchmaker}.
+ * </p>
+ * <p>
+ * None of the methods take a global lock. Changes to a started game are expected to run inside
+ * that game's mailbox of the {@link GameExecutor}. The manager seats the second player of a waiting game in that
+ * mailbox itself, behind any command the host already queued.
+ * </p>
+ * <p>
+ * Every game is put on a {@link TimingWheel} at its idle deadline, as given by the {@link GameEvictionPolicy}.
+ * Activity only updates a timestamp on the game; when the deadline comes round the game is either evicted or put
+ * back on the wheel at its new deadline, so no sweep ever scans all games.
+ * </p>
+ * <p>
+ * Every change that has to survive a crash, from a new game to a move or a forfeit, is appended to the
+ * {@link GameJournal}. On startup the entries written after the last snapshot are handed back to
+ * {@link #apply(JournalEntry)}.
+ * </p>
+ * <p>
+ * Games with time controls also have their turn deadline on the {@link TurnClocks}. A player who runs out of time
+ * forfeits the game the same way as a player who leaves it.
+ * </p>
  */
 @Component
 public class TicTacToeManager {
 
-    private final Map<String, TicTacToe> games = new ConcurrentHashMap<>();
-    protected final Map<String, String> waitingPlayers = new ConcurrentHashMap<>();
+    private final Map<String, TicTacToe> games;
+    private final Matchmaker matchmaker;
+
+    /**
+     * Index from a player to the game they most recently started or joined.
+     */
+    private final Map<String, TicTacToe> gamesByPlayer;
+
+    private final GameEvictionPolicy evictionPolicy;
+    private final LongSupplier clock;
+    private final TimingWheel<String> idleGames;
+    private final GameJournal journal;
+    private final TurnClocks turnClocks;
+    private final GameIdGenerator gameIds;
+    private final GameExecutor gameExecutor;
+    private final Map<GameCategory, LongAdder> evictions = new EnumMap<>(GameCategory.class);
+
+    /**
+     * Constructs a manager sized up front for a number of games.
+     * The maps still grow past that number; sizing them only saves the rehashing on the way up.
+     *
+     * @param matchmaker     the queue of players waiting for an opponent
+     * @param evictionPolicy the idle time allowed to each category of game
+     * @param expectedGames  the games to size the maps for, such as the number restored from a snapshot
+     * @param journal        the journal the changes to the games are appended to
+     * @param turnClocks     the turn deadlines of the games with time controls
+     * @param gameIds        the generator new games take their IDs from
+     * @param gameExecutor   the executor running the commands of each game in order
+     */
+    @Autowired
+    public TicTacToeManager(Matchmaker matchmaker, GameEvictionPolicy evictionPolicy,
+                            @Value("${tictactoe.games.expected:0}") int expectedGames, GameJournal journal,
+                            TurnClocks turnClocks, GameIdGenerator gameIds, GameExecutor gameExecutor) {
+        this(matchmaker, evictionPolicy, System::currentTimeMillis, expectedGames, journal, turnClocks, gameIds,
+                gameExecutor);
+    }
+
+    /**
+     * Constructs a manager that reads the time from the given clock.
+     *
+     * @param matchmaker     the queue of players waiting for an opponent
+     * @param evictionPolicy the idle time allowed to each category of game
+     * @param clock          the current time in milliseconds
+     * @param expectedGames  the games to size the maps for
+     * @param journal        the journal the changes to the games are appended to
+     * @param turnClocks     the turn deadlines of the games with time controls
+     * @param gameIds        the generator new games take their IDs from
+     * @param gameExecutor   the executor running the commands of each game in order
+     */
+    TicTacToeManager(Matchmaker matchmaker, GameEvictionPolicy evictionPolicy, LongSupplier clock, int expectedGames,
+                     GameJournal journal, TurnClocks turnClocks, GameIdGenerator gameIds, GameExecutor gameExecutor) {
+        this.games = new ConcurrentHashMap<>(Math.max(16, expectedGames));
+        this.gamesByPlayer = new ConcurrentHashMap<>(Math.max(16, expectedGames * 2));
+        this.matchmaker = matchmaker;
+        this.evictionPolicy = evictionPolicy;
+        this.clock = clock;
+        this.journal = journal;
+        this.turnClocks = turnClocks;
+        this.gameIds = gameIds;
+        this.gameExecutor = gameExecutor;
+        this.idleGames = new TimingWheel<>(evictionPolicy.getTickMillis(), 512, clock.getAsLong());
+        for (GameCategory category : GameCategory.values()) {
+            evictions.put(category, new LongAdder());
+        }
+    }
 
     /**
      * Allows a player to join an existing ongoing game.
@@ -25,79 +123,281 @@ public class TicTacToeManager {
      * @param player the player's identifier
      * @return the joined game, or null if no game available
      */
-    public synchronized TicTacToe joinGame(String player) {
-        return games.values().stream()
-                .filter(game -> (player.equals(game.getPlayer1()) || player.equals(game.getPlayer2()))
-                        && (game.getGameState() == GameState.PLAYER1_TURN || game.getGameState() == GameState.PLAYER2_TURN))
-                .findFirst()
-                .orElse(null);
+    public TicTacToe joinGame(String player) {
+        TicTacToe game = gamesByPlayer.get(player);
+        if (game != null && (game.getGameState() == GameState.PLAYER1_TURN || game.getGameState() == GameState.PLAYER2_TURN)) {
+            return game;
+        }
+        return null;
     }
 
     /**
-     * Starts a new game if no other waiting players exist, otherwise joins a waiting game.
+     * Starts a new classic game if no other waiting players exist, otherwise joins a waiting game.
      *
      * @param player the player's identifier
      * @return the started or joined game
      */
-    public synchronized TicTacToe startGame(String player) {
-        Optional<TicTacToe> existingGame = games.values().stream()
-                .filter(game -> player.equals(game.getPlayer1()) && game.getPlayer2() == null)
-                .findFirst();
+    public TicTacToe startGame(String player) {
+        return startGame(player, BoardVariant.CLASSIC);
+    }
+
+    /**
+     * Starts a new game if no other player waits on the same board, otherwise joins a waiting game.
+     * Pairing is claimed through the {@link Matchmaker}, so this method takes no lock.
+     * In batch mode the new game always waits and is paired by {@link #pairWaitingPlayers()}.
+     *
+     * @param player  the player's identifier
+     * @param variant the board size and win length
+     * @return the started or joined game
+     */
+    public TicTacToe startGame(String player, BoardVariant variant) {
+        TicTacToe waitingGame = matchmaker.cancel(player);
 
-        if (existingGame.isPresent()) {
+        if (waitingGame != null) {
             // Remove old incomplete game
-            games.remove(existingGame.get().getGameId());
-            waitingPlayers.remove(player);
-        } else {
+            discardGame(waitingGame);
+        } else if (!matchmaker.isBatching()) {
             // Try to find another waiting player
-            for (TicTacToe game : games.values()) {
-                if (game.getPlayer1() != null && game.getPlayer2() == null) {
-                    game.setPlayer2(player);
-                    game.setGameState(GameState.PLAYER1_TURN);
-                    return game;
-                }
+            TicTacToe openGame = matchmaker.claim(player, variant);
+            if (openGame != null && seatInMailbox(openGame, player)) {
+                return openGame;
             }
         }
 
         // If no existing games to join, create a new one
-        TicTacToe newGame = new TicTacToe(player, null);
+        TicTacToe newGame = newGame(player, null, variant);
+        touch(newGame);
         games.put(newGame.getGameId(), newGame);
-        waitingPlayers.put(player, newGame.getGameId());
+        gamesByPlayer.put(player, newGame);
+        idleGames.schedule(newGame.getGameId(), evictionPolicy.deadline(newGame));
+        journal.append(JournalEntry.Created.of(newGame));
+        matchmaker.enqueue(newGame);
         return newGame;
     }
 
+    /**
+     * Starts a game against the bot, which takes the player 2 slot right away.
+     * A game the player was waiting in is discarded. The game never enters the matchmaking queue, and only the
+     * player is indexed since the bot is not a player of its own.
+     *
+     * @param player     the player's identifier
+     * @param difficulty how well the bot plays
+     * @return the started game, with the player to move
+     */
+    public TicTacToe startBotGame(String player, BotDifficulty difficulty) {
+        discardWaitingGame(player);
+
+        TicTacToe game = newGame(player, BotPlayer.NAME, BoardVariant.CLASSIC);
+        game.setBotDifficulty(difficulty);
+        game.setGameState(GameState.PLAYER1_TURN);
+        touch(game);
+        games.put(game.getGameId(), game);
+        gamesByPlayer.put(player, game);
+        idleGames.schedule(game.getGameId(), evictionPolicy.deadline(game));
+        journal.append(JournalEntry.Created.of(game));
+        startClock(game);
+        return game;
+    }
+
+    /**
+     * Starts games between given pairs of players in one pass, such as the round of a tournament.
+     * Both seats are filled at once, so the games never enter the matchmaking queue; a game a player was waiting in
+     * is discarded. No lock is taken: each game costs a few puts into the concurrent maps and the idle timer.
+     *
+     * @param players1 the players moving first, one per game
+     * @param players2 their opponents, in the same order
+     * @param variant  the board size and win length of every game
+     * @return the started games, in the order of the pairs
+     */
+    public List<TicTacToe> startPairedGames(List<String> players1, List<String> players2, BoardVariant variant) {
+        List<TicTacToe> started = new ArrayList<>(players1.size());
+        for (int i = 0; i < players1.size(); i++) {
+            String player1 = players1.get(i);
+            String player2 = players2.get(i);
+            discardWaitingGame(player1);
+            discardWaitingGame(player2);
+
+            TicTacToe game = newGame(player1, player2, variant);
+            game.setGameState(GameState.PLAYER1_TURN);
+            touch(game);
+            games.put(game.getGameId(), game);
+            gamesByPlayer.put(player1, game);
+            gamesByPlayer.put(player2, game);
+            idleGames.schedule(game.getGameId(), evictionPolicy.deadline(game));
+            journal.append(JournalEntry.Created.of(game));
+            startClock(game);
+            started.add(game);
+        }
+        return started;
+    }
+
+    /**
+     * Pairs every player that is waiting in the matchmaking queue.
+     * For each match the guest becomes player 2 of the host game and the guest's own waiting game is removed.
+     * A guest whose host left before being seated keeps waiting in their own game.
+     *
+     * @return the matches made
+     */
+    public List<Matchmaker.Match> pairWaitingPlayers() {
+        List<Matchmaker.Match> matches = new ArrayList<>();
+        for (Matchmaker.Match match : matchmaker.drainMatches()) {
+            if (seatInMailbox(match.host(), match.guest().getPlayer1())) {
+                discardGame(match.guest());
+                matches.add(match);
+            } else if (games.get(match.guest().getGameId()) == match.guest()) {
+                matchmaker.enqueue(match.guest());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Puts back a game restored from a snapshot, with its idle deadline and its place in the indexes.
+     * Clocks are not part of the snapshot, so a game in progress starts a fresh clock.
+     * May be called from several threads at once, each with its own games.
+     *
+     * @param game         the restored game
+     * @param indexPlayer1 true if the game is the one its first player is indexed under
+     * @param indexPlayer2 true if the game is the one its second player is indexed under
+     * @param waiting      true to queue the game for an opponent
+     */
+    public void restoreGame(TicTacToe game, boolean indexPlayer1, boolean indexPlayer2, boolean waiting) {
+        games.put(game.getGameId(), game);
+        if (indexPlayer1 && game.getPlayer1() != null) {
+            gamesByPlayer.put(game.getPlayer1(), game);
+        }
+        if (indexPlayer2 && game.getPlayer2() != null && !game.isBotGame()) {
+            gamesByPlayer.put(game.getPlayer2(), game);
+        }
+        idleGames.schedule(game.getGameId(), evictionPolicy.deadline(game));
+        if (waiting) {
+            matchmaker.enqueue(game);
+        } else if (!game.isGameOver()) {
+            startClock(game);
+        }
+    }
+
+    /**
+     * Applies an entry read back from the journal on startup, on top of the games restored from the snapshot.
+     * The snapshot may already hold the effect of the entry, in which case nothing changes: a game is only created
+     * if it is missing, a player only seated in a waiting game and a move only played at its place in the history.
+     *
+     * @param entry the journal entry
+     */
+    public void apply(JournalEntry entry) {
+        TicTacToe game = games.get(entry.gameId());
+        if (entry instanceof JournalEntry.Created created) {
+            if (game == null) {
+                game = new TicTacToe(created.gameId(), created.player1(), created.player2(),
+                        new BoardVariant(created.size(), created.winLength()), created.createdAt());
+                game.setBotDifficulty(created.botDifficulty());
+                game.setGameState(created.state());
+                touch(game);
+                restoreGame(game, true, true, created.state() == GameState.WAITING_FOR_PLAYER);
+            }
+        } else if (game == null) {
+            return;
+        } else if (entry instanceof JournalEntry.Seated seated) {
+            if (game.getPlayer2() == null) {
+                matchmaker.cancel(game);
+                seatSecondPlayer(game, seated.player2());
+            }
+        } else if (entry instanceof JournalEntry.Moved moved) {
+            if (game.getMoveCount() == moved.ply() && !game.isGameOver()) {
+                game.makeMove(game.getTurn(), moved.cell());
+                game.setSavedForLater(false);
+                touch(game);
+            }
+        } else if (entry instanceof JournalEntry.Forfeited forfeited) {
+            game.setWinner(forfeited.winner());
+            game.setGameState(forfeited.winner().equals(game.getPlayer1())
+                    ? GameState.PLAYER1_WON : GameState.PLAYER2_WON);
+        } else if (entry instanceof JournalEntry.Saved) {
+            game.setSavedForLater(true);
+        } else if (entry instanceof JournalEntry.Removed) {
+            discardGame(game);
+        }
+    }
+
+    /**
+     * Tells whether a game is queued for an opponent.
+     *
+     * @param game the game
+     * @return true if the game is in the matchmaking queue
+     */
+    public boolean isWaiting(TicTacToe game) {
+        return matchmaker.isWaiting(game);
+    }
+
     /**
      * Removes a player and their associated game from active games.
      *
      * @param player the player's identifier
      */
-    public synchronized void leaveGame(String player) {
+    public void leaveGame(String player) {
         TicTacToe game = getGameByPlayer(player);
         if (game != null) {
-            games.remove(game.getGameId());
-            waitingPlayers.remove(game.getPlayer1());
-            if (game.getPlayer2() != null) {
-                waitingPlayers.remove(game.getPlayer2());
-            }
+            discardGame(game);
         }
     }
 
     /**
      * Sets the opponent of the leaving player as the winner if a player leaves mid-game.(moves made > 1)
+     * The game keeps its place in the indexes until it is left or removed.
      *
      * @param player the player who left
      */
-    public synchronized void setWinnerByPlayerLeft(String player) {
+    public void setWinnerByPlayerLeft(String player) {
         TicTacToe game = getGameByPlayer(player);
         if (game != null) {
-            String opponent = player.equals(game.getPlayer1()) ? game.getPlayer2() : game.getPlayer1();
-            if (opponent != null) {
-                game.setWinner(opponent);
-                game.setGameState(opponent.equals(game.getPlayer1()) ? GameState.PLAYER1_WON : GameState.PLAYER2_WON);
-            }
+            forfeit(game, player);
         }
     }
 
+    /**
+     * Ends a game whose player to move has run out of time, with their opponent as the winner.
+     * The deadline is checked again, since the player may have moved after the game was collected.
+     * Runs inside the game's mailbox.
+     *
+     * @param game the game returned by {@link #collectExpiredClocks()}
+     * @return the player who ran out of time, or null if the game goes on or is gone
+     */
+    public String timeOut(TicTacToe game) {
+        if (games.get(game.getGameId()) != game || game.isGameOver()) {
+            return null;
+        }
+        long deadline = game.getClockDeadline();
+        if (deadline == Long.MAX_VALUE) {
+            return null;
+        }
+        if (deadline > clock.getAsLong()) {
+            turnClocks.schedule(game);
+            return null;
+        }
+        String player = game.getTurn();
+        forfeit(game, player);
+        return player;
+    }
+
+    /**
+     * Advances the turn clocks and returns the games whose player to move looks out of time.
+     * Must not be called by two threads at once.
+     *
+     * @return the games to pass to {@link #timeOut(TicTacToe)}
+     */
+    public List<TicTacToe> collectExpiredClocks() {
+        return turnClocks.collectExpired(clock.getAsLong());
+    }
+
+    /**
+     * Removes a game that has ended, such as on a timeout.
+     *
+     * @param game the game
+     */
+    public void removeEndedGame(TicTacToe game) {
+        discardGame(game);
+    }
+
     /**
      * Retrieves a game by its unique ID.
      *
@@ -115,10 +415,7 @@ public class TicTacToeManager {
      * @return the game instance, or null if not found
      */
     public TicTacToe getGameByPlayer(String player) {
-        return games.values().stream()
-                .filter(game -> player.equals(game.getPlayer1()) || player.equals(game.getPlayer2()))
-                .findFirst()
-                .orElse(null);
+        return gamesByPlayer.get(player);
     }
 
     /**
@@ -128,7 +425,10 @@ public class TicTacToeManager {
      */
     public void removeGame(String gameId) {
         if (gameRemovalCheck(gameId)) {
-            games.remove(gameId);
+            TicTacToe game = games.get(gameId);
+            if (game != null) {
+                discardGame(game);
+            }
         }
     }
 
@@ -142,12 +442,240 @@ public class TicTacToeManager {
         TicTacToe game = games.get(gameId);
         if (game == null) return false;
 
-        long movesMade = Arrays.stream(game.getBoard())
-                .flatMap(Arrays::stream)
-                .filter(cell -> !cell.equals(" "))
-                .count();
+        return game.getMoveCount() > 1;
+    }
 
-        return movesMade > 1;
+    /**
+     * Records a move that has just been played on a game: the game is no longer saved for later, its idle deadline
+     * moves back, the move is appended to the journal and the clock passes to the opponent.
+     * Runs inside the game's mailbox.
+     *
+     * @param game the game
+     * @param cell the cell played
+     */
+    public void moveMade(TicTacToe game, int cell) {
+        game.setSavedForLater(false);
+        touch(game);
+        journal.append(new JournalEntry.Moved(game.getGameId(), game.getMoveCount() - 1, cell));
+        if (game.hasClock()) {
+            String mover = "X".equals(game.getMark(cell)) ? game.getPlayer1() : game.getPlayer2();
+            game.chargeClock(mover, game.getLastActivity());
+            turnClocks.schedule(game);
+        }
+    }
+
+    /**
+     * Keeps a game a player left early so that it can be resumed. Runs inside the game's mailbox.
+     *
+     * @param game the game
+     */
+    public void saveForLater(TicTacToe game) {
+        game.setSavedForLater(true);
+        touch(game);
+        journal.append(new JournalEntry.Saved(game.getGameId()));
+    }
+
+    /**
+     * Records activity on a game, pushing back its idle deadline.
+     *
+     * @param game the game
+     */
+    public void touch(TicTacToe game) {
+        game.setLastActivity(clock.getAsLong());
+    }
+
+    /**
+     * Advances the idle timer and returns the games whose deadline has passed.
+     * Games that had activity since they were scheduled are put back at their new deadline instead.
+     * Must not be called by two threads at once.
+     *
+     * @return the games that look idle; each should be passed to {@link #evictIfIdle(TicTacToe)}
+     */
+    public List<TicTacToe> collectIdleGames() {
+        long now = clock.getAsLong();
+        List<TicTacToe> idle = new ArrayList<>();
+        idleGames.advance(now, gameId -> {
+            TicTacToe game = games.get(gameId);
+            if (game == null) {
+                return;
+            }
+            long deadline = evictionPolicy.deadline(game);
+            if (deadline > now) {
+                idleGames.schedule(gameId, deadline);
+            } else {
+                idle.add(game);
+            }
+        });
+        return idle;
+    }
+
+    /**
+     * Evicts a game if it is still present and still idle, otherwise puts it back on the idle timer.
+     * Expected to run inside the game's mailbox so it cannot interleave with a move.
+     *
+     * @param game the game returned by {@link #collectIdleGames()}
+     * @return true if the game was evicted
+     */
+    public boolean evictIfIdle(TicTacToe game) {
+        if (games.get(game.getGameId()) != game) {
+            return false;
+        }
+        long deadline = evictionPolicy.deadline(game);
+        if (deadline > clock.getAsLong()) {
+            idleGames.schedule(game.getGameId(), deadline);
+            return false;
+        }
+        GameCategory category = GameCategory.of(game);
+        discardGame(game);
+        evictions.get(category).increment();
+        return true;
+    }
+
+    /**
+     * @return the number of games evicted so far, by category
+     */
+    public Map<GameCategory, Long> getEvictionCounts() {
+        Map<GameCategory, Long> counts = new EnumMap<>(GameCategory.class);
+        evictions.forEach((category, count) -> counts.put(category, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Counts the games held in each state. Walks every game, so callers should not call it per request.
+     *
+     * @return the number of games by state
+     */
+    public Map<GameState, Long> countGamesByState() {
+        Map<GameState, Long> counts = new EnumMap<>(GameState.class);
+        for (TicTacToe game : games.values()) {
+            counts.merge(game.getGameState(), 1L, Long::sum);
+        }
+        return counts;
     }
 
+    /**
+     * Copies the games held. Walks every game, so callers should not call it per request.
+     *
+     * @return the games, in no particular order
+     */
+    public List<TicTacToe> getGames() {
+        return new ArrayList<>(games.values());
+    }
+
+    /**
+     * @return the number of games held
+     */
+    public int getGameCount() {
+        return games.size();
+    }
+
+    /**
+     * Seats a player as player 2 of a claimed game inside the game's mailbox, and waits until that has run.
+     * Commands the host queued before, such as leaving, run first; if the host has left or moved on to another
+     * game by then, nobody is seated.
+     *
+     * @param game   the game claimed from the matchmaker
+     * @param player the player taking the second slot
+     * @return true if the player was seated
+     */
+    private boolean seatInMailbox(TicTacToe game, String player) {
+        AtomicBoolean seated = new AtomicBoolean();
+        gameExecutor.execute(game.getGameId(), () -> {
+            if (games.get(game.getGameId()) == game && gamesByPlayer.get(game.getPlayer1()) == game
+                    && game.getGameState() == GameState.WAITING_FOR_PLAYER) {
+                seatSecondPlayer(game, player);
+                seated.set(true);
+            }
+        }).join();
+        return seated.get();
+    }
+
+    /**
+     * Seats a player as player 2 of a claimed game and starts it.
+     *
+     * @param game   the game claimed from the matchmaker
+     * @param player the player taking the second slot
+     */
+    private void seatSecondPlayer(TicTacToe game, String player) {
+        game.setPlayer2(player);
+        game.setGameState(GameState.PLAYER1_TURN);
+        touch(game);
+        gamesByPlayer.put(player, game);
+        journal.append(new JournalEntry.Seated(game.getGameId(), player));
+        startClock(game);
+    }
+
+    /**
+     * Creates a game with the next ID of this manager's generator.
+     *
+     * @param player1 the first player
+     * @param player2 the second player, or null while the game waits for one
+     * @param variant the board size and win length
+     * @return the new game
+     */
+    private TicTacToe newGame(String player1, String player2, BoardVariant variant) {
+        return new TicTacToe(gameIds.nextIdString(), player1, player2, variant, System.currentTimeMillis());
+    }
+
+    /**
+     * Starts the clock of a game that has just begun, with the configured time controls, and schedules its first
+     * deadline. Games without time controls are left alone.
+     *
+     * @param game the game
+     */
+    private void startClock(TicTacToe game) {
+        if (turnClocks.getTimeControl().isLimited()) {
+            game.startClock(turnClocks.getTimeControl(), clock.getAsLong());
+            turnClocks.schedule(game);
+        }
+    }
+
+    /**
+     * Ends a game with the opponent of the given player as the winner and appends the forfeit to the journal.
+     * Nothing happens while the player has no opponent yet.
+     *
+     * @param game   the game
+     * @param player the player who forfeits
+     */
+    private void forfeit(TicTacToe game, String player) {
+        String opponent = player.equals(game.getPlayer1()) ? game.getPlayer2() : game.getPlayer1();
+        if (opponent != null) {
+            game.setWinner(opponent);
+            game.setGameState(opponent.equals(game.getPlayer1()) ? GameState.PLAYER1_WON : GameState.PLAYER2_WON);
+            journal.append(new JournalEntry.Forfeited(game.getGameId(), opponent));
+            turnClocks.cancel(game);
+        }
+    }
+
+    /**
+     * Withdraws a player from the matchmaking queue and discards the game they were waiting in, if any.
+     *
+     * @param player the player's identifier
+     */
+    private void discardWaitingGame(String player) {
+        TicTacToe waitingGame = matchmaker.cancel(player);
+        if (waitingGame != null) {
+            discardGame(waitingGame);
+        }
+    }
+
+    /**
+     * Removes a game from the games map, the matchmaking queue and the player index.
+     * Player entries are only cleared while they still point at this game.
+     *
+     * @param game the game to discard
+     */
+    private void discardGame(TicTacToe game) {
+        if (games.remove(game.getGameId()) != null) {
+            journal.append(new JournalEntry.Removed(game.getGameId()));
+        }
+        matchmaker.cancel(game);
+        turnClocks.cancel(game);
+        if (game.getPlayer1() != null) {
+            gamesByPlayer.remove(game.getPlayer1(), game);
+        }
+        if (game.getPlayer2() != null && !game.isBotGame()) {
+            gamesByPlayer.remove(game.getPlayer2(), game);
+        }
+    }
 }
@@ -1,29 +1,70 @@
 package com.mohammad.tictactoewebsocket.service;
 
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameCategory;
 import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
 import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.dto.MoveMessage;
 import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
 import com.mohammad.tictactoewebsocket.utils.TicTacToeMessageUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Service class that manages the flow of Tic-Tac-Toe games.
  * It communicates with the TicTacToeManager to handle player actions and sends updates through WebSocket messaging.
+ * Moves and departures are handed to the {@link GameExecutor}, so the commands of one game run one at a time
+ * without holding a lock shared with other games.
+ * Game frames are encoded once per game version by the {@link GameFrameCache} and sent as bytes.
+ * Move latency, matchmaking waits and saved games are reported to {@link GameMetrics}.
+ * In games against the bot, the {@link BotPlayer} replies to each move inside the same mailbox command.
+ * Games with spectators also publish a snapshot to the {@link SpectatorFanOut}, which sends it to the watch topic
+ * from its own threads, so the number of spectators does not add to the players' move latency.
+ * A player who runs out of time on a game with time controls forfeits it, as told by the {@link TurnClocks}.
+ * When a game ends, on the board or by a forfeit, its {@link GameRecord} is published as an application event
+ * from inside the game's mailbox, once the game has been removed, so listeners may seat its players in new games.
  */
 @Service
 public class TicTacToeService {
     private final TicTacToeManager ticTacToeManager;
+    private final GameExecutor gameExecutor;
+    private final GameFrameCache frameCache;
+    private final GameMetrics metrics;
+    private final BotPlayer botPlayer;
+    private final SpectatorFanOut spectators;
+    private final ApplicationEventPublisher events;
 
     /**
-     * Constructs a new TicTacToeService with a TicTacToeManager dependency.
+     * Constructs a new TicTacToeService with its TicTacToeManager, GameExecutor, GameFrameCache, GameMetrics,
+     * BotPlayer, SpectatorFanOut and ApplicationEventPublisher dependencies.
      *
      * @param ticTacToeManager the manager responsible for managing games
+     * @param gameExecutor     the executor running the commands of each game in order
+     * @param frameCache       the cache of encoded game frames
+     * @param metrics          the game metrics
+     * @param botPlayer        the bot opponent
+     * @param spectators       the delivery of frames to spectators
+     * @param events           the publisher of the records of finished games
      */
     @Autowired
-    public TicTacToeService(TicTacToeManager ticTacToeManager) {
+    public TicTacToeService(TicTacToeManager ticTacToeManager, GameExecutor gameExecutor, GameFrameCache frameCache,
+                            GameMetrics metrics, BotPlayer botPlayer, SpectatorFanOut spectators,
+                            ApplicationEventPublisher events) {
         this.ticTacToeManager = ticTacToeManager;
+        this.gameExecutor = gameExecutor;
+        this.frameCache = frameCache;
+        this.metrics = metrics;
+        this.botPlayer = botPlayer;
+        this.spectators = spectators;
+        this.events = events;
     }
 
     /**
@@ -37,13 +78,125 @@ public class TicTacToeService {
     }
 
     /**
-     * Starts a new game or lets the player join a waiting game.
+     * Retrieves a game by its unique ID.
+     *
+     * @param gameId the game ID
+     * @return the game, or null if not found
+     */
+    public TicTacToe getGame(String gameId) {
+        return ticTacToeManager.getGame(gameId);
+    }
+
+    /**
+     * Starts a new classic game or lets the player join a waiting game.
      *
      * @param player the player's identifier
      * @return the game the player started or joined
      */
     public TicTacToe startGame(String player) {
-        return ticTacToeManager.startGame(player);
+        return startGame(player, BoardVariant.CLASSIC);
+    }
+
+    /**
+     * Starts a new game or lets the player join a game waiting on the same board.
+     *
+     * @param player  the player's identifier
+     * @param variant the board size and win length
+     * @return the game the player started or joined
+     */
+    public TicTacToe startGame(String player, BoardVariant variant) {
+        TicTacToe game = ticTacToeManager.startGame(player, variant);
+        if (player.equals(game.getPlayer2())) {
+            // Paired on arrival: the host waited since creating the game, the joining player not at all.
+            metrics.recordMatchmakingWait(System.currentTimeMillis() - game.getCreatedAt());
+            metrics.recordMatchmakingWait(0);
+        }
+        return game;
+    }
+
+    /**
+     * Starts a game against the bot. The player moves first.
+     *
+     * @param player     the player's identifier
+     * @param difficulty how well the bot plays
+     * @return the started game
+     */
+    public TicTacToe startBotGame(String player, BotDifficulty difficulty) {
+        return ticTacToeManager.startBotGame(player, difficulty);
+    }
+
+    /**
+     * Lets a session watch a game, instead of any game it watched before. The spectator count of the game is
+     * updated inside its mailbox. Nothing is published for the change itself: the new spectator gets the game in
+     * reply, and everyone else sees the count on the next frame of the game. Publishing every join to everyone
+     * watching would cost a frame per spectator per join.
+     *
+     * @param sessionId  the spectator's session
+     * @param gameId     the game to watch
+     * @return the game, or null if not found
+     */
+    public TicTacToe spectate(String sessionId, String gameId) {
+        TicTacToe game = ticTacToeManager.getGame(gameId);
+        if (game == null) {
+            return null;
+        }
+        String previous = spectators.watch(sessionId, gameId);
+        if (!gameId.equals(previous)) {
+            if (previous != null) {
+                changeSpectatorCount(previous, -1);
+            }
+            changeSpectatorCount(gameId, 1);
+        }
+        return game;
+    }
+
+    /**
+     * Stops a session from watching the game it watches, if any.
+     *
+     * @param sessionId  the spectator's session
+     */
+    public void stopSpectating(String sessionId) {
+        String gameId = spectators.unwatch(sessionId);
+        if (gameId != null) {
+            changeSpectatorCount(gameId, -1);
+        }
+    }
+
+    /**
+     * Changes the spectator count of a game inside its mailbox.
+     */
+    private void changeSpectatorCount(String gameId, int change) {
+        gameExecutor.execute(gameId, () -> {
+            TicTacToe game = ticTacToeManager.getGame(gameId);
+            if (game != null) {
+                game.setSpectatorCount(Math.max(0, game.getSpectatorCount() + change));
+            }
+        });
+    }
+
+    /**
+     * Pairs the players waiting in batch mode and tells both sides about their match.
+     * The host hears about it on the game topic; the guest is told on the topic of the game they gave up,
+     * so their client can switch over to the host game.
+     *
+     * @param messagingTemplate  the WebSocket messaging template
+     * @return the matches made
+     */
+    public List<Matchmaker.Match> pairWaitingPlayers(SimpMessagingTemplate messagingTemplate) {
+        List<Matchmaker.Match> matches = ticTacToeManager.pairWaitingPlayers();
+        for (Matchmaker.Match match : matches) {
+            TicTacToe game = match.host();
+            long now = System.currentTimeMillis();
+            metrics.recordMatchmakingWait(now - game.getCreatedAt());
+            metrics.recordMatchmakingWait(now - match.guest().getCreatedAt());
+
+            frameCache.broadcast(messagingTemplate, game, "game.join", g -> stateMessage(g, "game.join"));
+
+            byte[] matchedFrame = frameCache.encode(game, "game.matched", g -> stateMessage(g, "game.matched"));
+            frameCache.send(messagingTemplate, match.guest().getDestination(), matchedFrame);
+            frameCache.evict(match.guest().getGameId());
+        }
+        return matches;
     }
 
     /**
@@ -65,23 +218,55 @@ public class TicTacToeService {
     public void handleEarlyLeave(String player, SimpMessagingTemplate messagingTemplate) {
         TicTacToe game = ticTacToeManager.getGameByPlayer(player);
         if (game != null) {
-            TicTacToeMessage message = TicTacToeMessageUtil.fromGame(game);
-            message.setType("game.earlyLeave");
-            message.setContent("Opponent left the game. Since less than 2 moves were made, the game is saved for later.");
-            messagingTemplate.convertAndSend("/topic/game." + game.getGameId(), message);
+            gameExecutor.execute(game.getGameId(), () -> saveForLater(game, messagingTemplate));
         }
     }
 
+    /**
+     * Saves a game after an early leave and tells the opponent. Runs inside the game's mailbox.
+     *
+     * @param game               the game
+     * @param messagingTemplate  the WebSocket messaging template
+     */
+    private void saveForLater(TicTacToe game, SimpMessagingTemplate messagingTemplate) {
+        ticTacToeManager.saveForLater(game);
+        metrics.gameSaved();
+        frameCache.broadcast(messagingTemplate, game, "game.earlyLeave", g -> {
+            TicTacToeMessage message = stateMessage(g, "game.earlyLeave");
+            message.setContent("Opponent left the game. Since less than 2 moves were made, the game is saved for later.");
+            return message;
+        });
+        publishToSpectators(messagingTemplate, game);
+    }
+
     /**
      * Processes a player's move in the game and updates the game state accordingly.
-     * Sends game updates or error messages via WebSocket.
+     * Sends a {@link MoveMessage} delta or an error message via WebSocket; the delta of the final move
+     * also reports the result. In a game against the bot, the bot's reply follows as a second delta.
+     * The move is queued behind any other command of the same game.
      *
      * @param player             the player making the move
      * @param gameId             the game identifier
-     * @param move               the move (0-8) corresponding to the board position
+     * @param move               the move (0 to size * size - 1) corresponding to the board position
      * @param messagingTemplate  the WebSocket messaging template
      */
     public void makeMove(String player, String gameId, int move, SimpMessagingTemplate messagingTemplate) {
+        long receivedNanos = System.nanoTime();
+        gameExecutor.execute(gameId, () -> {
+            applyMove(player, gameId, move, messagingTemplate);
+            metrics.recordMove(receivedNanos);
+        });
+    }
+
+    /**
+     * Applies a move. Runs inside the game's mailbox.
+     *
+     * @param player             the player making the move
+     * @param gameId             the game identifier
+     * @param move               the move (0 to size * size - 1) corresponding to the board position
+     * @param messagingTemplate  the WebSocket messaging template
+     */
+    private void applyMove(String player, String gameId, int move, SimpMessagingTemplate messagingTemplate) {
         TicTacToe game = ticTacToeManager.getGame(gameId);
         if (game == null || game.isGameOver()) {
             sendErrorMessage(messagingTemplate, gameId, "Game not found or is already over.");
@@ -93,19 +278,135 @@ public class TicTacToeService {
             return;
         }
 
-        if (game.getTurn().equals(player)) {
-            game.makeMove(player, move);
-            TicTacToeMessage stateMessage = new TicTacToeMessage(game);
-            stateMessage.setType("game.move");
-            messagingTemplate.convertAndSend("/topic/game." + gameId, stateMessage);
+        if (game.getTurn().equals(player) && playMove(game, player, move, messagingTemplate)
+                && game.isBotGame() && !game.isGameOver()) {
+            playMove(game, game.getPlayer2(), botPlayer.chooseMove(game), messagingTemplate);
+        }
+    }
 
-            if (game.isGameOver()) {
-                TicTacToeMessage overMessage = TicTacToeMessageUtil.fromGame(game);
-                overMessage.setType("game.gameOver");
-                messagingTemplate.convertAndSend("/topic/game." + gameId, overMessage);
-                ticTacToeManager.removeGame(gameId);
+    /**
+     * Lets the bot play both sides of a game until it ends, as in a simulated tournament.
+     * Every move is broadcast and the finished game is published like any other. The moves are queued behind any
+     * other command of the game. On a classic board the bot plays at the given difficulty; on larger boards it
+     * picks random free cells.
+     *
+     * @param gameId             the game identifier
+     * @param difficulty         how well the bot plays for both sides; null plays perfectly
+     * @param messagingTemplate  the WebSocket messaging template
+     */
+    public void playOut(String gameId, BotDifficulty difficulty, SimpMessagingTemplate messagingTemplate) {
+        gameExecutor.execute(gameId, () -> {
+            TicTacToe game = ticTacToeManager.getGame(gameId);
+            if (game == null || game.getGameState() == GameState.WAITING_FOR_PLAYER) {
+                return;
+            }
+            boolean classic = BoardVariant.CLASSIC.equals(game.getVariant());
+            while (!game.isGameOver()) {
+                int move = classic
+                        ? botPlayer.chooseMove(game.getXMask(), game.getOMask(), difficulty)
+                        : randomFreeCell(game);
+                if (move < 0 || !playMove(game, game.getTurn(), move, messagingTemplate)) {
+                    return;
+                }
             }
+        });
+    }
+
+    /**
+     * Picks a random empty cell of a board, or returns -1 if there is none.
+     */
+    private static int randomFreeCell(TicTacToe game) {
+        int cells = game.getSize() * game.getSize();
+        int start = ThreadLocalRandom.current().nextInt(cells);
+        for (int i = 0; i < cells; i++) {
+            int cell = (start + i) % cells;
+            if (" ".equals(game.getMark(cell))) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Plays a move and broadcasts it, removing the game if it is over. Runs inside the game's mailbox.
+     *
+     * @param game               the game
+     * @param player             the player making the move
+     * @param move               the move (0 to size * size - 1) corresponding to the board position
+     * @param messagingTemplate  the WebSocket messaging template
+     * @return true if the move was played, false if the cell was not free
+     */
+    private boolean playMove(TicTacToe game, String player, int move, SimpMessagingTemplate messagingTemplate) {
+        int movesBefore = game.getMoveCount();
+        game.makeMove(player, move);
+        if (game.getMoveCount() == movesBefore) {
+            return false;
         }
+        ticTacToeManager.moveMade(game, move);
+        frameCache.broadcast(messagingTemplate, game, "game.delta", g -> new MoveMessage(g, move));
+        publishToSpectators(messagingTemplate, game);
+
+        if (game.isGameOver()) {
+            ticTacToeManager.removeGame(game.getGameId());
+            frameCache.evict(game.getGameId());
+            spectators.close(game.getGameId());
+            events.publishEvent(GameRecord.of(game, false, System.currentTimeMillis()));
+        }
+        return true;
+    }
+
+    /**
+     * Evicts the games that have been idle for longer than their category allows.
+     * Each eviction runs in the game's mailbox, so a move arriving at the same time either
+     * lands before the eviction or finds the game gone.
+     *
+     * @return the number of idle games submitted for eviction
+     */
+    public int evictIdleGames() {
+        List<TicTacToe> idle = ticTacToeManager.collectIdleGames();
+        for (TicTacToe game : idle) {
+            gameExecutor.execute(game.getGameId(), () -> {
+                if (ticTacToeManager.evictIfIdle(game)) {
+                    frameCache.evict(game.getGameId());
+                    spectators.close(game.getGameId());
+                }
+            });
+        }
+        return idle.size();
+    }
+
+    /**
+     * Ends the games whose player to move has run out of time, in favour of their opponent.
+     * Each timeout runs in the game's mailbox and checks the deadline again, so a move that lands first keeps
+     * the game going.
+     *
+     * @param messagingTemplate  the WebSocket messaging template
+     * @return the number of games submitted for a timeout
+     */
+    public int expireTurnClocks(SimpMessagingTemplate messagingTemplate) {
+        List<TicTacToe> expired = ticTacToeManager.collectExpiredClocks();
+        for (TicTacToe game : expired) {
+            gameExecutor.execute(game.getGameId(), () -> {
+                String player = ticTacToeManager.timeOut(game);
+                if (player != null) {
+                    frameCache.broadcast(messagingTemplate, game, "game.timeout", g -> {
+                        TicTacToeMessage message = stateMessage(g, "game.timeout");
+                        message.setContent(player + " ran out of time");
+                        return message;
+                    });
+                    ticTacToeManager.removeEndedGame(game);
+                    closeGame(game, true, messagingTemplate);
+                }
+            });
+        }
+        return expired.size();
+    }
+
+    /**
+     * @return the number of games evicted for being idle, by category
+     */
+    public Map<GameCategory, Long> getEvictionCounts() {
+        return ticTacToeManager.getEvictionCounts();
     }
 
     /**
@@ -117,12 +418,99 @@ public class TicTacToeService {
     public void playerLeft(String player, SimpMessagingTemplate messagingTemplate) {
         TicTacToe game = ticTacToeManager.getGameByPlayer(player);
         if (game != null) {
-            ticTacToeManager.setWinnerByPlayerLeft(player);
-            TicTacToeMessage message = TicTacToeMessageUtil.fromGame(game);
-            message.setType("game.left");
-            messagingTemplate.convertAndSend("/topic/game." + game.getGameId(), message);
-            ticTacToeManager.leaveGame(player);
+            gameExecutor.execute(game.getGameId(), () -> forfeit(game, player, messagingTemplate));
+        }
+    }
+
+    /**
+     * Handles a player whose connection closed and who did not come back within the grace period.
+     * The same rules apply as when a client leaves on purpose: a game with more than one move is forfeited to the
+     * opponent, a game with fewer moves is saved for later. A game still waiting for an opponent, a game against
+     * the bot and a finished game are simply removed. Nothing happens if the player has moved on to another game.
+     *
+     * @param player             the player whose session closed
+     * @param gameId             the game the session was used for
+     * @param messagingTemplate  the WebSocket messaging template
+     */
+    public void playerDisconnected(String player, String gameId, SimpMessagingTemplate messagingTemplate) {
+        TicTacToe game = ticTacToeManager.getGameByPlayer(player);
+        if (game == null || !game.getGameId().equals(gameId)) {
+            return;
         }
+        gameExecutor.execute(gameId, () -> {
+            if (ticTacToeManager.getGameByPlayer(player) != game) {
+                return;
+            }
+            if (game.isGameOver() || game.isBotGame() || game.getGameState() == GameState.WAITING_FOR_PLAYER) {
+                ticTacToeManager.leaveGame(player);
+                frameCache.evict(gameId);
+                spectators.close(gameId);
+            } else if (game.getMoveCount() > 1) {
+                forfeit(game, player, messagingTemplate);
+            } else if (!game.isSavedForLater()) {
+                saveForLater(game, messagingTemplate);
+            }
+        });
+    }
+
+    /**
+     * Ends a game in favour of the opponent of a player who left, tells both sides and removes the game.
+     * Runs inside the game's mailbox.
+     *
+     * @param game               the game
+     * @param player             the player who left
+     * @param messagingTemplate  the WebSocket messaging template
+     */
+    private void forfeit(TicTacToe game, String player, SimpMessagingTemplate messagingTemplate) {
+        boolean wasOver = game.isGameOver();
+        ticTacToeManager.setWinnerByPlayerLeft(player);
+        frameCache.broadcast(messagingTemplate, game, "game.left", g -> stateMessage(g, "game.left"));
+        ticTacToeManager.leaveGame(player);
+        closeGame(game, !wasOver && game.isGameOver(), messagingTemplate);
+    }
+
+    /**
+     * Shows spectators the last state of a game that has been removed, drops its frames and spectators and, if the
+     * game was just forfeited, publishes its record. Runs inside the game's mailbox, after the players have been told.
+     *
+     * @param game               the removed game
+     * @param forfeited          true if the game has just been won by a forfeit
+     * @param messagingTemplate  the WebSocket messaging template
+     */
+    private void closeGame(TicTacToe game, boolean forfeited, SimpMessagingTemplate messagingTemplate) {
+        publishToSpectators(messagingTemplate, game);
+        frameCache.evict(game.getGameId());
+        spectators.close(game.getGameId());
+        if (forfeited) {
+            events.publishEvent(GameRecord.of(game, true, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Publishes a full snapshot of a game to its spectators, if it has any. Spectators get snapshots rather than
+     * deltas, since the fan-out may skip frames of a spectator who is behind. Runs inside the game's mailbox.
+     *
+     * @param messagingTemplate  the WebSocket messaging template
+     * @param game               the game
+     */
+    private void publishToSpectators(SimpMessagingTemplate messagingTemplate, TicTacToe game) {
+        if (game.getSpectatorCount() > 0) {
+            byte[] frame = frameCache.encode(game, "game.watch", g -> stateMessage(g, "game.watch"));
+            spectators.publish(messagingTemplate, game.getGameId(), frame);
+        }
+    }
+
+    /**
+     * Builds a full game message of the given type.
+     *
+     * @param game the game
+     * @param type the message type
+     * @return the message
+     */
+    private static TicTacToeMessage stateMessage(TicTacToe game, String type) {
+        TicTacToeMessage message = TicTacToeMessageUtil.fromGame(game);
+        message.setType(type);
+        return message;
     }
 
     /**
@@ -136,6 +524,6 @@ public class TicTacToeService {
         TicTacToeMessage errorMessage = new TicTacToeMessage();
         errorMessage.setType("error");
         errorMessage.setContent(content);
-        messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
+        messagingTemplate.convertAndSend(TicTacToe.destination(gameId), errorMessage);
     }
 }
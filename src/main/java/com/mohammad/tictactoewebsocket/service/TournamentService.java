@@ -0,0 +1,226 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.TournamentFormat;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.Tournament;
+import com.mohammad.tictactoewebsocket.model.dto.TournamentSummary;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Service class that runs tournaments from the first round to the final standings.
+ * <p>
+ * Every {@link Tournament} is changed by a single tournament thread only, so brackets need no locking. Each round
+ * starts all of its games in one call to {@link TicTacToeManager#startPairedGames(List, List, BoardVariant)}, which
+ * takes no global lock, and maps every game to its match. The {@link GameRecord} published when a game ends is
+ * handed to the tournament thread, which records the result, starts a rematch of a drawn single-elimination match,
+ * and pairs the next round as soon as the last match of the round is in. No thread waits on a round.
+ * </p>
+ * <p>
+ * A game that is saved for later or evicted without a result holds up its round.
+ * </p>
+ */
+@Service
+public class TournamentService {
+
+    private final TicTacToeManager ticTacToeManager;
+    private final Executor director;
+    private final ExecutorService ownedDirector;
+    private final Map<String, Running> tournaments = new ConcurrentHashMap<>();
+    private final Map<String, MatchRef> matchesByGame = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a service that runs tournaments on the given executor.
+     *
+     * @param ticTacToeManager the manager in which the games are started
+     * @param director         the executor advancing the tournaments, one task at a time
+     */
+    public TournamentService(TicTacToeManager ticTacToeManager, Executor director) {
+        this(ticTacToeManager, director, null);
+    }
+
+    /**
+     * Constructs a service backed by its own tournament thread.
+     *
+     * @param ticTacToeManager the manager in which the games are started
+     */
+    @Autowired
+    public TournamentService(TicTacToeManager ticTacToeManager) {
+        this(ticTacToeManager, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tournaments");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    private TournamentService(TicTacToeManager ticTacToeManager, ExecutorService ownedDirector) {
+        this(ticTacToeManager, ownedDirector, ownedDirector);
+    }
+
+    private TournamentService(TicTacToeManager ticTacToeManager, Executor director, ExecutorService ownedDirector) {
+        this.ticTacToeManager = ticTacToeManager;
+        this.director = director;
+        this.ownedDirector = ownedDirector;
+    }
+
+    /**
+     * Creates a tournament and starts its first round. Returns at once; the games are started on the tournament
+     * thread.
+     *
+     * @param name           the name of the tournament
+     * @param format         how players are paired
+     * @param entrants       the players, strongest seed first
+     * @param variant        the board of every game
+     * @param rounds         the number of Swiss rounds, or 0 for enough rounds to single out a winner
+     * @param onGamesStarted called on the tournament thread with the games of each round and of each rematch,
+     *                       to tell the players or to play the games
+     * @return the tournament, whose completion tells when the last round is scored
+     * @throws IllegalArgumentException if there are fewer than 2 or more than {@value Tournament#MAX_ENTRANTS}
+     *                                  entrants, or names are repeated or reserved
+     */
+    public Tournament create(String name, TournamentFormat format, List<String> entrants, BoardVariant variant,
+                             int rounds, BiConsumer<Tournament, List<TicTacToe>> onGamesStarted) {
+        if (entrants.contains(BotPlayer.NAME)) {
+            throw new IllegalArgumentException(BotPlayer.NAME + " cannot enter a tournament");
+        }
+        Tournament tournament = new Tournament(name, format, variant, entrants, rounds);
+        tournaments.put(tournament.getTournamentId(), new Running(tournament, onGamesStarted));
+        director.execute(() -> startRound(tournament));
+        return tournament;
+    }
+
+    /**
+     * Hands the result of a finished game to the tournament thread if the game is a tournament match.
+     *
+     * @param record the finished game
+     */
+    @EventListener
+    public void onGameFinished(GameRecord record) {
+        MatchRef ref = matchesByGame.remove(record.gameId());
+        if (ref != null) {
+            director.execute(() -> matchFinished(ref, record.winner()));
+        }
+    }
+
+    /**
+     * Returns the state of a tournament, read on the tournament thread.
+     *
+     * @param tournamentId the tournament ID
+     * @param limit        the most pairings and standings to include
+     * @return the summary, or a future completed with null if there is no such tournament
+     */
+    public CompletableFuture<TournamentSummary> summary(String tournamentId, int limit) {
+        Running running = tournaments.get(tournamentId);
+        if (running == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> TournamentSummary.of(running.tournament(), limit), director);
+    }
+
+    /**
+     * @return the number of tournament games being played
+     */
+    public int getPendingGameCount() {
+        return matchesByGame.size();
+    }
+
+    /**
+     * Stops the tournament thread. Tournaments still running stop where they are.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (ownedDirector != null) {
+            ownedDirector.shutdown();
+            try {
+                ownedDirector.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Pairs the next round and starts its games. Runs on the tournament thread.
+     */
+    private void startRound(Tournament tournament) {
+        Tournament.Match[] matches = tournament.startRound();
+        List<String> players1 = new ArrayList<>(matches.length);
+        List<String> players2 = new ArrayList<>(matches.length);
+        for (Tournament.Match match : matches) {
+            players1.add(tournament.getEntrant(match.getPlayer1()));
+            players2.add(tournament.getEntrant(match.getPlayer2()));
+        }
+        startGames(tournament, matches, players1, players2);
+        if (matches.length == 0 && !tournament.finishRound()) {
+            startRound(tournament);
+        }
+    }
+
+    /**
+     * Replays a drawn match with the sides swapped. Runs on the tournament thread.
+     */
+    private void startRematch(Tournament tournament, Tournament.Match match) {
+        String player1 = tournament.getEntrant(match.getPlayer1());
+        String player2 = tournament.getEntrant(match.getPlayer2());
+        boolean swap = match.getGames() % 2 == 1;
+        startGames(tournament, new Tournament.Match[]{match},
+                List.of(swap ? player2 : player1), List.of(swap ? player1 : player2));
+    }
+
+    /**
+     * Starts the games of some matches in bulk, maps each game to its match, then hands the games over.
+     * The games are mapped before anyone hears of them, so no result can arrive unmapped.
+     */
+    private void startGames(Tournament tournament, Tournament.Match[] matches, List<String> players1,
+                            List<String> players2) {
+        if (matches.length == 0) {
+            return;
+        }
+        List<TicTacToe> games = ticTacToeManager.startPairedGames(players1, players2, tournament.getVariant());
+        for (int i = 0; i < matches.length; i++) {
+            String gameId = games.get(i).getGameId();
+            matches[i].startGame(gameId);
+            matchesByGame.put(gameId, new MatchRef(tournament, matches[i]));
+        }
+        tournaments.get(tournament.getTournamentId()).onGamesStarted().accept(tournament, games);
+    }
+
+    /**
+     * Records the result of a match and moves the tournament on. Runs on the tournament thread.
+     */
+    private void matchFinished(MatchRef ref, String winner) {
+        Tournament tournament = ref.tournament();
+        if (winner == null && tournament.needsRematch(ref.match())) {
+            startRematch(tournament, ref.match());
+        } else if (tournament.recordResult(ref.match(), winner) && !tournament.finishRound()) {
+            startRound(tournament);
+        }
+    }
+
+    /**
+     * A tournament and where its games are sent.
+     */
+    private record Running(Tournament tournament, BiConsumer<Tournament, List<TicTacToe>> onGamesStarted) {
+    }
+
+    /**
+     * The match a tournament game is played for.
+     */
+    private record MatchRef(Tournament tournament, Tournament.Match match) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Component class that ends the games whose player to move has run out of time.
+ * Every {@code tictactoe.clock.tick-ms} milliseconds it advances the turn clocks and forfeits the games past
+ * their deadline.
+ */
+@Component
+public class TurnClockScheduler {
+
+    private final TicTacToeService gameService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Constructs a new TurnClockScheduler.
+     *
+     * @param gameService        the service ending the games
+     * @param messagingTemplate  the WebSocket messaging template used to tell the players
+     */
+    @Autowired
+    public TurnClockScheduler(TicTacToeService gameService, SimpMessagingTemplate messagingTemplate) {
+        this.gameService = gameService;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    /**
+     * Forfeits the games whose turn deadline has passed.
+     */
+    @Scheduled(fixedDelayString = "${tictactoe.clock.tick-ms:100}")
+    public void expireTurnClocks() {
+        gameService.expireTurnClocks(messagingTemplate);
+    }
+}
@@ -0,0 +1,136 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.TimeControl;
+import com.mohammad.tictactoewebsocket.utils.TimingWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Component class that keeps the turn deadlines of the games with time controls.
+ * <p>
+ * Each game with a clock has one deadline on a {@link TimingWheel}: the moment the player to move runs out of
+ * time, as given by {@link TicTacToe#getClockDeadline()}. Every move schedules the new deadline and cancels the old
+ * one, both in constant time, so the cost per move does not depend on the number of games, and no task is
+ * scheduled per game. Deadlines are rounded up to the next tick of {@code tictactoe.clock.tick-ms}, so a game
+ * never times out early and at most one tick late.
+ * </p>
+ * <p>
+ * New games get the time control configured under {@code tictactoe.clock}; without one they have no clock and
+ * nothing is scheduled for them.
+ * </p>
+ */
+@Component
+public class TurnClocks {
+
+    private final TimeControl timeControl;
+    private final long tickMillis;
+    private final TimingWheel<TicTacToe> deadlines;
+
+    /**
+     * The pending deadline of each game, to cancel when the game moves on.
+     */
+    private final Map<String, TimingWheel.Timeout<TicTacToe>> timeouts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs clocks that give new games no time limits.
+     */
+    public TurnClocks() {
+        this(TimeControl.NONE, 100, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructs clocks with the configured time control.
+     *
+     * @param moveMillis  the time allowed for each move, or 0 for no limit
+     * @param totalMillis the time each player has for the whole game, or 0 for no limit
+     * @param tickMillis  how precisely deadlines are kept, and how often they are looked at
+     */
+    @Autowired
+    public TurnClocks(@Value("${tictactoe.clock.move-ms:0}") long moveMillis,
+                      @Value("${tictactoe.clock.total-ms:0}") long totalMillis,
+                      @Value("${tictactoe.clock.tick-ms:100}") long tickMillis) {
+        this(new TimeControl(moveMillis, totalMillis), tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Constructs clocks whose wheel starts at the given time.
+     *
+     * @param timeControl the time limits of new games
+     * @param tickMillis  how precisely deadlines are kept
+     * @param startMillis the current time in milliseconds
+     */
+    public TurnClocks(TimeControl timeControl, long tickMillis, long startMillis) {
+        this.timeControl = timeControl;
+        this.tickMillis = tickMillis;
+        this.deadlines = new TimingWheel<>(tickMillis, 1024, startMillis);
+    }
+
+    /**
+     * @return the time limits of new games
+     */
+    public TimeControl getTimeControl() {
+        return timeControl;
+    }
+
+    /**
+     * Puts the current deadline of a game on the wheel, replacing the one it had. A game without a pending
+     * deadline, because it has no clock or nobody is to move, is taken off instead.
+     * Runs inside the game's mailbox, or before anyone can move in the game.
+     *
+     * @param game the game
+     */
+    public void schedule(TicTacToe game) {
+        long deadline = game.getClockDeadline();
+        if (deadline == Long.MAX_VALUE) {
+            cancel(game);
+            return;
+        }
+        TimingWheel.Timeout<TicTacToe> previous =
+                timeouts.put(game.getGameId(), deadlines.schedule(game, deadline + tickMillis - 1));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Takes a game off the wheel, such as when it ends.
+     *
+     * @param game the game
+     */
+    public void cancel(TicTacToe game) {
+        if (timeouts.isEmpty()) {
+            return;
+        }
+        TimingWheel.Timeout<TicTacToe> previous = timeouts.remove(game.getGameId());
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Advances the wheel and returns the games whose deadline has passed. Must not be called by two threads at once.
+     *
+     * @param now the current time in milliseconds
+     * @return the games that look out of time; the deadline should be checked again inside each game's mailbox
+     */
+    public List<TicTacToe> collectExpired(long now) {
+        List<TicTacToe> expired = new ArrayList<>();
+        deadlines.advance(now, expired::add);
+        return expired;
+    }
+
+    /**
+     * @return the number of games with a deadline, counting those that came out of the wheel until they end or
+     * move on
+     */
+    public int size() {
+        return timeouts.size();
+    }
+}
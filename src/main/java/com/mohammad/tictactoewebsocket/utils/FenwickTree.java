@@ -0,0 +1,62 @@
+package com.mohammad.tictactoewebsocket.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fenwick (binary indexed) tree of counts over a fixed range of integer keys.
+ * <p>
+ * Adding to a key and summing the counts of all keys up to a given one both take O(log n) for n keys.
+ * The counts are held in an {@link AtomicLongArray}, so {@link #add(int, long)} can be called from any thread and
+ * readers always see the latest value of each cell. A sum taken while another thread adds may include only part
+ * of that addition.
+ * </p>
+ */
+public class FenwickTree {
+
+    private final AtomicLongArray tree;
+
+    /**
+     * Constructs a tree with all counts at zero.
+     *
+     * @param size the number of keys, which range from 0 to size - 1
+     */
+    public FenwickTree(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        this.tree = new AtomicLongArray(size + 1);
+    }
+
+    /**
+     * Adds to the count of a key.
+     *
+     * @param key   the key, from 0 to size - 1
+     * @param delta the amount to add, negative to remove
+     */
+    public void add(int key, long delta) {
+        for (int i = key + 1; i < tree.length(); i += i & -i) {
+            tree.addAndGet(i, delta);
+        }
+    }
+
+    /**
+     * Sums the counts of the keys from 0 up to and including the given key.
+     *
+     * @param key the last key summed; negative keys give 0 and keys past the end give the total
+     * @return the sum of the counts
+     */
+    public long prefixSum(int key) {
+        long sum = 0;
+        for (int i = Math.min(key + 1, tree.length() - 1); i > 0; i -= i & -i) {
+            sum += tree.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * @return the number of keys
+     */
+    public int size() {
+        return tree.length() - 1;
+    }
+}
@@ -0,0 +1,192 @@
+package com.mohammad.tictactoewebsocket.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free generator of 64-bit IDs that are unique across nodes and sort by creation time, written as 11
+ * base62 characters.
+ * <p>
+ * An ID holds, from the highest bit down, a sign bit that is always 0, 41 bits of milliseconds since
+ * {@link #EPOCH_MILLIS}, {@value #NODE_BITS} bits of node ID and {@value #SEQUENCE_BITS} bits of sequence within the
+ * millisecond. The time and sequence of the last ID live together in one {@link AtomicLong}, so taking an ID is one
+ * compare-and-set that never blocks: when more than {@code 4096} IDs are taken within a millisecond, the generator
+ * moves on to the next millisecond ahead of the clock instead of waiting for it, and falls back in step once the
+ * burst is over. A clock that goes back is treated the same way, so IDs of one generator always increase.
+ * </p>
+ * <p>
+ * Two nodes never share an ID as long as each runs with its own node ID, set with {@link #useNode(int)}. A node
+ * only repeats an ID of its previous run if it restarts before its clock catches up with the last ID handed out,
+ * which takes a burst of millions of games a second to get a millisecond ahead.
+ * </p>
+ */
+public class GameIdGenerator {
+
+    /**
+     * Start of the time of the IDs, 2024-01-01T00:00:00Z, which leaves room until 2093.
+     */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    /**
+     * Number of characters of an encoded ID; 62 to the 11th is above 2 to the 63rd.
+     */
+    public static final int ENCODED_LENGTH = 11;
+
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static volatile GameIdGenerator shared = new GameIdGenerator(0);
+
+    private final long node;
+    private final LongSupplier clock;
+
+    /**
+     * Time in milliseconds since the epoch, shifted left by the sequence bits, plus the sequence of the last ID.
+     */
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * Constructs a generator for a node that reads the system clock.
+     *
+     * @param nodeId the node ID, from 0 to {@value #MAX_NODE_ID}
+     */
+    public GameIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a generator for a node that reads the given clock.
+     *
+     * @param nodeId the node ID, from 0 to {@value #MAX_NODE_ID}
+     * @param clock  the current time in milliseconds
+     */
+    public GameIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("The node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the generator used for new games
+     */
+    public static GameIdGenerator shared() {
+        return shared;
+    }
+
+    /**
+     * Replaces the generator used for new games with one for the given node. Called once on startup.
+     *
+     * @param nodeId the node ID, from 0 to {@value #MAX_NODE_ID}
+     */
+    public static void useNode(int nodeId) {
+        if (shared.getNodeId() != nodeId) {
+            shared = new GameIdGenerator(nodeId);
+        }
+    }
+
+    /**
+     * Takes the next ID.
+     *
+     * @return an ID above every ID taken before from this generator
+     */
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = Math.max(previous + 1, now);
+        } while (!last.compareAndSet(previous, next));
+        return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | node << SEQUENCE_BITS
+                | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * Takes the next ID, encoded.
+     *
+     * @return the ID as {@value #ENCODED_LENGTH} base62 characters
+     */
+    public String nextIdString() {
+        return encode(nextId());
+    }
+
+    /**
+     * @return the node ID in the IDs of this generator
+     */
+    public int getNodeId() {
+        return (int) node;
+    }
+
+    /**
+     * Writes an ID as {@value #ENCODED_LENGTH} base62 characters, padded with zeros, so that encoded IDs sort like
+     * the IDs themselves.
+     *
+     * @param id a positive ID
+     * @return the encoded ID
+     */
+    public static String encode(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("IDs are positive");
+        }
+        byte[] chars = new byte[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = (byte) DIGITS[(int) (id % 62)];
+            id /= 62;
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads an ID written by {@link #encode(long)}.
+     *
+     * @param encoded the encoded ID
+     * @return the ID
+     * @throws IllegalArgumentException if the text is not an encoded ID
+     */
+    public static long decode(String encoded) {
+        if (encoded.length() != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Not an encoded ID: " + encoded);
+        }
+        long id = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            char c = encoded.charAt(i);
+            int digit = c >= '0' && c <= '9' ? c - '0'
+                    : c >= 'A' && c <= 'Z' ? c - 'A' + 10
+                    : c >= 'a' && c <= 'z' ? c - 'a' + 36 : -1;
+            if (digit < 0) {
+                throw new IllegalArgumentException("Not an encoded ID: " + encoded);
+            }
+            if (id > (Long.MAX_VALUE - digit) / 62) {
+                throw new IllegalArgumentException("Not an encoded ID: " + encoded);
+            }
+            id = id * 62 + digit;
+        }
+        return id;
+    }
+
+    /**
+     * Reads the creation time of an ID.
+     *
+     * @param id the ID
+     * @return the time the ID was taken in milliseconds, or later for IDs taken in a burst
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    /**
+     * Reads the node of an ID.
+     *
+     * @param id the ID
+     * @return the node ID of the generator that took it
+     */
+    public static int nodeOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
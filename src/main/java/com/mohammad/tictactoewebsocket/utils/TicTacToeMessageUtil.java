@@ -14,8 +14,9 @@ public class TicTacToeMessageUtil {
     /**
      * Converts a {@link TicTacToe} game instance into a {@link TicTacToeMessage}.
      * <p>
-     * Copies relevant fields such as game ID, players, board state, turn, game state,
-     * and winner from the game into the message.
+     * Copies relevant fields such as game ID, players, board state and size, win length, turn, game state,
+     * winner, the number of moves made and the number of spectators from the game into the message, along with
+     * the clocks of a game with time controls.
      * </p>
      *
      * @param game the {@link TicTacToe} game instance to convert
@@ -27,9 +28,20 @@ public class TicTacToeMessageUtil {
         message.setPlayer1(game.getPlayer1());
         message.setPlayer2(game.getPlayer2());
         message.setBoard(game.getBoard());
+        message.setSize(game.getSize());
+        message.setWinLength(game.getWinLength());
         message.setTurn(game.getTurn());
         message.setGameState(game.getGameState());
         message.setWinner(game.getWinner());
+        message.setSeq(game.getMoveCount());
+        message.setSpectators(game.getSpectatorCount());
+        if (game.hasClock()) {
+            message.setMoveLimitMillis(game.getTimeControl().moveMillis());
+            message.setPlayer1ClockMillis(game.getPlayer1ClockMillis());
+            message.setPlayer2ClockMillis(game.getPlayer2ClockMillis());
+            long deadline = game.getClockDeadline();
+            message.setClockDeadline(deadline == Long.MAX_VALUE ? null : deadline);
+        }
         return message;
     }
 }
@@ -0,0 +1,170 @@
+package com.mohammad.tictactoewebsocket.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for a large number of coarse deadlines.
+ * <p>
+ * Time is cut into ticks of {@code tickMillis}. The wheel has a power-of-two number of slots and a deadline is kept
+ * in the slot of its tick; deadlines further away than one turn of the wheel stay in their slot until the wheel
+ * comes round to their turn. Advancing the wheel only visits the slots of the ticks that have passed,
+ * so the cost of a sweep depends on the deadlines due, not on how many are scheduled.
+ * </p>
+ * <p>
+ * {@link #schedule(Object, long)} can be called from any thread: new deadlines go through a lock-free inbox.
+ * It returns a {@link Timeout} whose {@link Timeout#cancel()} only sets a flag, so both scheduling and cancelling
+ * take constant time; a cancelled deadline is dropped when the wheel next visits its slot.
+ * {@link #advance(long, Consumer)} must only be called by one thread at a time, which owns the slots.
+ * </p>
+ *
+ * @param <K> the type of the keys scheduled
+ */
+public class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<List<Timeout<K>>> slots;
+    private final Queue<Timeout<K>> inbox = new ConcurrentLinkedQueue<>();
+    private long currentTick;
+
+    /**
+     * Constructs a wheel starting at the given time.
+     *
+     * @param tickMillis  duration of a tick in milliseconds
+     * @param slotCount   number of slots, rounded up to a power of two
+     * @param startMillis the current time in milliseconds
+     */
+    public TimingWheel(long tickMillis, int slotCount, long startMillis) {
+        if (tickMillis <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("tickMillis and slotCount must be positive");
+        }
+        int size = 1;
+        while (size < slotCount) {
+            size <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules a key to come out of {@link #advance(long, Consumer)} once its deadline has passed.
+     * A key scheduled twice comes out twice.
+     *
+     * @param key            the key
+     * @param deadlineMillis the deadline in milliseconds
+     * @return the handle to cancel the deadline with
+     */
+    public Timeout<K> schedule(K key, long deadlineMillis) {
+        Timeout<K> timeout = new Timeout<>(key, deadlineMillis / tickMillis);
+        inbox.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and hands every key whose deadline tick has passed to the consumer.
+     * Keys may be scheduled again from inside the consumer; they are picked up by a later call.
+     *
+     * @param nowMillis the current time in milliseconds
+     * @param expired   receives the keys that are due
+     * @return the number of keys handed to the consumer
+     */
+    public int advance(long nowMillis, Consumer<K> expired) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> due = new ArrayList<>();
+        transferInbox();
+        while (currentTick < targetTick) {
+            currentTick++;
+            List<Timeout<K>> slot = slots.get((int) currentTick & mask);
+            int kept = 0;
+            for (Timeout<K> timeout : slot) {
+                if (timeout.cancelled) {
+                    continue;
+                }
+                if (timeout.tick <= currentTick) {
+                    due.add(timeout.key);
+                } else {
+                    slot.set(kept++, timeout);
+                }
+            }
+            slot.subList(kept, slot.size()).clear();
+        }
+        due.forEach(expired);
+        return due.size();
+    }
+
+    /**
+     * @return the number of keys waiting in the slots, not counting ones still in the inbox but counting cancelled
+     * ones whose slot has not come round yet
+     */
+    public int size() {
+        int size = 0;
+        for (List<Timeout<K>> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    /**
+     * Moves newly scheduled entries into their slots. A deadline that has already passed goes into the next tick.
+     */
+    private void transferInbox() {
+        Timeout<K> timeout;
+        while ((timeout = inbox.poll()) != null) {
+            if (!timeout.cancelled) {
+                timeout.tick = Math.max(timeout.tick, currentTick + 1);
+                slots.get((int) timeout.tick & mask).add(timeout);
+            }
+        }
+    }
+
+    /**
+     * A key scheduled on the wheel and the tick it is due at.
+     *
+     * @param <K> the type of the key
+     */
+    public static final class Timeout<K> {
+
+        private final K key;
+
+        /**
+         * Only changed by the thread advancing the wheel, when the entry leaves the inbox.
+         */
+        private long tick;
+        private volatile boolean cancelled;
+
+        private Timeout(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+
+        /**
+         * @return the key scheduled
+         */
+        public K key() {
+            return key;
+        }
+
+        /**
+         * Keeps the key from coming out of the wheel. Does nothing if it already has.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * @return true if the deadline was cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
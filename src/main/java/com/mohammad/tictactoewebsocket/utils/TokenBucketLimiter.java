@@ -0,0 +1,138 @@
+package com.mohammad.tictactoewebsocket.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free token buckets for many keys, with a fixed number of independent buckets per key.
+ * <p>
+ * A bucket is a single {@code long}: the time at which it will be full again (the "theoretical arrival time" of
+ * the generic cell rate algorithm). Taking a token moves that time one interval further, and is refused when it
+ * would end up more than {@code burst - 1} intervals in the future. This behaves exactly like a bucket of
+ * {@code burst} tokens refilled at one token per interval, but needs no refill timer and is updated with a single
+ * compare-and-set. The buckets of one key share an {@link AtomicLongArray}, so checking any of them is one map
+ * lookup without allocation.
+ * </p>
+ * <p>
+ * At most {@code maxKeys} keys are kept. When a new key does not fit, the keys whose buckets are all full again are
+ * dropped, since a full bucket behaves like a missing one. If that frees no room, the new key is refused: the
+ * limiter then stays bounded at the cost of turning away new keys while it is flooded.
+ * </p>
+ */
+public class TokenBucketLimiter {
+
+    private final long[] intervalNanos;
+    private final long[] toleranceNanos;
+    private final int maxKeys;
+    private final long originNanos;
+    private final Map<String, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    /**
+     * Constructs a limiter with one bucket per key and slot.
+     *
+     * @param perSecond tokens refilled per second for each slot; 0 or less leaves the slot unlimited
+     * @param burst     bucket size of each slot, at least 1
+     * @param maxKeys   maximum number of keys kept
+     */
+    public TokenBucketLimiter(double[] perSecond, int[] burst, int maxKeys) {
+        if (perSecond.length != burst.length || maxKeys <= 0) {
+            throw new IllegalArgumentException("One burst per rate and a positive key limit are needed");
+        }
+        this.intervalNanos = new long[perSecond.length];
+        this.toleranceNanos = new long[perSecond.length];
+        for (int slot = 0; slot < perSecond.length; slot++) {
+            if (perSecond[slot] > 0) {
+                intervalNanos[slot] = Math.max(1, (long) (1e9 / perSecond[slot]));
+                toleranceNanos[slot] = intervalNanos[slot] * (Math.max(1, burst[slot]) - 1);
+            }
+        }
+        this.maxKeys = maxKeys;
+        this.originNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a token from a bucket now.
+     *
+     * @param key  the key, such as a session ID
+     * @param slot the bucket of the key
+     * @return true if a token was taken, false if the bucket is empty or the key does not fit
+     */
+    public boolean tryAcquire(String key, int slot) {
+        return tryAcquire(key, slot, System.nanoTime());
+    }
+
+    /**
+     * Takes a token from a bucket at the given time.
+     *
+     * @param key       the key, such as a session ID
+     * @param slot      the bucket of the key
+     * @param nanoTime  the current {@link System#nanoTime()}
+     * @return true if a token was taken, false if the bucket is empty or the key does not fit
+     */
+    public boolean tryAcquire(String key, int slot, long nanoTime) {
+        long interval = intervalNanos[slot];
+        if (interval == 0) {
+            return true;
+        }
+        long now = nanoTime - originNanos;
+        AtomicLongArray keyBuckets = buckets.get(key);
+        if (keyBuckets == null) {
+            if (buckets.size() >= maxKeys && !sweep(now)) {
+                return false;
+            }
+            keyBuckets = buckets.computeIfAbsent(key, k -> new AtomicLongArray(intervalNanos.length));
+        }
+        while (true) {
+            long fullAt = keyBuckets.get(slot);
+            long start = Math.max(fullAt, now);
+            if (start - now > toleranceNanos[slot]) {
+                return false;
+            }
+            if (keyBuckets.compareAndSet(slot, fullAt, start + interval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Forgets the buckets of a key, such as a closed session.
+     *
+     * @param key the key
+     */
+    public void remove(String key) {
+        buckets.remove(key);
+    }
+
+    /**
+     * @return the number of keys kept
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Drops the keys whose buckets are all full. Only one thread sweeps at a time; the others do not wait.
+     *
+     * @return true if there is room for a new key afterwards
+     */
+    private boolean sweep(long now) {
+        if (sweeping.compareAndSet(false, true)) {
+            try {
+                buckets.values().removeIf(keyBuckets -> {
+                    for (int slot = 0; slot < keyBuckets.length(); slot++) {
+                        if (keyBuckets.get(slot) > now) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
+            } finally {
+                sweeping.set(false);
+            }
+        }
+        return buckets.size() < maxKeys;
+    }
+}
@@ -3,6 +3,7 @@ class GameController {
         this.stompClient = null;
         this.game = null;
         this.player = null;
+        this.spectating = false;
     }
 
     /**
@@ -26,20 +27,25 @@ class GameController {
     }
 
     /**
-     * Connects to the WebSocket and subscribes to the general game state updates.
+     * Connects to the WebSocket and subscribes to this session's own game state queue.
      * Also determines whether to start or join a game based on URL parameters.
      */
     connect() {
         this.connectWebSocket().then(() => {
-            this.stompClient.subscribe('/topic/game.state', (message) => {
+            this.stompClient.subscribe('/user/queue/game.state', (message) => {
                 this.handleMessage(JSON.parse(message.body));
             });
 
-            const type = new URLSearchParams(window.location.search).get('type');
+            const params = new URLSearchParams(window.location.search);
+            const type = params.get('type');
             if (type === 'start') {
-                this.startGame();
+                this.startGame(params.get('size'), params.get('winLength'));
+            } else if (type === 'bot') {
+                this.startBotGame(params.get('difficulty'));
             } else if (type === 'join') {
                 this.loadGame();
+            } else if (type === 'watch') {
+                this.spectate(params.get('gameId'));
             } else {
                 this.startGame();
             }
@@ -70,16 +76,65 @@ class GameController {
 
     /**
      * Starts a new game or prompts the user to join if no player name is found.
+     * @param {String} size - Rows and columns of the board; the server uses 3 when it is missing.
+     * @param {String} winLength - Marks in a row needed to win.
      */
-    startGame() {
+    startGame(size, winLength) {
         const playerName = localStorage.getItem("playerName");
         if (playerName) {
-            this.sendMessage({ type: "game.start", player: playerName });
+            this.sendMessage({
+                type: "game.start",
+                player: playerName,
+                size: size ? Number(size) : null,
+                winLength: winLength ? Number(winLength) : null
+            });
         } else {
             this.joinGame();
         }
     }
 
+    /**
+     * Starts a new game against the server-side bot, prompting for a name first if none is stored.
+     * @param {String} difficulty - EASY, MEDIUM or HARD; the server plays HARD when it is missing.
+     */
+    startBotGame(difficulty) {
+        let playerName = localStorage.getItem("playerName");
+        if (!playerName) {
+            playerName = prompt("Enter your name:");
+            localStorage.setItem("playerName", playerName);
+        }
+        this.sendMessage({ type: "game.startBot", player: playerName, difficulty: difficulty });
+    }
+
+    /**
+     * Watches a game without playing. Snapshots arrive on the watch topic of the game; the first one is the
+     * reply to the spectate request.
+     * @param {String} gameId - The ID of the game to watch.
+     */
+    spectate(gameId) {
+        this.spectating = true;
+        this.stompClient.subscribe(`/topic/game.${gameId}.watch`, (msg) => {
+            this.handleMessage(JSON.parse(msg.body));
+        });
+        this.sendMessage({ type: "game.spectate", gameId: gameId });
+    }
+
+    /**
+     * Applies a snapshot received as a spectator. Snapshots older than the shown game are dropped,
+     * and the winner is announced once.
+     * @param {Object} message - The snapshot received from the server.
+     */
+    applySnapshot(message) {
+        if (this.game && (this.game.gameId !== message.gameId || message.seq < this.game.seq)) return;
+        const announced = this.game && this.game.winner;
+        this.updateGame(message);
+        if (message.winner && !announced) {
+            ui.showWinner(message.winner, message.board, message.winLength || 3);
+        } else if (message.gameState === 'TIE' && !announced) {
+            toastr.success("Game over! It's a tie!");
+        }
+    }
+
     /**
      * Prompts the user for their name and stores it locally,
      * then sends a join message to the server.
@@ -99,6 +154,38 @@ class GameController {
         ui.updateAll(this.game);
     }
 
+    /**
+     * Applies a move delta to the local copy of the game.
+     * If a delta was missed, asks the server for a full snapshot instead.
+     * @param {Object} delta - The delta received from the server.
+     */
+    applyDelta(delta) {
+        if (!this.game || this.game.gameId !== delta.gameId || delta.seq <= this.game.seq) return;
+        if (delta.seq !== this.game.seq + 1) {
+            this.sendMessage({ type: "game.resync", gameId: this.game.gameId });
+            return;
+        }
+
+        const size = this.game.board.length;
+        this.game.board[Math.floor(delta.cell / size)][delta.cell % size] = delta.mark;
+        this.game.seq = delta.seq;
+        this.game.gameState = delta.gameState;
+        this.game.winner = delta.winner || null;
+        this.game.spectators = delta.spectators || 0;
+        this.game.player1ClockMillis = delta.player1ClockMillis;
+        this.game.player2ClockMillis = delta.player2ClockMillis;
+        this.game.clockDeadline = delta.clockDeadline;
+        if (delta.gameState === 'PLAYER1_TURN') this.game.turn = this.game.player1;
+        if (delta.gameState === 'PLAYER2_TURN') this.game.turn = this.game.player2;
+        ui.updateAll(this.game);
+
+        if (delta.gameState === 'TIE') {
+            toastr.success("Game over! It's a tie!");
+        } else if (delta.winner) {
+            ui.showWinner(delta.winner, this.game.board, this.game.winLength);
+        }
+    }
+
     /**
      * Converts a message received from the server into a game object.
      * @param {Object} message - The message received.
@@ -108,11 +195,18 @@ class GameController {
         return {
             gameId: message.gameId,
             board: message.board,
+            winLength: message.winLength || 3,
             turn: message.turn,
             player1: message.player1,
             player2: message.player2,
             gameState: message.gameState,
-            winner: message.winner
+            winner: message.winner,
+            seq: message.seq,
+            spectators: message.spectators || 0,
+            moveLimitMillis: message.moveLimitMillis,
+            player1ClockMillis: message.player1ClockMillis,
+            player2ClockMillis: message.player2ClockMillis,
+            clockDeadline: message.clockDeadline
         };
     }
 
@@ -123,30 +217,42 @@ class GameController {
     handleMessage(message) {
         const handlers = {
             "game.join": () => this.updateGame(message),
-            "game.move": () => this.updateGame(message),
-            "game.gameOver": () => {
-                this.updateGame(message);
-                message.gameState === 'TIE'
-                    ? toastr.success("Game over! It's a tie!")
-                    : ui.showWinner(message.winner, message.board);
-            },
+            "game.delta": () => this.applyDelta(message),
+            "game.resync": () => this.updateGame(message),
+            "game.spectating": () => this.applySnapshot(message),
+            "game.watch": () => this.applySnapshot(message),
             "game.joined": () => {
                 if (this.game && this.game.gameId !== message.gameId) return;
                 this.player = localStorage.getItem("playerName");
                 this.updateGame(message);
-                this.connectWebSocket().then(() => {
-                    this.stompClient.subscribe(`/topic/game.${message.gameId}`, (msg) => {
-                        this.handleMessage(JSON.parse(msg.body));
-                    });
+                this.stompClient.subscribe(`/topic/game.${message.gameId}`, (msg) => {
+                    this.handleMessage(JSON.parse(msg.body));
+                });
+            },
+            "game.matched": () => {
+                this.updateGame(message);
+                this.stompClient.subscribe(`/topic/game.${message.gameId}`, (msg) => {
+                    this.handleMessage(JSON.parse(msg.body));
                 });
             },
             "game.left": () => {
                 this.updateGame(message);
                 toastr.warning("Opponent left the game. You win by default.");
-                ui.showWinner(message.winner, message.board);
+                ui.showWinner(message.winner, message.board, message.winLength || 3);
+            },
+            "game.timeout": () => {
+                if (this.game && this.game.gameId !== message.gameId) return;
+                this.updateGame(message);
+                toastr.warning(message.content);
+                ui.showWinner(message.winner, message.board, message.winLength || 3);
             },
             "game.earlyLeave": () => toastr.warning(message.content),
             "error": () => toastr.error(message.content),
+            "error.rateLimited": () => toastr.warning(message.content),
+            "error.spectate": () => {
+                localStorage.setItem("errorMessage", message.content);
+                setTimeout(() => window.location.href = "/index", 100);
+            },
             "error.join": () => {
                 localStorage.setItem("errorMessage", message.content);
                 setTimeout(() => window.location.href = "/index", 100);
@@ -157,6 +263,10 @@ class GameController {
 }
 
 class UIController {
+    constructor() {
+        this.clockTimer = null;
+    }
+
     /**
      * Updates all parts of the UI based on the current game state.
      * @param {Object} game - The game object containing the current state.
@@ -166,6 +276,8 @@ class UIController {
         this.updateTurn(game.turn);
         this.updateWinner(game.winner);
         this.updateBoard(game.board);
+        this.updateSpectators(game.spectators);
+        this.updateClocks(game);
     }
 
     /**
@@ -196,10 +308,71 @@ class UIController {
     }
 
     /**
-     * Updates the Tic-Tac-Toe board on the UI.
+     * Updates the displayed number of spectators.
+     * @param {Number} spectators - Sessions watching the game.
+     */
+    updateSpectators(spectators) {
+        document.getElementById("spectators").innerHTML = spectators || 0;
+    }
+
+    /**
+     * Shows the time both players have left in a game with time controls, and counts down the clock of the
+     * player to move until the deadline of the turn. Games without time controls show '-'.
+     * @param {Object} game - The game object containing the current state.
+     */
+    updateClocks(game) {
+        clearInterval(this.clockTimer);
+        this.clockTimer = null;
+        if (game.player1ClockMillis == null) {
+            document.getElementById("player1Clock").innerHTML = '-';
+            document.getElementById("player2Clock").innerHTML = '-';
+            return;
+        }
+        const render = () => {
+            document.getElementById("player1Clock").innerHTML =
+                this.formatClock(this.remainingMillis(game, 'PLAYER1_TURN', game.player1ClockMillis));
+            document.getElementById("player2Clock").innerHTML =
+                this.formatClock(this.remainingMillis(game, 'PLAYER2_TURN', game.player2ClockMillis));
+        };
+        render();
+        if (game.clockDeadline) this.clockTimer = setInterval(render, 250);
+    }
+
+    /**
+     * Works out the time a player has left right now. The turn started one turn limit before its deadline, the
+     * limit being the move limit or the player's clock, whichever is shorter.
+     * Without a total time only the player to move has a clock: the time left for the move.
+     * @param {Object} game - The game object containing the current state.
+     * @param {String} turnState - The game state in which it is this player's turn.
+     * @param {Number} clockMillis - The time the player had left when the current turn started.
+     * @returns {Number} The milliseconds left, or null if the player has no clock running.
+     */
+    remainingMillis(game, turnState, clockMillis) {
+        const banked = game.player1ClockMillis > 0 || game.player2ClockMillis > 0;
+        if (game.gameState !== turnState || !game.clockDeadline) return banked ? clockMillis : null;
+        if (!banked) return Math.max(0, game.clockDeadline - Date.now());
+        const limit = Math.min(game.moveLimitMillis || Infinity, clockMillis);
+        const elapsed = Date.now() - (game.clockDeadline - limit);
+        return Math.max(0, clockMillis - elapsed);
+    }
+
+    /**
+     * Formats a clock as minutes and seconds.
+     * @param {Number} millis - The time left, or null for no clock.
+     * @returns {String} The time as m:ss, or '-'.
+     */
+    formatClock(millis) {
+        if (millis == null) return '-';
+        const seconds = Math.ceil(millis / 1000);
+        return `${Math.floor(seconds / 60)}:${String(seconds % 60).padStart(2, '0')}`;
+    }
+
+    /**
+     * Updates the Tic-Tac-Toe board on the UI, first redrawing the grid if the board has another size.
      * @param {Array} board - The 2D array representing the game board.
      */
     updateBoard(board) {
+        this.ensureGrid(board.length);
         let counter = 0;
         board.forEach((row, rowIndex) => {
             row.forEach((cell, cellIndex) => {
@@ -210,18 +383,43 @@ class UIController {
         });
     }
 
+    /**
+     * Builds an empty size x size grid of cells, unless the board already has that size.
+     * Large boards get a bigger board area and smaller marks.
+     * @param {Number} size - Rows and columns of the board.
+     */
+    ensureGrid(size) {
+        const boardElement = document.getElementById("board");
+        if (boardElement.querySelectorAll(".row").length === size
+            && boardElement.querySelectorAll(".row-0 .cell").length === size) return;
+
+        let html = '';
+        for (let row = 0; row < size; row++) {
+            html += `<div class="row row-${row}">`;
+            for (let cell = 0; cell < size; cell++) {
+                html += `<div class="cell cell-${cell}"></div>`;
+            }
+            html += '</div>';
+        }
+        boardElement.innerHTML = html;
+        boardElement.style.setProperty('--board-size', size > 3 ? 'min(90vmin, 640px)' : '300px');
+        boardElement.style.setProperty('--mark-size', size > 3 ? `calc(min(90vmin, 640px) / ${size} * 0.6)` : '50px');
+    }
+
     /**
      * Displays a success message with the name of the winning player.
      * @param {String} winner - The name of the winning player.
      * @param {Array} board  - The 2D array to get the winning player moves that caused victory
+     * @param {Number} winLength - Marks in a row needed to win.
      */
-    showWinner(winner, board) {
+    showWinner(winner, board, winLength) {
         toastr.success(`The winner is ${winner}!`);
-        const winningPositions = this.getWinnerPositions(board);
-        if (winningPositions.length === 3) {
+        const size = board.length;
+        const winningPositions = this.getWinnerPositions(board, winLength);
+        if (winningPositions.length > 0) {
             winningPositions.forEach(pos => {
-                const row = Math.floor(pos / 3);
-                const cell = pos % 3;
+                const row = Math.floor(pos / size);
+                const cell = pos % size;
                 const cellElement = document.querySelector(`.row-${row} .cell-${cell} span`);
                 cellElement.style.backgroundColor = '#b3e6ff';
             });
@@ -230,20 +428,31 @@ class UIController {
 
     /**
      * Determines the positions on the board that resulted in a win.
+     * Looks from every mark across, down and along both diagonals for winLength equal marks.
      * @param {Array} board - The 2D array representing the game board.
+     * @param {Number} winLength - Marks in a row needed to win.
      * @returns {Array} An array of indexes representing the winning positions, or an empty array.
      */
-    getWinnerPositions(board) {
-        const lines = [
-            [0, 1, 2], [3, 4, 5], [6, 7, 8],
-            [0, 3, 6], [1, 4, 7], [2, 5, 8],
-            [0, 4, 8], [2, 4, 6]
-        ];
-        const flatBoard = board.flat();
-        return lines.find(line => {
-            const [a, b, c] = line;
-            return flatBoard[a] !== ' ' && flatBoard[a] === flatBoard[b] && flatBoard[b] === flatBoard[c];
-        }) || [];
+    getWinnerPositions(board, winLength = 3) {
+        const size = board.length;
+        const directions = [[0, 1], [1, 0], [1, 1], [1, -1]];
+        for (let row = 0; row < size; row++) {
+            for (let col = 0; col < size; col++) {
+                const mark = board[row][col];
+                if (mark === ' ') continue;
+                for (const [dr, dc] of directions) {
+                    const line = [];
+                    let r = row, c = col;
+                    while (line.length < winLength && r >= 0 && r < size && c >= 0 && c < size && board[r][c] === mark) {
+                        line.push(r * size + c);
+                        r += dr;
+                        c += dc;
+                    }
+                    if (line.length === winLength) return line;
+                }
+            }
+        }
+        return [];
     }
 }
 
@@ -264,6 +473,12 @@ function setupBackToHomeButton(controller) {
             return;
         }
 
+        if (controller.spectating) {
+            controller.sendMessage({ type: "game.unspectate" });
+            window.location.href = "/index";
+            return;
+        }
+
         const { board, gameState } = controller.game;
         const cellsFilled = board.flat().filter(c => c !== " ").length;
         const inProgress = gameState === 'PLAYER1_TURN' || gameState === 'PLAYER2_TURN';
@@ -0,0 +1,148 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.model.BitBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the {@link BitBoard} engine against the previous {@code String[][]} board.
+ * <p>
+ * {@code playGame} places the nine marks of a drawn game and checks for a winner and a full board
+ * after every move, as {@code TicTacToe.makeMove} does. {@code countMoves} is the query behind
+ * {@code TicTacToeManager.gameRemovalCheck}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    /**
+     * Moves of a game that ends in a tie, so every check runs on all nine moves.
+     */
+    private static final int[] DRAW = {4, 0, 2, 6, 3, 5, 1, 7, 8};
+
+    private LegacyBoard legacyHalfFull;
+    private BitBoard bitHalfFull;
+
+    @Setup
+    public void setUp() {
+        legacyHalfFull = new LegacyBoard();
+        bitHalfFull = new BitBoard();
+        for (int i = 0; i < 5; i++) {
+            legacyHalfFull.place(DRAW[i], i % 2 == 0);
+            bitHalfFull.place(DRAW[i], i % 2 == 0);
+        }
+    }
+
+    @Benchmark
+    public boolean legacyPlayGame() {
+        LegacyBoard board = new LegacyBoard();
+        boolean over = false;
+        for (int i = 0; i < DRAW.length; i++) {
+            board.place(DRAW[i], i % 2 == 0);
+            over = board.hasWinner() || board.isFull();
+        }
+        return over;
+    }
+
+    @Benchmark
+    public boolean bitBoardPlayGame() {
+        BitBoard board = new BitBoard();
+        boolean over = false;
+        for (int i = 0; i < DRAW.length; i++) {
+            boolean x = i % 2 == 0;
+            board.place(DRAW[i], x);
+            over = board.hasWon(x) || board.isFull();
+        }
+        return over;
+    }
+
+    @Benchmark
+    public long legacyCountMoves() {
+        return legacyHalfFull.countMoves();
+    }
+
+    @Benchmark
+    public int bitBoardCountMoves() {
+        return bitHalfFull.getMoveCount();
+    }
+
+    /**
+     * Copy of the board handling {@code TicTacToe} used before the bit board, kept as the baseline.
+     */
+    static final class LegacyBoard {
+        private final String[][] board = new String[3][3];
+
+        LegacyBoard() {
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    board[i][j] = " ";
+                }
+            }
+        }
+
+        void place(int move, boolean x) {
+            int row = move / 3;
+            int col = move % 3;
+            if (Objects.equals(board[row][col], " ")) {
+                board[row][col] = x ? "X" : "O";
+            }
+        }
+
+        boolean hasWinner() {
+            boolean won = false;
+            for (int i = 0; i < 3; i++) {
+                won |= checkLine(board[i][0], board[i][1], board[i][2]);
+                won |= checkLine(board[0][i], board[1][i], board[2][i]);
+            }
+            won |= checkLine(board[0][0], board[1][1], board[2][2]);
+            won |= checkLine(board[0][2], board[1][1], board[2][0]);
+            return won;
+        }
+
+        private boolean checkLine(String a, String b, String c) {
+            return !a.equals(" ") && a.equals(b) && a.equals(c);
+        }
+
+        boolean isFull() {
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < 3; j++) {
+                    if (Objects.equals(board[i][j], " ")) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        long countMoves() {
+            return Arrays.stream(board)
+                    .flatMap(Arrays::stream)
+                    .filter(cell -> !cell.equals(" "))
+                    .count();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BoardBenchmark.class.getSimpleName()).build()).run();
+    }
+}
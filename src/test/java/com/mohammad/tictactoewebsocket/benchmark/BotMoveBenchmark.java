@@ -0,0 +1,149 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.model.BitBoard;
+import com.mohammad.tictactoewebsocket.service.BotPlayer;
+import com.mohammad.tictactoewebsocket.service.PositionTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the bot's moves per second.
+ * <p>
+ * Every invocation asks for a move in the next of all positions the bot can face, in a fixed order.
+ * {@code tableLookup} is the {@link BotPlayer} as the service calls it; {@code minimaxSearch} runs a plain minimax
+ * from the same position, which is what answering without the {@link PositionTable} would cost.
+ * {@code buildTable} is the one-off cost paid at startup.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BotMoveBenchmark {
+
+    private BotPlayer bot;
+    private int[] xMasks;
+    private int[] oMasks;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        bot = new BotPlayer(new PositionTable());
+        List<int[]> positions = new ArrayList<>();
+        collectBotPositions(0, 0, new boolean[PositionTable.POSITIONS], positions);
+        xMasks = new int[positions.size()];
+        oMasks = new int[positions.size()];
+        for (int i = 0; i < positions.size(); i++) {
+            xMasks[i] = positions.get(i)[0];
+            oMasks[i] = positions.get(i)[1];
+        }
+    }
+
+    @Benchmark
+    public int tableLookup() {
+        int i = nextPosition();
+        return bot.chooseMove(xMasks[i], oMasks[i], BotDifficulty.HARD);
+    }
+
+    @Benchmark
+    public int minimaxSearch() {
+        int i = nextPosition();
+        int x = xMasks[i];
+        int o = oMasks[i];
+        int best = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            int bit = 1 << cell;
+            if (((x | o) & bit) == 0) {
+                int score = -negamax(x, o | bit);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = cell;
+                }
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    public PositionTable buildTable() {
+        return new PositionTable();
+    }
+
+    private int nextPosition() {
+        int i = next;
+        next = i + 1 == xMasks.length ? 0 : i + 1;
+        return i;
+    }
+
+    /**
+     * Scores a position for the player to move, whose marks are {@code mine}, by searching the whole tree below it.
+     */
+    private static int negamax(int mine, int theirs) {
+        int taken = mine | theirs;
+        if (BitBoard.isWin(theirs)) {
+            return -(BitBoard.CELLS + 1 - Integer.bitCount(taken));
+        }
+        if (Integer.bitCount(taken) == BitBoard.CELLS) {
+            return 0;
+        }
+        int best = Integer.MIN_VALUE;
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            int bit = 1 << cell;
+            if ((taken & bit) == 0) {
+                best = Math.max(best, -negamax(theirs, mine | bit));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Collects every unfinished position with "O", the bot, to move, once each.
+     */
+    private static void collectBotPositions(int x, int o, boolean[] seen, List<int[]> positions) {
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            int bit = 1 << cell;
+            if (((x | o) & bit) != 0) {
+                continue;
+            }
+            int nextX = x | bit;
+            if (BitBoard.isWin(nextX) || Integer.bitCount(nextX | o) == BitBoard.CELLS) {
+                continue;
+            }
+            int index = PositionTable.index(nextX, o);
+            if (seen[index]) {
+                continue;
+            }
+            seen[index] = true;
+            positions.add(new int[] {nextX, o});
+            for (int reply = 0; reply < BitBoard.CELLS; reply++) {
+                int replyBit = 1 << reply;
+                if (((nextX | o) & replyBit) == 0 && !BitBoard.isWin(o | replyBit)) {
+                    collectBotPositions(nextX, o | replyBit, seen, positions);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BotMoveBenchmark.class.getSimpleName()).build()).run();
+    }
+}
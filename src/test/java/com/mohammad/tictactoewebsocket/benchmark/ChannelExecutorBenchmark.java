@@ -0,0 +1,123 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.config.SessionOrderedTaskExecutor;
+import com.mohammad.tictactoewebsocket.enumeration.ExecutionMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * JMH benchmark of a STOMP client channel running on {@link SessionOrderedTaskExecutor} in each
+ * {@link ExecutionMode}.
+ * <p>
+ * An {@link ExecutorSubscribableChannel} with the executor under test has one handler which burns {@code cpuTokens}
+ * of CPU and then blocks for {@code blockMicros}, like a write to a slow WebSocket client does. Each invocation sends
+ * one message for a random one of {@code sessions} sessions and waits until it has been handled, from 64 threads.
+ * The platform pool is sized like the inbound channel in the application, two threads per processor.
+ * </p>
+ * <p>
+ * {@code Mode.Throughput} gives the handled messages per second and {@code Mode.SampleTime} the latency
+ * percentiles (p0.99, p0.999) from send to handled.
+ * </p>
+ * <p>
+ * The comparison needs JDK 21 or later. On an older runtime there are no virtual threads, so the
+ * {@code VIRTUAL} setup fails instead of silently measuring the platform fallback a second time, and only
+ * {@code PLATFORM} gives results.
+ * </p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(64)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChannelExecutorBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ExecutionMode mode;
+
+    @Param({"10000"})
+    private int sessions;
+
+    @Param({"200"})
+    private int cpuTokens;
+
+    @Param({"100"})
+    private int blockMicros;
+
+    private SessionOrderedTaskExecutor executor;
+    private ExecutorSubscribableChannel channel;
+    private String[] sessionIds;
+
+    @Setup
+    public void setUp() {
+        int poolSize = 2 * Runtime.getRuntime().availableProcessors();
+        executor = new SessionOrderedTaskExecutor(mode);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("benchmarkChannel-");
+        executor.initialize();
+        if (executor.getMode() != mode) {
+            throw new IllegalStateException(mode + " threads are not available on Java " + Runtime.version());
+        }
+
+        long blockNanos = TimeUnit.MICROSECONDS.toNanos(blockMicros);
+        channel = new ExecutorSubscribableChannel(executor);
+        channel.subscribe(message -> {
+            Blackhole.consumeCPU(cpuTokens);
+            LockSupport.parkNanos(blockNanos);
+            ((CompletableFuture<?>) message.getPayload()).complete(null);
+        });
+
+        sessionIds = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            sessionIds[i] = "session-" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public Object sendAndAwait() {
+        CompletableFuture<Void> handled = new CompletableFuture<>();
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionIds[ThreadLocalRandom.current().nextInt(sessions)]);
+        Message<CompletableFuture<Void>> message = MessageBuilder.createMessage(handled, accessor.getMessageHeaders());
+        channel.send(message);
+        return handled.join();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ChannelExecutorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
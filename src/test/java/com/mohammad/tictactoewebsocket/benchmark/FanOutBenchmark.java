@@ -0,0 +1,144 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.mohammad.tictactoewebsocket.service.GameFrameCache;
+import com.mohammad.tictactoewebsocket.utils.TicTacToeMessageUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.StackProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of one game state broadcast to many subscribers of its topic.
+ * <p>
+ * A {@link SimpleBrokerMessageHandler} is wired to synchronous channels, {@code subscribers} sessions subscribe to
+ * {@code /topic/game.{id}} and every outbound message is counted and dropped. Each invocation sends the
+ * same game state {@code sends} times, like the players, spectators and resync requests of one game version do.
+ * </p>
+ * <ul>
+ *     <li>{@code convertEverySend} builds a {@link TicTacToeMessage} and lets the Jackson converter encode it on every send.</li>
+ *     <li>{@code cachedBytes} sends through {@link GameFrameCache}: encoded once, then only new headers per send.</li>
+ * </ul>
+ * <p>
+ * {@link #main(String[])} runs with the GC profiler ({@code gc.alloc.rate.norm} is the bytes allocated per
+ * broadcast) and the stack sampling profiler for the CPU profile. The same profiles can be added to any run with
+ * {@code -prof gc -prof stack}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FanOutBenchmark {
+
+    @Param({"100"})
+    private int subscribers;
+
+    @Param({"3"})
+    private int sends;
+
+    private SimpleBrokerMessageHandler broker;
+    private SimpMessagingTemplate messagingTemplate;
+    private GameFrameCache frameCache;
+    private TicTacToe game;
+    private String destination;
+    private long delivered;
+
+    @Setup
+    public void setUp() {
+        ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        MessageChannel clientOutboundChannel = (message, timeout) -> {
+            delivered++;
+            return true;
+        };
+        broker = new SimpleBrokerMessageHandler(clientInboundChannel, clientOutboundChannel, brokerChannel, List.of("/topic"));
+        broker.start();
+
+        messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+        messagingTemplate.setMessageConverter(new MappingJackson2MessageConverter());
+        frameCache = new GameFrameCache();
+
+        game = new TicTacToe("player-one", "player-two");
+        game.setGameState(GameState.PLAYER1_TURN);
+        game.makeMove("player-one", 4);
+        destination = game.getDestination();
+
+        for (int i = 0; i < subscribers; i++) {
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId("session-" + i);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+
+            SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            subscribe.setSessionId("session-" + i);
+            subscribe.setSubscriptionId("sub-0");
+            subscribe.setDestination(destination);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+        }
+        delivered = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        broker.stop();
+        if (delivered == 0) {
+            throw new IllegalStateException("No message reached the subscribers");
+        }
+    }
+
+    @Benchmark
+    public void convertEverySend() {
+        for (int i = 0; i < sends; i++) {
+            TicTacToeMessage message = TicTacToeMessageUtil.fromGame(game);
+            message.setType("game.resync");
+            messagingTemplate.convertAndSend(destination, message);
+        }
+    }
+
+    @Benchmark
+    public void cachedBytes() {
+        for (int i = 0; i < sends; i++) {
+            frameCache.broadcast(messagingTemplate, game, "game.resync", g -> {
+                TicTacToeMessage message = TicTacToeMessageUtil.fromGame(g);
+                message.setType("game.resync");
+                return message;
+            });
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FanOutBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .addProfiler(StackProfiler.class)
+                .build()).run();
+    }
+}
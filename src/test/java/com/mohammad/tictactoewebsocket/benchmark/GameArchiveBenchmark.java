@@ -0,0 +1,131 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import com.mohammad.tictactoewebsocket.service.GameArchive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH benchmark of the {@link GameArchive} holding {@code games} finished classic games with UUID ids,
+ * played by 10,000 players.
+ * <ul>
+ *     <li>{@code append} encodes, writes and indexes one more game.</li>
+ *     <li>{@code getById} looks up a random game and decodes it.</li>
+ *     <li>{@code queryPlayerPage} returns the newest 20 games of a random player.</li>
+ *     <li>{@code queryTimeRangePage} returns 20 games of a random one-second range.</li>
+ * </ul>
+ * <p>
+ * The bytes the segments take per game are printed at the end of the trial.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class GameArchiveBenchmark {
+
+    private static final int PLAYERS = 10_000;
+    private static final long START = 1_700_000_000_000L;
+    private static final int[] MOVES = {4, 0, 2, 6, 3, 5, 7, 1, 8};
+
+    @Param({"1000000"})
+    private int games;
+
+    private Path directory;
+    private GameArchive archive;
+    private String[] ids;
+    private long appended;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive-benchmark");
+        archive = new GameArchive(directory, 64 << 20, Runnable::run);
+        ids = new String[games];
+        for (int i = 0; i < games; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            archive.append(record(ids[i], i));
+        }
+        appended = games;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        archive.close();
+        long bytes = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                bytes += Files.size(file);
+            }
+        }
+        System.out.printf("%n%d games in %d bytes: %.1f bytes per game%n", archive.size(), bytes,
+                (double) bytes / archive.size());
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        long i;
+        synchronized (this) {
+            i = appended++;
+        }
+        archive.append(record("extra-" + i, i));
+    }
+
+    @Benchmark
+    public GameRecord getById() {
+        return archive.get(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<GameRecord> queryPlayerPage() {
+        return archive.query("player-" + ThreadLocalRandom.current().nextInt(PLAYERS), 0, Long.MAX_VALUE, 0, 20);
+    }
+
+    @Benchmark
+    public List<GameRecord> queryTimeRangePage() {
+        long from = START + ThreadLocalRandom.current().nextLong(games);
+        return archive.query(null, from, from + 1_000, 0, 20);
+    }
+
+    private static GameRecord record(String gameId, long i) {
+        return new GameRecord(gameId, "player-" + i % PLAYERS, "player-" + (i * 7 + 1) % PLAYERS, 3, 3, null,
+                GameState.TIE, false, START + i - 60_000, START + i, MOVES);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GameArchiveBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
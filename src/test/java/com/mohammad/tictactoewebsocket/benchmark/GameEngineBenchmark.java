@@ -0,0 +1,75 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the game engine behind {@link TicTacToe#makeMove(String, int)}.
+ * <p>
+ * Every move places a mark, switches the turn, checks the winner and updates the game state,
+ * so a whole game measures {@code makeMove} and {@code checkWinner} together.
+ * {@code playDraw} runs all nine moves of a tie, {@code playWin} the five moves of a quick win,
+ * and {@code rejectTakenCell} a move on a cell that is already taken.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameEngineBenchmark {
+
+    private static final int[] DRAW = {4, 0, 2, 6, 3, 5, 1, 7, 8};
+    private static final int[] WIN = {0, 3, 1, 4, 2};
+
+    @Benchmark
+    public GameState playDraw() {
+        return play(DRAW);
+    }
+
+    @Benchmark
+    public GameState playWin() {
+        return play(WIN);
+    }
+
+    @Benchmark
+    public GameState rejectTakenCell() {
+        TicTacToe game = newGame();
+        game.makeMove("player-one", 4);
+        game.makeMove("player-two", 4);
+        return game.getGameState();
+    }
+
+    private static GameState play(int[] moves) {
+        TicTacToe game = newGame();
+        for (int i = 0; i < moves.length; i++) {
+            game.makeMove(i % 2 == 0 ? "player-one" : "player-two", moves[i]);
+        }
+        return game.getGameState();
+    }
+
+    private static TicTacToe newGame() {
+        TicTacToe game = new TicTacToe("player-one", "player-two");
+        game.setGameState(GameState.PLAYER1_TURN);
+        return game;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GameEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
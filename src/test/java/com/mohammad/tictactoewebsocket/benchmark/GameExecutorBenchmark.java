@@ -0,0 +1,122 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.service.GameExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH contention benchmark for the per-game mailboxes of {@link GameExecutor}.
+ * <p>
+ * Eight threads submit moves and wait for them to be applied. With {@code games = 1} every thread
+ * hammers the same game; with {@code games = 1024} the threads spread over many games.
+ * The {@code globalLock} variant applies the same moves under one shared monitor, as the manager used to.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameExecutorBenchmark {
+
+    @Param({"1", "1024"})
+    private int games;
+
+    private GameExecutor executor;
+    private GameSlot[] slots;
+    private final Object globalLock = new Object();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = new GameExecutor(0);
+        slots = new GameSlot[games];
+        for (int i = 0; i < games; i++) {
+            slots[i] = new GameSlot("game-" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Per-thread cursor so each thread walks over the games in its own order.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int bound) {
+            next = (next + 1) % bound;
+            return next;
+        }
+    }
+
+    @Benchmark
+    public void mailbox(Cursor cursor) {
+        GameSlot slot = slots[cursor.next(games)];
+        executor.execute(slot.gameId, slot::move).join();
+    }
+
+    @Benchmark
+    public void globalLock(Cursor cursor) {
+        GameSlot slot = slots[cursor.next(games)];
+        synchronized (globalLock) {
+            slot.move();
+        }
+    }
+
+    /**
+     * A game that is played move after move and restarted once it is over.
+     */
+    static final class GameSlot {
+        private static final int[] MOVES = {4, 0, 2, 6, 3, 5, 1, 7, 8};
+
+        private final String gameId;
+        private TicTacToe game;
+        private int moveIndex;
+
+        GameSlot(String gameId) {
+            this.gameId = gameId;
+            reset();
+        }
+
+        void move() {
+            String player = moveIndex % 2 == 0 ? game.getPlayer1() : game.getPlayer2();
+            game.makeMove(player, MOVES[moveIndex++]);
+            if (game.isGameOver()) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            game = new TicTacToe("player1", "player2");
+            moveIndex = 0;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GameExecutorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.dto.MoveMessage;
+import com.mohammad.tictactoewebsocket.utils.GameIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of creating games from eight threads at once, with the random UUIDs games used to get and with
+ * the IDs of the {@link GameIdGenerator}. Each operation creates a game and resolves the topic its first frame goes
+ * to, the way every send used to build it and the way it is now kept on the game.
+ * <ul>
+ *     <li>{@code uuidGame} takes a random UUID, drawn from the shared {@code SecureRandom}, and concatenates the topic.</li>
+ *     <li>{@code compactGame} takes an ID with one compare-and-set and reads the topic resolved by the game.</li>
+ * </ul>
+ * <p>
+ * The setup prints the size of a move frame and of its destination header with either kind of ID, which is what
+ * every frame sent to every subscriber of a game saves.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameIdBenchmark {
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        TicTacToe uuidGame = new TicTacToe(UUID.randomUUID().toString(), "player-one", "player-two",
+                BoardVariant.CLASSIC, System.currentTimeMillis());
+        TicTacToe compactGame = new TicTacToe("player-one", "player-two");
+        int uuidBytes = frameBytes(objectMapper, uuidGame);
+        int compactBytes = frameBytes(objectMapper, compactGame);
+        System.out.printf("%nMove frame with destination header: %d bytes with a UUID, %d bytes with a compact ID, "
+                + "%d bytes saved per frame%n", uuidBytes, compactBytes, uuidBytes - compactBytes);
+    }
+
+    @Benchmark
+    public String uuidGame() {
+        TicTacToe game = new TicTacToe(UUID.randomUUID().toString(), "player-one", "player-two",
+                BoardVariant.CLASSIC, System.currentTimeMillis());
+        return "/topic/game." + game.getGameId();
+    }
+
+    @Benchmark
+    public String compactGame() {
+        TicTacToe game = new TicTacToe("player-one", "player-two");
+        return game.getDestination();
+    }
+
+    /**
+     * Sizes the body of a move frame and the STOMP destination header it is sent with.
+     */
+    private static int frameBytes(ObjectMapper objectMapper, TicTacToe game) throws JsonProcessingException {
+        game.setGameState(GameState.PLAYER1_TURN);
+        game.makeMove("player-one", 4);
+        byte[] body = objectMapper.writeValueAsBytes(new MoveMessage(game, 4));
+        return body.length + ("destination:" + game.getDestination() + "\n").getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GameIdBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,130 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.enumeration.JournalDurability;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.service.GameJournal;
+import com.mohammad.tictactoewebsocket.service.Matchmaker;
+import com.mohammad.tictactoewebsocket.service.ServiceFixtures;
+import com.mohammad.tictactoewebsocket.service.TicTacToeManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * JMH benchmark of the {@link GameJournal} behind the moves of a {@link TicTacToeManager}, for each
+ * {@link JournalDurability}. Eight threads each play their own game, as the mailboxes of the game executor would,
+ * and every move goes through {@link TicTacToeManager#moveMade(TicTacToe, int)}, which appends it to the journal;
+ * a finished game is removed and replaced by a new one, which appends both.
+ * <p>
+ * The throughput score is the number of moves journaled per second. The sample-time score gives the latency of a
+ * move with its percentiles; the p99 minus that of {@code NONE}, where nothing is journaled, is the latency the
+ * journal adds. The journal commits every {@value #FLUSH_INTERVAL_MILLIS} milliseconds, as configured by default,
+ * and the number of records per force to disk is printed at the end of the trial.
+ * </p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameJournalBenchmark {
+
+    private static final int FLUSH_INTERVAL_MILLIS = 2;
+    private static final int[] MOVES = {4, 0, 2, 6, 3, 5, 7, 1, 8};
+
+    @Param({"NONE", "ASYNC", "GROUP", "SYNC"})
+    private JournalDurability durability;
+
+    private Path directory;
+    private ScheduledExecutorService flusher;
+    private GameJournal journal;
+    private TicTacToeManager manager;
+    private final AtomicInteger players = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        flusher = Executors.newSingleThreadScheduledExecutor();
+        journal = new GameJournal(directory, 64 << 20, durability, flusher, FLUSH_INTERVAL_MILLIS);
+        manager = ServiceFixtures.manager().matchmaker(new Matchmaker(true)).journal(journal).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        flusher.shutdown();
+        journal.close();
+        System.out.printf("%n%d records, %d forces: %.1f records per force%n", journal.getAppendedCount(),
+                journal.getSyncCount(), (double) journal.getAppendedCount() / Math.max(1, journal.getSyncCount()));
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * The game played by one benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Player {
+
+        private TicTacToe game;
+        private int ply;
+
+        private void next(GameJournalBenchmark benchmark) {
+            if (game != null) {
+                benchmark.manager.removeGame(game.getGameId());
+            }
+            int player = benchmark.players.incrementAndGet();
+            game = benchmark.manager.startPairedGames(List.of("host-" + player), List.of("guest-" + player),
+                    BoardVariant.CLASSIC).get(0);
+            ply = 0;
+        }
+    }
+
+    @Benchmark
+    public TicTacToe move(Player player) {
+        if (player.game == null || player.game.isGameOver()) {
+            player.next(this);
+        }
+        TicTacToe game = player.game;
+        int cell = MOVES[player.ply++];
+        game.makeMove(game.getTurn(), cell);
+        manager.moveMade(game, cell);
+        return game;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GameJournalBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.service.ServiceFixtures;
+import com.mohammad.tictactoewebsocket.service.TicTacToeManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmark for the player lookups and game creation of {@link TicTacToeManager}.
+ * <p>
+ * Fills the manager with paired games and measures {@code getGameByPlayer} and {@code joinGame}
+ * for random players. With the player index in place the cost per lookup should stay flat
+ * as the number of live games grows. {@code startAndLeave} pairs two new players and removes their game again,
+ * so the number of live games stays at {@code gameCount} throughout.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GameLookupBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int gameCount;
+
+    private TicTacToeManager manager;
+    private String[] players;
+    private final AtomicLong newPlayers = new AtomicLong();
+
+    /**
+     * Starts {@code gameCount} paired games, two players each.
+     */
+    @Setup
+    public void setUp() {
+        manager = ServiceFixtures.manager().build();
+        players = new String[gameCount * 2];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = "player-" + i;
+            manager.startGame(players[i]);
+        }
+    }
+
+    @Benchmark
+    public TicTacToe getGameByPlayer() {
+        return manager.getGameByPlayer(randomPlayer());
+    }
+
+    @Benchmark
+    public TicTacToe joinGame() {
+        return manager.joinGame(randomPlayer());
+    }
+
+    @Benchmark
+    public TicTacToe startAndLeave() {
+        String first = "new-player-" + newPlayers.getAndIncrement();
+        String second = "new-player-" + newPlayers.getAndIncrement();
+        manager.startGame(first);
+        TicTacToe game = manager.startGame(second);
+        manager.leaveGame(first);
+        return game;
+    }
+
+    private String randomPlayer() {
+        return players[ThreadLocalRandom.current().nextInt(players.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GameLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.service.GameExecutor;
+import com.mohammad.tictactoewebsocket.service.GameSnapshotter;
+import com.mohammad.tictactoewebsocket.service.Matchmaker;
+import com.mohammad.tictactoewebsocket.service.ServiceFixtures;
+import com.mohammad.tictactoewebsocket.service.TicTacToeManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the {@link GameSnapshotter} against the number of games held.
+ * <ul>
+ *     <li>{@code snapshot} captures every game in its mailbox on the game executor's threads and writes the file.</li>
+ *     <li>{@code restore} maps the file and decodes it into a new manager sized for the games, as on startup.</li>
+ * </ul>
+ * <p>
+ * A tenth of the games wait for an opponent, a tenth are played against the bot and the rest are between two
+ * players, at every stage from the first move to a finished board. The matchmaker pairs in batches and is never
+ * drained, so the waiting games stay queued. The size of the file per game is printed at the end of the trial.
+ * </p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class GameSnapshotBenchmark {
+
+    private static final int[] MOVES = {4, 0, 2, 6, 3, 5, 7, 1, 8};
+
+    @Param({"10000", "100000", "1000000"})
+    private int games;
+
+    private Path directory;
+    private Path file;
+    private GameExecutor gameExecutor;
+    private GameSnapshotter snapshotter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("snapshot-benchmark");
+        file = directory.resolve("games.snap");
+        gameExecutor = new GameExecutor(0);
+        TicTacToeManager manager = newManager();
+        for (int i = 0; i < games; i++) {
+            if (i % 10 == 0) {
+                manager.startGame("waiting-" + i);
+            } else if (i % 10 == 1) {
+                TicTacToe game = manager.startBotGame("solo-" + i, BotDifficulty.MEDIUM);
+                game.makeMove("solo-" + i, MOVES[0]);
+            } else {
+                TicTacToe game = manager.startPairedGames(List.of("host-" + i), List.of("guest-" + i),
+                        BoardVariant.CLASSIC).get(0);
+                for (int move = 0; move < i % MOVES.length; move++) {
+                    game.makeMove(game.getTurn(), MOVES[move]);
+                }
+            }
+        }
+        snapshotter = new GameSnapshotter(manager, gameExecutor, file);
+        snapshotter.snapshot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("%n%d games in %d bytes: %.1f bytes per game%n", games, Files.size(file),
+                (double) Files.size(file) / games);
+        gameExecutor.shutdown();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int snapshot() {
+        return snapshotter.snapshot();
+    }
+
+    @Benchmark
+    public TicTacToeManager restore() {
+        TicTacToeManager restored = newManager();
+        new GameSnapshotter(restored, gameExecutor, file).restore();
+        return restored;
+    }
+
+    private TicTacToeManager newManager() {
+        return ServiceFixtures.manager().matchmaker(new Matchmaker(true)).expectedGames(games).build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GameSnapshotBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
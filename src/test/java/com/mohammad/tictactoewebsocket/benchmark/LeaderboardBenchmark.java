@@ -0,0 +1,106 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import com.mohammad.tictactoewebsocket.model.dto.LeaderboardEntry;
+import com.mohammad.tictactoewebsocket.service.Leaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the {@link Leaderboard} with {@code players} rated players.
+ * <p>
+ * The {@code ratings} group runs the rating thread flat out, rating one random game after another as the game
+ * completions of every mailbox would, while three other threads read the leaderboard at the same time:
+ * </p>
+ * <ul>
+ *     <li>{@code rateGame}: the two Elo updates of one finished game, i.e. the most completions per second.</li>
+ *     <li>{@code topTen}: the ten best players with their ranks.</li>
+ *     <li>{@code rankOfPlayer}: the rating and rank of a random player.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Group)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class LeaderboardBenchmark {
+
+    private static final GameState[] RESULTS = {GameState.PLAYER1_WON, GameState.PLAYER2_WON, GameState.TIE};
+
+    @Param({"1000000"})
+    private int players;
+
+    private Leaderboard leaderboard;
+    private String[] names;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        leaderboard = new Leaderboard();
+        names = new String[players];
+        for (int i = 0; i < players; i++) {
+            names[i] = "player-" + i;
+        }
+        random = new SplittableRandom(42);
+        for (int i = 0; i < players; i++) {
+            leaderboard.apply(game(names[i], names[(i + 1) % players]));
+        }
+        for (int i = 0; i < players; i++) {
+            leaderboard.apply(game(names[random.nextInt(players)], names[random.nextInt(players)]));
+        }
+    }
+
+    @Benchmark
+    @Group("ratings")
+    @GroupThreads(1)
+    public void rateGame() {
+        leaderboard.apply(game(names[random.nextInt(players)], names[random.nextInt(players)]));
+    }
+
+    @Benchmark
+    @Group("ratings")
+    @GroupThreads(2)
+    public List<LeaderboardEntry> topTen() {
+        return leaderboard.top(10);
+    }
+
+    @Benchmark
+    @Group("ratings")
+    @GroupThreads(1)
+    public LeaderboardEntry rankOfPlayer() {
+        return leaderboard.entry(names[ThreadLocalRandom.current().nextInt(players)]);
+    }
+
+    private GameRecord game(String player1, String player2) {
+        return new GameRecord("game", player1, player2, 3, 3, null, RESULTS[random.nextInt(RESULTS.length)], false,
+                0, 0, new int[0]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LeaderboardBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
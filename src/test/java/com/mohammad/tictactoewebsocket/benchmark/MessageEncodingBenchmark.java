@@ -0,0 +1,77 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.dto.MoveMessage;
+import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.mohammad.tictactoewebsocket.utils.TicTacToeMessageUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the message path from a game to the JSON bytes sent to clients.
+ * <p>
+ * {@code fromGame} only builds the {@link TicTacToeMessage}, {@code fromGameToJson} also encodes it with Jackson
+ * as the broker's converter does, and {@code moveDeltaToJson} encodes the {@link MoveMessage} sent after each move.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageEncodingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TicTacToe game;
+
+    /**
+     * Builds a game half way through, so the board holds both marks and empty cells.
+     */
+    @Setup
+    public void setUp() {
+        game = new TicTacToe("player-one", "player-two");
+        game.setGameState(GameState.PLAYER1_TURN);
+        int[] moves = {4, 0, 2, 6};
+        for (int i = 0; i < moves.length; i++) {
+            game.makeMove(i % 2 == 0 ? "player-one" : "player-two", moves[i]);
+        }
+    }
+
+    @Benchmark
+    public TicTacToeMessage fromGame() {
+        return TicTacToeMessageUtil.fromGame(game);
+    }
+
+    @Benchmark
+    public byte[] fromGameToJson() throws JsonProcessingException {
+        TicTacToeMessage message = TicTacToeMessageUtil.fromGame(game);
+        message.setType("game.resync");
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] moveDeltaToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new MoveMessage(game, 6));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MessageEncodingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
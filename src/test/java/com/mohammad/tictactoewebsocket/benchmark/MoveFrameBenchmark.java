@@ -0,0 +1,100 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.dto.MoveMessage;
+import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.mohammad.tictactoewebsocket.utils.TicTacToeMessageUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the frames sent for one whole game, before and after move deltas.
+ * <p>
+ * {@code fullFrames} encodes what {@code TicTacToeService.makeMove} used to send: a full
+ * {@link TicTacToeMessage} per move plus a second full message for game over.
+ * {@code deltaFrames} encodes one {@link MoveMessage} per move. Both play the same nine-move game.
+ * The average time is the encode time per game; the {@code bytes} counter divided by {@code games}
+ * gives the bytes per game.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveFrameBenchmark {
+
+    private static final int[] MOVES = {4, 0, 2, 6, 3, 5, 1, 7, 8};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Byte and game counters reported next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Traffic {
+        public long bytes;
+        public long games;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+            games = 0;
+        }
+    }
+
+    @Benchmark
+    public void fullFrames(Traffic traffic) throws JsonProcessingException {
+        TicTacToe game = newGame();
+        for (int i = 0; i < MOVES.length; i++) {
+            game.makeMove(i % 2 == 0 ? game.getPlayer1() : game.getPlayer2(), MOVES[i]);
+            TicTacToeMessage stateMessage = new TicTacToeMessage(game);
+            stateMessage.setType("game.move");
+            traffic.bytes += objectMapper.writeValueAsBytes(stateMessage).length;
+        }
+        TicTacToeMessage overMessage = TicTacToeMessageUtil.fromGame(game);
+        overMessage.setType("game.gameOver");
+        traffic.bytes += objectMapper.writeValueAsBytes(overMessage).length;
+        traffic.games++;
+    }
+
+    @Benchmark
+    public void deltaFrames(Traffic traffic) throws JsonProcessingException {
+        TicTacToe game = newGame();
+        for (int i = 0; i < MOVES.length; i++) {
+            game.makeMove(i % 2 == 0 ? game.getPlayer1() : game.getPlayer2(), MOVES[i]);
+            traffic.bytes += objectMapper.writeValueAsBytes(new MoveMessage(game, MOVES[i])).length;
+        }
+        traffic.games++;
+    }
+
+    private static TicTacToe newGame() {
+        TicTacToe game = new TicTacToe("player-one", "player-two");
+        game.setGameState(GameState.PLAYER1_TURN);
+        return game;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MoveFrameBenchmark.class.getSimpleName()).build()).run();
+    }
+}
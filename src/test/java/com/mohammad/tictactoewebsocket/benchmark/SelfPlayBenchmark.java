@@ -0,0 +1,82 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.model.SelfPlayReport;
+import com.mohammad.tictactoewebsocket.service.MovePolicy;
+import com.mohammad.tictactoewebsocket.service.PositionTable;
+import com.mohammad.tictactoewebsocket.service.SelfPlayEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the {@link SelfPlayEngine}: games per second for each policy pairing as the fork-join pool
+ * grows from one thread to eight. Each invocation plays a batch of {@value #GAMES} games, so the score is in
+ * games per second and the ratio between thread counts shows how the engine scales. Run with {@code -prof gc}
+ * to see that the games allocate nothing beyond one random generator and counter array per task.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelfPlayBenchmark {
+
+    private static final int GAMES = 1 << 20;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    @Param({"random-random", "perfect-random", "heuristic-perfect"})
+    private String pairing;
+
+    private ForkJoinPool pool;
+    private SelfPlayEngine engine;
+    private MovePolicy xPolicy;
+    private MovePolicy oPolicy;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PositionTable positionTable = new PositionTable();
+        String[] policies = pairing.split("-");
+        xPolicy = MovePolicy.of(policies[0], positionTable);
+        oPolicy = MovePolicy.of(policies[1], positionTable);
+        pool = new ForkJoinPool(threads);
+        engine = new SelfPlayEngine(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public SelfPlayReport playBatch() {
+        return engine.play(GAMES, xPolicy, oPolicy, seed++);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SelfPlayBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
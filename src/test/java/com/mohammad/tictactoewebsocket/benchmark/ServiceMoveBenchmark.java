@@ -0,0 +1,66 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.service.ServiceFixtures;
+import com.mohammad.tictactoewebsocket.service.TicTacToeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of {@link TicTacToeService#makeMove(String, String, int, SimpMessagingTemplate)} end to end.
+ * <p>
+ * The service runs with its inline executor, and the messaging template writes to a channel that drops every
+ * message, so the measurement covers the mailbox, the engine, the frame encoding and the template, but no broker.
+ * Each invocation pairs two players and plays a five-move win, which also removes the finished game.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceMoveBenchmark {
+
+    private static final int[] WIN = {0, 3, 1, 4, 2};
+
+    private TicTacToeService service;
+    private SimpMessagingTemplate messagingTemplate;
+    private long pair;
+
+    @Setup
+    public void setUp() {
+        service = ServiceFixtures.service(ServiceFixtures.manager().build()).build();
+        messagingTemplate = new SimpMessagingTemplate((message, timeout) -> true);
+    }
+
+    @Benchmark
+    public TicTacToe playWinningGame() {
+        String first = "player-" + pair++;
+        String second = "player-" + pair++;
+        TicTacToe game = service.startGame(first);
+        service.startGame(second);
+        for (int i = 0; i < WIN.length; i++) {
+            service.makeMove(i % 2 == 0 ? first : second, game.getGameId(), WIN[i], messagingTemplate);
+        }
+        return game;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ServiceMoveBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.TournamentFormat;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.Tournament;
+import com.mohammad.tictactoewebsocket.service.BotPlayer;
+import com.mohammad.tictactoewebsocket.service.GameExecutor;
+import com.mohammad.tictactoewebsocket.service.GameFrameCache;
+import com.mohammad.tictactoewebsocket.service.GameMetrics;
+import com.mohammad.tictactoewebsocket.service.ServiceFixtures;
+import com.mohammad.tictactoewebsocket.service.SpectatorFanOut;
+import com.mohammad.tictactoewebsocket.service.TicTacToeManager;
+import com.mohammad.tictactoewebsocket.service.TicTacToeService;
+import com.mohammad.tictactoewebsocket.service.TournamentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * JMH benchmark running a whole tournament of {@code entrants} players, with the bot playing both sides of every
+ * game on the game executor's threads.
+ * <p>
+ * Each invocation creates the tournament and waits for its final standings, so the score is the wall-clock time
+ * of the whole simulation: 65,535 matches over 16 rounds in single elimination, plus the rematches of drawn
+ * matches, or 16 rounds of 32,768 games in Swiss. Every game goes through the service as a move would, frames
+ * included, with a broker channel that drops them.
+ * </p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class TournamentSimulationBenchmark {
+
+    @Param({"65536"})
+    private int entrants;
+
+    @Param({"SINGLE_ELIMINATION", "SWISS"})
+    private TournamentFormat format;
+
+    private List<String> players;
+    private GameExecutor gameExecutor;
+    private TicTacToeService gameService;
+    private TournamentService tournamentService;
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        players = IntStream.range(0, entrants).mapToObj(i -> "player-" + i).toList();
+        messagingTemplate = new SimpMessagingTemplate((message, timeout) -> true);
+    }
+
+    @Setup(Level.Iteration)
+    public void startServices() {
+        TicTacToeManager manager = ServiceFixtures.manager().build();
+        gameExecutor = new GameExecutor(0);
+        tournamentService = new TournamentService(manager);
+        GameFrameCache frameCache = new GameFrameCache();
+        gameService = new TicTacToeService(manager, gameExecutor, frameCache, new GameMetrics(), new BotPlayer(),
+                new SpectatorFanOut(frameCache, Runnable::run),
+                event -> tournamentService.onGameFinished((GameRecord) event));
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopServices() {
+        tournamentService.shutdown();
+        gameExecutor.shutdown();
+    }
+
+    @Benchmark
+    public Tournament tournament() throws Exception {
+        Tournament tournament = tournamentService.create("benchmark", format, players, BoardVariant.CLASSIC, 16,
+                (t, games) -> {
+                    for (TicTacToe game : games) {
+                        gameService.playOut(game.getGameId(), BotDifficulty.MEDIUM, messagingTemplate);
+                    }
+                });
+        return tournament.getCompletion().get(5, TimeUnit.MINUTES);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TournamentSimulationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,89 @@
+package com.mohammad.tictactoewebsocket.benchmark;
+
+import com.mohammad.tictactoewebsocket.model.BitBoard;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of win detection on the 3x3, 15x15 and 19x19 boards, with five in a row on the large ones.
+ * <p>
+ * The board is filled to {@code fill} percent with random marks of both players that contain no winning line.
+ * {@code incrementalCheck} checks the four lines through one of the "X" marks, as {@code TicTacToe.makeMove} does
+ * after every move; {@code fullScan} checks the lines through every "X" mark, which is what detecting a win without
+ * knowing the last move costs.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WinDetectionBenchmark {
+
+    @Param({"3", "15", "19"})
+    private int size;
+
+    @Param({"50"})
+    private int fill;
+
+    private BitBoard board;
+    private int[] xCells;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BoardVariant variant = new BoardVariant(size, Math.min(size, 5));
+        int target = variant.cells() * fill / 100;
+        Random random = new Random(42);
+        int[] placed;
+        int xCount;
+        do {
+            // Redraw decided boards: a win found early would cut the scans short.
+            board = new BitBoard(variant);
+            placed = new int[target];
+            xCount = 0;
+            while (board.getMoveCount() < target) {
+                int cell = random.nextInt(variant.cells());
+                boolean x = board.getMoveCount() % 2 == 0;
+                if (board.place(cell, x) && x) {
+                    placed[xCount++] = cell;
+                }
+            }
+        } while (board.hasWon(true) || board.hasWon(false));
+        xCells = new int[xCount];
+        System.arraycopy(placed, 0, xCells, 0, xCount);
+    }
+
+    @Benchmark
+    public boolean incrementalCheck() {
+        int cell = xCells[next];
+        next = next + 1 == xCells.length ? 0 : next + 1;
+        return board.isWinningMove(cell, true);
+    }
+
+    @Benchmark
+    public boolean fullScan() {
+        return board.hasWon(true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(WinDetectionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
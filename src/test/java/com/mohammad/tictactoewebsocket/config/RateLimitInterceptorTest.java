@@ -0,0 +1,115 @@
+package com.mohammad.tictactoewebsocket.config;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameCommand;
+import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link RateLimitInterceptor} class.
+ * <p>
+ * Verifies that game commands over the default limits are dropped with a single typed error frame, that the
+ * player limit holds across sessions and that other messages are never limited.
+ * </p>
+ */
+public class RateLimitInterceptorTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        interceptor = new RateLimitInterceptor(messagingTemplate, 1000);
+    }
+
+    /**
+     * Tests that moves beyond the burst of a session are dropped and reported once with an error frame.
+     */
+    @Test
+    void testCommandsOverSessionLimitAreDropped() {
+        int burst = GameCommand.MOVE.getDefaultBurst();
+        for (int i = 0; i < burst; i++) {
+            assertNotNull(interceptor.preSend(message("s1", "/app/game.move", null), null));
+        }
+        assertNull(interceptor.preSend(message("s1", "/app/game.move", null), null));
+        assertNull(interceptor.preSend(message("s1", "/app/game.move", null), null));
+        assertNotNull(interceptor.preSend(message("s2", "/app/game.move", null), null));
+
+        ArgumentCaptor<Object> error = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSendToUser(eq("s1"), eq(RateLimitInterceptor.GAME_STATE_QUEUE),
+                error.capture(), anyMap());
+        assertEquals("error.rateLimited", ((TicTacToeMessage) error.getValue()).getType());
+        assertEquals(2, interceptor.getRejectedCount(GameCommand.MOVE));
+    }
+
+    /**
+     * Tests that a player who opens a second session still has a single limit.
+     */
+    @Test
+    void testPlayerLimitSpansSessions() {
+        int burst = GameCommand.START.getDefaultBurst();
+        for (int i = 0; i < burst; i++) {
+            assertNotNull(interceptor.preSend(message("s1", "/app/game.start", "alice"), null));
+        }
+        assertNull(interceptor.preSend(message("s2", "/app/game.start", "alice"), null));
+        assertNotNull(interceptor.preSend(message("s3", "/app/game.start", "bob"), null));
+        verify(messagingTemplate).convertAndSendToUser(eq("s2"), eq(RateLimitInterceptor.GAME_STATE_QUEUE), any(), anyMap());
+    }
+
+    /**
+     * Tests that destinations without a limit are never dropped.
+     */
+    @Test
+    void testOtherMessagesAreNotLimited() {
+        for (int i = 0; i < 1000; i++) {
+            assertNotNull(interceptor.preSend(message("s1", "/app/game.leave", "alice"), null));
+        }
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    /**
+     * Tests that a session gets fresh buckets after it disconnects.
+     */
+    @Test
+    void testDisconnectResetsSession() {
+        int burst = GameCommand.JOIN.getDefaultBurst();
+        for (int i = 0; i < burst; i++) {
+            interceptor.preSend(message("s1", "/app/game.join", null), null);
+        }
+        assertNull(interceptor.preSend(message("s1", "/app/game.join", null), null));
+
+        SimpMessageHeaderAccessor disconnect = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+        disconnect.setSessionId("s1");
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], disconnect.getMessageHeaders()), null);
+
+        assertNotNull(interceptor.preSend(message("s1", "/app/game.join", null), null));
+    }
+
+    private static Message<byte[]> message(String sessionId, String destination, String player) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        Map<String, Object> attributes = new HashMap<>();
+        if (player != null) {
+            attributes.put("player", player);
+        }
+        accessor.setSessionAttributes(attributes);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,167 @@
+package com.mohammad.tictactoewebsocket.config;
+
+import com.mohammad.tictactoewebsocket.enumeration.ExecutionMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SessionOrderedTaskExecutor} class.
+ * <p>
+ * Verifies that the messages of one session are handled in order and one at a time, that sessions do not
+ * wait for each other, and that the executor reports the mode it actually runs in.
+ * </p>
+ */
+public class SessionOrderedTaskExecutorTest {
+
+    private SessionOrderedTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new SessionOrderedTaskExecutor(ExecutionMode.PLATFORM);
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setThreadNamePrefix("test-channel-");
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Tests that interleaved messages of many sessions are handled in send order per session, never overlapping.
+     */
+    @Test
+    void testMessagesOfOneSessionRunInOrder() throws Exception {
+        int sessions = 10;
+        int messagesPerSession = 500;
+        Map<String, List<Integer>> handled = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(sessions * messagesPerSession);
+        MessageHandler handler = message -> {
+            String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+            if (running.computeIfAbsent(sessionId, id -> new AtomicInteger()).incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            handled.computeIfAbsent(sessionId, id -> new ArrayList<>()).add((Integer) message.getPayload());
+            running.get(sessionId).decrementAndGet();
+            done.countDown();
+        };
+
+        for (int i = 0; i < messagesPerSession; i++) {
+            for (int s = 0; s < sessions; s++) {
+                executor.execute(new Handling(handler, message("session-" + s, i)));
+            }
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        for (int s = 0; s < sessions; s++) {
+            List<Integer> order = handled.get("session-" + s);
+            assertEquals(messagesPerSession, order.size());
+            for (int i = 0; i < messagesPerSession; i++) {
+                assertEquals(i, order.get(i).intValue());
+            }
+        }
+    }
+
+    /**
+     * Tests that a session blocked in its handler does not hold up another session.
+     */
+    @Test
+    void testSessionsRunIndependently() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastDone = new CountDownLatch(1);
+        MessageHandler blocking = message -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        executor.execute(new Handling(blocking, message("slow", 0)));
+        executor.execute(new Handling(message -> fastDone.countDown(), message("fast", 0)));
+
+        assertTrue(fastDone.await(10, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    /**
+     * Tests that a failing message does not stop the next messages of its session.
+     */
+    @Test
+    void testFailingMessageDoesNotStallSession() throws Exception {
+        CountDownLatch next = new CountDownLatch(1);
+        Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> { });
+        try {
+            executor.execute(new Handling(message -> {
+                throw new IllegalStateException("boom");
+            }, message("session", 0)));
+            executor.execute(new Handling(message -> next.countDown(), message("session", 1)));
+
+            assertTrue(next.await(10, TimeUnit.SECONDS));
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previous);
+        }
+    }
+
+    /**
+     * Tests that virtual mode is only reported when the runtime has virtual threads.
+     */
+    @Test
+    void testVirtualModeFallsBackWithoutVirtualThreads() {
+        boolean virtualThreads = Runtime.version().feature() >= 21;
+        SessionOrderedTaskExecutor virtual = new SessionOrderedTaskExecutor(ExecutionMode.VIRTUAL);
+
+        assertEquals(virtualThreads ? ExecutionMode.VIRTUAL : ExecutionMode.PLATFORM, virtual.getMode());
+        assertEquals(ExecutionMode.PLATFORM, executor.getMode());
+    }
+
+    private static Message<Integer> message(String sessionId, int sequence) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(sequence, accessor.getMessageHeaders());
+    }
+
+    /**
+     * What the channel hands to its executor: a message and the handler it is for.
+     */
+    private record Handling(MessageHandler handler, Message<?> message) implements MessageHandlingRunnable {
+
+        @Override
+        public Message<?> getMessage() {
+            return message;
+        }
+
+        @Override
+        public MessageHandler getMessageHandler() {
+            return handler;
+        }
+
+        @Override
+        public void run() {
+            handler.handleMessage(message);
+        }
+    }
+}
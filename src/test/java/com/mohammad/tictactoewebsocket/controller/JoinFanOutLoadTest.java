@@ -0,0 +1,155 @@
+package com.mohammad.tictactoewebsocket.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for the outbound traffic caused by players starting games.
+ * <p>
+ * Connects a growing number of STOMP clients to the real {@code /ws} endpoint, lets every client start a game
+ * and counts the MESSAGE frames put on the outbound channel. Since start replies go to the requesting session
+ * and the paired opponent gets a single notification, the number of frames per start must stay the same
+ * however many clients are connected.
+ * </p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JoinFanOutLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    @Qualifier("clientOutboundChannel")
+    private AbstractSubscribableChannel clientOutboundChannel;
+
+    private final AtomicInteger outboundMessages = new AtomicInteger();
+    private final ChannelInterceptor counter = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                outboundMessages.incrementAndGet();
+            }
+            return message;
+        }
+    };
+
+    private WebSocketStompClient stompClient;
+    private ThreadPoolTaskScheduler clientScheduler;
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        // The client needs a scheduler for its heart-beats and receipt timeouts.
+        clientScheduler = new ThreadPoolTaskScheduler();
+        clientScheduler.initialize();
+        stompClient.setTaskScheduler(clientScheduler);
+        clientOutboundChannel.addInterceptor(counter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientOutboundChannel.removeInterceptor(counter);
+        sessions.forEach(StompSession::disconnect);
+        sessions.clear();
+        stompClient.stop();
+        clientScheduler.shutdown();
+    }
+
+    /**
+     * Tests that frames per start do not grow between 10 and 100 connected clients.
+     */
+    @Test
+    void testOutboundFramesPerStartAreConstant() throws Exception {
+        double small = framesPerStart(10, "small");
+        double large = framesPerStart(100, "large");
+
+        // One reply per start plus one notification for every second player who completes a pair.
+        assertEquals(1.5, small, 0.01);
+        assertEquals(small, large, 0.01);
+    }
+
+    /**
+     * Connects {@code clients} sessions, starts a game from each of them in turn and returns the MESSAGE frames per start.
+     */
+    private double framesPerStart(int clients, String prefix) throws Exception {
+        List<StompSession> round = new ArrayList<>();
+        List<BlockingQueue<Object>> inboxes = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            StompSession session = stompClient
+                    .connectAsync("ws://localhost:" + port + "/ws/websocket", new StompSessionHandlerAdapter() { })
+                    .get(10, TimeUnit.SECONDS);
+            BlockingQueue<Object> inbox = new LinkedBlockingQueue<>();
+            // The simple broker sends no RECEIPT for a SUBSCRIBE. None is needed: the messages of a session are
+            // handled in order, so the subscription is in place before the start sent after it is handled.
+            session.subscribe("/user/queue/game.state", new QueueingHandler(inbox));
+            round.add(session);
+            inboxes.add(inbox);
+        }
+        sessions.addAll(round);
+
+        outboundMessages.set(0);
+        for (int i = 0; i < clients; i++) {
+            round.get(i).send("/app/game.start", Map.of("player", prefix + "-" + i));
+            assertNotNull(inboxes.get(i).poll(10, TimeUnit.SECONDS), "no reply for client " + i);
+        }
+        // Every odd client completed a pair, so the even client before it must have been notified too.
+        for (int i = 0; i + 1 < clients; i += 2) {
+            assertNotNull(inboxes.get(i).poll(10, TimeUnit.SECONDS), "no notification for client " + i);
+        }
+
+        return (double) outboundMessages.get() / clients;
+    }
+
+    /**
+     * Queues the payload of every message received on a subscription.
+     */
+    private static final class QueueingHandler implements StompFrameHandler {
+        private final BlockingQueue<Object> inbox;
+
+        private QueueingHandler(BlockingQueue<Object> inbox) {
+            this.inbox = inbox;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            inbox.add(payload);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.mohammad.tictactoewebsocket.controller;
 
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
 import com.mohammad.tictactoewebsocket.model.TicTacToe;
 import com.mohammad.tictactoewebsocket.model.dto.JoinMessage;
 import com.mohammad.tictactoewebsocket.model.dto.PlayerMessage;
 import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.mohammad.tictactoewebsocket.service.PlayerSessionRegistry;
 import com.mohammad.tictactoewebsocket.service.TicTacToeService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +18,12 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +42,9 @@ public class MessageControllerTest {
     @Mock
     private TicTacToeService gameService;
 
+    @Mock
+    private PlayerSessionRegistry sessionRegistry;
+
     @InjectMocks
     private MessageController messageController;
 
@@ -89,7 +100,7 @@ public class MessageControllerTest {
 
         TicTacToe mockGame = new TicTacToe("playerX", null);
 
-        when(gameService.startGame("playerX")).thenReturn(mockGame);
+        when(gameService.startGame("playerX", BoardVariant.CLASSIC)).thenReturn(mockGame);
 
         Object result = messageController.startGame(startMessage, accessor);
         Assertions.assertTrue(result instanceof TicTacToeMessage);
@@ -99,6 +110,70 @@ public class MessageControllerTest {
         Assertions.assertEquals(mockGame.getGameId(), accessor.getSessionAttributes().get("gameId"));
     }
 
+    /**
+     * Tests that {@code startGame} records the player's session and tells the waiting opponent on their own queue.
+     */
+    @Test
+    public void testStartGameNotifiesWaitingOpponentOnly() {
+        JoinMessage startMessage = new JoinMessage();
+        startMessage.setPlayer("playerO");
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionId("session-O");
+        accessor.setSessionAttributes(new HashMap<>());
+
+        TicTacToe pairedGame = new TicTacToe("playerX", "playerO");
+
+        when(gameService.startGame("playerO", BoardVariant.CLASSIC)).thenReturn(pairedGame);
+        when(sessionRegistry.getSessionId("playerX")).thenReturn("session-X");
+
+        messageController.startGame(startMessage, accessor);
+
+        verify(sessionRegistry).register("playerO", "session-O", pairedGame.getGameId());
+        verify(messagingTemplate).convertAndSendToUser(eq("session-X"), eq("/queue/game.state"),
+                argThat(payload -> "game.join".equals(((TicTacToeMessage) payload).getType())), anyMap());
+    }
+
+    /**
+     * Tests that {@code startGame} sends nothing to other players when a new game is created.
+     */
+    @Test
+    public void testStartGameWithoutOpponentSendsNoNotification() {
+        JoinMessage startMessage = new JoinMessage();
+        startMessage.setPlayer("playerX");
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionAttributes(new HashMap<>());
+
+        when(gameService.startGame("playerX", BoardVariant.CLASSIC)).thenReturn(new TicTacToe("playerX", null));
+
+        messageController.startGame(startMessage, accessor);
+
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(), anyMap());
+    }
+
+    /**
+     * Tests that {@code startGame} passes the requested board on and rejects boards out of range.
+     */
+    @Test
+    public void testStartGameUsesRequestedBoard() {
+        JoinMessage startMessage = new JoinMessage();
+        startMessage.setPlayer("playerX");
+        startMessage.setSize(15);
+        startMessage.setWinLength(5);
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionAttributes(new HashMap<>());
+        BoardVariant variant = new BoardVariant(15, 5);
+
+        when(gameService.startGame("playerX", variant)).thenReturn(new TicTacToe("playerX", null, variant));
+
+        Object result = messageController.startGame(startMessage, accessor);
+        Assertions.assertEquals(15, ((TicTacToeMessage) result).getSize());
+        Assertions.assertEquals(5, ((TicTacToeMessage) result).getWinLength());
+
+        startMessage.setWinLength(16);
+        Object error = messageController.startGame(startMessage, accessor);
+        Assertions.assertEquals("error", ((TicTacToeMessage) error).getType());
+    }
+
     /**
      * Tests that {@code leaveGame} correctly calls the {@link TicTacToeService#playerLeft(String, SimpMessagingTemplate)} method.
      */
@@ -135,4 +210,41 @@ public class MessageControllerTest {
 
         verify(gameService).makeMove("player1", "game123", 4, messagingTemplate);
     }
+
+    /**
+     * Tests that {@code spectate} registers the session with the service and replies with the game state.
+     */
+    @Test
+    public void testSpectateReturnsGameState() {
+        PlayerMessage msg = new PlayerMessage();
+        msg.setGameId("game123");
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionId("session-1");
+        TicTacToe game = new TicTacToe("player1", "player2");
+        game.setGameId("game123");
+        game.setSpectatorCount(3);
+
+        when(gameService.spectate("session-1", "game123")).thenReturn(game);
+
+        TicTacToeMessage result = (TicTacToeMessage) messageController.spectate(msg, accessor);
+        Assertions.assertEquals("game.spectating", result.getType());
+        Assertions.assertEquals("game123", result.getGameId());
+        Assertions.assertEquals(3, result.getSpectators());
+    }
+
+    /**
+     * Tests that {@code spectate} returns an error for a game that does not exist.
+     */
+    @Test
+    public void testSpectateReturnsErrorIfGameIsNull() {
+        PlayerMessage msg = new PlayerMessage();
+        msg.setGameId("missing");
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionId("session-1");
+
+        when(gameService.spectate("session-1", "missing")).thenReturn(null);
+
+        TicTacToeMessage result = (TicTacToeMessage) messageController.spectate(msg, accessor);
+        Assertions.assertEquals("error.spectate", result.getType());
+    }
 }
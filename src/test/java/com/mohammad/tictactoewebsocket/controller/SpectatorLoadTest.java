@@ -0,0 +1,212 @@
+package com.mohammad.tictactoewebsocket.controller;
+
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.service.TicTacToeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for spectators: one game watched by 5,000 STOMP clients.
+ * <p>
+ * The spectators connect to the real {@code /ws} endpoint, subscribe to the watch topic of the game and send
+ * {@code /app/game.spectate}. Then the two players play a game of five moves, each waiting for its own delta before
+ * the next move. The round trip of every move is printed and must stay well below a second, since the players'
+ * deltas do not wait for the spectators; every spectator must end up with the final snapshot. Set the
+ * {@code spectators} system property for a different number of watchers, e.g. where the open file limit is low.
+ * </p>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class SpectatorLoadTest {
+
+    private static final int SPECTATORS = Integer.getInteger("spectators", 5_000);
+
+    /**
+     * Moves of the game in order, alternating between the players: "X" takes the top row.
+     */
+    private static final int[] MOVES = {0, 3, 1, 4, 2};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TicTacToeService gameService;
+
+    private WebSocketStompClient stompClient;
+    private ThreadPoolTaskScheduler clientScheduler;
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        // The client needs a scheduler for its heart-beats and receipt timeouts.
+        clientScheduler = new ThreadPoolTaskScheduler();
+        clientScheduler.initialize();
+        stompClient.setTaskScheduler(clientScheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(StompSession::disconnect);
+        sessions.clear();
+        stompClient.stop();
+        clientScheduler.shutdown();
+    }
+
+    /**
+     * Tests that moves keep a short round trip with 5,000 spectators and that every spectator sees the result.
+     */
+    @Test
+    void testPlayersAreNotSlowedDownBySpectators() throws Exception {
+        BlockingQueue<Map<?, ?>> aliceTopic = new LinkedBlockingQueue<>();
+        BlockingQueue<Map<?, ?>> bobTopic = new LinkedBlockingQueue<>();
+        String gameId = joinPlayer("alice", aliceTopic);
+        assertEquals(gameId, joinPlayer("bob", bobTopic));
+
+        CountDownLatch finalSnapshots = new CountDownLatch(SPECTATORS);
+        List<CompletableFuture<StompSession>> connecting = new ArrayList<>();
+        for (int i = 0; i < SPECTATORS; i++) {
+            connecting.add(connect());
+        }
+        // The simple broker sends no RECEIPT for a SUBSCRIBE. None is needed: the messages of a session are handled
+        // in order, so each watch subscription is in place before the spectate sent after it is handled.
+        for (CompletableFuture<StompSession> future : connecting) {
+            StompSession session = future.get(60, TimeUnit.SECONDS);
+            sessions.add(session);
+            session.subscribe("/topic/game." + gameId + ".watch", new FinalSnapshotHandler(finalSnapshots));
+            session.send("/app/game.spectate", Map.of("gameId", gameId));
+        }
+        TicTacToe game = gameService.getGame(gameId);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (game.getSpectatorCount() < SPECTATORS && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(SPECTATORS, game.getSpectatorCount());
+
+        long[] roundTrips = new long[MOVES.length];
+        for (int seq = 1; seq <= MOVES.length; seq++) {
+            boolean alice = seq % 2 == 1;
+            StompSession mover = sessions.get(alice ? 0 : 1);
+            BlockingQueue<Map<?, ?>> topic = alice ? aliceTopic : bobTopic;
+            long sent = System.nanoTime();
+            mover.send("/app/game.move", Map.of("type", "game.move", "move", MOVES[seq - 1],
+                    "sender", alice ? "alice" : "bob", "gameId", gameId));
+            Map<?, ?> delta = awaitDelta(topic, seq);
+            roundTrips[seq - 1] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent);
+            assertEquals(SPECTATORS, ((Number) delta.get("spectators")).intValue());
+        }
+        System.out.printf("Move round trips with %d spectators (us): %s%n", SPECTATORS, Arrays.toString(roundTrips));
+
+        assertTrue(finalSnapshots.await(60, TimeUnit.SECONDS), finalSnapshots.getCount() + " spectators missed the result");
+        for (long roundTrip : roundTrips) {
+            assertTrue(roundTrip < TimeUnit.SECONDS.toMicros(1), "move round trip of " + roundTrip + " us");
+        }
+    }
+
+    /**
+     * Connects a player, starts a game and subscribes to the game topic. Returns the game ID.
+     */
+    private String joinPlayer(String player, BlockingQueue<Map<?, ?>> topic) throws Exception {
+        StompSession session = connect().get(10, TimeUnit.SECONDS);
+        sessions.add(session);
+        BlockingQueue<Map<?, ?>> replies = new LinkedBlockingQueue<>();
+        session.subscribe("/user/queue/game.state", new QueueingHandler(replies));
+
+        session.send("/app/game.start", Map.of("player", player));
+        Map<?, ?> joined = replies.poll(10, TimeUnit.SECONDS);
+        assertNotNull(joined, "no reply for " + player);
+        String gameId = (String) joined.get("gameId");
+        // Only the player's own moves are awaited on this topic, and they are sent on this session after the subscription.
+        session.subscribe("/topic/game." + gameId, new QueueingHandler(topic));
+        return gameId;
+    }
+
+    private CompletableFuture<StompSession> connect() {
+        return stompClient.connectAsync("ws://localhost:" + port + "/ws/websocket", new StompSessionHandlerAdapter() { });
+    }
+
+    /**
+     * Waits for the delta with the given sequence number on a game topic.
+     */
+    private static Map<?, ?> awaitDelta(BlockingQueue<Map<?, ?>> topic, int seq) throws InterruptedException {
+        while (true) {
+            Map<?, ?> message = topic.poll(10, TimeUnit.SECONDS);
+            assertNotNull(message, "no delta " + seq);
+            if ("game.delta".equals(message.get("type")) && ((Number) message.get("seq")).intValue() == seq) {
+                return message;
+            }
+        }
+    }
+
+    /**
+     * Queues the payload of every message received on a subscription.
+     */
+    private static final class QueueingHandler implements StompFrameHandler {
+        private final BlockingQueue<Map<?, ?>> inbox;
+
+        private QueueingHandler(BlockingQueue<Map<?, ?>> inbox) {
+            this.inbox = inbox;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            inbox.add((Map<?, ?>) payload);
+        }
+    }
+
+    /**
+     * Counts down once when a spectator receives the snapshot of the finished game.
+     */
+    private static final class FinalSnapshotHandler implements StompFrameHandler {
+        private final CountDownLatch finalSnapshots;
+        private boolean seen;
+
+        private FinalSnapshotHandler(CountDownLatch finalSnapshots) {
+            this.finalSnapshots = finalSnapshots;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public synchronized void handleFrame(StompHeaders headers, Object payload) {
+            Map<?, ?> snapshot = (Map<?, ?>) payload;
+            if (!seen && "alice".equals(snapshot.get("winner"))) {
+                seen = true;
+                finalSnapshots.countDown();
+            }
+        }
+    }
+}
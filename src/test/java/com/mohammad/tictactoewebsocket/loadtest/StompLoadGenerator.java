@@ -0,0 +1,336 @@
+package com.mohammad.tictactoewebsocket.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless load generator that plays Tic-Tac-Toe against a running instance through the real {@code /ws} endpoint.
+ * <p>
+ * Every simulated player opens its own SockJS/STOMP session and follows the same protocol as {@code tictactoe.js}:
+ * it subscribes to {@code /user/queue/game.state}, sends {@code /app/game.start}, subscribes to
+ * {@code /topic/game.{id}} once it has a game and plays a random free cell via {@code /app/game.move} whenever
+ * it is its turn, after a random think time. When a game ends the player starts a new one.
+ * </p>
+ * <p>
+ * The round-trip latency of a move is the time from sending it to receiving its delta on the game topic.
+ * Latencies are recorded in an HdrHistogram; one interval histogram per second is written to the log file,
+ * which can be compared across runs with the HdrHistogram tools. A summary with throughput and
+ * p50/p99/p99.9 latency is printed at the end.
+ * </p>
+ * <p>
+ * Start the application, then run for example:
+ * {@code mvn -Pload verify -Dload.args="players=2000 think-ms=250 duration-s=120"}.
+ * Options: {@code url} (default {@code http://localhost:8080/ws}), {@code players} (1000), {@code think-ms} (200),
+ * {@code duration-s} (60), {@code ramp-s} (10), {@code hlog} ({@code target/load-latency.hlog}).
+ * </p>
+ */
+public class StompLoadGenerator {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String url;
+    private final int players;
+    private final long thinkMillis;
+    private final long durationSeconds;
+    private final long rampSeconds;
+    private final File histogramLog;
+
+    private final Recorder latency = new Recorder(MAX_LATENCY_MICROS, 3);
+    private final AtomicLong moves = new AtomicLong();
+    private final AtomicLong games = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    private StompLoadGenerator(Map<String, String> options) {
+        this.url = options.getOrDefault("url", "http://localhost:8080/ws");
+        this.players = Integer.parseInt(options.getOrDefault("players", "1000"));
+        this.thinkMillis = Long.parseLong(options.getOrDefault("think-ms", "200"));
+        this.durationSeconds = Long.parseLong(options.getOrDefault("duration-s", "60"));
+        this.rampSeconds = Long.parseLong(options.getOrDefault("ramp-s", "10"));
+        this.histogramLog = new File(options.getOrDefault("hlog", "target/load-latency.hlog"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        new StompLoadGenerator(options).run();
+        System.exit(0);
+    }
+
+    /**
+     * Connects the players over the ramp-up period, lets them play for the configured duration and prints the summary.
+     */
+    private void run() throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        histogramLog.getAbsoluteFile().getParentFile().mkdirs();
+        Histogram total = new Histogram(3);
+        HistogramLogWriter logWriter = startLog();
+
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        List<Bot> bots = new ArrayList<>();
+        long rampNanos = TimeUnit.SECONDS.toNanos(rampSeconds);
+        long start = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            Bot bot = new Bot("load-" + runId + "-" + i);
+            stompClient.connectAsync(url, bot).whenComplete((session, failure) -> {
+                if (failure != null) {
+                    errors.incrementAndGet();
+                }
+            });
+            bots.add(bot);
+            long due = start + rampNanos * (i + 1) / players;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+        System.out.printf("Connected %d players in %d ms%n", players, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        moves.set(0);
+        games.set(0);
+        latency.reset();
+        long measureStart = System.nanoTime();
+        long measureEnd = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        Histogram interval = null;
+        while (System.nanoTime() < measureEnd) {
+            TimeUnit.SECONDS.sleep(1);
+            interval = latency.getIntervalHistogram(interval);
+            logWriter.outputIntervalHistogram(interval);
+            total.add(interval);
+        }
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+        logWriter.close();
+
+        for (Bot bot : bots) {
+            bot.stop();
+        }
+        scheduler.shutdownNow();
+        stompClient.stop();
+
+        System.out.printf("Players %d, think time %d ms, measured %.1f s%n", players, thinkMillis, seconds);
+        System.out.printf("Moves %d (%.1f/s), games %d (%.1f/s), errors %d%n",
+                moves.get(), moves.get() / seconds, games.get(), games.get() / seconds, errors.get());
+        System.out.printf("Move round trip ms: p50 %.3f, p99 %.3f, p99.9 %.3f, max %.3f%n",
+                total.getValueAtPercentile(50) / 1000.0, total.getValueAtPercentile(99) / 1000.0,
+                total.getValueAtPercentile(99.9) / 1000.0, total.getMaxValue() / 1000.0);
+        System.out.println("Histogram log: " + histogramLog.getPath());
+    }
+
+    private HistogramLogWriter startLog() throws FileNotFoundException {
+        HistogramLogWriter logWriter = new HistogramLogWriter(histogramLog);
+        logWriter.outputComment("Move round trip in microseconds, players=" + players + " think-ms=" + thinkMillis);
+        logWriter.outputLogFormatVersion();
+        long now = System.currentTimeMillis();
+        logWriter.outputStartTime(now);
+        logWriter.setBaseTime(now);
+        logWriter.outputLegend();
+        return logWriter;
+    }
+
+    /**
+     * One simulated player. STOMP callbacks and scheduled moves for a bot are serialized on the bot's monitor.
+     */
+    private final class Bot extends StompSessionHandlerAdapter implements StompFrameHandler {
+        private final String name;
+        private StompSession session;
+        private StompSession.Subscription topic;
+        private String gameId;
+        private boolean player1;
+        private String gameState;
+        private int seq;
+        private final String[] cells = new String[9];
+        private long moveSentNanos;
+        private int awaitedSeq = -1;
+        private volatile boolean stopped;
+
+        private Bot(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public synchronized void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+            this.session = session;
+            session.subscribe("/user/queue/game.state", this);
+            startGame();
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            if (!stopped) {
+                errors.incrementAndGet();
+            }
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public synchronized void handleFrame(StompHeaders headers, Object payload) {
+            if (stopped) {
+                return;
+            }
+            Map<?, ?> message = (Map<?, ?>) payload;
+            String type = String.valueOf(message.get("type"));
+            switch (type) {
+                case "game.joined", "game.join", "game.resync" -> applySnapshot(message);
+                case "game.matched" -> {
+                    topic.unsubscribe();
+                    topic = null;
+                    applySnapshot(message);
+                }
+                case "game.delta" -> applyDelta(message);
+                case "game.left", "game.earlyLeave" -> finishGame();
+                default -> {
+                    if (type.startsWith("error") && awaitedSeq != -1) {
+                        // Our move was rejected: fetch the real state and try again from there.
+                        errors.incrementAndGet();
+                        awaitedSeq = -1;
+                        session.send("/app/game.resync", Map.of("gameId", gameId, "player", name));
+                    }
+                }
+            }
+        }
+
+        private void startGame() {
+            if (topic != null) {
+                topic.unsubscribe();
+                topic = null;
+            }
+            gameId = null;
+            awaitedSeq = -1;
+            session.send("/app/game.start", Map.of("player", name));
+        }
+
+        private void applySnapshot(Map<?, ?> message) {
+            String id = (String) message.get("gameId");
+            if (id == null) {
+                return;
+            }
+            if (!id.equals(gameId) || topic == null) {
+                gameId = id;
+                topic = session.subscribe("/topic/game." + id, this);
+            }
+            player1 = name.equals(message.get("player1"));
+            gameState = String.valueOf(message.get("gameState"));
+            seq = ((Number) message.get("seq")).intValue();
+            List<?> board = (List<?>) message.get("board");
+            for (int row = 0; row < 3; row++) {
+                List<?> cellsInRow = (List<?>) board.get(row);
+                for (int column = 0; column < 3; column++) {
+                    cells[row * 3 + column] = String.valueOf(cellsInRow.get(column));
+                }
+            }
+            scheduleMoveIfMyTurn();
+        }
+
+        private void applyDelta(Map<?, ?> message) {
+            int deltaSeq = ((Number) message.get("seq")).intValue();
+            if (deltaSeq <= seq) {
+                return;
+            }
+            if (deltaSeq != seq + 1) {
+                session.send("/app/game.resync", Map.of("gameId", gameId, "player", name));
+                return;
+            }
+            seq = deltaSeq;
+            cells[((Number) message.get("cell")).intValue()] = String.valueOf(message.get("mark"));
+            gameState = String.valueOf(message.get("gameState"));
+            if (deltaSeq == awaitedSeq) {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - moveSentNanos);
+                latency.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                moves.incrementAndGet();
+                awaitedSeq = -1;
+            }
+            if (gameState.endsWith("_WON") || gameState.equals("TIE")) {
+                finishGame();
+            } else {
+                scheduleMoveIfMyTurn();
+            }
+        }
+
+        private void finishGame() {
+            games.incrementAndGet();
+            String finished = gameId;
+            scheduler.schedule(() -> {
+                synchronized (this) {
+                    if (!stopped && finished != null && finished.equals(gameId)) {
+                        startGame();
+                    }
+                }
+            }, thinkTime(), TimeUnit.MILLISECONDS);
+        }
+
+        private void scheduleMoveIfMyTurn() {
+            boolean myTurn = player1 ? "PLAYER1_TURN".equals(gameState) : "PLAYER2_TURN".equals(gameState);
+            if (!myTurn || awaitedSeq != -1) {
+                return;
+            }
+            int expectedSeq = seq + 1;
+            awaitedSeq = expectedSeq;
+            scheduler.schedule(() -> move(expectedSeq), thinkTime(), TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void move(int expectedSeq) {
+            if (stopped || awaitedSeq != expectedSeq || seq != expectedSeq - 1) {
+                return;
+            }
+            List<Integer> free = new ArrayList<>();
+            for (int cell = 0; cell < cells.length; cell++) {
+                if (cells[cell] == null || cells[cell].isBlank()) {
+                    free.add(cell);
+                }
+            }
+            if (free.isEmpty()) {
+                return;
+            }
+            int cell = free.get(ThreadLocalRandom.current().nextInt(free.size()));
+            moveSentNanos = System.nanoTime();
+            session.send("/app/game.move", Map.of("type", "game.move", "move", cell, "sender", name, "gameId", gameId));
+        }
+
+        private long thinkTime() {
+            return thinkMillis <= 0 ? 0 : ThreadLocalRandom.current().nextLong(thinkMillis / 2, thinkMillis * 3 / 2 + 1);
+        }
+
+        private synchronized void stop() {
+            stopped = true;
+            if (session != null && session.isConnected()) {
+                session.disconnect();
+            }
+        }
+    }
+}
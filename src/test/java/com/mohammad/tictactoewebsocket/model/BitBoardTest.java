@@ -0,0 +1,167 @@
+package com.mohammad.tictactoewebsocket.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BitBoard} class.
+ * <p>
+ * Verifies placing marks, win detection on every winning line, full board detection,
+ * and the conversion to and from the string view used by the messages, on the classic board and on larger
+ * variants whose lines span several bitset words.
+ * </p>
+ */
+public class BitBoardTest {
+
+    /**
+     * Tests that a mark cannot be placed on a taken cell or outside the board.
+     */
+    @Test
+    void testPlaceRejectsTakenAndInvalidCells() {
+        BitBoard board = new BitBoard();
+
+        assertTrue(board.place(4, true));
+        assertFalse(board.place(4, false));
+        assertFalse(board.place(-1, true));
+        assertFalse(board.place(9, true));
+        assertEquals(1, board.getMoveCount());
+    }
+
+    /**
+     * Tests that each of the eight winning lines is detected for the player who owns it only.
+     */
+    @Test
+    void testEveryWinningLineIsDetected() {
+        for (int line : BitBoard.WIN_MASKS) {
+            BitBoard board = new BitBoard();
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                if ((line & (1 << cell)) != 0) {
+                    board.place(cell, false);
+                }
+            }
+            assertTrue(board.hasWon(false));
+            assertFalse(board.hasWon(true));
+        }
+    }
+
+    /**
+     * Tests that a drawn game fills the board without a winner.
+     */
+    @Test
+    void testDrawFillsBoardWithoutWinner() {
+        BitBoard board = new BitBoard();
+        int[] moves = {4, 0, 2, 6, 3, 5, 1, 7, 8};
+        for (int i = 0; i < moves.length; i++) {
+            assertFalse(board.isFull());
+            board.place(moves[i], i % 2 == 0);
+        }
+
+        assertTrue(board.isFull());
+        assertFalse(board.hasWon(true));
+        assertFalse(board.hasWon(false));
+        assertEquals(9, board.getMoveCount());
+    }
+
+    /**
+     * Tests that the string view round-trips through {@link BitBoard#fromArray(String[][])}.
+     */
+    @Test
+    void testArrayViewRoundTrip() {
+        String[][] view = {
+                {"X", " ", "O"},
+                {" ", "X", " "},
+                {"O", " ", " "}
+        };
+
+        BitBoard board = BitBoard.fromArray(view);
+
+        assertArrayEquals(view, board.toArray());
+        assertEquals(4, board.getMoveCount());
+    }
+
+    /**
+     * Tests that five in a row wins on a 15x15 board in every direction, wherever the move completing it is.
+     */
+    @Test
+    void testFiveInARowWinsInEveryDirection() {
+        BoardVariant variant = new BoardVariant(15, 5);
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int[] direction : directions) {
+            for (int last = 0; last < 5; last++) {
+                BitBoard board = new BitBoard(variant);
+                int[] line = new int[5];
+                for (int i = 0; i < 5; i++) {
+                    line[i] = (6 + i * direction[0]) * 15 + (7 + i * direction[1]);
+                }
+                for (int i = 0; i < 5; i++) {
+                    if (i != last) {
+                        board.place(line[i], true);
+                        assertFalse(board.isWinningMove(line[i], true));
+                    }
+                }
+                board.place(line[last], true);
+
+                assertTrue(board.isWinningMove(line[last], true));
+                assertTrue(board.hasWon(true));
+                assertFalse(board.isWinningMove(line[last], false));
+            }
+        }
+    }
+
+    /**
+     * Tests that a line does not run on from the end of one row into the start of the next.
+     */
+    @Test
+    void testLinesDoNotWrapAroundRows() {
+        BitBoard board = new BitBoard(new BoardVariant(15, 5));
+        // Last three cells of row 0 and first two of row 1 are consecutive bits, but not a line.
+        int[] cells = {12, 13, 14, 15, 16};
+        for (int cell : cells) {
+            board.place(cell, true);
+        }
+
+        for (int cell : cells) {
+            assertFalse(board.isWinningMove(cell, true));
+        }
+        assertFalse(board.hasWon(true));
+    }
+
+    /**
+     * Tests a 19x19 board across its word boundaries: placing, reading back and detecting a column in the last words.
+     */
+    @Test
+    void testLargeBoardSpansSeveralWords() {
+        BitBoard board = new BitBoard(new BoardVariant(19, 5));
+        for (int row = 14; row < 19; row++) {
+            assertTrue(board.place(row * 19 + 18, false));
+        }
+
+        assertFalse(board.place(361, true));
+        assertEquals("O", board.getCell(18 * 19 + 18));
+        assertEquals(" ", board.getCell(18 * 19 + 17));
+        assertTrue(board.isWinningMove(18 * 19 + 18, false));
+        assertEquals(19, board.toArray().length);
+        assertEquals(5, board.getMoveCount());
+        assertFalse(board.isFull());
+    }
+
+    /**
+     * Tests that a longer run than needed also wins and that one mark short does not.
+     */
+    @Test
+    void testWinLengthIsRespected() {
+        BitBoard board = new BitBoard(new BoardVariant(7, 4));
+        for (int col = 0; col < 3; col++) {
+            board.place(3 * 7 + col, true);
+        }
+        assertFalse(board.hasWon(true));
+
+        board.place(3 * 7 + 4, true);
+        board.place(3 * 7 + 5, true);
+        assertFalse(board.hasWon(true));
+
+        board.place(3 * 7 + 3, true);
+        assertTrue(board.isWinningMove(3 * 7 + 3, true));
+    }
+}
@@ -0,0 +1,79 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.model.BitBoard;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link BotPlayer} class.
+ * <p>
+ * Plays the hard bot against every possible sequence of opponent moves to check it never loses,
+ * and checks that the easier levels still only play free cells.
+ * </p>
+ */
+public class BotPlayerTest {
+
+    private final BotPlayer bot = new BotPlayer();
+
+    /**
+     * Tests that the hard bot, playing "O", never loses whatever "X" plays.
+     */
+    @Test
+    void testHardBotNeverLoses() {
+        for (int repeat = 0; repeat < 20; repeat++) {
+            assertEquals(0, playAllOpponentMoves(0, 0));
+        }
+    }
+
+    /**
+     * Tests that every level only plays free cells until the board is full.
+     */
+    @Test
+    void testEveryLevelPlaysFreeCells() {
+        for (BotDifficulty difficulty : BotDifficulty.values()) {
+            for (int game = 0; game < 200; game++) {
+                int x = 0;
+                int o = 0;
+                for (int moves = 0; moves < BitBoard.CELLS; moves++) {
+                    int cell = bot.chooseMove(x, o, difficulty);
+                    assertTrue(cell >= 0 && cell < BitBoard.CELLS);
+                    assertEquals(0, ((x | o) >> cell) & 1, "cell " + cell + " is taken");
+                    if (moves % 2 == 0) {
+                        x |= 1 << cell;
+                    } else {
+                        o |= 1 << cell;
+                    }
+                }
+                assertEquals(-1, bot.chooseMove(x, o, difficulty));
+            }
+        }
+    }
+
+    /**
+     * Lets "X" try every free cell and the bot answer each, returning the number of games "X" won.
+     */
+    private int playAllOpponentMoves(int x, int o) {
+        int losses = 0;
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            int bit = 1 << cell;
+            if (((x | o) & bit) != 0) {
+                continue;
+            }
+            int nextX = x | bit;
+            if (BitBoard.isWin(nextX)) {
+                losses++;
+                continue;
+            }
+            if (Integer.bitCount(nextX | o) == BitBoard.CELLS) {
+                continue;
+            }
+            int nextO = o | (1 << bot.chooseMove(nextX, o, BotDifficulty.HARD));
+            if (!BitBoard.isWin(nextO)) {
+                losses += playAllOpponentMoves(nextX, nextO);
+            }
+        }
+        return losses;
+    }
+}
@@ -0,0 +1,134 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link DisconnectHandler} class.
+ * <p>
+ * The clock is moved by hand. Verifies that a closed session leads to a departure only after the grace period,
+ * that a player who reconnects in time keeps their game, that a guest paired in batch mode leaves the game they
+ * were paired into and that sessions without a game are ignored.
+ * </p>
+ */
+public class DisconnectHandlerTest {
+
+    private static final long GRACE_MILLIS = 5_000;
+    private static final long TICK_MILLIS = 100;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private TicTacToeService gameService;
+    private SimpMessagingTemplate messagingTemplate;
+    private PlayerSessionRegistry sessionRegistry;
+    private DisconnectHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        gameService = mock(TicTacToeService.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        sessionRegistry = new PlayerSessionRegistry();
+        handler = new DisconnectHandler(gameService, sessionRegistry, messagingTemplate, GRACE_MILLIS, TICK_MILLIS, now::get);
+    }
+
+    /**
+     * Tests that the player leaves their game once the grace period has passed, and not before.
+     */
+    @Test
+    void testPlayerLeavesAfterGracePeriod() {
+        sessionRegistry.register("alice", "s1", "g1");
+
+        handler.sessionClosed("s1");
+        assertNull(sessionRegistry.getSessionId("alice"));
+        verify(gameService).stopSpectating("s1");
+
+        now.addAndGet(GRACE_MILLIS - TICK_MILLIS);
+        handler.expireGracePeriods();
+        verify(gameService, never()).playerDisconnected(anyString(), anyString(), any());
+
+        now.addAndGet(2 * TICK_MILLIS);
+        handler.expireGracePeriods();
+        verify(gameService).playerDisconnected("alice", "g1", messagingTemplate);
+        assertEquals(0, sessionRegistry.getSessionCount());
+    }
+
+    /**
+     * Tests that a player who connects again from a new session within the grace period keeps the game.
+     */
+    @Test
+    void testReconnectWithinGracePeriodKeepsGame() {
+        sessionRegistry.register("alice", "s1", "g1");
+        handler.sessionClosed("s1");
+
+        sessionRegistry.register("alice", "s2", "g1");
+        now.addAndGet(2 * GRACE_MILLIS);
+        handler.expireGracePeriods();
+
+        verify(gameService, never()).playerDisconnected(anyString(), anyString(), any());
+        assertEquals("s2", sessionRegistry.getSessionId("alice"));
+    }
+
+    /**
+     * Tests that an old session closing after the player moved to a new one leaves the new one registered.
+     */
+    @Test
+    void testLateCloseOfOldSessionKeepsNewSession() {
+        sessionRegistry.register("alice", "s1", "g1");
+        sessionRegistry.register("alice", "s2", "g1");
+
+        handler.sessionClosed("s1");
+        now.addAndGet(2 * GRACE_MILLIS);
+        handler.expireGracePeriods();
+
+        assertEquals("s2", sessionRegistry.getSessionId("alice"));
+        verify(gameService, never()).playerDisconnected(anyString(), anyString(), any());
+    }
+
+    /**
+     * Tests that a guest paired in batch mode leaves the host game when their session closes, not the waiting game
+     * they gave up.
+     */
+    @Test
+    void testBatchPairedGuestLeavesHostGame() {
+        TicTacToeService realService = ServiceFixtures.service(
+                ServiceFixtures.manager().matchmaker(new Matchmaker(true)).build()).build();
+        MatchmakingScheduler scheduler = new MatchmakingScheduler(realService, messagingTemplate, sessionRegistry);
+        DisconnectHandler immediate = new DisconnectHandler(realService, sessionRegistry, messagingTemplate, 0,
+                TICK_MILLIS, now::get);
+        TicTacToe host = realService.startGame("alice");
+        sessionRegistry.register("alice", "s1", host.getGameId());
+        sessionRegistry.register("bob", "s2", realService.startGame("bob").getGameId());
+
+        scheduler.pairWaitingPlayers();
+        immediate.sessionClosed("s2");
+
+        assertEquals("bob", host.getPlayer2());
+        assertTrue(host.isSavedForLater());
+    }
+
+    /**
+     * Tests that without a grace period the departure is applied at once, and that spectator-only sessions
+     * do not lead to a departure.
+     */
+    @Test
+    void testNoGracePeriodLeavesAtOnce() {
+        DisconnectHandler immediate = new DisconnectHandler(gameService, sessionRegistry, messagingTemplate, 0, TICK_MILLIS, now::get);
+        sessionRegistry.register("alice", "s1", "g1");
+
+        immediate.sessionClosed("s1");
+        immediate.sessionClosed("spectator");
+
+        verify(gameService).playerDisconnected("alice", "g1", messagingTemplate);
+        verify(gameService).stopSpectating("s1");
+        verify(gameService).stopSpectating("spectator");
+        verifyNoMoreInteractions(gameService);
+    }
+}
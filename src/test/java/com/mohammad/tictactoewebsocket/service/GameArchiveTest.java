@@ -0,0 +1,162 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GameArchive} class.
+ * <p>
+ * Each test archives into its own temporary directory and appends on the calling thread. Verifies that records
+ * read back as they were written, that replays rebuild the final board, that page queries return the newest games
+ * first and that the index is rebuilt from the segment files after a restart.
+ * </p>
+ */
+public class GameArchiveTest {
+
+    private Path directory;
+    private GameArchive archive;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("game-archive");
+        archive = new GameArchive(directory, 4096, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        archive.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Tests that a finished classic game reads back unchanged and replays to the same board and result.
+     */
+    @Test
+    void testFinishedGameReadsBackAndReplays() {
+        TicTacToe game = new TicTacToe("alice", "bob");
+        game.setGameState(GameState.PLAYER1_TURN);
+        for (int move : new int[] {4, 0, 2, 6, 3, 5, 7, 1, 8}) {
+            game.makeMove(game.getTurn(), move);
+        }
+        assertTrue(game.isGameOver());
+
+        archive.onGameFinished(GameRecord.of(game, false, game.getCreatedAt() + 42_000));
+        GameRecord record = archive.get(game.getGameId());
+
+        assertNotNull(record);
+        assertEquals("alice", record.player1());
+        assertEquals("bob", record.player2());
+        assertEquals(game.getGameState(), record.result());
+        assertEquals(game.getCreatedAt(), record.createdAt());
+        assertArrayEquals(new int[] {4, 0, 2, 6, 3, 5, 7, 1, 8}, record.moves());
+        assertFalse(record.forfeited());
+
+        List<String> states = new ArrayList<>();
+        TicTacToe replayed = record.replay(g -> states.add(g.getGameState().name()));
+        assertEquals(10, states.size());
+        assertArrayEquals(game.getBoard(), replayed.getBoard());
+        assertEquals(game.getGameState(), replayed.getGameState());
+        assertEquals(game.getWinner(), replayed.getWinner());
+        assertNull(archive.get("unknown"));
+    }
+
+    /**
+     * Tests that forfeits, bot games and large boards keep their details.
+     */
+    @Test
+    void testForfeitOnLargeBoardAgainstBot() {
+        TicTacToe game = new TicTacToe("carol", BotPlayer.NAME, new BoardVariant(15, 5));
+        game.setBotDifficulty(BotDifficulty.MEDIUM);
+        game.setGameState(GameState.PLAYER1_TURN);
+        game.makeMove("carol", 224);
+        game.makeMove(BotPlayer.NAME, 0);
+        game.makeMove("carol", 112);
+        game.setWinner(BotPlayer.NAME);
+        game.setGameState(GameState.PLAYER2_WON);
+
+        archive.append(GameRecord.of(game, true, game.getCreatedAt()));
+        GameRecord record = archive.get(game.getGameId());
+
+        assertEquals(15, record.size());
+        assertEquals(5, record.winLength());
+        assertEquals(BotDifficulty.MEDIUM, record.botDifficulty());
+        assertTrue(record.forfeited());
+        assertEquals(BotPlayer.NAME, record.winner());
+        assertEquals("carol", record.loser());
+        assertArrayEquals(new int[] {224, 0, 112}, record.moves());
+
+        TicTacToe replayed = record.replay(null);
+        assertEquals(GameState.PLAYER2_WON, replayed.getGameState());
+        assertEquals("X", replayed.getMark(112));
+    }
+
+    /**
+     * Tests that queries by player and time range return pages of the newest games first.
+     */
+    @Test
+    void testQueriesArePagedNewestFirst() {
+        for (int i = 0; i < 10; i++) {
+            archive.append(record("g" + i, i % 2 == 0 ? "alice" : "bob", "carol", 1_000 + i));
+        }
+
+        assertEquals(List.of("g9", "g8", "g7"), ids(archive.query(null, 0, Long.MAX_VALUE, 0, 3)));
+        assertEquals(List.of("g0"), ids(archive.query(null, 0, Long.MAX_VALUE, 3, 3)));
+        assertEquals(List.of("g8", "g6"), ids(archive.query("alice", 0, Long.MAX_VALUE, 0, 2)));
+        assertEquals(List.of("g4", "g2"), ids(archive.query("alice", 0, Long.MAX_VALUE, 1, 2)));
+        assertEquals(List.of("g5", "g4", "g3"), ids(archive.query("carol", 1_003, 1_006, 0, 10)));
+        assertEquals(List.of("g5", "g3"), ids(archive.query("bob", 1_002, 1_006, 0, 10)));
+        assertTrue(archive.query("dave", 0, Long.MAX_VALUE, 0, 10).isEmpty());
+        assertTrue(archive.query(null, 0, Long.MAX_VALUE, 4, 3).isEmpty());
+    }
+
+    /**
+     * Tests that records spread over several segments are all found again after a restart,
+     * and that the restarted archive keeps appending.
+     */
+    @Test
+    void testIndexIsRebuiltAfterRestart() {
+        for (int i = 0; i < 200; i++) {
+            archive.append(record("game-" + i, "player-" + (i % 7), "player-" + (i % 5 + 7), 5_000 + i));
+        }
+        archive.close();
+
+        archive = new GameArchive(directory, 4096, Runnable::run);
+        assertEquals(200, archive.size());
+        assertEquals("player-3", archive.get("game-150").player1());
+        assertEquals(List.of("game-199"), ids(archive.query(null, 0, Long.MAX_VALUE, 0, 1)));
+
+        archive.append(record("game-200", "player-0", "player-7", 6_000));
+        assertEquals(201, archive.size());
+        assertEquals(List.of("game-200", "game-196"), ids(archive.query("player-0", 0, Long.MAX_VALUE, 0, 2)));
+        assertEquals(0, archive.getDroppedCount());
+    }
+
+    private static GameRecord record(String gameId, String player1, String player2, long finishedAt) {
+        return new GameRecord(gameId, player1, player2, 3, 3, null, GameState.TIE, false, finishedAt - 1_000,
+                finishedAt, new int[] {4, 0, 2, 6, 3, 5, 7, 1, 8});
+    }
+
+    private static List<String> ids(List<GameRecord> records) {
+        return records.stream().map(GameRecord::gameId).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameCategory;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Soak test for idle-game eviction.
+ * <p>
+ * Keeps creating games that are abandoned while waiting, saved for later after an early leave, left mid-game
+ * or finished, with time-to-live values of a few seconds, while the reaper runs as it does in the application.
+ * Pairs arrive at a fixed rate, so the number of live games only depends on that rate and the time-to-live.
+ * The used heap after a full GC is sampled throughout; it must stay flat once the first games start expiring.
+ * </p>
+ * <p>
+ * Disabled unless the {@code soak.minutes} system property is set, e.g.
+ * {@code mvn test -Dtest=GameEvictionSoakTest -Dsoak.minutes=180}.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "soak.minutes", matches = "\\d+")
+public class GameEvictionSoakTest {
+
+    private static final long TTL_MILLIS = 2_000;
+    private static final long TICK_MILLIS = 100;
+    private static final long SAMPLE_MILLIS = 10_000;
+    private static final int PAIRS_PER_SECOND = 5_000;
+
+    /**
+     * Churns games for {@code soak.minutes} minutes and checks that the held games and the heap stay bounded.
+     */
+    @Test
+    void testHeapStaysFlatUnderChurn() throws Exception {
+        long minutes = Long.getLong("soak.minutes");
+        GameEvictionPolicy policy = new GameEvictionPolicy(TTL_MILLIS, TTL_MILLIS, TTL_MILLIS, TTL_MILLIS, TICK_MILLIS);
+        GameExecutor executor = new GameExecutor(4);
+        TicTacToeManager manager = ServiceFixtures.manager().evictionPolicy(policy).gameExecutor(executor).build();
+        TicTacToeService service = ServiceFixtures.service(manager).gameExecutor(executor).build();
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> true);
+
+        List<Long> heapSamples = new ArrayList<>();
+        int maxGames = 0;
+        long end = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(minutes);
+        long nextSweep = 0;
+        long nextSample = System.currentTimeMillis() + SAMPLE_MILLIS;
+        long start = System.currentTimeMillis();
+        long player = 0;
+        try {
+            while (System.currentTimeMillis() < end) {
+                churn(service, messagingTemplate, player);
+                player += 2;
+
+                long now = System.currentTimeMillis();
+                long ahead = start + player / 2 * 1_000 / PAIRS_PER_SECOND - now;
+                if (ahead > 0) {
+                    Thread.sleep(ahead);
+                }
+                if (now >= nextSweep) {
+                    service.evictIdleGames();
+                    nextSweep = now + TICK_MILLIS;
+                }
+                if (now >= nextSample) {
+                    heapSamples.add(usedHeapAfterGc());
+                    maxGames = Math.max(maxGames, manager.getGameCount());
+                    nextSample = now + SAMPLE_MILLIS;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Map<GameCategory, Long> evictions = service.getEvictionCounts();
+        System.out.printf("players=%d maxGames=%d evictions=%s heapSamples=%s%n", player, maxGames, evictions, heapSamples);
+
+        assertTrue(evictions.values().stream().mapToLong(Long::longValue).sum() > 0);
+        assertTrue(heapSamples.size() >= 4, "run too short to compare heap samples");
+        // Compare the second quarter (after the first games expired) with the last quarter.
+        int quarter = heapSamples.size() / 4;
+        double early = average(heapSamples.subList(quarter, 2 * quarter));
+        double late = average(heapSamples.subList(heapSamples.size() - quarter, heapSamples.size()));
+        assertTrue(late < early * 1.25 + 8 * 1024 * 1024, "heap grew from " + early + " to " + late);
+    }
+
+    /**
+     * Plays out one pair of players along a randomly chosen path.
+     */
+    private static void churn(TicTacToeService service, SimpMessagingTemplate messagingTemplate, long id) {
+        String first = "soak-" + id;
+        String second = "soak-" + (id + 1);
+        TicTacToe game = service.startGame(first);
+        switch (ThreadLocalRandom.current().nextInt(4)) {
+            case 0 -> {
+                // Abandoned while waiting for an opponent.
+            }
+            case 1 -> {
+                service.startGame(second);
+                service.makeMove(first, game.getGameId(), 0, messagingTemplate);
+                service.handleEarlyLeave(second, messagingTemplate);
+            }
+            case 2 -> {
+                service.startGame(second);
+                service.makeMove(first, game.getGameId(), 0, messagingTemplate);
+                service.makeMove(second, game.getGameId(), 4, messagingTemplate);
+            }
+            default -> {
+                service.startGame(second);
+                int[] moves = {0, 3, 1, 4, 2};
+                for (int i = 0; i < moves.length; i++) {
+                    service.makeMove(i % 2 == 0 ? first : second, game.getGameId(), moves[i], messagingTemplate);
+                }
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double average(List<Long> samples) {
+        return samples.stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+}
@@ -0,0 +1,164 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GameExecutor} class.
+ * <p>
+ * Verifies that the commands of one game run in order and never overlap, that different games
+ * run in parallel, that failing commands are logged, and that idle mailboxes are dropped.
+ * </p>
+ */
+public class GameExecutorTest {
+
+    private GameExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new GameExecutor(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Tests that commands submitted from many threads for one game never overlap and all run.
+     */
+    @Test
+    void testCommandsOfOneGameNeverOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        AtomicInteger ran = new AtomicInteger();
+        ExecutorService submitters = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        List<Future<List<CompletableFuture<Void>>>> batches = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            batches.add(submitters.submit(() -> {
+                List<CompletableFuture<Void>> submitted = new ArrayList<>();
+                for (int i = 0; i < 1_000; i++) {
+                    submitted.add(executor.execute("game", () -> {
+                        if (running.incrementAndGet() > 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        ran.incrementAndGet();
+                        running.decrementAndGet();
+                    }));
+                }
+                return submitted;
+            }));
+        }
+        for (Future<List<CompletableFuture<Void>>> batch : batches) {
+            futures.addAll(batch.get(10, TimeUnit.SECONDS));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        submitters.shutdown();
+
+        assertEquals(0, overlaps.get());
+        assertEquals(8_000, ran.get());
+    }
+
+    /**
+     * Tests that commands of one game run in the order they were submitted.
+     */
+    @Test
+    void testCommandsRunInSubmissionOrder() throws Exception {
+        List<Integer> order = new ArrayList<>();
+        CompletableFuture<Void> last = null;
+        for (int i = 0; i < 500; i++) {
+            int value = i;
+            last = executor.execute("game", () -> order.add(value));
+        }
+        last.get(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, order.get(i).intValue());
+        }
+    }
+
+    /**
+     * Tests that a command blocked in one game does not hold up another game.
+     */
+    @Test
+    void testGamesRunIndependently() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocked = executor.execute("slow", () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        executor.execute("fast", () -> { }).get(10, TimeUnit.SECONDS);
+
+        assertFalse(blocked.isDone());
+        release.countDown();
+        blocked.get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Tests that a failing command completes its future exceptionally, is logged with its game ID, and that the
+     * next command still runs.
+     */
+    @Test
+    void testFailingCommandDoesNotStallMailbox() throws Exception {
+        Logger logger = (Logger) LoggerFactory.getLogger(GameExecutor.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            CompletableFuture<Void> failed = executor.execute("game", () -> {
+                throw new IllegalStateException("boom");
+            });
+            CompletableFuture<Void> next = executor.execute("game", () -> { });
+
+            next.get(10, TimeUnit.SECONDS);
+            assertTrue(failed.isCompletedExceptionally());
+            List<ILoggingEvent> logged = new ArrayList<>(appender.list);
+            assertEquals(1, logged.size());
+            assertEquals(Level.ERROR, logged.get(0).getLevel());
+            assertEquals("Command for game game failed", logged.get(0).getFormattedMessage());
+            assertEquals("boom", logged.get(0).getThrowableProxy().getMessage());
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
+    /**
+     * Tests that mailboxes are removed once their game has no pending commands.
+     */
+    @Test
+    void testIdleMailboxesAreRemoved() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            executor.execute("game-" + i, () -> { }).get(10, TimeUnit.SECONDS);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (executor.getActiveMailboxCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, executor.getActiveMailboxCount());
+    }
+}
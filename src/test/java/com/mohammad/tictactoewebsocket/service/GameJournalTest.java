@@ -0,0 +1,270 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.enumeration.JournalDurability;
+import com.mohammad.tictactoewebsocket.model.JournalEntry;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GameJournal} class.
+ * <p>
+ * Each test writes a journal into its own temporary directory and reads it back through a second journal, as a
+ * restarted application would. Verifies that every kind of entry survives the round trip, that a torn record ends
+ * the replay, that segments roll and are compacted, that {@code SYNC} appends return once their group commit is on
+ * disk, that a failed group commit is written again under the same sequence numbers and that the games changed
+ * after a snapshot come back after a crash.
+ * </p>
+ */
+public class GameJournalTest {
+
+    private static final int SEGMENT_BYTES = 1 << 20;
+
+    private Path directory;
+    private Path journalDirectory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("game-journal");
+        journalDirectory = directory.resolve("journal");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Tests that every kind of entry is read back as it was appended, and that a reopened journal numbers new
+     * entries after the old ones.
+     */
+    @Test
+    void testEntriesAreReadBack() {
+        List<JournalEntry> entries = List.of(
+                new JournalEntry.Created("g1", "alice", null, 3, 3, null, GameState.WAITING_FOR_PLAYER, 1234L),
+                new JournalEntry.Created("g2", "bob", BotPlayer.NAME, 15, 5, BotDifficulty.HARD,
+                        GameState.PLAYER1_TURN, 5678L),
+                new JournalEntry.Seated("g1", "carol"),
+                new JournalEntry.Moved("g2", 0, 224),
+                new JournalEntry.Forfeited("g1", "carol"),
+                new JournalEntry.Saved("g2"),
+                new JournalEntry.Removed("g1"));
+        GameJournal journal = new GameJournal(journalDirectory, SEGMENT_BYTES, JournalDurability.GROUP);
+        entries.forEach(journal::append);
+        journal.close();
+
+        GameJournal reopened = new GameJournal(journalDirectory, SEGMENT_BYTES, JournalDurability.GROUP);
+        assertEquals(entries.size(), reopened.getNextSequence());
+        assertEquals(entries, replay(reopened, 0));
+        assertEquals(entries.subList(3, entries.size()), replay(reopened, 3));
+        reopened.close();
+    }
+
+    /**
+     * Tests that a record cut short by a crash ends the replay, and that the entries appended after the restart
+     * follow the last complete one.
+     */
+    @Test
+    void testTornRecordEndsTheReplay() throws IOException {
+        GameJournal journal = new GameJournal(journalDirectory, SEGMENT_BYTES, JournalDurability.GROUP);
+        for (int ply = 0; ply < 3; ply++) {
+            journal.append(new JournalEntry.Moved("g1", ply, ply));
+        }
+        journal.close();
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        GameJournal reopened = new GameJournal(journalDirectory, SEGMENT_BYTES, JournalDurability.GROUP);
+        assertEquals(2, reopened.getNextSequence());
+        reopened.append(new JournalEntry.Moved("g1", 2, 8));
+        reopened.close();
+
+        List<JournalEntry> replayed = replay(new GameJournal(journalDirectory, SEGMENT_BYTES,
+                JournalDurability.GROUP), 0);
+        assertEquals(List.of(new JournalEntry.Moved("g1", 0, 0), new JournalEntry.Moved("g1", 1, 1),
+                new JournalEntry.Moved("g1", 2, 8)), replayed);
+    }
+
+    /**
+     * Tests that full segments are rolled, and that compaction only deletes segments entirely before the position.
+     */
+    @Test
+    void testSegmentsRollAndAreCompacted() throws IOException {
+        GameJournal journal = new GameJournal(journalDirectory, 64, JournalDurability.ASYNC);
+        for (int ply = 0; ply < 20; ply++) {
+            journal.append(new JournalEntry.Moved("game", ply, ply % 9));
+        }
+        int segments = journal.getSegmentCount();
+        assertTrue(segments > 5);
+
+        assertTrue(journal.compact(10) > 0);
+        assertTrue(journal.getSegmentCount() < segments);
+        List<JournalEntry> replayed = replay(journal, 10);
+        assertEquals(10, replayed.size());
+        assertEquals(new JournalEntry.Moved("game", 10, 1), replayed.get(0));
+
+        journal.compact(Long.MAX_VALUE);
+        assertEquals(1, journal.getSegmentCount());
+        assertEquals(1, segments().size());
+        journal.close();
+        assertEquals(20, new GameJournal(journalDirectory, 64, JournalDurability.ASYNC).getNextSequence());
+    }
+
+    /**
+     * Tests that {@code SYNC} appends from several threads all return once their records are forced to disk,
+     * sharing the forces of the group commits.
+     */
+    @Test
+    void testSyncAppendsWaitForTheGroupCommit() throws Exception {
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService players = Executors.newFixedThreadPool(4);
+        GameJournal journal = new GameJournal(journalDirectory, SEGMENT_BYTES, JournalDurability.SYNC, flusher, 1);
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                String gameId = "game-" + thread;
+                appends.add(players.submit(() -> {
+                    for (int ply = 0; ply < 50; ply++) {
+                        journal.append(new JournalEntry.Moved(gameId, ply, ply % 9));
+                    }
+                }));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+            assertEquals(200, journal.getAppendedCount());
+            assertTrue(journal.getSyncCount() > 0);
+            assertTrue(journal.getSyncCount() <= 200);
+        } finally {
+            players.shutdown();
+            flusher.shutdown();
+        }
+        journal.close();
+        assertEquals(200, replay(new GameJournal(journalDirectory, SEGMENT_BYTES, JournalDurability.SYNC), 0).size());
+    }
+
+    /**
+     * Tests that a group commit that fails is written again by the next one, that {@code SYNC} appends succeed
+     * again once it has been, and that the records keep their sequence numbers on replay.
+     */
+    @Test
+    void testFailedFlushIsRetriedWithItsNumbering() throws IOException {
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        GameJournal journal = new GameJournal(journalDirectory, 1, JournalDurability.SYNC, flusher, 1);
+        JournalEntry first = new JournalEntry.Moved("game", 0, 4);
+        JournalEntry second = new JournalEntry.Moved("game", 1, 0);
+        JournalEntry third = new JournalEntry.Moved("game", 2, 8);
+        try {
+            journal.append(first);
+            // Every commit starts a segment, which fails while the directory is gone
+            Path moved = directory.resolve("moved");
+            Files.move(journalDirectory, moved);
+            assertThrows(IllegalStateException.class, () -> journal.append(second));
+            Files.move(moved, journalDirectory);
+            journal.flush();
+            journal.append(third);
+        } finally {
+            flusher.shutdown();
+        }
+        journal.close();
+
+        GameJournal reopened = new GameJournal(journalDirectory, 1, JournalDurability.SYNC);
+        assertEquals(3, reopened.getNextSequence());
+        assertEquals(List.of(first, second, third), replay(reopened, 0));
+        assertEquals(List.of(second, third), replay(reopened, 1));
+        assertEquals(List.of(third), replay(reopened, 2));
+    }
+
+    /**
+     * Tests that the games changed after the last snapshot come back after a crash, from the snapshot and the
+     * journal entries written after it, and that the segments before the snapshot are compacted.
+     */
+    @Test
+    void testCrashRecoveryReplaysOntoTheSnapshot() {
+        Path file = directory.resolve("games.snap");
+        GameJournal journal = new GameJournal(journalDirectory, 256, JournalDurability.GROUP);
+        TicTacToeManager manager = ServiceFixtures.manager().journal(journal).build();
+        GameSnapshotter snapshotter = new GameSnapshotter(manager, new GameExecutor(), journal, file, false);
+
+        TicTacToe before = manager.startGame("alice");
+        manager.startGame("bob");
+        play(manager, before, 4);
+        TicTacToe removed = manager.startBotGame("erin", BotDifficulty.EASY);
+        for (int i = 0; i < 10; i++) {
+            manager.startBotGame("filler-" + i, BotDifficulty.EASY);
+        }
+        snapshotter.snapshot();
+        assertEquals(1, journal.getSegmentCount());
+
+        // After the snapshot: moves, a new waiting game, a game left and a forfeit
+        play(manager, before, 0);
+        play(manager, before, 8);
+        TicTacToe waiting = manager.startGame("carol");
+        manager.leaveGame("erin");
+        TicTacToe forfeited = manager.startBotGame("dave", BotDifficulty.MEDIUM);
+        play(manager, forfeited, 0);
+        manager.setWinnerByPlayerLeft("dave");
+
+        // Crash: neither a snapshot nor a close, only what the journal has on disk
+        GameJournal reopened = new GameJournal(journalDirectory, 256, JournalDurability.GROUP);
+        TicTacToeManager recovered = ServiceFixtures.manager().journal(reopened).build();
+        assertTrue(new GameSnapshotter(recovered, new GameExecutor(), reopened, file, false).recover() > 0);
+        assertEquals(journal.getNextSequence(), reopened.getNextSequence());
+
+        assertEquals(manager.getGameCount(), recovered.getGameCount());
+        assertNull(recovered.getGame(removed.getGameId()));
+        for (TicTacToe original : new TicTacToe[] {before, waiting, forfeited}) {
+            TicTacToe copy = recovered.getGame(original.getGameId());
+            assertNotNull(copy);
+            assertEquals(original.getPlayer2(), copy.getPlayer2());
+            assertEquals(original.getTurn(), copy.getTurn());
+            assertEquals(original.getWinner(), copy.getWinner());
+            assertEquals(original.getGameState(), copy.getGameState());
+            assertArrayEquals(original.getMoves(), copy.getMoves());
+        }
+        assertTrue(recovered.isWaiting(recovered.getGame(waiting.getGameId())));
+        assertSame(recovered.getGame(waiting.getGameId()), recovered.startGame("frank"));
+    }
+
+    private static void play(TicTacToeManager manager, TicTacToe game, int cell) {
+        game.makeMove(game.getTurn(), cell);
+        manager.moveMade(game, cell);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static List<JournalEntry> replay(GameJournal journal, long fromSequence) {
+        List<JournalEntry> entries = new ArrayList<>();
+        journal.replay(fromSequence, entries::add);
+        return entries;
+    }
+}
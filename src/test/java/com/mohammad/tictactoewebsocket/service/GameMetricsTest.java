@@ -0,0 +1,68 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameCategory;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the {@link GameMetrics} class.
+ * <p>
+ * Drives a real {@link TicTacToeManager} and {@link TicTacToeService} and reads the meters back from a
+ * {@link SimpleMeterRegistry}.
+ * </p>
+ */
+public class GameMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private TicTacToeManager manager;
+    private TicTacToeService service;
+    private SimpMessagingTemplate messagingTemplate;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        manager = ServiceFixtures.manager().build();
+        GameMetrics metrics = new GameMetrics(registry, manager, Map.of());
+        service = ServiceFixtures.service(manager).metrics(metrics).build();
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+    }
+
+    /**
+     * Tests that the state gauges count the live games by state.
+     */
+    @Test
+    void testGamesGaugeByState() {
+        service.startGame("player1");
+        service.startGame("player2");
+        service.startGame("player3");
+
+        assertEquals(1.0, registry.get("tictactoe.games").tag("state", GameState.PLAYER1_TURN.name()).gauge().value());
+        assertEquals(1.0, registry.get("tictactoe.games").tag("state", GameState.WAITING_FOR_PLAYER.name()).gauge().value());
+        assertEquals(0.0, registry.get("tictactoe.games").tag("state", GameState.TIE.name()).gauge().value());
+    }
+
+    /**
+     * Tests that moves, pairings and saved games are recorded.
+     */
+    @Test
+    void testMoveWaitAndSavedGameAreRecorded() {
+        service.startGame("player1");
+        String gameId = service.startGame("player2").getGameId();
+        service.makeMove("player1", gameId, 4, messagingTemplate);
+        service.handleEarlyLeave("player2", messagingTemplate);
+
+        assertEquals(1, registry.get("tictactoe.move.latency").timer().count());
+        assertEquals(2, registry.get("tictactoe.matchmaking.wait").timer().count());
+        assertEquals(1.0, registry.get("tictactoe.games.saved").counter().count());
+        assertEquals(0.0, registry.get("tictactoe.games.evicted").tag("category", GameCategory.SAVED.name())
+                .functionCounter().count());
+    }
+}
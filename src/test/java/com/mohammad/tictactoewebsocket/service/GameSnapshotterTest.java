@@ -0,0 +1,181 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GameSnapshotter} class.
+ * <p>
+ * Each test snapshots a manager into its own temporary directory and restores the file into a fresh manager.
+ * Verifies that games come back with their board, history, state and indexes, that waiting players can still be
+ * paired, that snapshots spanning several chunks restore every game and that foreign files are ignored.
+ * </p>
+ */
+public class GameSnapshotterTest {
+
+    private Path directory;
+    private Path file;
+    private TicTacToeManager manager;
+    private GameSnapshotter snapshotter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("game-snapshot");
+        file = directory.resolve("games.snap");
+        manager = ServiceFixtures.manager().build();
+        snapshotter = new GameSnapshotter(manager, new GameExecutor(), file);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Tests that games in every kind of state come back unchanged, with the same player index.
+     */
+    @Test
+    void testGamesAreRestoredWithTheirState() {
+        TicTacToe playing = manager.startGame("alice");
+        manager.startGame("bob");
+        playing.makeMove("alice", 4);
+        playing.makeMove("bob", 0);
+        playing.makeMove("alice", 8);
+
+        TicTacToe botGame = manager.startBotGame("carol", BotDifficulty.HARD);
+        botGame.makeMove("carol", 0);
+        botGame.makeMove(BotPlayer.NAME, 4);
+
+        TicTacToe large = manager.startPairedGames(List.of("dave"), List.of("erin"), new BoardVariant(15, 5)).get(0);
+        large.makeMove("dave", 224);
+        large.makeMove("erin", 112);
+        manager.setWinnerByPlayerLeft("dave");
+        large.setSavedForLater(true);
+
+        TicTacToe edited = manager.startPairedGames(List.of("frank"), List.of("grace"), BoardVariant.CLASSIC).get(0);
+        edited.setBoard(new String[][] {{"X", "O", " "}, {" ", "X", " "}, {" ", " ", " "}});
+        edited.setGameState(GameState.PLAYER2_TURN);
+        edited.setTurn("grace");
+
+        assertEquals(4, snapshotter.snapshot());
+
+        TicTacToeManager restored = restoreInto();
+        assertEquals(4, restored.getGameCount());
+        for (TicTacToe original : new TicTacToe[] {playing, botGame, large, edited}) {
+            TicTacToe copy = restored.getGame(original.getGameId());
+            assertNotNull(copy);
+            assertEquals(original.getPlayer1(), copy.getPlayer1());
+            assertEquals(original.getPlayer2(), copy.getPlayer2());
+            assertEquals(original.getTurn(), copy.getTurn());
+            assertEquals(original.getWinner(), copy.getWinner());
+            assertEquals(original.getGameState(), copy.getGameState());
+            assertEquals(original.getVariant(), copy.getVariant());
+            assertEquals(original.getBotDifficulty(), copy.getBotDifficulty());
+            assertEquals(original.isSavedForLater(), copy.isSavedForLater());
+            assertEquals(original.getCreatedAt(), copy.getCreatedAt());
+            assertEquals(original.getLastActivity(), copy.getLastActivity());
+            assertArrayEquals(original.getBoard(), copy.getBoard());
+            assertArrayEquals(original.getMoves(), copy.getMoves());
+        }
+        assertSame(restored.getGame(playing.getGameId()), restored.getGameByPlayer("bob"));
+        assertSame(restored.getGame(botGame.getGameId()), restored.getGameByPlayer("carol"));
+        assertNull(restored.getGameByPlayer(BotPlayer.NAME));
+        assertEquals("erin", restored.getGameByPlayer("dave").getWinner());
+    }
+
+    /**
+     * Tests that a player waiting for an opponent is still queued after a restore.
+     */
+    @Test
+    void testWaitingPlayerIsQueuedAgain() {
+        TicTacToe waiting = manager.startGame("alice");
+        snapshotter.snapshot();
+
+        TicTacToeManager restored = restoreInto();
+        TicTacToe copy = restored.getGame(waiting.getGameId());
+        assertTrue(restored.isWaiting(copy));
+        assertEquals(GameState.WAITING_FOR_PLAYER, copy.getGameState());
+
+        assertSame(copy, restored.startGame("bob"));
+        assertEquals("bob", copy.getPlayer2());
+        assertSame(copy, restored.getGameByPlayer("bob"));
+    }
+
+    /**
+     * Tests that a later snapshot replaces the earlier one and leaves out the games removed in between.
+     */
+    @Test
+    void testSnapshotReplacesThePreviousOne() throws IOException {
+        TicTacToe kept = manager.startBotGame("alice", BotDifficulty.EASY);
+        manager.startBotGame("bob", BotDifficulty.EASY);
+        assertEquals(2, snapshotter.snapshot());
+
+        manager.leaveGame("bob");
+        assertEquals(1, snapshotter.snapshot());
+
+        TicTacToeManager restored = restoreInto();
+        assertEquals(1, restored.getGameCount());
+        assertNotNull(restored.getGame(kept.getGameId()));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    /**
+     * Tests that a snapshot spanning several chunks restores every game, decoded in parallel.
+     */
+    @Test
+    void testManyChunksAreRestored() {
+        int games = 3 * GameSnapshotter.GAMES_PER_CHUNK + 17;
+        for (int i = 0; i < games; i++) {
+            TicTacToe game = manager.startBotGame("player-" + i, BotDifficulty.MEDIUM);
+            game.makeMove("player-" + i, i % 9);
+        }
+        assertEquals(games, snapshotter.snapshot());
+
+        TicTacToeManager restored = restoreInto();
+        assertEquals(games, restored.getGameCount());
+        for (int i = 0; i < games; i += 101) {
+            TicTacToe copy = restored.getGameByPlayer("player-" + i);
+            assertEquals(GameState.PLAYER2_TURN, copy.getGameState());
+            assertEquals("X", copy.getMark(i % 9));
+        }
+    }
+
+    /**
+     * Tests that a missing file or one without a snapshot header restores nothing.
+     */
+    @Test
+    void testForeignFileIsIgnored() throws IOException {
+        assertEquals(0, snapshotter.restore());
+
+        Files.write(file, new byte[64]);
+        TicTacToeManager restored = ServiceFixtures.manager().build();
+        assertEquals(0, new GameSnapshotter(restored, new GameExecutor(), file).restore());
+        assertEquals(0, restored.getGameCount());
+    }
+
+    private TicTacToeManager restoreInto() {
+        TicTacToeManager restored = ServiceFixtures.manager().build();
+        new GameSnapshotter(restored, new GameExecutor(), file).restore();
+        return restored;
+    }
+}
@@ -0,0 +1,97 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import com.mohammad.tictactoewebsocket.model.dto.LeaderboardEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link Leaderboard} class.
+ * <p>
+ * Results are rated on the calling thread. Verifies the Elo updates, the order of the top players,
+ * the ranks of tied players and that games against the bot are not rated.
+ * </p>
+ */
+public class LeaderboardTest {
+
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new Leaderboard();
+    }
+
+    /**
+     * Tests that a win between two new players moves both ratings by half the K-factor.
+     */
+    @Test
+    void testWinBetweenEqualPlayers() {
+        leaderboard.onGameFinished(game("alice", "bob", GameState.PLAYER1_WON));
+
+        LeaderboardEntry alice = leaderboard.entry("alice");
+        LeaderboardEntry bob = leaderboard.entry("bob");
+        assertEquals(1216, alice.rating());
+        assertEquals(1184, bob.rating());
+        assertEquals(1, alice.rank());
+        assertEquals(2, bob.rank());
+        assertEquals(1, alice.wins());
+        assertEquals(1, bob.losses());
+        assertNull(leaderboard.entry("carol"));
+    }
+
+    /**
+     * Tests that a draw against a stronger player gains rating, that losing to a stronger player costs less, and that the top list is ordered.
+     */
+    @Test
+    void testTopPlayersAreOrdered() {
+        leaderboard.onGameFinished(game("alice", "bob", GameState.PLAYER1_WON));
+        leaderboard.onGameFinished(game("alice", "carol", GameState.PLAYER1_WON));
+        leaderboard.onGameFinished(game("dave", "alice", GameState.TIE));
+
+        LeaderboardEntry dave = leaderboard.entry("dave");
+        assertTrue(dave.rating() > 1200);
+        assertEquals(1, dave.draws());
+
+        List<LeaderboardEntry> top = leaderboard.top(10);
+        assertEquals(List.of("alice", "dave", "carol", "bob"), top.stream().map(LeaderboardEntry::player).toList());
+        assertEquals(List.of("alice", "dave"), leaderboard.top(2).stream().map(LeaderboardEntry::player).toList());
+        assertEquals(4, leaderboard.getPlayerCount());
+        assertEquals(3, leaderboard.getRatedGameCount());
+    }
+
+    /**
+     * Tests that players with the same rating share a rank and the next player is ranked after both.
+     */
+    @Test
+    void testTiedPlayersShareRank() {
+        leaderboard.onGameFinished(game("alice", "bob", GameState.PLAYER1_WON));
+        leaderboard.onGameFinished(game("carol", "dave", GameState.PLAYER1_WON));
+
+        assertEquals(1, leaderboard.entry("alice").rank());
+        assertEquals(1, leaderboard.entry("carol").rank());
+        assertEquals(3, leaderboard.entry("bob").rank());
+        assertEquals(3, leaderboard.entry("dave").rank());
+    }
+
+    /**
+     * Tests that games against the bot leave the ratings alone.
+     */
+    @Test
+    void testBotGamesAreNotRated() {
+        leaderboard.onGameFinished(new GameRecord("g1", "alice", BotPlayer.NAME, 3, 3, BotDifficulty.EASY,
+                GameState.PLAYER1_WON, false, 0, 1, new int[0]));
+
+        assertNull(leaderboard.entry("alice"));
+        assertEquals(0, leaderboard.getRatedGameCount());
+    }
+
+    private static GameRecord game(String player1, String player2, GameState result) {
+        return new GameRecord(player1 + "-" + player2, player1, player2, 3, 3, null, result, false, 0, 1, new int[0]);
+    }
+}
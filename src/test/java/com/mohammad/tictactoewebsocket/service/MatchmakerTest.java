@@ -0,0 +1,307 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit and stress tests for the {@link Matchmaker} class.
+ * <p>
+ * The stress tests start thousands of players from several threads at once, in both immediate and batch mode,
+ * and then check that every player ended up in exactly one game and that no game seats a player twice.
+ * </p>
+ */
+public class MatchmakerTest {
+
+    private static final int THREADS = 8;
+    private static final int PLAYERS_PER_THREAD = 2_000;
+
+    /**
+     * Tests that a claimed game is handed out only once.
+     */
+    @Test
+    void testClaimHandsOutGameOnce() {
+        Matchmaker matchmaker = new Matchmaker();
+        TicTacToe game = new TicTacToe("player1", null);
+        matchmaker.enqueue(game);
+
+        assertEquals(game, matchmaker.claim("player2"));
+        assertNull(matchmaker.claim("player3"));
+    }
+
+    /**
+     * Tests that a player never claims their own waiting game, which stays in the queue.
+     */
+    @Test
+    void testClaimSkipsOwnGame() {
+        Matchmaker matchmaker = new Matchmaker();
+        TicTacToe game = new TicTacToe("player1", null);
+        matchmaker.enqueue(game);
+
+        assertNull(matchmaker.claim("player1"));
+        assertEquals(game, matchmaker.claim("player2"));
+    }
+
+    /**
+     * Tests that a player who claims past their own waiting game leaves it at its place, ahead of the games queued
+     * after it.
+     */
+    @Test
+    void testClaimKeepsOwnGameInPlace() {
+        Matchmaker matchmaker = new Matchmaker();
+        TicTacToe first = new TicTacToe("player1", null);
+        TicTacToe second = new TicTacToe("player2", null);
+        TicTacToe third = new TicTacToe("player3", null);
+        matchmaker.enqueue(first);
+        matchmaker.enqueue(second);
+        matchmaker.enqueue(third);
+
+        assertEquals(second, matchmaker.claim("player1"));
+        assertEquals(first, matchmaker.claim("player4"));
+        assertEquals(third, matchmaker.claim("player5"));
+    }
+
+    /**
+     * Tests that a cancelled game can no longer be claimed.
+     */
+    @Test
+    void testCancelledGameIsNotClaimed() {
+        Matchmaker matchmaker = new Matchmaker();
+        TicTacToe game = new TicTacToe("player1", null);
+        matchmaker.enqueue(game);
+
+        assertEquals(game, matchmaker.cancel("player1"));
+        assertNull(matchmaker.claim("player2"));
+        assertNull(matchmaker.cancel("player1"));
+    }
+
+    /**
+     * Tests that draining pairs players oldest first and puts the odd one back.
+     */
+    @Test
+    void testDrainMatchesPairsInOrderAndKeepsOddPlayer() {
+        Matchmaker matchmaker = new Matchmaker(true);
+        TicTacToe first = new TicTacToe("player1", null);
+        TicTacToe second = new TicTacToe("player2", null);
+        TicTacToe third = new TicTacToe("player3", null);
+        matchmaker.enqueue(first);
+        matchmaker.enqueue(second);
+        matchmaker.enqueue(third);
+
+        List<Matchmaker.Match> matches = matchmaker.drainMatches();
+
+        assertEquals(1, matches.size());
+        assertEquals(first, matches.get(0).host());
+        assertEquals(second, matches.get(0).guest());
+        assertEquals(third, matchmaker.claim("player4"));
+    }
+
+    /**
+     * Tests that batch mode never pairs on arrival and pairs the waiting players on the next drain.
+     */
+    @Test
+    void testBatchModePairsOnDrain() {
+        TicTacToeManager manager = ServiceFixtures.manager().matchmaker(new Matchmaker(true)).build();
+        TicTacToe first = manager.startGame("player1");
+        TicTacToe second = manager.startGame("player2");
+
+        assertNotEquals(first.getGameId(), second.getGameId());
+
+        manager.pairWaitingPlayers();
+
+        assertEquals("player2", first.getPlayer2());
+        assertEquals(GameState.PLAYER1_TURN, first.getGameState());
+        assertNull(manager.getGame(second.getGameId()));
+        assertEquals(first, manager.getGameByPlayer("player2"));
+    }
+
+    /**
+     * Tests that players are only paired with someone waiting on the same board, on arrival and in batches.
+     */
+    @Test
+    void testPlayersArePairedPerVariant() {
+        BoardVariant large = new BoardVariant(15, 5);
+        TicTacToeManager manager = ServiceFixtures.manager().build();
+        TicTacToe classic = manager.startGame("player1");
+        TicTacToe gomoku = manager.startGame("player2", large);
+
+        assertEquals(GameState.WAITING_FOR_PLAYER, gomoku.getGameState());
+        assertEquals(15, gomoku.getSize());
+        assertSame(gomoku, manager.startGame("player3", large));
+        assertSame(classic, manager.startGame("player4"));
+
+        TicTacToeManager batching = ServiceFixtures.manager().matchmaker(new Matchmaker(true)).build();
+        TicTacToe host = batching.startGame("player1", large);
+        batching.startGame("player2");
+        batching.startGame("player3", large);
+
+        List<Matchmaker.Match> matches = batching.pairWaitingPlayers();
+
+        assertEquals(1, matches.size());
+        assertSame(host, matches.get(0).host());
+        assertEquals("player3", host.getPlayer2());
+        assertEquals(GameState.WAITING_FOR_PLAYER, batching.getGameByPlayer("player2").getGameState());
+    }
+
+    /**
+     * Stress test: many threads start games at once in immediate mode.
+     */
+    @Test
+    void testConcurrentStartNeverPairsPlayerTwice() throws Exception {
+        TicTacToeManager manager = ServiceFixtures.manager().build();
+
+        List<String> players = startConcurrently(manager, null);
+
+        assertEachPlayerSeatedOnce(manager, players);
+    }
+
+    /**
+     * Stress test: many threads start games while another thread keeps draining batches.
+     */
+    @Test
+    void testConcurrentBatchPairingNeverPairsPlayerTwice() throws Exception {
+        TicTacToeManager manager = ServiceFixtures.manager().matchmaker(new Matchmaker(true)).build();
+
+        List<String> players = startConcurrently(manager, manager::pairWaitingPlayers);
+        manager.pairWaitingPlayers();
+
+        assertEachPlayerSeatedOnce(manager, players);
+    }
+
+    /**
+     * Stress test: players restart their search while others are being paired.
+     * Whatever the interleaving, the player index must point at a game that seats the player.
+     */
+    @Test
+    void testConcurrentRestartsNeverLeaveStaleSeats() throws Exception {
+        TicTacToeManager manager = ServiceFixtures.manager().matchmaker(new Matchmaker(true)).build();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread drainer = new Thread(() -> {
+            while (running.get()) {
+                manager.pairWaitingPlayers();
+            }
+        });
+        drainer.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<TicTacToe>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String player = "restarter-" + t;
+            futures.add(executor.submit(() -> {
+                List<TicTacToe> started = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    started.add(manager.startGame(player));
+                }
+                return started;
+            }));
+        }
+        for (Future<List<TicTacToe>> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        drainer.join();
+        executor.shutdown();
+        manager.pairWaitingPlayers();
+
+        for (int t = 0; t < THREADS; t++) {
+            String player = "restarter-" + t;
+            TicTacToe current = manager.getGameByPlayer(player);
+            assertNotNull(current);
+            assertTrue(player.equals(current.getPlayer1()) || player.equals(current.getPlayer2()));
+            assertNotEquals(current.getPlayer1(), current.getPlayer2());
+        }
+    }
+
+    /**
+     * Starts {@code THREADS * PLAYERS_PER_THREAD} distinct players from several threads released together.
+     *
+     * @param manager  the manager under test
+     * @param drain    optional action repeated by a separate thread while the players start
+     * @return the names of all players started
+     */
+    private List<String> startConcurrently(TicTacToeManager manager, Runnable drain) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread drainer = null;
+        if (drain != null) {
+            drainer = new Thread(() -> {
+                while (running.get()) {
+                    drain.run();
+                }
+            });
+            drainer.start();
+        }
+
+        List<String> players = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < PLAYERS_PER_THREAD; i++) {
+                    String player = "player-" + thread + "-" + i;
+                    players.add(player);
+                    manager.startGame(player);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        running.set(false);
+        if (drainer != null) {
+            drainer.join();
+        }
+        executor.shutdown();
+        return players;
+    }
+
+    /**
+     * Asserts that every player is seated in exactly one live game and that every game seats two different players.
+     */
+    private void assertEachPlayerSeatedOnce(TicTacToeManager manager, List<String> players) {
+        Set<TicTacToe> games = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String player : players) {
+            TicTacToe game = manager.getGameByPlayer(player);
+            assertNotNull(game, "player without a game: " + player);
+            assertEquals(game, manager.getGame(game.getGameId()));
+            games.add(game);
+        }
+
+        Map<String, Integer> seats = new HashMap<>();
+        int waiting = 0;
+        for (TicTacToe game : games) {
+            seats.merge(game.getPlayer1(), 1, Integer::sum);
+            if (game.getPlayer2() == null) {
+                waiting++;
+            } else {
+                assertNotEquals(game.getPlayer1(), game.getPlayer2());
+                seats.merge(game.getPlayer2(), 1, Integer::sum);
+            }
+        }
+
+        assertEquals(players.size(), seats.size());
+        seats.forEach((player, count) -> assertEquals(1, count.intValue(), "player seated twice: " + player));
+        assertTrue(waiting <= THREADS, "too many unpaired games: " + waiting);
+    }
+}
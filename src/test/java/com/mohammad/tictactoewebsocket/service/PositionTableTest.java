@@ -0,0 +1,80 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PositionTable} class.
+ * <p>
+ * Verifies the size of the solved game tree and the scores and best moves of a few known positions.
+ * Cells are numbered row by row, 0 to 8.
+ * </p>
+ */
+public class PositionTableTest {
+
+    private final PositionTable table = new PositionTable();
+
+    /**
+     * Tests that exactly the 5478 legal positions of Tic-Tac-Toe are solved.
+     */
+    @Test
+    void testSolvesEveryReachablePosition() {
+        assertEquals(5478, table.getReachablePositionCount());
+    }
+
+    /**
+     * Tests that the empty board is a draw and that every first move keeps the draw.
+     */
+    @Test
+    void testEmptyBoardIsADraw() {
+        assertEquals(0, table.getScore(0, 0));
+        assertEquals(0b111_111_111, table.getBestMoves(0, 0));
+    }
+
+    /**
+     * Tests that a move completing a line is the only best move.
+     */
+    @Test
+    void testTakesTheWinningMove() {
+        // X: 0, 1 and O: 3, 4, with X to move; 2 wins at once.
+        int x = 0b000_000_011;
+        int o = 0b000_011_000;
+        assertTrue(table.getScore(x, o) > 0);
+        assertEquals(1 << 2, table.getBestMoves(x, o));
+    }
+
+    /**
+     * Tests that the only move stopping the opponent's line is the best move.
+     */
+    @Test
+    void testBlocksTheLosingLine() {
+        // X: 0, 1 and O: 4, with O to move; only 2 avoids losing.
+        int x = 0b000_000_011;
+        int o = 0b000_010_000;
+        assertEquals(1 << 2, table.getBestMoves(x, o));
+    }
+
+    /**
+     * Tests that a finished game has no moves and counts as a loss for the player to move.
+     */
+    @Test
+    void testFinishedGameHasNoMoves() {
+        int x = 0b000_000_111;
+        int o = 0b000_011_000;
+        assertTrue(table.getScore(x, o) < 0);
+        assertEquals(0, table.getBestMoves(x, o));
+    }
+
+    /**
+     * Tests that every base-3 index is distinct for different positions.
+     */
+    @Test
+    void testIndexIsBase3() {
+        assertEquals(0, PositionTable.index(0, 0));
+        assertEquals(1, PositionTable.index(1, 0));
+        assertEquals(2, PositionTable.index(0, 1));
+        assertEquals(3, PositionTable.index(0b10, 0));
+        assertEquals(PositionTable.POSITIONS - 1, PositionTable.index(0, 0b111_111_111));
+    }
+}
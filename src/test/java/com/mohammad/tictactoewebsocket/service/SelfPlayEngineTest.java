@@ -0,0 +1,109 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.model.BitBoard;
+import com.mohammad.tictactoewebsocket.model.SelfPlayReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link SelfPlayEngine} class and the {@link MovePolicy} implementations.
+ * <p>
+ * Verifies that the counts add up, that the perfect policy never loses, that the heuristic beats random play,
+ * that results do not depend on the number of threads, and that an illegal move is reported.
+ * </p>
+ */
+public class SelfPlayEngineTest {
+
+    private static final PositionTable POSITION_TABLE = new PositionTable();
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final SelfPlayEngine engine = new SelfPlayEngine(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tests that every game is counted once, under the opening move it was played with.
+     */
+    @Test
+    void testCountsAddUp() {
+        SelfPlayReport report = engine.play(100_000, MovePolicy.random(), MovePolicy.random(), 1);
+
+        assertEquals(100_000, report.totalXWins() + report.totalOWins() + report.totalDraws());
+        long byOpening = 0;
+        for (int opening = 0; opening < BitBoard.CELLS; opening++) {
+            assertTrue(report.gamesOpening(opening) > 0);
+            byOpening += report.gamesOpening(opening);
+        }
+        assertEquals(100_000, byOpening);
+        // Random play: "X" wins about 58% of the games, "O" about 29%.
+        assertTrue(report.totalXWins() > report.totalOWins());
+        assertTrue(report.totalOWins() > report.totalDraws());
+    }
+
+    /**
+     * Tests that perfect play draws against itself and never loses to random play on either side.
+     */
+    @Test
+    void testPerfectPolicyNeverLoses() {
+        MovePolicy perfect = MovePolicy.perfect(POSITION_TABLE);
+
+        SelfPlayReport selfPlay = engine.play(20_000, perfect, perfect, 2);
+        assertEquals(20_000, selfPlay.totalDraws());
+
+        assertEquals(0, engine.play(20_000, perfect, MovePolicy.random(), 3).totalOWins());
+        assertEquals(0, engine.play(20_000, MovePolicy.random(), perfect, 4).totalXWins());
+        assertEquals(0, engine.play(20_000, MovePolicy.heuristic(), perfect, 5).totalXWins());
+    }
+
+    /**
+     * Tests that the heuristic wins more and loses less against random play than random play does.
+     */
+    @Test
+    void testHeuristicBeatsRandom() {
+        SelfPlayReport random = engine.play(50_000, MovePolicy.random(), MovePolicy.random(), 6);
+        SelfPlayReport heuristic = engine.play(50_000, MovePolicy.heuristic(), MovePolicy.random(), 6);
+
+        assertTrue(heuristic.totalXWins() > random.totalXWins());
+        assertTrue(heuristic.totalOWins() < random.totalOWins() / 4);
+        // The heuristic always opens in the centre.
+        assertEquals(50_000, heuristic.gamesOpening(4));
+    }
+
+    /**
+     * Tests that the same seed gives the same results on one thread and on several.
+     */
+    @Test
+    void testResultsDoNotDependOnThreads() {
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            int games = 10 * SelfPlayEngine.GAMES_PER_TASK + 123;
+            SelfPlayReport one = new SelfPlayEngine(single).play(games, MovePolicy.heuristic(), MovePolicy.random(), 7);
+            SelfPlayReport four = engine.play(games, MovePolicy.heuristic(), MovePolicy.random(), 7);
+
+            assertArrayEquals(one.xWins(), four.xWins());
+            assertArrayEquals(one.oWins(), four.oWins());
+            assertArrayEquals(one.draws(), four.draws());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    /**
+     * Tests that a policy playing a taken cell is reported.
+     */
+    @Test
+    void testTakenCellIsRejected() {
+        MovePolicy alwaysCentre = (xMask, oMask, xToMove, random) -> 4;
+
+        assertThrows(IllegalStateException.class,
+                () -> SelfPlayEngine.playGame(alwaysCentre, alwaysCentre, new SplittableRandom(8)));
+    }
+}
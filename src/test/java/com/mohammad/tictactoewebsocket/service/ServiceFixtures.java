@@ -0,0 +1,150 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.utils.GameIdGenerator;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Builders of the game manager and service for tests and benchmarks.
+ * <p>
+ * Every dependency that is not set keeps a default that needs no Spring context: the manager pairs players as soon
+ * as they arrive, reads the system clock, journals to memory and has no time controls; the service runs game
+ * commands and spectator frames on the calling thread and publishes no finished games.
+ * </p>
+ */
+public final class ServiceFixtures {
+
+    private ServiceFixtures() {
+    }
+
+    /**
+     * @return a builder of a manager with the defaults
+     */
+    public static ManagerBuilder manager() {
+        return new ManagerBuilder();
+    }
+
+    /**
+     * @param ticTacToeManager the manager responsible for managing games
+     * @return a builder of a service with the defaults
+     */
+    public static ServiceBuilder service(TicTacToeManager ticTacToeManager) {
+        return new ServiceBuilder(ticTacToeManager);
+    }
+
+    /**
+     * Builder of {@link TicTacToeManager} instances.
+     */
+    public static final class ManagerBuilder {
+        private Matchmaker matchmaker = new Matchmaker();
+        private GameEvictionPolicy evictionPolicy = new GameEvictionPolicy();
+        private LongSupplier clock = System::currentTimeMillis;
+        private int expectedGames;
+        private GameJournal journal = new GameJournal();
+        private TurnClocks turnClocks = new TurnClocks();
+        private GameIdGenerator gameIds = GameIdGenerator.shared();
+        private GameExecutor gameExecutor = new GameExecutor();
+
+        private ManagerBuilder() {
+        }
+
+        public ManagerBuilder matchmaker(Matchmaker matchmaker) {
+            this.matchmaker = matchmaker;
+            return this;
+        }
+
+        public ManagerBuilder evictionPolicy(GameEvictionPolicy evictionPolicy) {
+            this.evictionPolicy = evictionPolicy;
+            return this;
+        }
+
+        public ManagerBuilder clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public ManagerBuilder expectedGames(int expectedGames) {
+            this.expectedGames = expectedGames;
+            return this;
+        }
+
+        public ManagerBuilder journal(GameJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        public ManagerBuilder turnClocks(TurnClocks turnClocks) {
+            this.turnClocks = turnClocks;
+            return this;
+        }
+
+        public ManagerBuilder gameIds(GameIdGenerator gameIds) {
+            this.gameIds = gameIds;
+            return this;
+        }
+
+        public ManagerBuilder gameExecutor(GameExecutor gameExecutor) {
+            this.gameExecutor = gameExecutor;
+            return this;
+        }
+
+        public TicTacToeManager build() {
+            return new TicTacToeManager(matchmaker, evictionPolicy, clock, expectedGames, journal, turnClocks,
+                    gameIds, gameExecutor);
+        }
+    }
+
+    /**
+     * Builder of {@link TicTacToeService} instances.
+     */
+    public static final class ServiceBuilder {
+        private final TicTacToeManager ticTacToeManager;
+        private GameExecutor gameExecutor = new GameExecutor();
+        private GameFrameCache frameCache = new GameFrameCache();
+        private GameMetrics metrics = new GameMetrics();
+        private BotPlayer botPlayer = new BotPlayer();
+        private SpectatorFanOut spectators;
+        private ApplicationEventPublisher events = event -> { };
+
+        private ServiceBuilder(TicTacToeManager ticTacToeManager) {
+            this.ticTacToeManager = ticTacToeManager;
+        }
+
+        public ServiceBuilder gameExecutor(GameExecutor gameExecutor) {
+            this.gameExecutor = gameExecutor;
+            return this;
+        }
+
+        public ServiceBuilder frameCache(GameFrameCache frameCache) {
+            this.frameCache = frameCache;
+            return this;
+        }
+
+        public ServiceBuilder metrics(GameMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public ServiceBuilder botPlayer(BotPlayer botPlayer) {
+            this.botPlayer = botPlayer;
+            return this;
+        }
+
+        public ServiceBuilder spectators(SpectatorFanOut spectators) {
+            this.spectators = spectators;
+            return this;
+        }
+
+        public ServiceBuilder events(ApplicationEventPublisher events) {
+            this.events = events;
+            return this;
+        }
+
+        public TicTacToeService build() {
+            SpectatorFanOut fanOut = spectators != null ? spectators : new SpectatorFanOut(frameCache, Runnable::run);
+            return new TicTacToeService(ticTacToeManager, gameExecutor, frameCache, metrics, botPlayer, fanOut,
+                    events);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link SpectatorFanOut} class.
+ * <p>
+ * Deliveries are collected instead of run, so each test decides when the fan-out threads get to work.
+ * Verifies that frames waiting for delivery are conflated to the newest one per game and that a frame
+ * published during a delivery is not lost.
+ * </p>
+ */
+public class SpectatorFanOutTest {
+
+    private final List<Runnable> deliveries = new ArrayList<>();
+    private SimpMessagingTemplate messagingTemplate;
+    private SpectatorFanOut fanOut;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        fanOut = new SpectatorFanOut(new GameFrameCache(), deliveries::add);
+    }
+
+    /**
+     * Tests that only the newest of several waiting frames of a game is sent, by a single delivery.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testWaitingFramesAreConflated() {
+        fanOut.publish(messagingTemplate, "g1", new byte[] {1});
+        fanOut.publish(messagingTemplate, "g1", new byte[] {2});
+        fanOut.publish(messagingTemplate, "g1", new byte[] {3});
+        fanOut.publish(messagingTemplate, "g2", new byte[] {4});
+
+        assertEquals(2, deliveries.size());
+        deliveries.forEach(Runnable::run);
+
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate).send(eq("/topic/game.g1.watch"), captor.capture());
+        assertArrayEquals(new byte[] {3}, captor.getValue().getPayload());
+        verify(messagingTemplate).send(eq("/topic/game.g2.watch"), any(Message.class));
+        assertEquals(4, fanOut.getPublishedCount());
+        assertEquals(2, fanOut.getDeliveredCount());
+    }
+
+    /**
+     * Tests that a frame published while the previous one is being sent goes out in the same delivery.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFramePublishedDuringDeliveryIsSent() {
+        AtomicBoolean first = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                fanOut.publish(messagingTemplate, "g1", new byte[] {2});
+            }
+            return null;
+        }).when(messagingTemplate).send(eq("/topic/game.g1.watch"), any(Message.class));
+
+        fanOut.publish(messagingTemplate, "g1", new byte[] {1});
+        deliveries.get(0).run();
+
+        assertEquals(1, deliveries.size());
+        verify(messagingTemplate, times(2)).send(eq("/topic/game.g1.watch"), any(Message.class));
+        fanOut.publish(messagingTemplate, "g1", new byte[] {3});
+        assertEquals(2, deliveries.size());
+    }
+
+    /**
+     * Tests that a session watches one game at a time.
+     */
+    @Test
+    void testSessionWatchesOneGame() {
+        assertNull(fanOut.watch("session-1", "g1"));
+        assertEquals("g1", fanOut.watch("session-1", "g2"));
+        fanOut.watch("session-2", "g2");
+        assertEquals(2, fanOut.getSpectatorSessionCount());
+
+        assertEquals("g2", fanOut.unwatch("session-1"));
+        assertNull(fanOut.unwatch("session-1"));
+        assertEquals(1, fanOut.getSpectatorSessionCount());
+    }
+}
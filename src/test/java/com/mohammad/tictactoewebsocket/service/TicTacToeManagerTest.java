@@ -1,12 +1,25 @@
 package com.mohammad.tictactoewebsocket.service;
 
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.GameCategory;
 import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
 import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.utils.GameIdGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -26,7 +39,7 @@ public class TicTacToeManagerTest {
      */
     @BeforeEach
     void setUp() {
-        manager = new TicTacToeManager();
+        manager = ServiceFixtures.manager().build();
     }
 
     /**
@@ -204,4 +217,281 @@ public class TicTacToeManagerTest {
 
         assertFalse(manager.gameRemovalCheck(game.getGameId()));
     }
+
+    /**
+     * Tests that both players of a paired game are found through the player index.
+     */
+    @Test
+    void testGetGameByPlayerFindsBothPlayersAfterPairing() {
+        TicTacToe game = manager.startGame("player1");
+        manager.startGame("player2");
+
+        assertEquals(game, manager.getGameByPlayer("player1"));
+        assertEquals(game, manager.getGameByPlayer("player2"));
+    }
+
+    /**
+     * Tests that restarting while waiting replaces the old open game, which can no longer be joined.
+     */
+    @Test
+    void testStartGameAgainReplacesOpenGame() {
+        TicTacToe first = manager.startGame("player1");
+        TicTacToe second = manager.startGame("player1");
+
+        assertNotEquals(first.getGameId(), second.getGameId());
+        assertNull(manager.getGame(first.getGameId()));
+        assertEquals(second, manager.getGameByPlayer("player1"));
+
+        TicTacToe joined = manager.startGame("player2");
+        assertEquals(second.getGameId(), joined.getGameId());
+    }
+
+    /**
+     * Tests that leaving a game clears the index entries of both players and closes the open slot.
+     */
+    @Test
+    void testLeaveGameClearsPlayerIndex() {
+        TicTacToe game = manager.startGame("player1");
+        manager.startGame("player2");
+
+        manager.leaveGame("player2");
+
+        assertNull(manager.getGame(game.getGameId()));
+        assertNull(manager.getGameByPlayer("player1"));
+        assertNull(manager.getGameByPlayer("player2"));
+    }
+
+    /**
+     * Tests that an abandoned open game is not handed out to the next player.
+     */
+    @Test
+    void testLeftOpenGameIsNotJoined() {
+        TicTacToe abandoned = manager.startGame("player1");
+        manager.leaveGame("player1");
+
+        TicTacToe game = manager.startGame("player2");
+
+        assertNotEquals(abandoned.getGameId(), game.getGameId());
+        assertNull(game.getPlayer2());
+    }
+
+    /**
+     * Tests that removing a finished game clears the index entries of both players.
+     */
+    @Test
+    void testRemoveGameClearsPlayerIndex() {
+        TicTacToe game = manager.startGame("player1");
+        manager.startGame("player2");
+        game.makeMove("player1", 0);
+        game.makeMove("player2", 1);
+
+        manager.removeGame(game.getGameId());
+
+        assertNull(manager.getGameByPlayer("player1"));
+        assertNull(manager.getGameByPlayer("player2"));
+    }
+
+    /**
+     * Tests that a player's index entry follows them to a new game without being cleared by the old one.
+     */
+    @Test
+    void testRemovingOldGameKeepsIndexOfNewGame() {
+        TicTacToe old = manager.startGame("player1");
+        manager.startGame("player2");
+        old.makeMove("player1", 0);
+        old.makeMove("player2", 1);
+        old.setGameState(GameState.PLAYER1_WON);
+
+        TicTacToe next = manager.startGame("player1");
+        manager.removeGame(old.getGameId());
+
+        assertEquals(next, manager.getGameByPlayer("player1"));
+        assertNull(manager.getGameByPlayer("player2"));
+    }
+
+    /**
+     * Tests that a waiting game is evicted once idle for its time-to-live, and not before.
+     */
+    @Test
+    void testIdleWaitingGameIsEvicted() {
+        AtomicLong clock = new AtomicLong();
+        TicTacToeManager evicting = evictingManager(clock);
+        TicTacToe game = evicting.startGame("player1");
+
+        clock.set(999);
+        assertTrue(evicting.collectIdleGames().isEmpty());
+
+        clock.set(1_100);
+        List<TicTacToe> idle = evicting.collectIdleGames();
+        assertEquals(List.of(game), idle);
+        assertTrue(evicting.evictIfIdle(game));
+
+        assertNull(evicting.getGame(game.getGameId()));
+        assertNull(evicting.getGameByPlayer("player1"));
+        assertEquals(1L, evicting.getEvictionCounts().get(GameCategory.WAITING).longValue());
+        assertNotEquals(game, evicting.startGame("player2"));
+    }
+
+    /**
+     * Tests that activity pushes the deadline back and that the game moves to its new category's time-to-live.
+     */
+    @Test
+    void testActivityReschedulesInsteadOfEvicting() {
+        AtomicLong clock = new AtomicLong();
+        TicTacToeManager evicting = evictingManager(clock);
+        TicTacToe game = evicting.startGame("player1");
+
+        clock.set(500);
+        evicting.startGame("player2");
+
+        clock.set(1_100);
+        assertTrue(evicting.collectIdleGames().isEmpty());
+
+        clock.set(2_400);
+        assertTrue(evicting.collectIdleGames().isEmpty());
+
+        clock.set(2_600);
+        assertEquals(List.of(game), evicting.collectIdleGames());
+        assertTrue(evicting.evictIfIdle(game));
+        assertEquals(1L, evicting.getEvictionCounts().get(GameCategory.IN_PROGRESS).longValue());
+    }
+
+    /**
+     * Tests that a game saved for later is kept for the saved time-to-live.
+     */
+    @Test
+    void testSavedGameUsesSavedTtl() {
+        AtomicLong clock = new AtomicLong();
+        TicTacToeManager evicting = evictingManager(clock);
+        TicTacToe game = evicting.startGame("player1");
+        evicting.startGame("player2");
+        game.setSavedForLater(true);
+
+        clock.set(2_600);
+        assertTrue(evicting.collectIdleGames().isEmpty());
+
+        clock.set(5_100);
+        assertEquals(List.of(game), evicting.collectIdleGames());
+        assertTrue(evicting.evictIfIdle(game));
+        assertEquals(1L, evicting.getEvictionCounts().get(GameCategory.SAVED).longValue());
+    }
+
+    /**
+     * Tests that a game removed in the meantime is neither returned nor counted.
+     */
+    @Test
+    void testRemovedGameIsNotEvicted() {
+        AtomicLong clock = new AtomicLong();
+        TicTacToeManager evicting = evictingManager(clock);
+        evicting.startGame("player1");
+        evicting.leaveGame("player1");
+
+        clock.set(10_000);
+        assertTrue(evicting.collectIdleGames().isEmpty());
+        assertEquals(0L, evicting.getEvictionCounts().get(GameCategory.WAITING).longValue());
+    }
+
+    /**
+     * Tests that a bot game starts right away, replaces the player's waiting game and is never offered to others.
+     */
+    @Test
+    void testStartBotGameSkipsMatchmaking() {
+        TicTacToe waiting = manager.startGame("player1");
+        TicTacToe botGame = manager.startBotGame("player1", BotDifficulty.HARD);
+
+        assertNull(manager.getGame(waiting.getGameId()));
+        assertEquals(GameState.PLAYER1_TURN, botGame.getGameState());
+        assertEquals(BotPlayer.NAME, botGame.getPlayer2());
+        assertSame(botGame, manager.getGameByPlayer("player1"));
+        assertNull(manager.getGameByPlayer(BotPlayer.NAME));
+
+        TicTacToe other = manager.startGame("player2");
+        assertNotSame(botGame, other);
+        assertEquals(GameState.WAITING_FOR_PLAYER, other.getGameState());
+    }
+
+    /**
+     * Tests that paired games start with both seats filled, replace the players' waiting games and are never
+     * offered to others.
+     */
+    @Test
+    void testStartPairedGamesSkipsMatchmaking() {
+        TicTacToe waiting = manager.startGame("player1");
+        List<TicTacToe> games = manager.startPairedGames(List.of("player1", "player3"), List.of("player2", "player4"),
+                BoardVariant.CLASSIC);
+
+        assertEquals(2, games.size());
+        assertNull(manager.getGame(waiting.getGameId()));
+        TicTacToe first = games.get(0);
+        assertEquals("player1", first.getPlayer1());
+        assertEquals("player2", first.getPlayer2());
+        assertEquals(GameState.PLAYER1_TURN, first.getGameState());
+        assertSame(first, manager.getGameByPlayer("player2"));
+        assertSame(games.get(1), manager.getGameByPlayer("player4"));
+        assertEquals(2, manager.getGameCount());
+
+        TicTacToe other = manager.startGame("player5");
+        assertEquals(GameState.WAITING_FOR_PLAYER, other.getGameState());
+    }
+
+    /**
+     * Tests that every game the manager creates takes its ID from the manager's generator.
+     */
+    @Test
+    void testGamesTakeIdsFromGenerator() {
+        TicTacToeManager node = ServiceFixtures.manager().gameIds(new GameIdGenerator(42)).build();
+
+        TicTacToe waiting = node.startGame("player1");
+        TicTacToe bot = node.startBotGame("player2", BotDifficulty.EASY);
+        TicTacToe paired = node.startPairedGames(List.of("player3"), List.of("player4"), BoardVariant.CLASSIC).get(0);
+
+        for (TicTacToe game : List.of(waiting, bot, paired)) {
+            assertEquals(42, GameIdGenerator.nodeOf(GameIdGenerator.decode(game.getGameId())));
+        }
+    }
+
+    /**
+     * Tests that a player claiming a waiting game is seated inside the game's mailbox, behind a command the host
+     * queued before, and starts a game of their own if that command made the host leave.
+     */
+    @Test
+    void testSeatingWaitsForHostCommands() throws Exception {
+        GameExecutor executor = new GameExecutor(2);
+        ExecutorService joiner = Executors.newSingleThreadExecutor();
+        try {
+            TicTacToeManager seating = ServiceFixtures.manager().gameExecutor(executor).build();
+            TicTacToe host = seating.startGame("player1");
+            CountDownLatch release = new CountDownLatch(1);
+            executor.execute(host.getGameId(), () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                seating.leaveGame("player1");
+            });
+
+            Future<TicTacToe> joined = joiner.submit(() -> seating.startGame("player2"));
+            assertThrows(TimeoutException.class, () -> joined.get(100, TimeUnit.MILLISECONDS));
+            assertNull(host.getPlayer2());
+
+            release.countDown();
+            TicTacToe game = joined.get(10, TimeUnit.SECONDS);
+            assertNotSame(host, game);
+            assertNull(host.getPlayer2());
+            assertEquals(GameState.WAITING_FOR_PLAYER, game.getGameState());
+            assertSame(game, seating.getGameByPlayer("player2"));
+        } finally {
+            joiner.shutdownNow();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Creates a manager with short time-to-live values: waiting 1s, in progress 2s, saved 5s, finished 0.5s.
+     */
+    private static TicTacToeManager evictingManager(AtomicLong clock) {
+        GameEvictionPolicy policy = new GameEvictionPolicy(1_000, 2_000, 5_000, 500, 100);
+        return ServiceFixtures.manager().evictionPolicy(policy).clock(clock::get).build();
+    }
 }
@@ -1,5 +1,9 @@
 package com.mohammad.tictactoewebsocket.service;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
 import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
 import com.mohammad.tictactoewebsocket.model.TicTacToe;
 
 import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
@@ -8,8 +12,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,7 +43,7 @@ public class TicTacToeServiceTest {
     void setUp() {
         manager = mock(TicTacToeManager.class);
         messagingTemplate = mock(SimpMessagingTemplate.class);
-        service = new TicTacToeService(manager);
+        service = ServiceFixtures.service(manager).build();
     }
 
     /**
@@ -52,18 +62,18 @@ public class TicTacToeServiceTest {
     }
 
     /**
-     * Tests that the {@link TicTacToeService#startGame(String)} method delegates to the {@link TicTacToeManager#startGame(String)}
-     * method and returns the expected result.
+     * Tests that the {@link TicTacToeService#startGame(String)} method delegates to the
+     * {@link TicTacToeManager#startGame(String, BoardVariant)} method with the classic board and returns the expected result.
      */
     @Test
     void testStartGameDelegatesToManager() {
         TicTacToe mockGame = new TicTacToe("Alice", null);
-        when(manager.startGame("Alice")).thenReturn(mockGame);
+        when(manager.startGame("Alice", BoardVariant.CLASSIC)).thenReturn(mockGame);
 
         TicTacToe result = service.startGame("Alice");
 
         assertEquals(mockGame, result);
-        verify(manager).startGame("Alice");
+        verify(manager).startGame("Alice", BoardVariant.CLASSIC);
     }
 
     /**
@@ -88,12 +98,9 @@ public class TicTacToeServiceTest {
 
         service.handleEarlyLeave("Alice", messagingTemplate);
 
-        ArgumentCaptor<TicTacToeMessage> messageCaptor = ArgumentCaptor.forClass(TicTacToeMessage.class);
-        verify(messagingTemplate).convertAndSend(eq("/topic/game.123"), messageCaptor.capture());
-
-        TicTacToeMessage msg = messageCaptor.getValue();
-        assertEquals("game.earlyLeave", msg.getType());
-        assertTrue(msg.getContent().contains("Opponent left the game"));
+        Map<String, Object> msg = sentFrame("/topic/game.123");
+        assertEquals("game.earlyLeave", msg.get("type"));
+        assertTrue(((String) msg.get("content")).contains("Opponent left the game"));
     }
 
     /**
@@ -138,7 +145,50 @@ public class TicTacToeServiceTest {
         service.makeMove("Alice", "123", 0, messagingTemplate);
 
         verify(mockGame).makeMove("Alice", 0);
-        verify(messagingTemplate).convertAndSend(eq("/topic/game.123"), any(TicTacToeMessage.class));
+        assertEquals("game.delta", sentFrame("/topic/game.123").get("type"));
+    }
+
+    /**
+     * Tests that the winning move sends a single delta carrying the result and removes the game.
+     */
+    @Test
+    void testMakeMoveWinningMoveSendsSingleDeltaWithResult() {
+        TicTacToe game = new TicTacToe("Alice", "Bob");
+        game.setGameId("123");
+        game.setGameState(GameState.PLAYER1_TURN);
+        game.makeMove("Alice", 0);
+        game.makeMove("Bob", 3);
+        game.makeMove("Alice", 1);
+        game.makeMove("Bob", 4);
+        when(manager.getGame("123")).thenReturn(game);
+
+        service.makeMove("Alice", "123", 2, messagingTemplate);
+
+        Map<String, Object> delta = sentFrame("/topic/game.123");
+        assertEquals("game.delta", delta.get("type"));
+        assertEquals(5, delta.get("seq"));
+        assertEquals(2, delta.get("cell"));
+        assertEquals("X", delta.get("mark"));
+        assertEquals(GameState.PLAYER1_WON.name(), delta.get("gameState"));
+        assertEquals("Alice", delta.get("winner"));
+        verify(manager).removeGame("123");
+    }
+
+    /**
+     * Tests that a move on a taken cell sends nothing.
+     */
+    @Test
+    void testMakeMoveOnTakenCellSendsNothing() {
+        TicTacToe game = new TicTacToe("Alice", "Bob");
+        game.setGameId("123");
+        game.setGameState(GameState.PLAYER1_TURN);
+        game.makeMove("Alice", 0);
+        game.makeMove("Bob", 4);
+        when(manager.getGame("123")).thenReturn(game);
+
+        service.makeMove("Alice", "123", 4, messagingTemplate);
+
+        verifyNoInteractions(messagingTemplate);
     }
 
     /**
@@ -155,6 +205,181 @@ public class TicTacToeServiceTest {
 
         verify(manager).setWinnerByPlayerLeft("Alice");
         verify(manager).leaveGame("Alice");
-        verify(messagingTemplate).convertAndSend(eq("/topic/game.321"), any(TicTacToeMessage.class));
+        assertEquals("game.left", sentFrame("/topic/game.321").get("type"));
+    }
+
+    /**
+     * Tests that the encoded frames of a game are reused until the game changes.
+     */
+    @Test
+    void testFrameIsEncodedOncePerVersion() {
+        GameFrameCache frameCache = new GameFrameCache();
+        TicTacToe game = new TicTacToe("Alice", "Bob");
+        game.setGameState(GameState.PLAYER1_TURN);
+
+        byte[] first = frameCache.encode(game, "game.resync", g -> new TicTacToeMessage(g));
+        byte[] again = frameCache.encode(game, "game.resync", g -> new TicTacToeMessage(g));
+        game.makeMove("Alice", 4);
+        byte[] afterMove = frameCache.encode(game, "game.resync", g -> new TicTacToeMessage(g));
+
+        assertSame(first, again);
+        assertNotSame(first, afterMove);
+        assertNotSame(afterMove, frameCache.encode(game, "game.left", g -> new TicTacToeMessage(g)));
+    }
+
+    /**
+     * Tests that the bot answers a move with its own delta, inside the same command.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBotRepliesToMove() throws IOException {
+        TicTacToeService botService = ServiceFixtures.service(ServiceFixtures.manager().build()).build();
+        TicTacToe game = botService.startBotGame("Alice", BotDifficulty.HARD);
+
+        botService.makeMove("Alice", game.getGameId(), 0, messagingTemplate);
+
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(2)).send(eq("/topic/game." + game.getGameId()), captor.capture());
+        List<Message<byte[]>> frames = captor.getAllValues();
+        Map<String, Object> reply = new ObjectMapper().readValue(frames.get(1).getPayload(), Map.class);
+        assertEquals("game.delta", reply.get("type"));
+        assertEquals(2, reply.get("seq"));
+        assertEquals("O", reply.get("mark"));
+        // The only moves that do not lose against a corner opening take the centre.
+        assertEquals(4, reply.get("cell"));
+        assertEquals(GameState.PLAYER1_TURN, game.getGameState());
+    }
+
+    /**
+     * Tests that spectators get full snapshots on the watch topic while the players keep getting deltas,
+     * both carrying the spectator count.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSpectatorsGetSnapshotsOnWatchTopic() throws IOException {
+        TicTacToeService realService = ServiceFixtures.service(ServiceFixtures.manager().build()).build();
+        TicTacToe game = realService.startGame("Alice");
+        realService.startGame("Bob");
+        String gameId = game.getGameId();
+
+        assertSame(game, realService.spectate("session-1", gameId));
+        realService.makeMove("Alice", gameId, 0, messagingTemplate);
+
+        Map<String, Object> delta = sentFrame("/topic/game." + gameId);
+        assertEquals("game.delta", delta.get("type"));
+        assertEquals(1, delta.get("spectators"));
+
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, atLeastOnce()).send(eq("/topic/game." + gameId + ".watch"), captor.capture());
+        Map<String, Object> snapshot = new ObjectMapper().readValue(captor.getValue().getPayload(), Map.class);
+        assertEquals("game.watch", snapshot.get("type"));
+        assertEquals(1, snapshot.get("seq"));
+        assertEquals(1, snapshot.get("spectators"));
+        assertEquals("X", ((List<List<String>>) snapshot.get("board")).get(0).get(0));
+    }
+
+    /**
+     * Tests that the spectator count follows sessions starting, repeating and stopping to watch, without a frame
+     * to the watchers for every change.
+     */
+    @Test
+    void testSpectatorCountFollowsSessions() {
+        TicTacToeService realService = ServiceFixtures.service(ServiceFixtures.manager().build()).build();
+        TicTacToe game = realService.startGame("Alice");
+        realService.startGame("Bob");
+
+        realService.spectate("session-1", game.getGameId());
+        realService.spectate("session-2", game.getGameId());
+        realService.spectate("session-2", game.getGameId());
+        assertEquals(2, game.getSpectatorCount());
+
+        realService.stopSpectating("session-1");
+        realService.stopSpectating("session-1");
+        assertEquals(1, game.getSpectatorCount());
+        verify(messagingTemplate, never()).send(eq("/topic/game." + game.getGameId() + ".watch"), any());
+        assertNull(realService.spectate("session-3", "missing"));
+    }
+
+    /**
+     * Tests that a player who disconnects after more than one move forfeits the game to the opponent.
+     */
+    @Test
+    void testDisconnectAfterMovesForfeitsGame() {
+        TicTacToeManager realManager = ServiceFixtures.manager().build();
+        TicTacToeService realService = ServiceFixtures.service(realManager).build();
+        TicTacToe game = realService.startGame("Alice");
+        realService.startGame("Bob");
+        realService.makeMove("Alice", game.getGameId(), 0, messagingTemplate);
+        realService.makeMove("Bob", game.getGameId(), 4, messagingTemplate);
+
+        realService.playerDisconnected("Alice", game.getGameId(), messagingTemplate);
+
+        assertEquals(GameState.PLAYER2_WON, game.getGameState());
+        assertEquals("Bob", game.getWinner());
+        assertNull(realManager.getGame(game.getGameId()));
+    }
+
+    /**
+     * Tests that a player who disconnects before the second move leaves the game saved for later,
+     * and that a departure from a game the player no longer plays is ignored.
+     */
+    @Test
+    void testDisconnectBeforeSecondMoveSavesGame() {
+        TicTacToeManager realManager = ServiceFixtures.manager().build();
+        TicTacToeService realService = ServiceFixtures.service(realManager).build();
+        TicTacToe game = realService.startGame("Alice");
+        realService.startGame("Bob");
+        realService.makeMove("Alice", game.getGameId(), 0, messagingTemplate);
+
+        realService.playerDisconnected("Bob", "another-game", messagingTemplate);
+        assertFalse(game.isSavedForLater());
+
+        realService.playerDisconnected("Bob", game.getGameId(), messagingTemplate);
+        assertTrue(game.isSavedForLater());
+        assertSame(game, realManager.getGame(game.getGameId()));
+    }
+
+    /**
+     * Tests that a game won on the board and a game won by a forfeit both publish their record once.
+     */
+    @Test
+    void testFinishedGamesArePublished() {
+        List<Object> events = new ArrayList<>();
+        TicTacToeService realService = ServiceFixtures.service(ServiceFixtures.manager().build())
+                .spectators(new SpectatorFanOut()).events(events::add).build();
+        TicTacToe won = realService.startGame("Alice");
+        realService.startGame("Bob");
+        for (int move : new int[] {0, 3, 1, 4, 2}) {
+            realService.makeMove(won.getTurn(), won.getGameId(), move, messagingTemplate);
+        }
+        TicTacToe forfeited = realService.startGame("Carol");
+        realService.startGame("Dave");
+        realService.makeMove("Carol", forfeited.getGameId(), 4, messagingTemplate);
+        realService.makeMove("Dave", forfeited.getGameId(), 0, messagingTemplate);
+        realService.playerLeft("Dave", messagingTemplate);
+
+        assertEquals(2, events.size());
+        GameRecord first = (GameRecord) events.get(0);
+        assertEquals(won.getGameId(), first.gameId());
+        assertEquals(GameState.PLAYER1_WON, first.result());
+        assertArrayEquals(new int[] {0, 3, 1, 4, 2}, first.moves());
+        assertFalse(first.forfeited());
+        GameRecord second = (GameRecord) events.get(1);
+        assertEquals("Carol", second.winner());
+        assertTrue(second.forfeited());
+    }
+
+    /**
+     * Captures the single frame sent to a destination and decodes its JSON bytes.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> sentFrame(String destination) {
+        ArgumentCaptor<Message<byte[]>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, times(1)).send(eq(destination), captor.capture());
+        try {
+            return new ObjectMapper().readValue(captor.getValue().getPayload(), Map.class);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
     }
 }
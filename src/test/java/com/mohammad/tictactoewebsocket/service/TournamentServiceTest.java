@@ -0,0 +1,184 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.BotDifficulty;
+import com.mohammad.tictactoewebsocket.enumeration.TournamentFormat;
+import com.mohammad.tictactoewebsocket.model.BoardVariant;
+import com.mohammad.tictactoewebsocket.model.GameRecord;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.Tournament;
+import com.mohammad.tictactoewebsocket.model.dto.TournamentSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TournamentService} class.
+ * <p>
+ * Runs whole tournaments with the bot playing every game, through a real {@link TicTacToeManager} and
+ * {@link TicTacToeService} whose finished games are published straight to the tournament service.
+ * Verifies the number of rounds and games, that every player plays at most once per round, rematches of drawn
+ * knockout matches and the final standings.
+ * </p>
+ */
+public class TournamentServiceTest {
+
+    private final SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> true);
+    private final List<GameRecord> records = new ArrayList<>();
+
+    private TicTacToeManager manager;
+    private GameExecutor gameExecutor;
+    private ExecutorService director;
+    private TicTacToeService gameService;
+    private TournamentService tournamentService;
+
+    @BeforeEach
+    void setUp() {
+        manager = ServiceFixtures.manager().build();
+        gameExecutor = new GameExecutor();
+        director = null;
+        tournamentService = new TournamentService(manager, Runnable::run);
+        gameService = service(gameExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameExecutor.shutdown();
+        if (director != null) {
+            director.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that a single-elimination tournament of 1000 players with perfect bots, whose games are all drawn,
+     * ends after 10 rounds with the seeds in order, having replayed each drawn match twice.
+     */
+    @Test
+    void testSingleEliminationRunsToOneWinner() throws Exception {
+        Tournament tournament = create(TournamentFormat.SINGLE_ELIMINATION, players(1000), 0, BotDifficulty.HARD);
+
+        assertSame(tournament, tournament.getCompletion().get(10, TimeUnit.SECONDS));
+        assertEquals(10, tournament.getRound());
+        assertEquals(10, tournament.getTotalRounds());
+        // 999 matches, each drawn three times.
+        assertEquals(999 * (Tournament.MAX_REMATCHES + 1), records.size());
+        assertEquals(0, tournamentService.getPendingGameCount());
+        assertEquals(0, manager.getGameCount());
+
+        // The better seed wins every match: the semi-finals are 0 against 3 and 1 against 2.
+        List<String> standings = tournament.standings(4).stream().map(Tournament.Standing::player).toList();
+        assertEquals(List.of("player-0", "player-1"), standings.subList(0, 2));
+        assertEquals(Set.of("player-2", "player-3"), Set.copyOf(standings.subList(2, 4)));
+        assertEquals(10.0, tournament.standings(1).get(0).points());
+    }
+
+    /**
+     * Tests that a Swiss tournament of an odd number of players runs the requested rounds, that every player plays
+     * or has a bye each round with no repeated pairing, and that the standings are ordered by points.
+     */
+    @Test
+    void testSwissPlaysEveryRound() throws Exception {
+        List<Set<String>> seatedByRound = new ArrayList<>();
+        Set<String> pairings = new HashSet<>();
+        Tournament tournament = tournamentService.create("swiss", TournamentFormat.SWISS, players(1001),
+                BoardVariant.CLASSIC, 7, (t, games) -> {
+                    Set<String> seated = new HashSet<>();
+                    for (TicTacToe game : games) {
+                        assertTrue(seated.add(game.getPlayer1()));
+                        assertTrue(seated.add(game.getPlayer2()));
+                        assertTrue(pairings.add(pair(game.getPlayer1(), game.getPlayer2())));
+                    }
+                    seatedByRound.add(seated);
+                    for (TicTacToe game : games) {
+                        gameService.playOut(game.getGameId(), BotDifficulty.EASY, messagingTemplate);
+                    }
+                });
+
+        tournament.getCompletion().get(10, TimeUnit.SECONDS);
+        assertEquals(7, tournament.getRound());
+        assertEquals(7, seatedByRound.size());
+        assertTrue(seatedByRound.stream().allMatch(seated -> seated.size() == 1000));
+        assertEquals(7 * 500, records.size());
+
+        List<Tournament.Standing> standings = tournament.standings(1001);
+        assertEquals(1001, standings.size());
+        for (int i = 1; i < standings.size(); i++) {
+            assertTrue(standings.get(i - 1).points() >= standings.get(i).points());
+        }
+        // Every game hands out one point and every round one bye.
+        assertEquals(7 * 500 + 7, standings.stream().mapToDouble(Tournament.Standing::points).sum(), 1e-9);
+    }
+
+    /**
+     * Tests a tournament run by a tournament thread over a pool of game threads, and its summary.
+     */
+    @Test
+    void testTournamentOnSeparateThreads() throws Exception {
+        gameExecutor = new GameExecutor(4);
+        director = Executors.newSingleThreadExecutor();
+        tournamentService = new TournamentService(manager, director);
+        gameService = service(gameExecutor);
+
+        Tournament tournament = create(TournamentFormat.SINGLE_ELIMINATION, players(256), 0, BotDifficulty.EASY);
+
+        tournament.getCompletion().get(10, TimeUnit.SECONDS);
+        TournamentSummary summary = tournamentService.summary(tournament.getTournamentId(), 3).get(10, TimeUnit.SECONDS);
+        assertTrue(summary.finished());
+        assertEquals(8, summary.round());
+        assertEquals(3, summary.standings().size());
+        assertTrue(summary.pairings().isEmpty());
+        assertEquals(8.0, summary.standings().get(0).points());
+        assertNull(tournamentService.summary("unknown", 3).get());
+    }
+
+    /**
+     * Tests that invalid entrant lists are rejected.
+     */
+    @Test
+    void testInvalidEntrantsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> create(TournamentFormat.SWISS, List.of("alice"), 0, BotDifficulty.HARD));
+        assertThrows(IllegalArgumentException.class,
+                () -> create(TournamentFormat.SWISS, List.of("alice", "bob", "alice"), 0, BotDifficulty.HARD));
+        assertThrows(IllegalArgumentException.class,
+                () -> create(TournamentFormat.SWISS, List.of("alice", BotPlayer.NAME), 0, BotDifficulty.HARD));
+        assertThrows(IllegalArgumentException.class,
+                () -> create(TournamentFormat.SWISS, players(Tournament.MAX_ENTRANTS + 1), 0, BotDifficulty.HARD));
+    }
+
+    private Tournament create(TournamentFormat format, List<String> entrants, int rounds, BotDifficulty difficulty) {
+        return tournamentService.create("test", format, entrants, BoardVariant.CLASSIC, rounds, (t, games) -> {
+            for (TicTacToe game : games) {
+                gameService.playOut(game.getGameId(), difficulty, messagingTemplate);
+            }
+        });
+    }
+
+    private TicTacToeService service(GameExecutor executor) {
+        return ServiceFixtures.service(manager).gameExecutor(executor).events(event -> {
+            synchronized (records) {
+                records.add((GameRecord) event);
+            }
+            tournamentService.onGameFinished((GameRecord) event);
+        }).build();
+    }
+
+    private static List<String> players(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "player-" + i).toList();
+    }
+
+    private static String pair(String player1, String player2) {
+        return player1.compareTo(player2) < 0 ? player1 + "/" + player2 : player2 + "/" + player1;
+    }
+}
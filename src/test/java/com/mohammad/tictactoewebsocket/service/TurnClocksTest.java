@@ -0,0 +1,174 @@
+package com.mohammad.tictactoewebsocket.service;
+
+import com.mohammad.tictactoewebsocket.enumeration.GameState;
+import com.mohammad.tictactoewebsocket.model.TicTacToe;
+import com.mohammad.tictactoewebsocket.model.TimeControl;
+import com.mohammad.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.mohammad.tictactoewebsocket.utils.TicTacToeMessageUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TurnClocks} class, through the {@link TicTacToeManager} that starts and charges the
+ * clocks.
+ * <p>
+ * Verifies that a player who runs out of the move limit or of their total time forfeits, that a move replaces the
+ * deadline of the previous turn, that a deadline collected just before a move does not end the game, and that games
+ * without time controls are never scheduled.
+ * </p>
+ */
+public class TurnClocksTest {
+
+    private static final long START = 10_000;
+
+    private final AtomicLong clock = new AtomicLong(START);
+
+    /**
+     * Tests that the player to move forfeits once the move limit has passed, and not before.
+     */
+    @Test
+    void testMoveLimitForfeitsPlayerToMove() {
+        TicTacToeManager manager = manager(new TimeControl(1_000, 0));
+        TicTacToe game = startPairedGame(manager);
+
+        assertEquals(START + 1_000, game.getClockDeadline());
+        assertEquals(Long.valueOf(START + 1_000), new TicTacToeMessage(game).getClockDeadline());
+
+        clock.set(START + 999);
+        assertEquals(List.of(), manager.collectExpiredClocks());
+
+        clock.set(START + 1_000);
+        List<TicTacToe> expired = manager.collectExpiredClocks();
+        assertEquals(List.of(game), expired);
+        assertEquals("player1", manager.timeOut(game));
+        assertEquals("player2", game.getWinner());
+        assertEquals(GameState.PLAYER2_WON, game.getGameState());
+        assertNull(manager.timeOut(game));
+    }
+
+    /**
+     * Tests that a move cancels the deadline of the turn it ends and starts the opponent's.
+     */
+    @Test
+    void testMoveReplacesDeadline() {
+        TicTacToeManager manager = manager(new TimeControl(1_000, 0));
+        TicTacToe game = startPairedGame(manager);
+
+        clock.set(START + 600);
+        move(manager, game, "player1", 4);
+
+        clock.set(START + 1_000);
+        assertEquals(List.of(), manager.collectExpiredClocks());
+
+        clock.set(START + 1_600);
+        assertEquals(List.of(game), manager.collectExpiredClocks());
+        assertEquals("player2", manager.timeOut(game));
+        assertEquals("player1", game.getWinner());
+    }
+
+    /**
+     * Tests that each player is charged the time of their own turns, and loses once their total time is used up.
+     */
+    @Test
+    void testTotalClockRunsOut() {
+        TicTacToeManager manager = manager(new TimeControl(0, 1_000));
+        TicTacToe game = startPairedGame(manager);
+
+        clock.set(START + 600);
+        move(manager, game, "player1", 4);
+        clock.set(START + 700);
+        move(manager, game, "player2", 0);
+
+        assertEquals(400, game.getPlayer1ClockMillis());
+        assertEquals(900, game.getPlayer2ClockMillis());
+        assertEquals(START + 1_100, game.getClockDeadline());
+
+        TicTacToeMessage message = TicTacToeMessageUtil.fromGame(game);
+        assertEquals(Long.valueOf(400), message.getPlayer1ClockMillis());
+        assertEquals(Long.valueOf(900), message.getPlayer2ClockMillis());
+        assertEquals(Long.valueOf(0), message.getMoveLimitMillis());
+
+        clock.set(START + 1_100);
+        assertEquals(List.of(game), manager.collectExpiredClocks());
+        assertEquals("player1", manager.timeOut(game));
+    }
+
+    /**
+     * Tests that a game collected at its deadline keeps going if the player moved before the timeout ran,
+     * and gets its new deadline instead.
+     */
+    @Test
+    void testMoveBeforeTimeoutKeepsGameGoing() {
+        TicTacToeManager manager = manager(new TimeControl(1_000, 0));
+        TicTacToe game = startPairedGame(manager);
+
+        clock.set(START + 1_000);
+        assertEquals(List.of(game), manager.collectExpiredClocks());
+        move(manager, game, "player1", 4);
+
+        assertNull(manager.timeOut(game));
+        assertFalse(game.isGameOver());
+
+        clock.set(START + 2_000);
+        assertEquals(List.of(game), manager.collectExpiredClocks());
+        assertEquals("player2", manager.timeOut(game));
+    }
+
+    /**
+     * Tests that a game left before its deadline is taken off the clocks.
+     */
+    @Test
+    void testRemovedGameIsTakenOff() {
+        TurnClocks turnClocks = new TurnClocks(new TimeControl(1_000, 0), 100, START);
+        TicTacToeManager manager = ServiceFixtures.manager().clock(clock::get).turnClocks(turnClocks).build();
+        TicTacToe game = startPairedGame(manager);
+        assertEquals(1, turnClocks.size());
+
+        manager.leaveGame("player1");
+
+        assertEquals(0, turnClocks.size());
+        clock.set(START + 5_000);
+        assertEquals(List.of(), manager.collectExpiredClocks());
+        assertNull(manager.timeOut(game));
+    }
+
+    /**
+     * Tests that games without time controls have no clock, nothing scheduled and no clock in their messages.
+     */
+    @Test
+    void testGamesWithoutTimeControlsHaveNoClock() {
+        TicTacToeManager manager = manager(TimeControl.NONE);
+        TicTacToe game = startPairedGame(manager);
+
+        assertFalse(game.hasClock());
+        assertEquals(Long.MAX_VALUE, game.getClockDeadline());
+        clock.set(START + 10_000_000);
+        assertEquals(List.of(), manager.collectExpiredClocks());
+
+        TicTacToeMessage message = TicTacToeMessageUtil.fromGame(game);
+        assertNull(message.getClockDeadline());
+        assertNull(message.getPlayer1ClockMillis());
+        assertThrows(IllegalArgumentException.class, () -> new TimeControl(-1, 0));
+    }
+
+    private TicTacToeManager manager(TimeControl timeControl) {
+        return ServiceFixtures.manager().clock(clock::get).turnClocks(new TurnClocks(timeControl, 100, START))
+                .build();
+    }
+
+    private static TicTacToe startPairedGame(TicTacToeManager manager) {
+        manager.startGame("player1");
+        TicTacToe game = manager.startGame("player2");
+        assertEquals(GameState.PLAYER1_TURN, game.getGameState());
+        return game;
+    }
+
+    private static void move(TicTacToeManager manager, TicTacToe game, String player, int cell) {
+        game.makeMove(player, cell);
+        manager.moveMade(game, cell);
+    }
+}
@@ -0,0 +1,51 @@
+package com.mohammad.tictactoewebsocket.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link FenwickTree} class.
+ */
+public class FenwickTreeTest {
+
+    /**
+     * Tests that prefix sums match a plain array after random additions and removals.
+     */
+    @Test
+    void testPrefixSumsMatchArray() {
+        FenwickTree tree = new FenwickTree(100);
+        long[] counts = new long[100];
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(100);
+            long delta = random.nextInt(5) - 2;
+            tree.add(key, delta);
+            counts[key] += delta;
+        }
+
+        long sum = 0;
+        for (int key = 0; key < 100; key++) {
+            sum += counts[key];
+            assertEquals(sum, tree.prefixSum(key));
+        }
+    }
+
+    /**
+     * Tests the sums at the ends of the range.
+     */
+    @Test
+    void testSumsOutsideRange() {
+        FenwickTree tree = new FenwickTree(10);
+        tree.add(0, 3);
+        tree.add(9, 4);
+
+        assertEquals(0, tree.prefixSum(-1));
+        assertEquals(3, tree.prefixSum(0));
+        assertEquals(7, tree.prefixSum(9));
+        assertEquals(7, tree.prefixSum(1_000));
+        assertEquals(10, tree.size());
+    }
+}
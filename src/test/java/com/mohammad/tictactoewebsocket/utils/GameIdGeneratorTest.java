@@ -0,0 +1,126 @@
+package com.mohammad.tictactoewebsocket.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GameIdGenerator} class.
+ * <p>
+ * Verifies that IDs carry their time and node, keep increasing through bursts and a clock going back, stay unique
+ * when taken from several threads, and that the encoding reads back and sorts like the IDs.
+ * </p>
+ */
+public class GameIdGeneratorTest {
+
+    private static final long NOW = GameIdGenerator.EPOCH_MILLIS + 1_000_000;
+
+    /**
+     * Tests that an ID holds the time and node it was taken with.
+     */
+    @Test
+    void testIdHoldsTimeAndNode() {
+        long id = new GameIdGenerator(517, () -> NOW).nextId();
+
+        assertEquals(NOW, GameIdGenerator.timestampOf(id));
+        assertEquals(517, GameIdGenerator.nodeOf(id));
+        assertTrue(id > 0);
+    }
+
+    /**
+     * Tests that a burst beyond the sequence of one millisecond moves on to the next one instead of waiting,
+     * and that a clock going back does not make IDs go back.
+     */
+    @Test
+    void testIdsKeepIncreasingThroughBurstsAndClockSteps() {
+        long[] clock = {NOW};
+        GameIdGenerator generator = new GameIdGenerator(3, () -> clock[0]);
+
+        long previous = 0;
+        for (int i = 0; i < 5_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertEquals(NOW + 1, GameIdGenerator.timestampOf(previous));
+
+        clock[0] = NOW - 10_000;
+        assertTrue(generator.nextId() > previous);
+
+        clock[0] = NOW + 50;
+        assertEquals(NOW + 50, GameIdGenerator.timestampOf(generator.nextId()));
+    }
+
+    /**
+     * Tests that IDs taken from several threads at once are all different.
+     */
+    @Test
+    void testIdsAreUniqueAcrossThreads() throws Exception {
+        GameIdGenerator generator = new GameIdGenerator(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<long[]>> batches = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                batches.add(executor.submit(() -> {
+                    long[] ids = new long[50_000];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> seen = new HashSet<>();
+            for (Future<long[]> batch : batches) {
+                for (long id : batch.get()) {
+                    assertTrue(seen.add(id));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that two nodes taking IDs on the same millisecond never share one.
+     */
+    @Test
+    void testNodesNeverShareIds() {
+        GameIdGenerator first = new GameIdGenerator(0, () -> NOW);
+        GameIdGenerator second = new GameIdGenerator(1, () -> NOW);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(seen.add(first.nextId()));
+            assertTrue(seen.add(second.nextId()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new GameIdGenerator(GameIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    /**
+     * Tests that encoded IDs have a fixed length, read back to the same ID and sort like the IDs.
+     */
+    @Test
+    void testEncodingRoundTripsAndSorts() {
+        long[] ids = {0, 61, 62, 1L << 40, new GameIdGenerator(7).nextId(), Long.MAX_VALUE};
+        String previous = null;
+        for (long id : ids) {
+            String encoded = GameIdGenerator.encode(id);
+            assertEquals(GameIdGenerator.ENCODED_LENGTH, encoded.length());
+            assertEquals(id, GameIdGenerator.decode(encoded));
+            if (previous != null) {
+                assertTrue(previous.compareTo(encoded) < 0);
+            }
+            previous = encoded;
+        }
+        assertThrows(IllegalArgumentException.class, () -> GameIdGenerator.decode("zzzzzzzzzzz"));
+        assertThrows(IllegalArgumentException.class, () -> GameIdGenerator.decode("0000000000-"));
+        assertThrows(IllegalArgumentException.class, () -> GameIdGenerator.decode("abc"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.mohammad.tictactoewebsocket.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TimingWheel} class.
+ * <p>
+ * Verifies that keys come out once their deadline tick has passed and not before, including deadlines
+ * more than one turn of the wheel away and deadlines already in the past, and that cancelled keys never come out.
+ * </p>
+ */
+public class TimingWheelTest {
+
+    /**
+     * Tests that a key comes out on the first advance past its deadline, and only once.
+     */
+    @Test
+    void testKeyExpiresAtDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("game", 45);
+
+        assertEquals(List.of(), advance(wheel, 39));
+        assertEquals(List.of("game"), advance(wheel, 50));
+        assertEquals(List.of(), advance(wheel, 200));
+    }
+
+    /**
+     * Tests that a deadline several turns of the wheel away is not fired when its slot comes round early.
+     */
+    @Test
+    void testDeadlineBeyondOneTurnWaitsForItsTurn() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.schedule("late", 250);
+        wheel.schedule("early", 20);
+
+        assertEquals(List.of("early"), advance(wheel, 100));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), advance(wheel, 240));
+        assertEquals(List.of("late"), advance(wheel, 250));
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Tests that a deadline already in the past comes out on the next tick.
+     */
+    @Test
+    void testPastDeadlineFiresOnNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 1_000);
+        wheel.schedule("stale", 0);
+
+        assertEquals(List.of("stale"), advance(wheel, 1_010));
+    }
+
+    /**
+     * Tests that keys scheduled again while expiring are kept for a later advance.
+     */
+    @Test
+    void testRescheduleFromConsumer() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("game", 10);
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(10, key -> {
+            fired.add(key);
+            wheel.schedule(key, 30);
+        });
+
+        assertEquals(List.of("game"), fired);
+        assertEquals(List.of(), advance(wheel, 20));
+        assertEquals(List.of("game"), advance(wheel, 30));
+    }
+
+    /**
+     * Tests that a cancelled key never comes out, whether it was cancelled before or after reaching its slot.
+     */
+    @Test
+    void testCancelledKeyNeverExpires() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        TimingWheel.Timeout<String> inInbox = wheel.schedule("inbox", 20);
+        TimingWheel.Timeout<String> inSlot = wheel.schedule("slot", 40);
+        wheel.schedule("kept", 40);
+        inInbox.cancel();
+
+        assertEquals(List.of(), advance(wheel, 10));
+        inSlot.cancel();
+
+        assertTrue(inSlot.isCancelled());
+        assertEquals("slot", inSlot.key());
+        assertEquals(List.of("kept"), advance(wheel, 50));
+        assertEquals(0, wheel.size());
+    }
+
+    private static List<String> advance(TimingWheel<String> wheel, long now) {
+        List<String> fired = new ArrayList<>();
+        wheel.advance(now, fired::add);
+        return fired;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mohammad.tictactoewebsocket.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link TokenBucketLimiter} class.
+ * <p>
+ * Time is passed in explicitly, so the tests check bursts, refills and the key limit without sleeping.
+ * </p>
+ */
+public class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Tests that a full bucket allows a burst, then one token per interval.
+     */
+    @Test
+    void testBurstThenSteadyRate() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new double[] {2}, new int[] {3}, 10);
+        long now = System.nanoTime();
+
+        assertTrue(limiter.tryAcquire("a", 0, now));
+        assertTrue(limiter.tryAcquire("a", 0, now));
+        assertTrue(limiter.tryAcquire("a", 0, now));
+        assertFalse(limiter.tryAcquire("a", 0, now));
+
+        assertTrue(limiter.tryAcquire("a", 0, now + SECOND / 2));
+        assertFalse(limiter.tryAcquire("a", 0, now + SECOND / 2));
+        assertTrue(limiter.tryAcquire("a", 0, now + 10 * SECOND));
+    }
+
+    /**
+     * Tests that keys and slots have independent buckets, and that an unlimited slot never refuses.
+     */
+    @Test
+    void testKeysAndSlotsAreIndependent() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new double[] {1, 0}, new int[] {1, 1}, 10);
+        long now = System.nanoTime();
+
+        assertTrue(limiter.tryAcquire("a", 0, now));
+        assertFalse(limiter.tryAcquire("a", 0, now));
+        assertTrue(limiter.tryAcquire("b", 0, now));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire("a", 1, now));
+        }
+    }
+
+    /**
+     * Tests that the number of keys stays bounded: keys with full buckets make room, busy keys do not.
+     */
+    @Test
+    void testKeysAreBounded() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new double[] {1}, new int[] {1}, 2);
+        long now = System.nanoTime();
+
+        assertTrue(limiter.tryAcquire("a", 0, now));
+        assertTrue(limiter.tryAcquire("b", 0, now));
+        assertFalse(limiter.tryAcquire("c", 0, now));
+        assertEquals(2, limiter.size());
+
+        assertTrue(limiter.tryAcquire("c", 0, now + 2 * SECOND));
+        assertTrue(limiter.size() <= 2);
+
+        limiter.remove("c");
+        assertEquals(0, limiter.size());
+    }
+
+    /**
+     * Tests that concurrent callers never get more tokens than the burst.
+     */
+    @Test
+    void testConcurrentCallersShareOneBucket() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(new double[] {0.001}, new int[] {100}, 10);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(8);
+        long now = System.nanoTime();
+        for (int t = 0; t < 8; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("a", 0, now)) {
+                        granted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(100, granted.get());
+    }
+}